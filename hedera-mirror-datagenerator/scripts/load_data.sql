@@ -1,45 +1,46 @@
--- Loads data from CSV files to PostgreSQL
+-- Loads data from CSV files to PostgreSQL. Each table is loaded from all of its shard files (<table>, <table>_1, ...),
+-- skipping the header line of every file.
 
 SELECT cleanup();
 SELECT drop_constraints_and_indexes();
 
 \echo ------------------------------
-\echo COPY data to t_record_files from %%TMP_DIR%%/t_record_files
+\echo COPY data to t_record_files from %%TMP_DIR%%/t_record_files*
 \echo ------------------------------
-\copy t_record_files FROM '%%TMP_DIR%%/t_record_files' WITH CSV HEADER;
+\copy t_record_files FROM PROGRAM 'tail -q -n +2 %%TMP_DIR%%/t_record_files*' WITH CSV;
 
 
 \echo ------------------------------
-\echo COPY data to t_entities from %%TMP_DIR%%/t_entities
+\echo COPY data to t_entities from %%TMP_DIR%%/t_entities*
 \echo ------------------------------
-\copy t_entities FROM '%%TMP_DIR%%/t_entities' WITH CSV HEADER;
+\copy t_entities FROM PROGRAM 'tail -q -n +2 %%TMP_DIR%%/t_entities*' WITH CSV;
 
 
 \echo ------------------------------
-\echo COPY data to t_transactions from %%TMP_DIR%%/t_transactions
+\echo COPY data to t_transactions from %%TMP_DIR%%/t_transactions*
 \echo ------------------------------
-\copy t_transactions FROM '%%TMP_DIR%%/t_transactions' WITH CSV HEADER;
+\copy t_transactions FROM PROGRAM 'tail -q -n +2 %%TMP_DIR%%/t_transactions*' WITH CSV;
 
 
 \echo ------------------------------
-\echo COPY data to t_cryptotransferlists from %%TMP_DIR%%/t_cryptotransferlists
+\echo COPY data to t_cryptotransferlists from %%TMP_DIR%%/t_cryptotransferlists*
 \echo ------------------------------
-\copy t_cryptotransferlists FROM '%%TMP_DIR%%/t_cryptotransferlists' WITH CSV HEADER;
+\copy t_cryptotransferlists FROM PROGRAM 'tail -q -n +2 %%TMP_DIR%%/t_cryptotransferlists*' WITH CSV;
 
 
 \echo ------------------------------
-\echo COPY data to t_file_data from %%TMP_DIR%%/t_file_data
+\echo COPY data to t_file_data from %%TMP_DIR%%/t_file_data*
 \echo ------------------------------
-\copy t_file_data FROM '%%TMP_DIR%%/t_file_data' WITH CSV HEADER;
+\copy t_file_data FROM PROGRAM 'tail -q -n +2 %%TMP_DIR%%/t_file_data*' WITH CSV;
 
 \echo ------------------------------
-\echo COPY data to topic_message from %%TMP_DIR%%/topic_message
+\echo COPY data to topic_message from %%TMP_DIR%%/topic_message*
 \echo ------------------------------
-\copy topic_message FROM '%%TMP_DIR%%/topic_message' WITH CSV HEADER;
+\copy topic_message FROM PROGRAM 'tail -q -n +2 %%TMP_DIR%%/topic_message*' WITH CSV;
 
 \echo ------------------------------
-\echo COPY data to account_balances from %%TMP_DIR%%/account_balances
+\echo COPY data to account_balances from %%TMP_DIR%%/account_balances*
 \echo ------------------------------
-\copy account_balances FROM '%%TMP_DIR%%/account_balances' WITH CSV HEADER;
+\copy account_balances FROM PROGRAM 'tail -q -n +2 %%TMP_DIR%%/account_balances*' WITH CSV;
 
 SELECT create_constraints_and_indexes();
@@ -23,8 +23,10 @@ import java.time.Duration;
 import java.time.Instant;
 import javax.annotation.PostConstruct;
 import javax.inject.Named;
+import javax.validation.constraints.Min;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
 
 import com.hedera.datagenerator.sampling.NumberDistributionConfig;
 
@@ -33,6 +35,7 @@ import com.hedera.datagenerator.sampling.NumberDistributionConfig;
  */
 @Data
 @Named
+@Validated
 @ConfigurationProperties("hedera.mirror.datagenerator")
 public class DataGeneratorProperties {
     /**
@@ -49,6 +52,19 @@ public class DataGeneratorProperties {
 
     private Duration balancesFileDuration = Duration.ofMinutes(15);
 
+    /**
+     * Number of threads generating data in parallel. Each worker generates an interleaved share of every simulated
+     * second and writes to its own output shard.
+     */
+    @Min(1)
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Seed for the random source of the first worker. Worker N uses seed + N so output is reproducible for a given
+     * seed and number of workers.
+     */
+    private long seed = 0L;
+
     @PostConstruct
     void initDistributions() {
         transactionsPerSecond.initDistribution();
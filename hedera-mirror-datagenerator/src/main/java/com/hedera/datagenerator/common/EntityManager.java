@@ -19,24 +19,26 @@ package com.hedera.datagenerator.common;
  * ‍
  */
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import javax.inject.Named;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 
-import com.hedera.datagenerator.sampling.Distribution;
 import com.hedera.datagenerator.sampling.RandomDistributionFromRange;
+import com.hedera.datagenerator.sampling.RandomSource;
 import com.hedera.mirror.importer.domain.Entities;
 
+/**
+ * Keeps track of the entities and account balances of a single worker. Each worker owns a disjoint range of entity
+ * ids for every entity type so that the CSV shards of different workers can be loaded side by side.
+ */
 @Log4j2
-@Named
 @Getter
 public class EntityManager {
 
+    private static final long ENTITY_TYPE_ID_RANGE = 100_000_000L;
+
     private final long nodeAccountId;
 
     private final EntitySet accounts;
@@ -45,30 +47,38 @@ public class EntityManager {
 
     private final EntitySet topics;
 
-    // Keeps track of entities' balances.
-    private final Map<Long, Long> balances;
+    // Keeps track of accounts' balances, indexed by offset of account id from the start of the accounts range.
+    private long[] balances;
 
     private final long portalEntity;  // Used to create crypto accounts
 
-    public EntityManager() {
-        accounts = new EntitySet(0L);  // Account entities start from 0
-        files = new EntitySet(100_000_000L);
-        topics = new EntitySet(200_000_000L);
-        balances = new HashMap<>();
+    public EntityManager(int worker, int workers) {
+        long workerOffset = worker * (ENTITY_TYPE_ID_RANGE / workers);
+        accounts = new EntitySet(workerOffset);  // Account entities start from 0
+        files = new EntitySet(ENTITY_TYPE_ID_RANGE + workerOffset);
+        topics = new EntitySet(2 * ENTITY_TYPE_ID_RANGE + workerOffset);
+        balances = new long[1024];
 
-        // Create one node account with id = 0.
+        // Create one node account with the first id.
         nodeAccountId = accounts.newEntity().getId();
-        balances.put(nodeAccountId, 0L);  // balance of nodeAccountId
 
-        // Create portal account with id = 1 which can fund other accounts on creation.
+        // Create portal account with the second id which can fund other accounts on creation.
         portalEntity = accounts.newEntity().getId();
         // Source of all hbars for couple 100 million transactions.
-        balances.put(portalEntity, 1000_000_000_000_000_000L);  // balance of nodeAccountId
+        addBalance(portalEntity, 1000_000_000_000_000_000L);
     }
 
     public void addBalance(long accountId, long value) {
-        long oldBalance = balances.getOrDefault(accountId, 0L);
-        balances.put(accountId, oldBalance + value);
+        int index = (int) (accountId - accounts.startEntityId);
+        if (index >= balances.length) {
+            balances = Arrays.copyOf(balances, Math.max(index + 1, balances.length * 2));
+        }
+        balances[index] += value;
+    }
+
+    public long getBalance(long accountId) {
+        int index = (int) (accountId - accounts.startEntityId);
+        return index < balances.length ? balances[index] : 0L;
     }
 
     /**
@@ -79,30 +89,27 @@ public class EntityManager {
     @Getter
     public static class EntitySet {
         private final long startEntityId;
-        private final Set<Long> deleted = new HashSet<>();
+        private final BitSet deleted = new BitSet();
         private long nextEntityId;
-        private Distribution<Long> entitySampler;
 
         EntitySet(Long startEntityId) {
             this.startEntityId = startEntityId;
             nextEntityId = startEntityId;
-            entitySampler = new RandomDistributionFromRange(startEntityId, nextEntityId);
         }
 
         public Entities getRandom() {
             Entities entity = new Entities();
-            entity.setId(entitySampler.sample(1).get(0));
+            entity.setId(startEntityId + RandomSource.get().nextInt((int) (nextEntityId - startEntityId)));
             return entity;
         }
 
         public List<Long> getRandomIds(int n) {
-            return entitySampler.sampleDistinct(n);
+            return new RandomDistributionFromRange(startEntityId, nextEntityId).sampleDistinct(n);
         }
 
         public Entities newEntity() {
             long newEntityId = nextEntityId;
             nextEntityId++;
-            entitySampler = new RandomDistributionFromRange(startEntityId, nextEntityId);
             log.trace("New entity {}", newEntityId);
             Entities entities = new Entities();
             entities.setId(newEntityId);
@@ -110,7 +117,11 @@ public class EntityManager {
         }
 
         public void delete(Entities entity) {
-            deleted.add(entity.getId());
+            deleted.set((int) (entity.getId() - startEntityId));
+        }
+
+        public boolean isDeleted(long entityId) {
+            return deleted.get((int) (entityId - startEntityId));
         }
     }
 }
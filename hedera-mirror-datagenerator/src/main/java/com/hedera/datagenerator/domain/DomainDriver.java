@@ -20,9 +20,14 @@ package com.hedera.datagenerator.domain;
  */
 
 import com.google.common.base.Stopwatch;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Named;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.boot.ApplicationArguments;
@@ -30,77 +35,116 @@ import org.springframework.boot.ApplicationRunner;
 
 import com.hedera.datagenerator.DataGeneratorProperties;
 import com.hedera.datagenerator.common.EntityManager;
+import com.hedera.datagenerator.common.TransactionGeneratorProperties;
 import com.hedera.datagenerator.domain.generators.entity.EntityGenerator;
 import com.hedera.datagenerator.domain.generators.transaction.DomainTransactionGenerator;
 import com.hedera.datagenerator.domain.writer.DomainWriter;
+import com.hedera.datagenerator.domain.writer.DomainWriterFactory;
 import com.hedera.datagenerator.sampling.Distribution;
 import com.hedera.datagenerator.sampling.RandomDistributionFromRange;
+import com.hedera.datagenerator.sampling.RandomSource;
 import com.hedera.mirror.importer.util.Utility;
 
 @Named
 @Log4j2
 public class DomainDriver implements ApplicationRunner {
-    private final DataGeneratorProperties properties;
-    private final DomainTransactionGenerator domainTransactionGenerator;
-    private final EntityManager entityManager;
-    private final DomainWriter domainWriter;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
 
-    /**
-     * Generates nanos part of the timestamp
-     */
-    private final Distribution<Long> consensusNanoAdjustmentsDistribution;
+    private final DataGeneratorProperties properties;
+    private final TransactionGeneratorProperties transactionGeneratorProperties;
+    private final DomainWriterFactory domainWriterFactory;
+    private final AtomicLong numTransactionsGenerated = new AtomicLong(0L);
 
-    public DomainDriver(DataGeneratorProperties properties, DomainTransactionGenerator domainTransactionGenerator,
-                        EntityManager entityManager, DomainWriter domainWriter) {
+    public DomainDriver(DataGeneratorProperties properties,
+                        TransactionGeneratorProperties transactionGeneratorProperties,
+                        DomainWriterFactory domainWriterFactory) {
         this.properties = properties;
-        this.domainTransactionGenerator = domainTransactionGenerator;
-        this.entityManager = entityManager;
-        this.domainWriter = domainWriter;
-        consensusNanoAdjustmentsDistribution = new RandomDistributionFromRange(0, 1000000000);
+        this.transactionGeneratorProperties = transactionGeneratorProperties;
+        this.domainWriterFactory = domainWriterFactory;
     }
 
     /**
-     * Top level runner for generating test data. Iterates from start time (from configuration) to end time and
-     * generates transactions for intermediate seconds based on transactions-per-second configuration.
+     * Top level runner for generating test data. Starts the configured number of workers, each generating its share of
+     * the transactions for every second from start time (from configuration) to end time.
      */
     @Override
-    public void run(ApplicationArguments args) {
-        long currentSimulationTime = properties.getStartTimeSec();
+    public void run(ApplicationArguments args) throws Exception {
+        long startTime = properties.getStartTimeSec();
         long totalDurationSec = properties.getTotalDuration().toSeconds();
-        long endTime = currentSimulationTime + totalDurationSec;
-        log.info("Simulation time from {} to {} (time period: {}sec)", currentSimulationTime, endTime, totalDurationSec);
-        int numTransactionsGenerated = 0;
+        int workers = Math.min(properties.getWorkers(), domainWriterFactory.maxShards());
+        log.info("Simulation time from {} to {} (time period: {}sec) using {} workers", startTime,
+                startTime + totalDurationSec, totalDurationSec, workers);
         Stopwatch stopwatch = Stopwatch.createStarted();
-        // Iterate from start time to end time.
-        while (currentSimulationTime < endTime) {
-            int numTransactions = properties.getTransactionsPerSecond().sample().intValue();
-            log.debug("Generating {} transactions for time {}", numTransactions, currentSimulationTime);
-            List<Long> consensusNanoAdjustments = consensusNanoAdjustmentsDistribution.sampleDistinct(numTransactions);
-            Collections.sort(consensusNanoAdjustments);
-            // Generate transactions, one for each sampled nano adjustment (within the "current" simulated second)
-            for (long nanoAdjustment : consensusNanoAdjustments) {
-                long consensusTimestampNs = Utility.convertToNanos(currentSimulationTime, nanoAdjustment);
-                domainTransactionGenerator.generateTransaction(consensusTimestampNs);
-                numTransactionsGenerated++;
-                if (numTransactionsGenerated % 10000 == 0) {
-                    log.info("Generated {} transactions in {}", numTransactionsGenerated, stopwatch);
-                }
+        ExecutorService executorService = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int worker = 0; worker < workers; worker++) {
+                int shard = worker;
+                futures.add(executorService.submit(() -> {
+                    generate(shard, workers);
+                    return null;
+                }));
             }
-            if (currentSimulationTime % properties.getBalancesFileDuration().getSeconds() == 0) {
-                long lastConsensusNanoAdjustment = consensusNanoAdjustments.get(consensusNanoAdjustments.size() - 1);
-                writeBalances(Utility.convertToNanos(currentSimulationTime, lastConsensusNanoAdjustment));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        log.info("Generated {} transactions in {}", numTransactionsGenerated.get(), stopwatch);
+    }
+
+    /**
+     * Iterates from start time to end time and generates this worker's share of transactions for intermediate seconds
+     * based on transactions-per-second configuration. Every worker samples nanos from its own residue class modulo the
+     * number of workers, so consensus timestamps never collide across workers while each shard stays sorted by time.
+     */
+    private void generate(int worker, int workers) throws IOException {
+        RandomSource.seed(properties.getSeed() + worker);
+        EntityManager entityManager = new EntityManager(worker, workers);
+        // Generates nanos part of the timestamp
+        Distribution<Long> consensusNanoAdjustmentsDistribution =
+                new RandomDistributionFromRange(0, NANOS_PER_SECOND / workers);
+        long currentSimulationTime = properties.getStartTimeSec();
+        long endTime = currentSimulationTime + properties.getTotalDuration().toSeconds();
+
+        try (DomainWriter domainWriter = domainWriterFactory.create(worker)) {
+            DomainTransactionGenerator domainTransactionGenerator =
+                    new DomainTransactionGenerator(transactionGeneratorProperties, entityManager, domainWriter);
+            while (currentSimulationTime < endTime) {
+                int totalTransactions = properties.getTransactionsPerSecond().sample().intValue();
+                int numTransactions = totalTransactions / workers + (worker < totalTransactions % workers ? 1 : 0);
+                log.debug("Generating {} transactions for time {}", numTransactions, currentSimulationTime);
+                List<Long> consensusNanoAdjustments =
+                        consensusNanoAdjustmentsDistribution.sampleDistinct(numTransactions);
+                Collections.sort(consensusNanoAdjustments);
+                // Generate transactions, one for each sampled nano adjustment (within the "current" simulated second)
+                for (long nanoAdjustment : consensusNanoAdjustments) {
+                    long consensusTimestampNs = Utility.convertToNanos(currentSimulationTime,
+                            nanoAdjustment * workers + worker);
+                    domainTransactionGenerator.generateTransaction(consensusTimestampNs);
+                    long generated = numTransactionsGenerated.incrementAndGet();
+                    if (generated % 100_000 == 0) {
+                        log.info("Generated {} transactions", generated);
+                    }
+                }
+                if (currentSimulationTime % properties.getBalancesFileDuration().getSeconds() == 0) {
+                    // All workers use the same timestamp so the shards together form one complete balance snapshot
+                    writeBalances(entityManager, domainWriter, Utility.convertToNanos(currentSimulationTime,
+                            NANOS_PER_SECOND - 1));
+                }
+                currentSimulationTime++;
             }
-            currentSimulationTime++;
+            new EntityGenerator().generateAndWriteEntities(entityManager, domainWriter);
         }
-        log.info("Generated {} transactions in {}", numTransactionsGenerated, stopwatch);
-        new EntityGenerator().generateAndWriteEntities(entityManager, domainWriter);
-        log.info("Total time taken: {}", stopwatch);
+        log.info("Worker {} finished", worker);
     }
 
     // Writes account balances stream
-    private void writeBalances(long consensusNs) {
-        for (Map.Entry<Long, Long> entry : entityManager.getBalances().entrySet()) {
-            domainWriter.addAccountBalances(consensusNs, entry.getValue(), entry.getKey());
+    private void writeBalances(EntityManager entityManager, DomainWriter domainWriter, long consensusNs) {
+        EntityManager.EntitySet accounts = entityManager.getAccounts();
+        for (long accountId = accounts.getStartEntityId(); accountId < accounts.getNextEntityId(); accountId++) {
+            domainWriter.addAccountBalances(consensusNs, entityManager.getBalance(accountId), accountId);
         }
         log.debug("Wrote balances data at {}", consensusNs);
     }
@@ -57,7 +57,7 @@ public class EntityGenerator {
         int deleted = 0;
         for (Long entityId = entitySet.getStartEntityId(); entityId < entitySet.getNextEntityId(); entityId++) {
             Entities entity = generateFn.apply(entityId);
-            if (entitySet.getDeleted().contains(entityId)) {
+            if (entitySet.isDeleted(entityId)) {
                 entity.setDeleted(true);
                 deleted++;
             }
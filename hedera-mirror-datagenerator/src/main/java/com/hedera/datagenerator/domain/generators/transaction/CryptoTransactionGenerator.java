@@ -19,10 +19,9 @@ package com.hedera.datagenerator.domain.generators.transaction;
  * ‍
  */
 
+import com.google.common.collect.ImmutableMap;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Consumer;
-import javax.inject.Named;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 
@@ -39,7 +38,6 @@ import com.hedera.mirror.importer.domain.Transaction;
 /**
  * Generates crypto transactions (CRYPTOCREATEACCOUNT, CRYPTOUPDATEACCOUNT, CRYPTOTRANSFER, CRYPTODELETE).
  */
-@Named
 @Log4j2
 public class CryptoTransactionGenerator extends TransactionGenerator {
 
@@ -51,7 +49,7 @@ public class CryptoTransactionGenerator extends TransactionGenerator {
             CryptoTransactionProperties properties, EntityManager entityManager, DomainWriter domainWriter) {
         super(entityManager, domainWriter, properties.getNumSeedAccounts());
         this.properties = properties;
-        transactionDistribution = new FrequencyDistribution<>(Map.of(
+        transactionDistribution = new FrequencyDistribution<>(ImmutableMap.of(
                 this::createAccount, this.properties.getCreatesFrequency(),
                 this::transfer, this.properties.getTransfersFrequency(),
                 this::updateAccount, this.properties.getUpdatesFrequency(),
@@ -19,29 +19,31 @@ package com.hedera.datagenerator.domain.generators.transaction;
  * ‍
  */
 
-import java.util.Map;
-import javax.inject.Named;
+import com.google.common.collect.ImmutableMap;
 
+import com.hedera.datagenerator.common.EntityManager;
 import com.hedera.datagenerator.common.TransactionGenerator;
 import com.hedera.datagenerator.common.TransactionGeneratorProperties;
+import com.hedera.datagenerator.domain.writer.DomainWriter;
 import com.hedera.datagenerator.sampling.FrequencyDistribution;
 
 /**
  * Generates mixed types of transactions. Uses CryptoTransactionGenerator, FileTransactionGenerator and
- * TopicTransactionGenerator.
+ * TopicTransactionGenerator. One instance is created per worker, sharing that worker's EntityManager and DomainWriter.
  */
-@Named
 public class DomainTransactionGenerator {
 
     private final FrequencyDistribution<TransactionGenerator> mixedTransactionGenerator;
 
     public DomainTransactionGenerator(
-            TransactionGeneratorProperties properties, CryptoTransactionGenerator cryptoTransactionGenerator,
-            FileTransactionGenerator fileTransactionGenerator, TopicTransactionGenerator topicTransactionGenerator) {
-        mixedTransactionGenerator = new FrequencyDistribution<>(Map.of(
-                cryptoTransactionGenerator, properties.getCrypto().getFrequency(),
-                fileTransactionGenerator, properties.getFile().getFrequency(),
-                topicTransactionGenerator, properties.getTopic().getFrequency()
+            TransactionGeneratorProperties properties, EntityManager entityManager, DomainWriter domainWriter) {
+        mixedTransactionGenerator = new FrequencyDistribution<>(ImmutableMap.of(
+                new CryptoTransactionGenerator(properties.getCrypto(), entityManager, domainWriter),
+                properties.getCrypto().getFrequency(),
+                new FileTransactionGenerator(properties.getFile(), entityManager, domainWriter),
+                properties.getFile().getFrequency(),
+                new TopicTransactionGenerator(properties.getTopic(), entityManager, domainWriter),
+                properties.getTopic().getFrequency()
         ));
     }
 
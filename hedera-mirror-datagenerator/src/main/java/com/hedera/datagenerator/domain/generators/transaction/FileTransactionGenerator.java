@@ -19,10 +19,8 @@ package com.hedera.datagenerator.domain.generators.transaction;
  * ‍
  */
 
-import java.util.Map;
-import java.util.Random;
+import com.google.common.collect.ImmutableMap;
 import java.util.function.Consumer;
-import javax.inject.Named;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 
@@ -32,6 +30,7 @@ import com.hedera.datagenerator.common.TransactionGenerator;
 import com.hedera.datagenerator.domain.writer.DomainWriter;
 import com.hedera.datagenerator.sampling.Distribution;
 import com.hedera.datagenerator.sampling.FrequencyDistribution;
+import com.hedera.datagenerator.sampling.RandomSource;
 import com.hedera.mirror.importer.domain.Entities;
 import com.hedera.mirror.importer.domain.FileData;
 import com.hedera.mirror.importer.domain.Transaction;
@@ -40,7 +39,6 @@ import com.hedera.mirror.importer.domain.Transaction;
  * Generates file transactions (FILECREATE, FILEAPPEND, FILEUPDATE, FILEDELETE).
  */
 @Log4j2
-@Named
 public class FileTransactionGenerator extends TransactionGenerator {
 
     private final FileTransactionProperties properties;
@@ -51,7 +49,7 @@ public class FileTransactionGenerator extends TransactionGenerator {
             FileTransactionProperties properties, EntityManager entityManager, DomainWriter domainWriter) {
         super(entityManager, domainWriter, properties.getNumSeedFiles());
         this.properties = properties;
-        transactionDistribution = new FrequencyDistribution<>(Map.of(
+        transactionDistribution = new FrequencyDistribution<>(ImmutableMap.of(
                 this::createFile, this.properties.getCreatesFrequency(),
                 this::appendFile, this.properties.getAppendsFrequency(),
                 this::updateFile, this.properties.getUpdatesFrequency(),
@@ -101,7 +99,7 @@ public class FileTransactionGenerator extends TransactionGenerator {
         fileData.setConsensusTimestamp(consensusNs);
         long fileDataSize = properties.getFileDataSize().sample();
         byte[] fileDataBytes = new byte[(int) fileDataSize];
-        new Random().nextBytes(fileDataBytes);
+        RandomSource.get().nextBytes(fileDataBytes);
         fileData.setFileData(fileDataBytes);
         domainWriter.addFileData(fileData);
     }
@@ -19,12 +19,11 @@ package com.hedera.datagenerator.domain.generators.transaction;
  * ‍
  */
 
+import com.google.common.collect.ImmutableMap;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 import java.util.function.Consumer;
-import javax.inject.Named;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 
@@ -34,6 +33,7 @@ import com.hedera.datagenerator.common.TransactionGenerator;
 import com.hedera.datagenerator.domain.writer.DomainWriter;
 import com.hedera.datagenerator.sampling.Distribution;
 import com.hedera.datagenerator.sampling.FrequencyDistribution;
+import com.hedera.datagenerator.sampling.RandomSource;
 import com.hedera.mirror.importer.domain.Entities;
 import com.hedera.mirror.importer.domain.TopicMessage;
 import com.hedera.mirror.importer.domain.Transaction;
@@ -43,7 +43,6 @@ import com.hedera.mirror.importer.domain.Transaction;
  * CONSENSUSSUBMITMESSAGE)
  */
 @Log4j2
-@Named
 public class TopicTransactionGenerator extends TransactionGenerator {
 
     private final TopicTransactionProperties properties;
@@ -56,7 +55,7 @@ public class TopicTransactionGenerator extends TransactionGenerator {
             TopicTransactionProperties properties, EntityManager entityManager, DomainWriter domainWriter) {
         super(entityManager, domainWriter, properties.getNumSeedTopics());
         this.properties = properties;
-        transactionDistribution = new FrequencyDistribution<>(Map.of(
+        transactionDistribution = new FrequencyDistribution<>(ImmutableMap.of(
                 this::createTopic, this.properties.getCreatesFrequency(),
                 this::deleteTopic, this.properties.getDeletesFrequency(),
                 this::updateTopic, this.properties.getUpdatesFrequency(),
@@ -116,7 +115,7 @@ public class TopicTransactionGenerator extends TransactionGenerator {
         topicToNextSequenceNumber.put(topicId, sequenceNumber + 1);
         long messageSize = properties.getMessageSize().sample();
         byte[] messageBytes = new byte[(int) messageSize];
-        new Random().nextBytes(messageBytes);
+        RandomSource.get().nextBytes(messageBytes);
         topicMessage.setMessage(messageBytes);
         domainWriter.addTopicMessage(topicMessage);
     }
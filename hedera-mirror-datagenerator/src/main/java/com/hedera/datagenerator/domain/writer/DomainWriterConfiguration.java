@@ -0,0 +1,59 @@
+package com.hedera.datagenerator.domain.writer;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DomainWriterConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "hedera.mirror.datagenerator.output.stream", name = "enabled",
+            havingValue = "false", matchIfMissing = true)
+    DomainWriterFactory postgresCSVDomainWriterFactory(PostgresCSVDomainWriter.Properties properties) {
+        return shard -> new PostgresCSVDomainWriter(properties, shard);
+    }
+
+    // Record files form a single hash chain, so all transactions go through one writer.
+    @Bean
+    @ConditionalOnProperty(prefix = "hedera.mirror.datagenerator.output.stream", name = "enabled",
+            havingValue = "true")
+    DomainWriterFactory streamFileDomainWriterFactory(StreamFileDomainWriter.Properties properties) {
+        return new DomainWriterFactory() {
+            @Override
+            public DomainWriter create(int shard) throws IOException {
+                try {
+                    return new StreamFileDomainWriter(properties);
+                } catch (GeneralSecurityException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            @Override
+            public int maxShards() {
+                return 1;
+            }
+        };
+    }
+}
@@ -1,10 +1,9 @@
-package com.hedera.mirror.importer.repository;
-
+package com.hedera.datagenerator.domain.writer;
 /*-
  * ‌
  * Hedera Mirror Node
  * ​
- * Copyright (C) 2020 Hedera Hashgraph, LLC
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
  * ​
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,12 +19,19 @@ package com.hedera.mirror.importer.repository;
  * ‍
  */
 
-import com.hedera.mirror.importer.domain.Entities;
-import com.hedera.mirror.importer.domain.EntityId;
+import java.io.IOException;
 
-import java.util.Collection;
+/**
+ * Creates the DomainWriter used by a single data generation worker.
+ */
+@FunctionalInterface
+public interface DomainWriterFactory {
+    DomainWriter create(int shard) throws IOException;
 
-public interface EntityRepositoryCustom {
-    Collection<EntityId> findAllEntityIds(int limit);
-    <S extends Entities> EntityId saveAndCacheEntityId(S entity);
+    /**
+     * @return maximum number of workers that can write concurrently to their own shard
+     */
+    default int maxShards() {
+        return Integer.MAX_VALUE;
+    }
 }
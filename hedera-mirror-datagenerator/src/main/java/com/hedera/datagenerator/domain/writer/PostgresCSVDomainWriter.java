@@ -19,17 +19,24 @@ package com.hedera.datagenerator.domain.writer;
  * ‍
  */
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import javax.inject.Named;
+import javax.validation.constraints.Min;
 import lombok.Data;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
 
 import com.hedera.mirror.importer.domain.CryptoTransfer;
 import com.hedera.mirror.importer.domain.Entities;
@@ -82,7 +89,6 @@ import com.hedera.mirror.importer.util.Utility;
  *   <li>flyway_schema_history</li>
  * </ul>
  */
-@Named
 @Log4j2
 public class PostgresCSVDomainWriter implements DomainWriter {
 
@@ -93,22 +99,39 @@ public class PostgresCSVDomainWriter implements DomainWriter {
     private final CSVPrinter topicMessageWriter;
     private final CSVPrinter accountBalancesWriter;
 
-    PostgresCSVDomainWriter(Properties properties) throws IOException {
-        String outputDir = properties.outputDir;
-        Utility.ensureDirectory(Path.of(outputDir));
-        log.info("Writing CSV files to {}", outputDir);
-        transactionsWriter = getTransactionsCSVPrinter(outputDir);
-        cryptoTransferListsWriter = getCryptoTransferListsCSVPrinter(outputDir);
-        entitiesWriter = getEntitiesCSVPrinter(outputDir);
-        fileDataWriter = getFileDataCSVPrinter(outputDir);
-        topicMessageWriter = getTopicMessageCSVPrinter(outputDir);
-        accountBalancesWriter = getAccountBalancesCSVPrinter(outputDir);
-        writeRecordFilesCSV(outputDir);
+    private final Properties properties;
+    private final int shard;
+
+    /**
+     * @param shard index of the worker writing to this shard. Shard 0 writes to files named after the tables, other
+     *              shards append '_' + shard to the file names.
+     */
+    PostgresCSVDomainWriter(Properties properties, int shard) throws IOException {
+        this.properties = properties;
+        this.shard = shard;
+        Utility.ensureDirectory(Path.of(properties.outputDir));
+        log.info("Writing CSV files for shard {} to {}", shard, properties.outputDir);
+        transactionsWriter = getTransactionsCSVPrinter();
+        cryptoTransferListsWriter = getCryptoTransferListsCSVPrinter();
+        entitiesWriter = getEntitiesCSVPrinter();
+        fileDataWriter = getFileDataCSVPrinter();
+        topicMessageWriter = getTopicMessageCSVPrinter();
+        accountBalancesWriter = getAccountBalancesCSVPrinter();
+        if (shard == 0) {
+            writeRecordFilesCSV();
+        }
     }
 
-    private static CSVPrinter getTransactionsCSVPrinter(String outputDir) throws IOException {
+    private Writer newWriter(String table) throws IOException {
+        String fileName = shard == 0 ? table : table + "_" + shard;
+        OutputStream outputStream = Files.newOutputStream(Paths.get(properties.outputDir, fileName));
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                properties.bufferSize);
+    }
+
+    private CSVPrinter getTransactionsCSVPrinter() throws IOException {
         return new CSVPrinter(
-                Files.newBufferedWriter(Paths.get(outputDir, "t_transactions")),
+                newWriter("t_transactions"),
                 CSVFormat.DEFAULT.withHeader(
                         "fk_node_acc_id", "memo", "fk_payer_acc_id", "charged_tx_fee", "initial_balance",
                         "fk_cud_entity_id", "fk_rec_file_id", "valid_start_ns", "consensus_ns",
@@ -116,43 +139,43 @@ public class PostgresCSVDomainWriter implements DomainWriter {
                         "transaction_bytes"));
     }
 
-    private static CSVPrinter getEntitiesCSVPrinter(String outputDir) throws IOException {
+    private CSVPrinter getEntitiesCSVPrinter() throws IOException {
         return new CSVPrinter(
-                Files.newBufferedWriter(Paths.get(outputDir, "t_entities")),
+                newWriter("t_entities"),
                 CSVFormat.DEFAULT.withHeader(
                         "id", "entity_num", "entity_realm", "entity_shard", "fk_entity_type_id", "auto_renew_period",
                         "key", "fk_prox_acc_id", "deleted", "exp_time_ns", "ed25519_public_key_hex", "submit_key",
                         "memo", "auto_renew_account_id"));
     }
 
-    private static CSVPrinter getCryptoTransferListsCSVPrinter(String outputDir) throws IOException {
+    private CSVPrinter getCryptoTransferListsCSVPrinter() throws IOException {
         return new CSVPrinter(
-                Files.newBufferedWriter(Paths.get(outputDir, "t_cryptotransferlists")),
+                newWriter("t_cryptotransferlists"),
                 CSVFormat.DEFAULT.withHeader("consensus_timestamp", "realm_num", "entity_num", "amount"));
     }
 
-    private static CSVPrinter getFileDataCSVPrinter(String outputDir) throws IOException {
+    private CSVPrinter getFileDataCSVPrinter() throws IOException {
         return new CSVPrinter(
-                Files.newBufferedWriter(Paths.get(outputDir, "t_file_data")),
+                newWriter("t_file_data"),
                 CSVFormat.DEFAULT.withHeader("file_data", "consensus_timestamp"));
     }
 
-    private static CSVPrinter getTopicMessageCSVPrinter(String outputDir) throws IOException {
+    private CSVPrinter getTopicMessageCSVPrinter() throws IOException {
         return new CSVPrinter(
-                Files.newBufferedWriter(Paths.get(outputDir, "topic_message")),
+                newWriter("topic_message"),
                 CSVFormat.DEFAULT.withHeader("consensus_timestamp", "realm_num", "topic_num", "message",
                         "running_hash", "sequence_number"));
     }
 
-    private static CSVPrinter getAccountBalancesCSVPrinter(String outputDir) throws IOException {
+    private CSVPrinter getAccountBalancesCSVPrinter() throws IOException {
         return new CSVPrinter(
-                Files.newBufferedWriter(Paths.get(outputDir, "account_balances")),
+                newWriter("account_balances"),
                 CSVFormat.DEFAULT.withHeader("consensus_timestamp", "balance", "account_realm_num", "account_num"));
     }
 
-    private static void writeRecordFilesCSV(String outputDir) throws IOException {
+    private void writeRecordFilesCSV() throws IOException {
         CSVPrinter recordFilesWriter = new CSVPrinter(
-                Files.newBufferedWriter(Paths.get(outputDir, "t_record_files")),
+                newWriter("t_record_files"),
                 CSVFormat.DEFAULT.withHeader("id", "name", "load_start", "load_end", "file_hash", "prev_hash"));
         recordFilesWriter.printRecord(
                 0, "./data/recordstreams/valid/2000-01-01T00_00_01.000001Z.rcd", 1573705657, 1573705657,
@@ -255,8 +278,15 @@ public class PostgresCSVDomainWriter implements DomainWriter {
 
     @Data
     @Named
+    @Validated
     @ConfigurationProperties("hedera.mirror.datagenerator.output.postgres.csv")
     public static class Properties {
         private String outputDir;
+
+        /**
+         * Size in bytes of the buffer of each CSV file.
+         */
+        @Min(8192)
+        private int bufferSize = 4 * 1024 * 1024;
     }
 }
@@ -0,0 +1,485 @@
+package com.hedera.datagenerator.domain.writer;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.protobuf.ByteString;
+import com.hederahashgraph.api.proto.java.AccountAmount;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.ConsensusCreateTopicTransactionBody;
+import com.hederahashgraph.api.proto.java.ConsensusDeleteTopicTransactionBody;
+import com.hederahashgraph.api.proto.java.ConsensusSubmitMessageTransactionBody;
+import com.hederahashgraph.api.proto.java.ConsensusUpdateTopicTransactionBody;
+import com.hederahashgraph.api.proto.java.CryptoCreateTransactionBody;
+import com.hederahashgraph.api.proto.java.CryptoDeleteTransactionBody;
+import com.hederahashgraph.api.proto.java.CryptoTransferTransactionBody;
+import com.hederahashgraph.api.proto.java.CryptoUpdateTransactionBody;
+import com.hederahashgraph.api.proto.java.FileAppendTransactionBody;
+import com.hederahashgraph.api.proto.java.FileCreateTransactionBody;
+import com.hederahashgraph.api.proto.java.FileDeleteTransactionBody;
+import com.hederahashgraph.api.proto.java.FileID;
+import com.hederahashgraph.api.proto.java.FileUpdateTransactionBody;
+import com.hederahashgraph.api.proto.java.NodeAddress;
+import com.hederahashgraph.api.proto.java.NodeAddressBook;
+import com.hederahashgraph.api.proto.java.ResponseCodeEnum;
+import com.hederahashgraph.api.proto.java.Timestamp;
+import com.hederahashgraph.api.proto.java.TopicID;
+import com.hederahashgraph.api.proto.java.TransactionBody;
+import com.hederahashgraph.api.proto.java.TransactionID;
+import com.hederahashgraph.api.proto.java.TransactionReceipt;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+import com.hederahashgraph.api.proto.java.TransferList;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Named;
+import lombok.Data;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.codec.binary.Hex;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.hedera.mirror.importer.domain.CryptoTransfer;
+import com.hedera.mirror.importer.domain.Entities;
+import com.hedera.mirror.importer.domain.FileData;
+import com.hedera.mirror.importer.domain.TopicMessage;
+import com.hedera.mirror.importer.domain.Transaction;
+import com.hedera.mirror.importer.util.FileDelimiter;
+import com.hedera.mirror.importer.util.Utility;
+
+/**
+ * Generates signed stream files in the layout of the cloud bucket that the importer's downloaders read from, so that
+ * generated data goes through the downloader, signature verification and the parsers.
+ * <p>
+ * Generated data:
+ * <ul>
+ *   <li>addressbook.bin : address book with one RSA key per generated node</li>
+ *   <li>recordstreams/record0.0.N/*.rcd : v2 record files chained by previous file hash</li>
+ *   <li>recordstreams/record0.0.N/*.rcd_sig : signature of record file hash, one per node</li>
+ *   <li>accountBalances/balance0.0.N/*_Balances.csv : account balances</li>
+ *   <li>accountBalances/balance0.0.N/*_Balances.csv_sig : signature of balance file hash, one per node</li>
+ * </ul>
+ * <p>
+ * Entities are not written since the importer derives them from the transactions. Entity ids generated by
+ * EntityManager are offset by {@link #ENTITY_NUM_OFFSET} so they don't collide with node and system accounts.
+ */
+@Log4j2
+public class StreamFileDomainWriter implements DomainWriter {
+
+    static final long ENTITY_NUM_OFFSET = 1000L;
+    private static final long FIRST_NODE_NUM = 3L;
+    private static final int HAPI_VERSION = 3;
+    private static final String SIGNATURE_ALGORITHM = "SHA384withRSA";
+
+    private final Properties properties;
+    private final Path outputDir;
+    private final List<KeyPair> nodeKeys;
+    private final List<CryptoTransfer> pendingTransfers = new ArrayList<>();
+    private FileData pendingFileData;
+    private TopicMessage pendingTopicMessage;
+
+    // Current record file
+    private byte[] prevFileHash = new byte[48];
+    private long recordFileIndex = -1;
+    private Path recordFile;
+    private DataOutputStream recordStream;
+    private MessageDigest contentDigest;
+    private int recordFileCount;
+
+    // Current balance file
+    private long balancesConsensusNs = -1;
+    private Path balanceFile;
+    private BufferedWriter balanceWriter;
+
+    StreamFileDomainWriter(Properties properties) throws IOException, GeneralSecurityException {
+        this.properties = properties;
+        outputDir = Paths.get(properties.getOutputDir());
+        Utility.ensureDirectory(outputDir);
+        nodeKeys = generateNodeKeys(properties.getNodeCount());
+        writeAddressBook();
+        log.info("Writing stream files for {} nodes to {}", nodeKeys.size(), outputDir);
+    }
+
+    private static List<KeyPair> generateNodeKeys(int nodeCount) throws GeneralSecurityException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(3072);
+        List<KeyPair> keys = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            keys.add(keyPairGenerator.generateKeyPair());
+        }
+        return keys;
+    }
+
+    private static String nodeAccountId(int node) {
+        return "0.0." + (FIRST_NODE_NUM + node);
+    }
+
+    private static AccountID accountId(long entityId) {
+        return AccountID.newBuilder().setAccountNum(entityId + ENTITY_NUM_OFFSET).build();
+    }
+
+    private static FileID fileId(long entityId) {
+        return FileID.newBuilder().setFileNum(entityId + ENTITY_NUM_OFFSET).build();
+    }
+
+    private static TopicID topicId(long entityId) {
+        return TopicID.newBuilder().setTopicNum(entityId + ENTITY_NUM_OFFSET).build();
+    }
+
+    private static Timestamp timestamp(long nanos) {
+        return Timestamp.newBuilder().setSeconds(nanos / 1_000_000_000L).setNanos((int) (nanos % 1_000_000_000L))
+                .build();
+    }
+
+    // 2019-06-05T20:29:32.856974Z -> 2019-06-05T20_29_32.856974Z
+    private static String toFileName(long consensusNs) {
+        Instant instant = Instant.ofEpochSecond(0, consensusNs);
+        return instant.toString().replace(':', '_');
+    }
+
+    private void writeAddressBook() throws IOException {
+        NodeAddressBook.Builder addressBook = NodeAddressBook.newBuilder();
+        for (int i = 0; i < nodeKeys.size(); i++) {
+            addressBook.addNodeAddress(NodeAddress.newBuilder()
+                    .setIpAddress(ByteString.copyFromUtf8("127.0.0.1"))
+                    .setPortno(50211)
+                    .setMemo(ByteString.copyFromUtf8(nodeAccountId(i)))
+                    .setRSAPubKey(Hex.encodeHexString(nodeKeys.get(i).getPublic().getEncoded())));
+        }
+        Files.write(outputDir.resolve("addressbook.bin"), addressBook.build().toByteArray());
+    }
+
+    @Override
+    public void addTransaction(Transaction transaction) {
+        try {
+            long consensusNs = transaction.getConsensusNs();
+            long fileIndex = consensusNs / properties.getRecordFileDuration().toNanos();
+            if (fileIndex != recordFileIndex) {
+                closeRecordFile();
+                openRecordFile(consensusNs);
+                recordFileIndex = fileIndex;
+            }
+
+            TransactionBody body = toTransactionBody(transaction);
+            byte[] transactionBytes = com.hederahashgraph.api.proto.java.Transaction.newBuilder()
+                    .setBodyBytes(body.toByteString())
+                    .build()
+                    .toByteArray();
+            byte[] recordBytes = toTransactionRecord(transaction, body, transactionBytes).toByteArray();
+
+            recordStream.writeByte(FileDelimiter.RECORD_TYPE_RECORD);
+            recordStream.writeInt(transactionBytes.length);
+            recordStream.write(transactionBytes);
+            recordStream.writeInt(recordBytes.length);
+            recordStream.write(recordBytes);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        } finally {
+            pendingTransfers.clear();
+            pendingFileData = null;
+            pendingTopicMessage = null;
+        }
+        log.trace("added transaction at timestamp {}", transaction.getConsensusNs());
+    }
+
+    @Override
+    public void addEntity(Entities entity) {
+        // Entities are derived by the importer from the transactions in the record files
+    }
+
+    @Override
+    public void addCryptoTransfer(CryptoTransfer cryptoTransfer) {
+        pendingTransfers.add(cryptoTransfer);
+    }
+
+    @Override
+    public void addFileData(FileData fileData) {
+        pendingFileData = fileData;
+    }
+
+    @Override
+    public void addTopicMessage(TopicMessage topicMessage) {
+        pendingTopicMessage = topicMessage;
+    }
+
+    @Override
+    public void addAccountBalances(long consensusNs, long balance, long accountNum) {
+        try {
+            if (consensusNs != balancesConsensusNs) {
+                closeBalanceFile();
+                openBalanceFile(consensusNs);
+            }
+            balanceWriter.write("0,0," + (accountNum + ENTITY_NUM_OFFSET) + "," + balance);
+            balanceWriter.newLine();
+        } catch (IOException | GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            closeRecordFile();
+            closeBalanceFile();
+        } catch (GeneralSecurityException e) {
+            throw new IOException(e);
+        }
+        log.info("Wrote {} record files", recordFileCount);
+    }
+
+    private void openRecordFile(long consensusNs) throws IOException, GeneralSecurityException {
+        Path nodeDir = outputDir.resolve(properties.getRecordPrefix() + nodeAccountId(0));
+        Utility.ensureDirectory(nodeDir);
+        recordFile = nodeDir.resolve(toFileName(consensusNs) + ".rcd");
+        contentDigest = MessageDigest.getInstance(FileDelimiter.HASH_ALGORITHM);
+
+        // Header is written directly, records are hashed separately as per v2 record file format
+        DataOutputStream header = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordFile),
+                properties.getBufferSize()));
+        header.writeInt(FileDelimiter.RECORD_FORMAT_VERSION);
+        header.writeInt(HAPI_VERSION);
+        header.writeByte(FileDelimiter.RECORD_TYPE_PREV_HASH);
+        header.write(prevFileHash);
+        recordStream = new DataOutputStream(new DigestOutputStream(header, contentDigest));
+    }
+
+    private void closeRecordFile() throws IOException, GeneralSecurityException {
+        if (recordStream == null) {
+            return;
+        }
+        recordStream.close();
+        recordStream = null;
+
+        MessageDigest md = MessageDigest.getInstance(FileDelimiter.HASH_ALGORITHM);
+        md.update(Utility.integerToBytes(FileDelimiter.RECORD_FORMAT_VERSION));
+        md.update(Utility.integerToBytes(HAPI_VERSION));
+        md.update(FileDelimiter.RECORD_TYPE_PREV_HASH);
+        md.update(prevFileHash);
+        md.update(contentDigest.digest());
+        byte[] fileHash = md.digest();
+
+        writeSignedCopies(recordFile, properties.getRecordPrefix(), fileHash);
+        prevFileHash = fileHash;
+        recordFileCount++;
+        log.debug("Wrote record file {}", recordFile.getFileName());
+    }
+
+    private void openBalanceFile(long consensusNs) throws IOException {
+        Path nodeDir = outputDir.resolve(properties.getBalancePrefix() + nodeAccountId(0));
+        Utility.ensureDirectory(nodeDir);
+        balancesConsensusNs = consensusNs;
+        balanceFile = nodeDir.resolve(toFileName(consensusNs) + "_Balances.csv");
+        balanceWriter = Files.newBufferedWriter(balanceFile, StandardCharsets.UTF_8);
+        balanceWriter.write("TimeStamp:" + Instant.ofEpochSecond(0, consensusNs));
+        balanceWriter.newLine();
+        balanceWriter.write("shardNum,realmNum,accountNum,balance");
+        balanceWriter.newLine();
+    }
+
+    private void closeBalanceFile() throws IOException, GeneralSecurityException {
+        if (balanceWriter == null) {
+            return;
+        }
+        balanceWriter.close();
+        balanceWriter = null;
+        byte[] fileHash = MessageDigest.getInstance(FileDelimiter.HASH_ALGORITHM)
+                .digest(Files.readAllBytes(balanceFile));
+        writeSignedCopies(balanceFile, properties.getBalancePrefix(), fileHash);
+        log.debug("Wrote balance file {}", balanceFile.getFileName());
+    }
+
+    /**
+     * Every node uploads an identical copy of the data file along with its own signature of the file hash.
+     */
+    private void writeSignedCopies(Path dataFile, String prefix, byte[] fileHash)
+            throws IOException, GeneralSecurityException {
+        String fileName = dataFile.getFileName().toString();
+        for (int i = 0; i < nodeKeys.size(); i++) {
+            Path nodeDir = outputDir.resolve(prefix + nodeAccountId(i));
+            if (i > 0) {
+                Utility.ensureDirectory(nodeDir);
+                Files.copy(dataFile, nodeDir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initSign(nodeKeys.get(i).getPrivate());
+            signature.update(fileHash);
+            byte[] signatureBytes = signature.sign();
+
+            try (DataOutputStream sigStream = new DataOutputStream(
+                    Files.newOutputStream(nodeDir.resolve(fileName + "_sig")))) {
+                sigStream.writeByte(FileDelimiter.SIGNATURE_TYPE_FILE_HASH);
+                sigStream.write(fileHash);
+                sigStream.writeByte(FileDelimiter.SIGNATURE_TYPE_SIGNATURE);
+                sigStream.writeInt(signatureBytes.length);
+                sigStream.write(signatureBytes);
+            }
+        }
+    }
+
+    private TransactionBody toTransactionBody(Transaction transaction) {
+        long entityId = transaction.getEntity() != null ? transaction.getEntity().getId() : 0L;
+        TransactionBody.Builder body = TransactionBody.newBuilder()
+                .setTransactionID(TransactionID.newBuilder()
+                        .setAccountID(accountId(transaction.getPayerAccountId()))
+                        .setTransactionValidStart(timestamp(transaction.getValidStartNs())))
+                .setNodeAccountID(AccountID.newBuilder().setAccountNum(FIRST_NODE_NUM))
+                .setTransactionFee(transaction.getMaxFee())
+                .setTransactionValidDuration(com.hederahashgraph.api.proto.java.Duration.newBuilder()
+                        .setSeconds(transaction.getValidDurationSeconds()))
+                .setMemo(new String(transaction.getMemo(), StandardCharsets.UTF_8));
+
+        switch (transaction.getTypeEnum()) {
+            case CRYPTOCREATEACCOUNT:
+                body.setCryptoCreateAccount(CryptoCreateTransactionBody.newBuilder()
+                        .setInitialBalance(transaction.getInitialBalance()));
+                break;
+            case CRYPTODELETE:
+                body.setCryptoDelete(CryptoDeleteTransactionBody.newBuilder().setDeleteAccountID(accountId(entityId)));
+                break;
+            case CRYPTOTRANSFER:
+                body.setCryptoTransfer(CryptoTransferTransactionBody.newBuilder().setTransfers(toTransferList()));
+                break;
+            case CRYPTOUPDATEACCOUNT:
+                body.setCryptoUpdateAccount(CryptoUpdateTransactionBody.newBuilder()
+                        .setAccountIDToUpdate(accountId(entityId)));
+                break;
+            case FILEAPPEND:
+                body.setFileAppend(FileAppendTransactionBody.newBuilder()
+                        .setFileID(fileId(entityId))
+                        .setContents(fileContents()));
+                break;
+            case FILECREATE:
+                body.setFileCreate(FileCreateTransactionBody.newBuilder().setContents(fileContents()));
+                break;
+            case FILEDELETE:
+                body.setFileDelete(FileDeleteTransactionBody.newBuilder().setFileID(fileId(entityId)));
+                break;
+            case FILEUPDATE:
+                body.setFileUpdate(FileUpdateTransactionBody.newBuilder()
+                        .setFileID(fileId(entityId))
+                        .setContents(fileContents()));
+                break;
+            case CONSENSUSCREATETOPIC:
+                body.setConsensusCreateTopic(ConsensusCreateTopicTransactionBody.newBuilder());
+                break;
+            case CONSENSUSUPDATETOPIC:
+                body.setConsensusUpdateTopic(ConsensusUpdateTopicTransactionBody.newBuilder()
+                        .setTopicID(topicId(entityId)));
+                break;
+            case CONSENSUSDELETETOPIC:
+                body.setConsensusDeleteTopic(ConsensusDeleteTopicTransactionBody.newBuilder()
+                        .setTopicID(topicId(entityId)));
+                break;
+            case CONSENSUSSUBMITMESSAGE:
+                body.setConsensusSubmitMessage(ConsensusSubmitMessageTransactionBody.newBuilder()
+                        .setTopicID(topicId(entityId))
+                        .setMessage(ByteString.copyFrom(pendingTopicMessage.getMessage())));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported transaction type " + transaction.getType());
+        }
+        return body.build();
+    }
+
+    private TransactionRecord toTransactionRecord(Transaction transaction, TransactionBody body,
+                                                  byte[] transactionBytes) throws GeneralSecurityException {
+        TransactionReceipt.Builder receipt = TransactionReceipt.newBuilder().setStatus(ResponseCodeEnum.SUCCESS);
+        long entityId = transaction.getEntity() != null ? transaction.getEntity().getId() : 0L;
+        switch (transaction.getTypeEnum()) {
+            case CRYPTOCREATEACCOUNT:
+                receipt.setAccountID(accountId(entityId));
+                break;
+            case FILECREATE:
+                receipt.setFileID(fileId(entityId));
+                break;
+            case CONSENSUSCREATETOPIC:
+                receipt.setTopicID(topicId(entityId));
+                break;
+            case CONSENSUSSUBMITMESSAGE:
+                receipt.setTopicRunningHash(ByteString.copyFrom(pendingTopicMessage.getRunningHash()))
+                        .setTopicSequenceNumber(pendingTopicMessage.getSequenceNumber());
+                break;
+            default:
+                break;
+        }
+
+        byte[] transactionHash = MessageDigest.getInstance(FileDelimiter.HASH_ALGORITHM).digest(transactionBytes);
+        return TransactionRecord.newBuilder()
+                .setReceipt(receipt)
+                .setTransactionHash(ByteString.copyFrom(transactionHash))
+                .setConsensusTimestamp(timestamp(transaction.getConsensusNs()))
+                .setTransactionID(body.getTransactionID())
+                .setMemo(body.getMemo())
+                .setTransactionFee(transaction.getChargedTxFee())
+                .setTransferList(toTransferList())
+                .build();
+    }
+
+    private TransferList toTransferList() {
+        TransferList.Builder transferList = TransferList.newBuilder();
+        for (CryptoTransfer cryptoTransfer : pendingTransfers) {
+            transferList.addAccountAmounts(AccountAmount.newBuilder()
+                    .setAccountID(accountId(cryptoTransfer.getEntityNum()))
+                    .setAmount(cryptoTransfer.getAmount()));
+        }
+        return transferList.build();
+    }
+
+    private ByteString fileContents() {
+        return pendingFileData != null ? ByteString.copyFrom(pendingFileData.getFileData()) : ByteString.EMPTY;
+    }
+
+    @Data
+    @Named
+    @ConfigurationProperties("hedera.mirror.datagenerator.output.stream")
+    public static class Properties {
+        private String balancePrefix = "accountBalances/balance";
+
+        private int bufferSize = 1024 * 1024;
+
+        private boolean enabled = false;
+
+        private int nodeCount = 4;
+
+        private String outputDir;
+
+        private String recordPrefix = "recordstreams/record";
+
+        /**
+         * Transactions are grouped into record files by consensus timestamp over this interval.
+         */
+        private Duration recordFileDuration = Duration.ofSeconds(2);
+    }
+}
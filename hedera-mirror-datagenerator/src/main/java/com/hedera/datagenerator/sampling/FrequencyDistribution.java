@@ -47,7 +47,7 @@ public class FrequencyDistribution<T> implements Distribution<T> {
                 randomizedSamples.add(entry.getKey());
             }
         }
-        Collections.shuffle(randomizedSamples);
+        Collections.shuffle(randomizedSamples, RandomSource.get());
     }
 
     @Override
@@ -26,7 +26,8 @@ import lombok.Data;
 /**
  * Configuration class to allow users to specify particular kind of distribution to use when generating test data for
  * some field. This leverages Spring boot's nested configuration binding. If no distribution is specified, defaults to
- * constant value of 0.
+ * constant value of 0. Distributions are created per thread so that concurrent workers sample independently from
+ * their own seeded random source.
  */
 @Data
 public class NumberDistributionConfig implements Distribution<Long> {
@@ -44,7 +45,7 @@ public class NumberDistributionConfig implements Distribution<Long> {
      * Builds ConstantValueDistribution<Long>.
      */
     private long constant;
-    private Distribution<Long> distribution;
+    private ThreadLocal<Distribution<Long>> distribution;
 
     public NumberDistributionConfig() {
         constant = 0;
@@ -55,17 +56,21 @@ public class NumberDistributionConfig implements Distribution<Long> {
     }
 
     public void initDistribution() {
-        if (frequency.size() != 0) {
-            distribution = new FrequencyDistribution<>(frequency);
-        } else if (rangeMin != rangeMax) {
-            distribution = new RandomDistributionFromRange(rangeMin, rangeMax);
-        } else {
-            distribution = new ConstantValueDistribution<>(constant);
-        }
+        distribution = ThreadLocal.withInitial(this::newDistribution);
     }
 
     @Override
     public Long sample() {
-        return distribution.sample();
+        return distribution.get().sample();
+    }
+
+    private Distribution<Long> newDistribution() {
+        if (frequency.size() != 0) {
+            return new FrequencyDistribution<>(frequency);
+        } else if (rangeMin != rangeMax) {
+            return new RandomDistributionFromRange(rangeMin, rangeMax);
+        } else {
+            return new ConstantValueDistribution<>(constant);
+        }
     }
 }
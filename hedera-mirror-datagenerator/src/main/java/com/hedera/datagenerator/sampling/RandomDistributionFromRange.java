@@ -19,7 +19,6 @@ package com.hedera.datagenerator.sampling;
  * ‍
  */
 
-import java.util.Random;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -29,7 +28,6 @@ import lombok.RequiredArgsConstructor;
 public class RandomDistributionFromRange implements Distribution<Long> {
     private long min;
     private long range;
-    private Random random;
 
     public RandomDistributionFromRange(long min, long max) {
         if (max < min) {
@@ -37,11 +35,10 @@ public class RandomDistributionFromRange implements Distribution<Long> {
         }
         this.min = min;
         range = max - min;
-        random = new Random();
     }
 
     @Override
     public Long sample() {
-        return min + random.nextInt((int) range);
+        return min + RandomSource.get().nextInt((int) range);
     }
 }
@@ -0,0 +1,38 @@
+package com.hedera.datagenerator.sampling;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.Random;
+
+/**
+ * Per thread source of randomness used by all distributions and generators. Each worker seeds its own thread so
+ * generated data is reproducible for a given seed and number of workers.
+ */
+public class RandomSource {
+    private static final ThreadLocal<Random> RANDOM = ThreadLocal.withInitial(Random::new);
+
+    public static Random get() {
+        return RANDOM.get();
+    }
+
+    public static void seed(long seed) {
+        RANDOM.set(new Random(seed));
+    }
+}
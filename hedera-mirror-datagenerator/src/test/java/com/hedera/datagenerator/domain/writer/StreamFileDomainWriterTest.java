@@ -0,0 +1,159 @@
+package com.hedera.datagenerator.domain.writer;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.hedera.mirror.importer.MirrorProperties;
+import com.hedera.mirror.importer.addressbook.NetworkAddressBook;
+import com.hedera.mirror.importer.domain.CryptoTransfer;
+import com.hedera.mirror.importer.domain.FileStreamSignature;
+import com.hedera.mirror.importer.domain.FileStreamSignature.SignatureStatus;
+import com.hedera.mirror.importer.domain.Transaction;
+import com.hedera.mirror.importer.domain.TransactionTypeEnum;
+import com.hedera.mirror.importer.downloader.NodeSignatureVerifier;
+import com.hedera.mirror.importer.parser.record.RecordFileParser;
+import com.hedera.mirror.importer.util.Utility;
+
+public class StreamFileDomainWriterTest {
+
+    private static final int NODES = 4;
+    private static final long SECOND = 1_000_000_000L;
+    private static final long START_NS = 1_567_188_600L * SECOND;
+
+    @TempDir
+    Path outputDir;
+
+    private StreamFileDomainWriter.Properties properties;
+
+    @BeforeEach
+    void beforeEach() {
+        properties = new StreamFileDomainWriter.Properties();
+        properties.setNodeCount(NODES);
+        properties.setOutputDir(outputDir.toString());
+        properties.setRecordFileDuration(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void recordFiles() throws Exception {
+        try (StreamFileDomainWriter writer = new StreamFileDomainWriter(properties)) {
+            writer.addTransaction(transaction(TransactionTypeEnum.CRYPTOCREATEACCOUNT, START_NS));
+            writer.addCryptoTransfer(new CryptoTransfer(START_NS + 1, -10L, 0L, 1L));
+            writer.addCryptoTransfer(new CryptoTransfer(START_NS + 1, 10L, 0L, 2L));
+            writer.addTransaction(transaction(TransactionTypeEnum.CRYPTOTRANSFER, START_NS + 1));
+            writer.addTransaction(transaction(TransactionTypeEnum.CRYPTOTRANSFER, START_NS + 3 * SECOND));
+        }
+
+        List<File> recordFiles = files("recordstreams/record0.0.3", ".rcd");
+        assertThat(recordFiles).hasSize(2);
+        byte[] firstHash = Utility.getFileHash(recordFiles.get(0).getPath());
+        byte[] secondHash = Utility.getFileHash(recordFiles.get(1).getPath());
+        assertThat(firstHash).isNotNull();
+        assertThat(secondHash).isNotNull();
+
+        // Files are chained by the hash of the previous file
+        assertThat(RecordFileParser.readPrevFileHash(recordFiles.get(0).getPath()))
+                .isEqualTo(Hex.encodeHexString(new byte[48]));
+        assertThat(RecordFileParser.readPrevFileHash(recordFiles.get(1).getPath()))
+                .isEqualTo(Hex.encodeHexString(firstHash));
+
+        assertVerified("recordstreams/record", recordFiles.get(0).getName(), firstHash);
+        assertVerified("recordstreams/record", recordFiles.get(1).getName(), secondHash);
+    }
+
+    @Test
+    void balanceFiles() throws Exception {
+        try (StreamFileDomainWriter writer = new StreamFileDomainWriter(properties)) {
+            writer.addAccountBalances(START_NS, 100L, 1L);
+            writer.addAccountBalances(START_NS, 200L, 2L);
+        }
+
+        List<File> balanceFiles = files("accountBalances/balance0.0.3", "_Balances.csv");
+        assertThat(balanceFiles).hasSize(1);
+        assertThat(Files.readAllLines(balanceFiles.get(0).toPath(), StandardCharsets.UTF_8))
+                .containsSequence("0,0,1001,100", "0,0,1002,200");
+        assertVerified("accountBalances/balance", balanceFiles.get(0).getName(),
+                Utility.getFileHash(balanceFiles.get(0).getPath()));
+    }
+
+    /**
+     * Verifies the signatures of all nodes against the generated address book the way the downloader does
+     */
+    private void assertVerified(String prefix, String fileName, byte[] fileHash) throws Exception {
+        MirrorProperties mirrorProperties = new MirrorProperties();
+        mirrorProperties.setAddressBookPath(outputDir.resolve("addressbook.bin"));
+        NodeSignatureVerifier verifier = new NodeSignatureVerifier(new NetworkAddressBook(mirrorProperties));
+
+        List<FileStreamSignature> signatures = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            String node = "0.0." + (3 + i);
+            Path nodeDir = outputDir.resolve(prefix + node);
+            assertThat(Files.readAllBytes(nodeDir.resolve(fileName)))
+                    .isEqualTo(Files.readAllBytes(outputDir.resolve(prefix + "0.0.3").resolve(fileName)));
+
+            FileStreamSignature signature = new FileStreamSignature();
+            signature.setFile(nodeDir.resolve(fileName + "_sig").toFile());
+            signature.setNode(node);
+            signatures.add(signature);
+        }
+
+        verifier.verify(signatures);
+
+        List<FileStreamSignature> consensus = signatures.stream()
+                .filter(s -> s.getStatus() == SignatureStatus.CONSENSUS_REACHED)
+                .collect(Collectors.toList());
+        assertThat(consensus).isNotEmpty().allSatisfy(s -> assertThat(s.getHash()).isEqualTo(fileHash));
+    }
+
+    private List<File> files(String directory, String suffix) {
+        File[] files = outputDir.resolve(directory).toFile().listFiles((dir, name) -> name.endsWith(suffix));
+        assertThat(files).isNotNull();
+        List<File> sorted = new ArrayList<>(List.of(files));
+        sorted.sort(null);
+        return sorted;
+    }
+
+    private Transaction transaction(TransactionTypeEnum type, long consensusNs) {
+        Transaction transaction = new Transaction();
+        transaction.setChargedTxFee(10L);
+        transaction.setConsensusNs(consensusNs);
+        transaction.setInitialBalance(1000L);
+        transaction.setMaxFee(100L);
+        transaction.setMemo("memo".getBytes(StandardCharsets.UTF_8));
+        transaction.setPayerAccountId(1L);
+        transaction.setType(type.getProtoId());
+        transaction.setValidDurationSeconds(120L);
+        transaction.setValidStartNs(consensusNs - SECOND);
+        return transaction;
+    }
+}
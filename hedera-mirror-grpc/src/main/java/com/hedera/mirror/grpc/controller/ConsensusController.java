@@ -24,11 +24,13 @@ import com.google.protobuf.ByteString;
 import com.hederahashgraph.api.proto.java.Timestamp;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.TimeoutException;
 import javax.validation.ConstraintViolationException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import net.devh.boot.grpc.server.service.GrpcService;
 import reactor.core.publisher.Flux;
@@ -41,6 +43,7 @@ import com.hedera.mirror.grpc.converter.InstantToLongConverter;
 import com.hedera.mirror.grpc.domain.TopicMessage;
 import com.hedera.mirror.grpc.domain.TopicMessageFilter;
 import com.hedera.mirror.grpc.exception.TopicNotFoundException;
+import com.hedera.mirror.grpc.listener.SharedPollingTopicListener;
 import com.hedera.mirror.grpc.service.TopicMessageService;
 import com.hedera.mirror.grpc.util.ProtoUtil;
 
@@ -52,17 +55,27 @@ import com.hedera.mirror.grpc.util.ProtoUtil;
  */
 @GrpcService
 @Log4j2
-@RequiredArgsConstructor
 public class ConsensusController extends ReactorConsensusServiceGrpc.ConsensusServiceImplBase {
 
     private static final String DB_ERROR = "Unable to connect to database. Please retry later";
 
     private final TopicMessageService topicMessageService;
+    private final Timer deliveredLatencyMetric;
+
+    public ConsensusController(TopicMessageService topicMessageService, MeterRegistry meterRegistry) {
+        this.topicMessageService = topicMessageService;
+        deliveredLatencyMetric = Timer.builder(SharedPollingTopicListener.LATENCY_METRIC)
+                .description("The time from consensus until the message was sent to the client")
+                .tag("stage", "delivered")
+                .register(meterRegistry);
+    }
 
     @Override
     public Flux<ConsensusTopicResponse> subscribeTopic(Mono<ConsensusTopicQuery> request) {
+        Instant subscribed = Instant.now();
         return request.map(this::toFilter)
                 .flatMapMany(topicMessageService::subscribeTopic)
+                .doOnNext(t -> recordLatency(t, subscribed))
                 .map(this::toResponse)
                 .onErrorMap(ConstraintViolationException.class, e -> error(e, Status.INVALID_ARGUMENT))
                 .onErrorMap(IllegalArgumentException.class, e -> error(e, Status.INVALID_ARGUMENT))
@@ -99,6 +112,14 @@ public class ConsensusController extends ReactorConsensusServiceGrpc.ConsensusSe
         return builder.build();
     }
 
+    // Historical messages that reached consensus before the subscription would skew the latency of live messages
+    private void recordLatency(TopicMessage topicMessage, Instant subscribed) {
+        Instant consensusTimestamp = topicMessage.getConsensusTimestamp();
+        if (!consensusTimestamp.isBefore(subscribed)) {
+            deliveredLatencyMetric.record(Duration.between(consensusTimestamp, Instant.now()));
+        }
+    }
+
     private ConsensusTopicResponse toResponse(TopicMessage topicMessage) {
         return ConsensusTopicResponse.newBuilder()
                 .setConsensusTimestamp(ProtoUtil.toTimestamp(topicMessage.getConsensusTimestamp()))
@@ -30,6 +30,14 @@ import org.springframework.data.relational.core.mapping.Table;
 @Data
 @Table("t_entities")
 public class Entity {
+
+    private static final int SHARD_BITS = 15;
+    private static final int REALM_BITS = 16;
+    private static final int NUM_BITS = 32;
+    private static final long SHARD_MASK = (1L << SHARD_BITS) - 1;
+    private static final long REALM_MASK = (1L << REALM_BITS) - 1;
+    private static final long NUM_MASK = (1L << NUM_BITS) - 1;
+
     @Id
     private Long id;
 
@@ -41,4 +49,21 @@ public class Entity {
 
     @Column("fk_entity_type_id")
     private EntityType entityTypeId;
+
+    /**
+     * Encodes an entity into its id the same way as the importer's EntityId, with 15 bits for the shard, 16 bits for
+     * the realm and 32 bits for the number. The gRPC API doesn't depend on the importer, so the encoding is kept in
+     * sync with it by EntityTest.
+     *
+     * @throws IllegalArgumentException if a part is negative or doesn't fit into its bits
+     */
+    public static long encodeId(long entityShard, long entityRealm, long entityNum) {
+        if (entityShard < 0 || entityShard > SHARD_MASK || entityRealm < 0 || entityRealm > REALM_MASK ||
+                entityNum < 0 || entityNum > NUM_MASK) {
+            throw new IllegalArgumentException(String.format("Entity %d.%d.%d can't be encoded", entityShard,
+                    entityRealm, entityNum));
+        }
+
+        return (entityShard << (REALM_BITS + NUM_BITS)) | (entityRealm << NUM_BITS) | entityNum;
+    }
 }
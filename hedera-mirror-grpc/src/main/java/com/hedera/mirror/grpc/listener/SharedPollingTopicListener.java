@@ -21,6 +21,9 @@ package com.hedera.mirror.grpc.listener;
  */
 
 import com.google.common.base.Stopwatch;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -45,21 +48,42 @@ import com.hedera.mirror.grpc.repository.TopicMessageRepository;
 @Log4j2
 public class SharedPollingTopicListener implements TopicListener {
 
+    public static final String LATENCY_METRIC = "hedera.mirror.topic.latency";
+
     private final ListenerProperties listenerProperties;
     private final TopicMessageRepository topicMessageRepository;
     private final InstantToLongConverter instantToLongConverter;
     private final Scheduler scheduler;
+    private final Timer polledLatencyMetric;
+    private final Timer importerLatencyMetric;
+    private final Timer listenerLatencyMetric;
 
     private Flux<TopicMessage> poller = Flux.empty();
     private Disposable pollerDisposable;
 
     public SharedPollingTopicListener(ListenerProperties listenerProperties,
                                       TopicMessageRepository topicMessageRepository,
-                                      InstantToLongConverter instantToLongConverter) {
+                                      InstantToLongConverter instantToLongConverter,
+                                      MeterRegistry meterRegistry) {
         this.listenerProperties = listenerProperties;
         this.topicMessageRepository = topicMessageRepository;
         this.instantToLongConverter = instantToLongConverter;
         scheduler = Schedulers.newSingle("shared-poll", true);
+
+        polledLatencyMetric = Timer.builder(LATENCY_METRIC)
+                .description("The time from consensus until the message was polled by the listener")
+                .tag("stage", "polled")
+                .register(meterRegistry);
+
+        importerLatencyMetric = Timer.builder(LATENCY_METRIC)
+                .description("The time from consensus until the importer committed the record file of the message")
+                .tag("stage", "importer")
+                .register(meterRegistry);
+
+        listenerLatencyMetric = Timer.builder(LATENCY_METRIC)
+                .description("The time from the importer committing the message until it was polled by the listener")
+                .tag("stage", "listener")
+                .register(meterRegistry);
     }
 
     /*
@@ -109,6 +133,21 @@ public class SharedPollingTopicListener implements TopicListener {
                 .doOnSubscribe(context::onPollStart);
     }
 
+    /*
+     * Splits the polled latency of the last message of a poll into the importer and listener stages using the commit
+     * time of its record file, so the lag of the importer can be told apart from the lag of polling. Sampled once per
+     * poll to keep it to a single lookup by primary key per poll.
+     */
+    private void recordCommitLatency(TopicMessage topicMessage, Instant polled) {
+        topicMessageRepository.findCommitTimestamp(topicMessage)
+                .doOnNext(committed -> {
+                    importerLatencyMetric.record(Duration.between(topicMessage.getConsensusTimestamp(), committed));
+                    listenerLatencyMetric.record(Duration.between(committed, polled));
+                })
+                .subscribe(t -> {}, e -> log.warn("Unable to find the commit time of {}: {}", topicMessage,
+                        e.getMessage()));
+    }
+
     private boolean filterMessage(TopicMessage message, TopicMessageFilter filter) {
         return filter.getRealmNum() == message.getRealmNum() &&
                 filter.getTopicNum() == message.getTopicNum() &&
@@ -121,17 +160,36 @@ public class SharedPollingTopicListener implements TopicListener {
         private final AtomicLong count = new AtomicLong(0L);
         private final Stopwatch stopwatch = Stopwatch.createUnstarted();
         private volatile Instant lastConsensusTimestamp = Instant.now().minus(listenerProperties.getBufferInitial());
+        private volatile Instant startTime = Instant.now();
+        private volatile TopicMessage lastTopicMessage;
+        private volatile Instant lastPolled;
 
         void onNext(TopicMessage topicMessage) {
             count.incrementAndGet();
             lastConsensusTimestamp = topicMessage.getConsensusTimestamp();
+            recordLatency(topicMessage);
             log.trace("Next message: {}", topicMessage);
         }
 
+        // The messages backfilled on startup reached consensus before polling started and would skew the latency
+        private void recordLatency(TopicMessage topicMessage) {
+            Instant consensusTimestamp = topicMessage.getConsensusTimestamp();
+            if (!consensusTimestamp.isBefore(startTime)) {
+                lastPolled = Instant.now();
+                lastTopicMessage = topicMessage;
+                polledLatencyMetric.record(Duration.between(consensusTimestamp, lastPolled));
+            }
+        }
+
         void onPollEnd() {
             var elapsed = stopwatch.elapsed(TimeUnit.MILLISECONDS);
             var rate = elapsed > 0 ? (int) (1000.0 * count.get() / elapsed) : 0;
             log.debug("Finished querying with {} messages in {} ({}/s)", count, stopwatch, rate);
+
+            if (lastTopicMessage != null) {
+                recordCommitLatency(lastTopicMessage, lastPolled);
+                lastTopicMessage = null;
+            }
         }
 
         void onPollStart(Subscription subscription) {
@@ -142,7 +200,8 @@ public class SharedPollingTopicListener implements TopicListener {
 
         // Backfill the buffer on startup
         void onStart(Subscription subscription) {
-            lastConsensusTimestamp = Instant.now().minus(listenerProperties.getBufferInitial());
+            startTime = Instant.now();
+            lastConsensusTimestamp = startTime.minus(listenerProperties.getBufferInitial());
             log.info("Starting to poll every {}ms", listenerProperties.getPollingFrequency().toMillis());
         }
     }
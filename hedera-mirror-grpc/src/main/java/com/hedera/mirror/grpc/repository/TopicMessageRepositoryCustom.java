@@ -23,10 +23,20 @@ package com.hedera.mirror.grpc.repository;
 import com.hedera.mirror.grpc.domain.TopicMessage;
 import com.hedera.mirror.grpc.domain.TopicMessageFilter;
 
+import java.time.Instant;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface TopicMessageRepositoryCustom {
 
     Flux<TopicMessage> findByFilter(TopicMessageFilter filter);
 
+    /**
+     * Finds the time the importer committed the record file containing the message, with a resolution of milliseconds.
+     *
+     * @param topicMessage the message to look up
+     * @return the commit time of the record file or empty if it's not known
+     */
+    Mono<Instant> findCommitTimestamp(TopicMessage topicMessage);
+
 }
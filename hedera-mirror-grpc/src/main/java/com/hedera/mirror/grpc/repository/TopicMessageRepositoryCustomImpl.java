@@ -20,8 +20,12 @@ package com.hedera.mirror.grpc.repository;
  * ‍
  */
 
+import com.google.common.collect.Range;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import javax.inject.Named;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,47 +33,119 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.DatabaseClient;
 import org.springframework.data.r2dbc.query.Criteria;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import com.hedera.mirror.grpc.converter.InstantToLongConverter;
 import com.hedera.mirror.grpc.domain.TopicMessage;
 import com.hedera.mirror.grpc.domain.TopicMessageFilter;
 
+/**
+ * Queries topic_message one partition at a time when the table is partitioned by consensus timestamp. The requested
+ * time range is split at the partition boundaries and the resulting ranges are queried in order until the limit is
+ * reached, so every query is pruned to a single partition and historical partitions past the limit are never touched.
+ * An unpartitioned table is queried with a single range.
+ */
 @Log4j2
 @Named
-@RequiredArgsConstructor
 public class TopicMessageRepositoryCustomImpl implements TopicMessageRepositoryCustom {
 
+    // Partition boundaries only affect how a range is split, never the results, so they can be cached for a while
+    private static final Duration PARTITION_BOUNDS_CACHE = Duration.ofMinutes(10L);
+    private static final String PARTITION_BOUNDS_QUERY = "select upper_bound from (" +
+            "select substring(pg_get_expr(c.relpartbound, c.oid) from 'TO \\(''?(-?\\d+)')::bigint as upper_bound " +
+            "from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+            "where i.inhparent = 'topic_message'::regclass) bounds " +
+            "where upper_bound is not null order by upper_bound";
+    private static final String COMMIT_TIMESTAMP_QUERY = "select r.commit_ms from t_transactions t " +
+            "join t_record_files r on r.id = t.fk_rec_file_id where t.consensus_ns = $1 and r.commit_ms is not null";
+
     private final DatabaseClient databaseClient;
     private final InstantToLongConverter instantToLongConverter;
+    private final Mono<List<Long>> partitionBounds;
+
+    public TopicMessageRepositoryCustomImpl(DatabaseClient databaseClient,
+                                            InstantToLongConverter instantToLongConverter) {
+        this.databaseClient = databaseClient;
+        this.instantToLongConverter = instantToLongConverter;
+        partitionBounds = databaseClient.execute(PARTITION_BOUNDS_QUERY)
+                .map(row -> row.get("upper_bound", Long.class))
+                .all()
+                .collectList()
+                .onErrorResume(e -> {
+                    log.debug("Unable to query partitions of topic_message, assuming it is not partitioned: {}",
+                            e.getMessage());
+                    return Mono.just(List.of());
+                })
+                .cache(PARTITION_BOUNDS_CACHE);
+    }
 
     @Override
     public Flux<TopicMessage> findByFilter(TopicMessageFilter filter) {
+        long startTime = instantToLongConverter.convert(filter.getStartTime());
+        Long endTime = filter.getEndTime() != null ? instantToLongConverter.convert(filter.getEndTime()) : null;
+        Pageable pageable = filter.hasLimit() ? PageRequest.of(0, (int) filter.getLimit()) : Pageable.unpaged();
+
+        Flux<TopicMessage> topicMessages = partitionBounds
+                .flatMapIterable(bounds -> split(startTime, endTime, bounds))
+                .concatMap(range -> findByRange(filter, range, pageable));
+
+        return (filter.hasLimit() ? topicMessages.limitRequest(filter.getLimit()) : topicMessages)
+                .name("findByFilter")
+                .metrics()
+                .doOnSubscribe(s -> log.debug("Executing query: {}", filter))
+                .doOnCancel(() -> log.debug("[{}] Cancelled query", filter.getSubscriberId()))
+                .doOnComplete(() -> log.debug("[{}] Completed query", filter.getSubscriberId()))
+                .doOnNext(t -> log.trace("[{}] Next message: {}", filter.getSubscriberId(), t));
+    }
+
+    @Override
+    public Mono<Instant> findCommitTimestamp(TopicMessage topicMessage) {
+        return databaseClient.execute(COMMIT_TIMESTAMP_QUERY)
+                .bind(0, instantToLongConverter.convert(topicMessage.getConsensusTimestamp()))
+                .map(row -> row.get("commit_ms", Long.class))
+                .first()
+                .map(Instant::ofEpochMilli);
+    }
+
+    private Flux<TopicMessage> findByRange(TopicMessageFilter filter, Range<Long> range, Pageable pageable) {
         Criteria whereClause = Criteria.where("realm_num")
                 .is(filter.getRealmNum())
                 .and("topic_num")
                 .is(filter.getTopicNum())
                 .and("consensus_timestamp")
-                .greaterThanOrEquals(instantToLongConverter.convert(filter.getStartTime()));
+                .greaterThanOrEquals(range.lowerEndpoint());
 
-        if (filter.getEndTime() != null) {
-            whereClause = whereClause.and("consensus_timestamp")
-                    .lessThan(instantToLongConverter.convert(filter.getEndTime()));
+        if (range.hasUpperBound()) {
+            whereClause = whereClause.and("consensus_timestamp").lessThan(range.upperEndpoint());
         }
 
-        Pageable pageable = filter.hasLimit() ? PageRequest.of(0, (int) filter.getLimit()) : Pageable.unpaged();
-
         return databaseClient.select()
                 .from(TopicMessage.class)
                 .matching(whereClause)
                 .orderBy(Sort.by("consensus_timestamp"))
                 .page(pageable)
                 .fetch()
-                .all()
-                .name("findByFilter")
-                .metrics()
-                .doOnSubscribe(s -> log.debug("Executing query: {}", filter))
-                .doOnCancel(() -> log.debug("[{}] Cancelled query", filter.getSubscriberId()))
-                .doOnComplete(() -> log.debug("[{}] Completed query", filter.getSubscriberId()))
-                .doOnNext(t -> log.trace("[{}] Next message: {}", filter.getSubscriberId(), t));
+                .all();
+    }
+
+    // Splits [startTime, endTime) at every partition bound inside of it
+    static List<Range<Long>> split(long startTime, Long endTime, List<Long> bounds) {
+        List<Range<Long>> ranges = new ArrayList<>(bounds.size() + 1);
+        long lower = startTime;
+
+        for (Long bound : bounds) {
+            if (bound > lower && (endTime == null || bound < endTime)) {
+                ranges.add(Range.closedOpen(lower, bound));
+                lower = bound;
+            }
+        }
+
+        if (endTime == null) {
+            ranges.add(Range.atLeast(lower));
+        } else if (lower < endTime) {
+            ranges.add(Range.closedOpen(lower, endTime));
+        }
+
+        return ranges;
     }
 }
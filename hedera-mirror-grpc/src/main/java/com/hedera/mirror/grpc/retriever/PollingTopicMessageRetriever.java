@@ -89,8 +89,20 @@ public class PollingTopicMessageRetriever implements TopicMessageRetriever {
                 .startTime(startTime)
                 .build();
 
+        RetrieverPageEvent event = new RetrieverPageEvent();
+        event.subscriberId = filter.getSubscriberId();
+        event.realmNum = filter.getRealmNum();
+        event.topicNum = filter.getTopicNum();
+        event.startTime = startTime.toEpochMilli();
+        event.pageSize = pageSize;
+
         return topicMessageRepository.findByFilter(newFilter)
-                .doOnSubscribe(s -> context.getPageSize().set(0L));
+                .doOnSubscribe(s -> {
+                    context.getPageSize().set(0L);
+                    event.begin();
+                })
+                .doOnNext(t -> event.messages++)
+                .doFinally(s -> event.commit());
     }
 
     @Data
@@ -0,0 +1,57 @@
+package com.hedera.mirror.grpc.retriever;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timestamp;
+
+/**
+ * A Java Flight Recorder event for querying a page of historic topic messages and emitting them
+ */
+@Category({"Hedera Mirror", "gRPC"})
+@Description("Querying a page of historic topic messages and emitting them")
+@Label("Retriever Page")
+@Name("com.hedera.mirror.grpc.RetrieverPage")
+class RetrieverPageEvent extends Event {
+
+    @Label("Subscriber")
+    String subscriberId;
+
+    @Label("Realm")
+    int realmNum;
+
+    @Label("Topic")
+    int topicNum;
+
+    @Label("Start Time")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    long startTime;
+
+    @Label("Page Size")
+    int pageSize;
+
+    @Label("Messages")
+    int messages;
+}
@@ -31,6 +31,7 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.validation.annotation.Validated;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 import reactor.retry.Repeat;
 
 import com.hedera.mirror.grpc.GrpcProperties;
@@ -68,7 +69,8 @@ public class TopicMessageServiceImpl implements TopicMessageService {
                 .as(t -> filter.hasLimit() ? t.limitRequest(filter.getLimit()) : t)
                 .doOnNext(topicContext::onNext)
                 .doOnCancel(topicContext::onCancel)
-                .doOnComplete(topicContext::onComplete));
+                .doOnComplete(topicContext::onComplete)
+                .doFinally(topicContext::onFinally));
     }
 
     private Mono<?> topicExists(TopicMessageFilter filter) {
@@ -137,6 +139,7 @@ public class TopicMessageServiceImpl implements TopicMessageService {
         private final Stopwatch stopwatch;
         private final AtomicLong count;
         private final Instant startTime;
+        private final TopicSubscriptionEvent event;
         private volatile TopicMessage lastTopicMessage;
 
         public TopicContext(TopicMessageFilter filter) {
@@ -145,6 +148,8 @@ public class TopicMessageServiceImpl implements TopicMessageService {
             stopwatch = Stopwatch.createStarted();
             count = new AtomicLong(0L);
             startTime = Instant.now();
+            event = new TopicSubscriptionEvent();
+            event.begin();
         }
 
         boolean isComplete() {
@@ -179,6 +184,17 @@ public class TopicMessageServiceImpl implements TopicMessageService {
                     filter.getSubscriberId(), topicId, count, stopwatch, rate());
         }
 
+        void onFinally(SignalType signalType) {
+            event.subscriberId = filter.getSubscriberId();
+            event.topicId = topicId;
+            event.startTime = filter.getStartTime().toEpochMilli();
+            event.endTime = filter.getEndTime() != null ? filter.getEndTime().toEpochMilli() : 0L;
+            event.limit = filter.getLimit();
+            event.messages = count.get();
+            event.signal = signalType.toString();
+            event.commit();
+        }
+
         void onNext(TopicMessage topicMessage) {
             lastTopicMessage = topicMessage;
             count.incrementAndGet();
@@ -0,0 +1,64 @@
+package com.hedera.mirror.grpc.service;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timestamp;
+
+/**
+ * A Java Flight Recorder event for a topic subscription, from when the client subscribed until it ended. It's recorded
+ * once the subscription ends.
+ */
+@Category({"Hedera Mirror", "gRPC"})
+@Description("A topic subscription from when the client subscribed until it ended")
+@Label("Topic Subscription")
+@Name("com.hedera.mirror.grpc.TopicSubscription")
+class TopicSubscriptionEvent extends Event {
+
+    @Label("Subscriber")
+    String subscriberId;
+
+    @Label("Topic")
+    String topicId;
+
+    @Label("Start Time")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    long startTime;
+
+    @Description("The end time of the filter or 0 if it has none")
+    @Label("End Time")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    long endTime;
+
+    @Label("Limit")
+    long limit;
+
+    @Label("Messages")
+    long messages;
+
+    @Description("How the subscription ended")
+    @Label("Signal")
+    String signal;
+}
@@ -29,8 +29,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.util.TestPropertyValues;
 import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.test.context.ContextConfiguration;
 import org.testcontainers.containers.PostgreSQLContainer;
 
@@ -68,20 +70,23 @@ public abstract class GrpcIntegrationTest {
                 log.info("Starting PostgreSQL");
                 postgresql = new PostgreSQLContainer<>("postgres:9.6-alpine");
                 postgresql.start();
-
-                TestPropertyValues
-                        .of("hedera.mirror.grpc.db.name=" + postgresql.getDatabaseName())
-                        .and("hedera.mirror.grpc.db.password=" + postgresql.getPassword())
-                        .and("hedera.mirror.grpc.db.username=" + postgresql.getUsername())
-                        .and("spring.datasource.url=" + postgresql.getJdbcUrl())
-                        .and("spring.r2dbc.url=" + postgresql.getJdbcUrl()
-                                .replace("jdbc:", "r2dbc:"))
-                        .applyTo(applicationContext);
+                applyTo(postgresql, applicationContext);
             } catch (Throwable ex) {
                 log.warn(ex.getMessage());
             }
         }
 
+        static void applyTo(PostgreSQLContainer container, ConfigurableApplicationContext applicationContext) {
+            TestPropertyValues
+                    .of("hedera.mirror.grpc.db.name=" + container.getDatabaseName())
+                    .and("hedera.mirror.grpc.db.password=" + container.getPassword())
+                    .and("hedera.mirror.grpc.db.username=" + container.getUsername())
+                    .and("spring.datasource.url=" + container.getJdbcUrl())
+                    .and("spring.r2dbc.url=" + container.getJdbcUrl()
+                            .replace("jdbc:", "r2dbc:"))
+                    .applyTo(applicationContext);
+        }
+
         @PreDestroy
         public void stop() {
             if (postgresql != null && postgresql.isRunning()) {
@@ -90,4 +95,34 @@ public abstract class GrpcIntegrationTest {
             }
         }
     }
+
+    /**
+     * Uses PostgreSQL 11 instead, on which the migrations partition topic_message and the other high volume tables by
+     * consensus timestamp. Tests that need it replace the default initializer with this one. The container is stopped
+     * when the context is closed.
+     */
+    @Log4j2
+    public static class PartitionedDatabaseConfiguration
+            implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+        @Override
+        public void initialize(ConfigurableApplicationContext applicationContext) {
+            try {
+                log.info("Starting PostgreSQL 11");
+                PostgreSQLContainer postgresql = new PostgreSQLContainer<>("postgres:11-alpine");
+                postgresql.start();
+                TestDatabaseConfiguration.applyTo(postgresql, applicationContext);
+
+                applicationContext.addApplicationListener(new ApplicationListener<ContextClosedEvent>() {
+                    @Override
+                    public void onApplicationEvent(ContextClosedEvent event) {
+                        log.info("Stopping PostgreSQL 11");
+                        postgresql.stop();
+                    }
+                });
+            } catch (Throwable ex) {
+                log.warn(ex.getMessage());
+            }
+        }
+    }
 }
@@ -27,7 +27,10 @@ import com.hederahashgraph.api.proto.java.Timestamp;
 import com.hederahashgraph.api.proto.java.TopicID;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Duration;
+import java.time.Instant;
 import javax.annotation.Resource;
 import lombok.extern.log4j.Log4j2;
 import net.devh.boot.grpc.client.inject.GrpcClient;
@@ -58,6 +61,9 @@ public class ConsensusControllerTest extends GrpcIntegrationTest {
     @Resource
     private DomainBuilder domainBuilder;
 
+    @Resource
+    private MeterRegistry meterRegistry;
+
     @Resource
     private SharedPollingTopicListener sharedPollingTopicListener;
 
@@ -187,6 +193,35 @@ public class ConsensusControllerTest extends GrpcIntegrationTest {
                 .verify(Duration.ofMillis(500));
     }
 
+    @Test
+    void subscribeTopicLatency() throws Exception {
+        Timer timer = meterRegistry.find(SharedPollingTopicListener.LATENCY_METRIC).tag("stage", "delivered").timer();
+        assertThat(timer).isNotNull();
+        long count = timer.count();
+
+        domainBuilder.topicMessage().block();
+        ConsensusTopicQuery query = ConsensusTopicQuery.newBuilder()
+                .setLimit(2L)
+                .setConsensusStartTime(Timestamp.newBuilder().setSeconds(0).build())
+                .setTopicID(TopicID.newBuilder().setRealmNum(0).setTopicNum(0).build())
+                .build();
+
+        // Only the message that reaches consensus after the subscription is recorded
+        Mono<TopicMessage> generator = Mono.defer(() ->
+                domainBuilder.topicMessage(t -> t.consensusTimestamp(Instant.now())));
+
+        grpcConsensusService.subscribeTopic(Mono.just(query))
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .thenAwait(Duration.ofMillis(50))
+                .then(() -> generator.block())
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofMillis(500));
+
+        assertThat(timer.count()).isEqualTo(count + 1);
+    }
+
     void assertException(Throwable t, Status.Code status, String message) {
         assertThat(t).isNotNull()
                 .isInstanceOf(StatusRuntimeException.class)
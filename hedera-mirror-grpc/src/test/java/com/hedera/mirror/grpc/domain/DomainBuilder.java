@@ -50,6 +50,8 @@ public class DomainBuilder {
     void setup() {
         databaseClient.delete().from(Entity.class).fetch().rowsUpdated().block();
         databaseClient.delete().from(TopicMessage.class).fetch().rowsUpdated().block();
+        databaseClient.execute("delete from t_transactions").fetch().rowsUpdated().block();
+        databaseClient.execute("delete from t_record_files").fetch().rowsUpdated().block();
     }
 
     public Mono<Entity> entity() {
@@ -66,6 +68,9 @@ public class DomainBuilder {
 
         customizer.accept(builder);
         Entity entity = builder.build();
+        if (entity.getId() == null) {
+            entity.setId(Entity.encodeId(entity.getEntityShard(), entity.getEntityRealm(), entity.getEntityNum()));
+        }
         return insert(entity).thenReturn(entity);
     }
 
@@ -95,6 +100,33 @@ public class DomainBuilder {
         return insert(topicMessage).thenReturn(topicMessage);
     }
 
+    /**
+     * Inserts the transaction of a topic message and the record file containing it, which the importer committed at
+     * the given time.
+     *
+     * @param consensusTimestamp the consensus timestamp of the transaction
+     * @param commitTimestamp    the time the record file was committed
+     * @return the id of the record file
+     */
+    public Mono<Long> transaction(Instant consensusTimestamp, Instant commitTimestamp) {
+        long consensusNs = ChronoUnit.NANOS.between(Instant.EPOCH, consensusTimestamp);
+
+        return databaseClient.execute("insert into t_record_files (name, commit_ms) values ($1, $2) returning id")
+                .bind(0, consensusNs + ".rcd")
+                .bind(1, commitTimestamp.toEpochMilli())
+                .map(row -> row.get("id", Long.class))
+                .first()
+                .flatMap(fileId -> databaseClient.execute("insert into t_transactions (consensus_ns, " +
+                        "valid_start_ns, fk_rec_file_id, fk_payer_acc_id, fk_node_acc_id, result, type) " +
+                        "values ($1, $2, $3, 2, 3, 22, 27)")
+                        .bind(0, consensusNs)
+                        .bind(1, consensusNs - 1)
+                        .bind(2, fileId)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(fileId));
+    }
+
     public Flux<TopicMessage> topicMessages(long count) {
         List<Publisher<TopicMessage>> publishers = new ArrayList<>();
         for (int i = 0; i < count; ++i) {
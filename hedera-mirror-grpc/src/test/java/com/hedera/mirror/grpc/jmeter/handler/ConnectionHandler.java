@@ -29,6 +29,7 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.data.r2dbc.core.DatabaseClient;
 
 import com.hedera.mirror.grpc.converter.InstantToLongConverter;
+import com.hedera.mirror.grpc.domain.Entity;
 
 @Log4j2
 public class ConnectionHandler {
@@ -88,13 +89,14 @@ public class ConnectionHandler {
 
     public void createTopic(long topicNum) {
         String entityInsertSql = "insert into t_entities"
-                + " (entity_num, entity_realm, entity_shard, fk_entity_type_id)"
-                + " values ($1, $2, $3, $4) on conflict do nothing";
+                + " (entity_num, entity_realm, entity_shard, fk_entity_type_id, id)"
+                + " values ($1, $2, $3, $4, $5) on conflict do nothing";
         client.execute(entityInsertSql)
                 .bind("$1", topicNum)
                 .bind("$2", 0)
                 .bind("$3", 0)
                 .bind("$4", 4)
+                .bind("$5", Entity.encodeId(0, 0, topicNum))
                 .then()
                 .block();
 
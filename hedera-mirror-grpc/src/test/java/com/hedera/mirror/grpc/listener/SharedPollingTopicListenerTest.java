@@ -20,7 +20,11 @@ package com.hedera.mirror.grpc.listener;
  * ‍
  */
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import com.google.common.util.concurrent.Uninterruptibles;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.TimeUnit;
@@ -28,6 +32,7 @@ import javax.annotation.Resource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import com.hedera.mirror.grpc.domain.TopicMessage;
@@ -35,6 +40,9 @@ import com.hedera.mirror.grpc.domain.TopicMessageFilter;
 
 public class SharedPollingTopicListenerTest extends AbstractTopicListenerTest {
 
+    @Resource
+    private MeterRegistry meterRegistry;
+
     @Resource
     private SharedPollingTopicListener topicListener;
 
@@ -120,4 +128,67 @@ public class SharedPollingTopicListenerTest extends AbstractTopicListenerTest {
 
         listenerProperties.setBufferSize(bufferSize);
     }
+
+    @Test
+    void latency() {
+        Timer timer = meterRegistry.find(SharedPollingTopicListener.LATENCY_METRIC).tag("stage", "polled").timer();
+        assertThat(timer).isNotNull();
+        long count = timer.count();
+
+        TopicMessageFilter filter = TopicMessageFilter.builder()
+                .startTime(Instant.EPOCH)
+                .build();
+
+        // Only the message that reaches consensus after polling started is recorded
+        Flux<TopicMessage> generator = Flux.concat(
+                domainBuilder.topicMessage(),
+                Mono.defer(() -> domainBuilder.topicMessage(t -> t.consensusTimestamp(Instant.now())))
+        );
+
+        getTopicListener().listen(filter)
+                .map(TopicMessage::getSequenceNumber)
+                .as(StepVerifier::create)
+                .thenAwait(Duration.ofMillis(50))
+                .then(() -> generator.blockLast())
+                .expectNext(1L, 2L)
+                .thenCancel()
+                .verify(Duration.ofMillis(500));
+
+        assertThat(timer.count()).isEqualTo(count + 1);
+    }
+
+    @Test
+    void latencyStages() {
+        Timer importer = meterRegistry.find(SharedPollingTopicListener.LATENCY_METRIC).tag("stage", "importer").timer();
+        Timer listener = meterRegistry.find(SharedPollingTopicListener.LATENCY_METRIC).tag("stage", "listener").timer();
+        assertThat(importer).isNotNull();
+        assertThat(listener).isNotNull();
+        long importerCount = importer.count();
+        double importerTime = importer.totalTime(TimeUnit.MILLISECONDS);
+        long listenerCount = listener.count();
+
+        TopicMessageFilter filter = TopicMessageFilter.builder()
+                .startTime(Instant.EPOCH)
+                .build();
+
+        // The transaction is committed before its message is visible, like the importer does in one transaction
+        Instant consensusTimestamp = Instant.now();
+        Mono<TopicMessage> generator = domainBuilder.transaction(consensusTimestamp, consensusTimestamp.plusMillis(5))
+                .then(domainBuilder.topicMessage(t -> t.consensusTimestamp(consensusTimestamp)));
+
+        getTopicListener().listen(filter)
+                .map(TopicMessage::getSequenceNumber)
+                .as(StepVerifier::create)
+                .thenAwait(Duration.ofMillis(50))
+                .then(() -> generator.block())
+                .expectNext(1L)
+                .thenAwait(Duration.ofMillis(200))
+                .thenCancel()
+                .verify(Duration.ofMillis(1000));
+
+        // The polled latency of the sampled message is split at the time its record file was committed
+        assertThat(importer.count()).isEqualTo(importerCount + 1);
+        assertThat(importer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(importerTime + 4.0);
+        assertThat(listener.count()).isEqualTo(listenerCount + 1);
+    }
 }
@@ -0,0 +1,122 @@
+package com.hedera.mirror.grpc.repository;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import javax.annotation.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ContextConfiguration;
+import reactor.test.StepVerifier;
+
+import com.hedera.mirror.grpc.GrpcIntegrationTest;
+import com.hedera.mirror.grpc.domain.DomainBuilder;
+import com.hedera.mirror.grpc.domain.TopicMessage;
+import com.hedera.mirror.grpc.domain.TopicMessageFilter;
+
+/**
+ * Runs against PostgreSQL 11, where the migrations partition topic_message by month. The history partition ends at the
+ * start of the current month and the partitions of the current month and the two after it are created up front.
+ */
+@ContextConfiguration(initializers = GrpcIntegrationTest.PartitionedDatabaseConfiguration.class,
+        inheritInitializers = false)
+public class PartitionedTopicMessageRepositoryTest extends GrpcIntegrationTest {
+
+    @Resource
+    private DatabaseClient databaseClient;
+
+    @Resource
+    private DomainBuilder domainBuilder;
+
+    @Resource
+    private TopicMessageRepository topicMessageRepository;
+
+    private TopicMessage history;
+    private TopicMessage currentMonth;
+    private TopicMessage nextMonth;
+    private TopicMessage lastMonth;
+
+    @BeforeEach
+    void setup() {
+        Long partitions = databaseClient.execute("select count(*) as partitions from pg_inherits " +
+                "where inhparent = 'topic_message'::regclass")
+                .map(row -> row.get("partitions", Long.class))
+                .first()
+                .block();
+        assumeTrue(partitions != null && partitions > 1, "topic_message is not partitioned");
+
+        ZonedDateTime monthStart = ZonedDateTime.now(ZoneOffset.UTC).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+        databaseClient.delete().from(TopicMessage.class).fetch().rowsUpdated().block();
+        history = topicMessage(monthStart.minusDays(1L).toInstant());
+        currentMonth = topicMessage(monthStart.toInstant());
+        nextMonth = topicMessage(monthStart.plusMonths(1L).plusDays(1L).toInstant());
+        lastMonth = topicMessage(monthStart.plusMonths(2L).plusDays(1L).toInstant());
+    }
+
+    @Test
+    void findByFilterAcrossPartitions() {
+        TopicMessageFilter filter = TopicMessageFilter.builder()
+                .startTime(Instant.EPOCH)
+                .build();
+
+        topicMessageRepository.findByFilter(filter)
+                .as(StepVerifier::create)
+                .expectNext(history, currentMonth, nextMonth, lastMonth)
+                .verifyComplete();
+    }
+
+    @Test
+    void findByFilterWithLimitAcrossPartitions() {
+        TopicMessageFilter filter = TopicMessageFilter.builder()
+                .limit(2)
+                .startTime(Instant.EPOCH)
+                .build();
+
+        topicMessageRepository.findByFilter(filter)
+                .as(StepVerifier::create)
+                .expectNext(history, currentMonth)
+                .verifyComplete();
+    }
+
+    @Test
+    void findByFilterWithinPartitions() {
+        TopicMessageFilter filter = TopicMessageFilter.builder()
+                .startTime(currentMonth.getConsensusTimestamp())
+                .endTime(lastMonth.getConsensusTimestamp())
+                .build();
+
+        topicMessageRepository.findByFilter(filter)
+                .as(StepVerifier::create)
+                .expectNext(currentMonth, nextMonth)
+                .verifyComplete();
+    }
+
+    private TopicMessage topicMessage(Instant consensusTimestamp) {
+        return domainBuilder.topicMessage(t -> t.consensusTimestamp(consensusTimestamp)).block();
+    }
+}
@@ -0,0 +1,71 @@
+package com.hedera.mirror.grpc.repository;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.Range;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class TopicMessageRepositoryCustomImplTest {
+
+    private static final List<Long> BOUNDS = List.of(5L, 15L, 25L, 35L);
+
+    @Test
+    void splitWithoutPartitions() {
+        assertThat(TopicMessageRepositoryCustomImpl.split(10L, null, List.of()))
+                .containsExactly(Range.atLeast(10L));
+        assertThat(TopicMessageRepositoryCustomImpl.split(10L, 20L, List.of()))
+                .containsExactly(Range.closedOpen(10L, 20L));
+    }
+
+    @Test
+    void splitAtPartitionBounds() {
+        assertThat(TopicMessageRepositoryCustomImpl.split(10L, null, BOUNDS))
+                .containsExactly(Range.closedOpen(10L, 15L), Range.closedOpen(15L, 25L), Range.closedOpen(25L, 35L),
+                        Range.atLeast(35L));
+        assertThat(TopicMessageRepositoryCustomImpl.split(10L, 30L, BOUNDS))
+                .containsExactly(Range.closedOpen(10L, 15L), Range.closedOpen(15L, 25L), Range.closedOpen(25L, 30L));
+    }
+
+    @Test
+    void splitWithinPartition() {
+        assertThat(TopicMessageRepositoryCustomImpl.split(15L, 25L, BOUNDS))
+                .containsExactly(Range.closedOpen(15L, 25L));
+        assertThat(TopicMessageRepositoryCustomImpl.split(16L, 24L, BOUNDS))
+                .containsExactly(Range.closedOpen(16L, 24L));
+    }
+
+    @Test
+    void splitOutsidePartitions() {
+        assertThat(TopicMessageRepositoryCustomImpl.split(0L, 5L, BOUNDS))
+                .containsExactly(Range.closedOpen(0L, 5L));
+        assertThat(TopicMessageRepositoryCustomImpl.split(40L, null, BOUNDS))
+                .containsExactly(Range.atLeast(40L));
+    }
+
+    @Test
+    void splitEmptyRange() {
+        assertThat(TopicMessageRepositoryCustomImpl.split(20L, 20L, BOUNDS)).isEmpty();
+    }
+}
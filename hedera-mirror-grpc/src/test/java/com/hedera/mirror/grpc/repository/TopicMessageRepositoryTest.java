@@ -169,4 +169,26 @@ public class TopicMessageRepositoryTest extends GrpcIntegrationTest {
                 .expectNext(topicMessage2, topicMessage3)
                 .verifyComplete();
     }
+
+    @Test
+    void findCommitTimestamp() {
+        TopicMessage topicMessage = domainBuilder.topicMessage().block();
+        Instant commitTimestamp = topicMessage.getConsensusTimestamp().plusMillis(1500L);
+        domainBuilder.transaction(topicMessage.getConsensusTimestamp(), commitTimestamp).block();
+
+        topicMessageRepository.findCommitTimestamp(topicMessage)
+                .as(StepVerifier::create)
+                .expectNext(Instant.ofEpochMilli(commitTimestamp.toEpochMilli()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findCommitTimestampNotFound() {
+        TopicMessage topicMessage = domainBuilder.topicMessage().block();
+
+        topicMessageRepository.findCommitTimestamp(topicMessage)
+                .as(StepVerifier::create)
+                .expectNextCount(0)
+                .verifyComplete();
+    }
 }
@@ -20,12 +20,12 @@ package com.hedera.mirror.importer.config;
  * ‍
  */
 
-import com.hedera.mirror.importer.parser.CommonParserProperties;
-
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.Callable;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -34,27 +34,23 @@ import org.springframework.context.annotation.Primary;
 @Configuration
 @ConditionalOnProperty(prefix = "spring.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
 @EnableCaching
-@RequiredArgsConstructor
 public class CacheConfiguration {
 
-    private final CommonParserProperties commonParserProperties;
-
     public static final String EXPIRE_AFTER_5M = "cacheManagerExpireAfter5m";
     public static final String EXPIRE_AFTER_30M = "cacheManagerExpireAfter30m";
     public static final String TINY_LRU_CACHE = "tinyLruCache";
-    public static final String BIG_LRU_CACHE = "bigLruCache";
 
     @Bean(EXPIRE_AFTER_5M)
     @Primary
     CacheManager cacheManager5m() {
-        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        CaffeineCacheManager caffeineCacheManager = new EventRecordingCacheManager();
         caffeineCacheManager.setCacheSpecification("maximumSize=100,expireAfterWrite=5m");
         return caffeineCacheManager;
     }
 
     @Bean(EXPIRE_AFTER_30M)
     CacheManager cacheManager30m() {
-        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        CaffeineCacheManager caffeineCacheManager = new EventRecordingCacheManager();
         caffeineCacheManager.setCacheSpecification("maximumSize=10000,expireAfterWrite=30m");
         return caffeineCacheManager;
     }
@@ -62,15 +58,36 @@ public class CacheConfiguration {
     // Cache for small sets of DB "constants" that don't change and are looked up once.
     @Bean(TINY_LRU_CACHE)
     CacheManager tinyLruCache() {
-        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        CaffeineCacheManager caffeineCacheManager = new EventRecordingCacheManager();
         caffeineCacheManager.setCacheSpecification("maximumSize=100");
         return caffeineCacheManager;
     }
 
-    @Bean(BIG_LRU_CACHE)
-    CacheManager bigLruCache() {
-        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
-        caffeineCacheManager.setCacheSpecification("maximumSize=" + commonParserProperties.getEntityIdCacheSize());
-        return caffeineCacheManager;
+    /**
+     * Records a {@link CacheMissEvent} whenever a synchronized lookup like that of the application status has to load
+     * the value because it isn't cached. Other lookups load the value outside of the cache. The record parser looks up
+     * entities on its own connection without a cache, so those lookups are timed by its resolve stage instead.
+     */
+    private static class EventRecordingCacheManager extends CaffeineCacheManager {
+
+        @Override
+        protected Cache createCaffeineCache(String name) {
+            return new CaffeineCache(name, createNativeCaffeineCache(name), isAllowNullValues()) {
+                @Override
+                public <T> T get(Object key, Callable<T> valueLoader) {
+                    return super.get(key, () -> {
+                        CacheMissEvent event = new CacheMissEvent();
+                        event.begin();
+                        try {
+                            return valueLoader.call();
+                        } finally {
+                            event.cache = name;
+                            event.key = String.valueOf(key);
+                            event.commit();
+                        }
+                    });
+                }
+            };
+        }
     }
 }
@@ -0,0 +1,44 @@
+package com.hedera.mirror.importer.config;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for loading a value that wasn't cached, like an application status read from the
+ * database
+ */
+@Category({"Hedera Mirror", "Importer"})
+@Description("Loading a value that wasn't cached")
+@Label("Cache Miss")
+@Name("com.hedera.mirror.importer.CacheMiss")
+class CacheMissEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    String key;
+}
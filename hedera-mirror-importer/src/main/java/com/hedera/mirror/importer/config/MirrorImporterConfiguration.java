@@ -28,7 +28,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
@@ -43,7 +42,6 @@ import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import com.hedera.mirror.importer.downloader.CommonDownloaderProperties;
 
 @Configuration
-@EnableAsync
 @Log4j2
 @RequiredArgsConstructor
 public class MirrorImporterConfiguration {
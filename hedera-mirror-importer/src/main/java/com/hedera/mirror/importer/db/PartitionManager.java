@@ -0,0 +1,69 @@
+package com.hedera.mirror.importer.db;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.List;
+import javax.inject.Named;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Creates the upcoming monthly partitions of the tables partitioned by consensus timestamp, so inserts never fail for
+ * lack of a partition. Tables that are not partitioned (e.g. on PostgreSQL versions before 11) are skipped by the
+ * f_create_partitions database function.
+ */
+@Log4j2
+@Named
+@RequiredArgsConstructor
+public class PartitionManager implements SchedulingConfigurer {
+
+    static final List<String> PARTITIONED_TABLES = List.of("t_transactions", "t_cryptotransferlists",
+            "non_fee_transfers", "topic_message", "account_balances");
+
+    private final PartitionProperties partitionProperties;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Scheduled programmatically since the frequency is bound as a Duration like 1h, which fixedRateString can't parse
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedRateTask(this::createPartitions, partitionProperties.getFrequency().toMillis());
+    }
+
+    public void createPartitions() {
+        if (!partitionProperties.isEnabled()) {
+            return;
+        }
+
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                Integer created = jdbcTemplate.queryForObject("select f_create_partitions(?, ?)", Integer.class,
+                        table, partitionProperties.getMonthsAhead());
+                if (created != null && created > 0) {
+                    log.info("Created {} partitions for {}", created, table);
+                }
+            } catch (Exception e) {
+                log.error("Error creating partitions for {}", table, e);
+            }
+        }
+    }
+}
@@ -23,13 +23,13 @@ package com.hedera.mirror.importer.domain;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import lombok.Data;
 import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
+import org.hibernate.annotations.GenericGenerator;
 
 import com.hedera.mirror.importer.util.Utility;
 
@@ -41,7 +41,8 @@ import com.hedera.mirror.importer.util.Utility;
 public class Entities {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = EntityIdGenerator.NAME)
+    @GenericGenerator(name = EntityIdGenerator.NAME, strategy = "com.hedera.mirror.importer.domain.EntityIdGenerator")
     private Long id;
 
     private Long entityNum;
@@ -22,11 +22,43 @@ package com.hedera.mirror.importer.domain;
 
 import lombok.Value;
 
+/**
+ * The id of an entity together with its shard, realm and number. The id is a pure bit-packed encoding of the shard,
+ * realm and number, so it can be computed without access to the database.
+ */
 @Value
 public class EntityId {
+
+    private static final int SHARD_BITS = 15;
+    private static final int REALM_BITS = 16;
+    private static final int NUM_BITS = 32;
+    private static final long SHARD_MASK = (1L << SHARD_BITS) - 1;
+    private static final long REALM_MASK = (1L << REALM_BITS) - 1;
+    private static final long NUM_MASK = (1L << NUM_BITS) - 1;
+
     private Long id;
     private Long entityShard;
     private Long entityRealm;
     private Long entityNum;
     private Integer entityTypeId;
+
+    public static EntityId of(long entityShard, long entityRealm, long entityNum, EntityTypeEnum type) {
+        return new EntityId(encode(entityShard, entityRealm, entityNum), entityShard, entityRealm, entityNum,
+                type.getId());
+    }
+
+    /**
+     * Encodes an entity into a long with 15 bits for the shard, 16 bits for the realm and 32 bits for the number.
+     *
+     * @throws IllegalArgumentException if a part is negative or doesn't fit into its bits
+     */
+    public static long encode(long entityShard, long entityRealm, long entityNum) {
+        if (entityShard < 0 || entityShard > SHARD_MASK || entityRealm < 0 || entityRealm > REALM_MASK ||
+                entityNum < 0 || entityNum > NUM_MASK) {
+            throw new IllegalArgumentException(String.format("Entity %d.%d.%d can't be encoded", entityShard,
+                    entityRealm, entityNum));
+        }
+
+        return (entityShard << (REALM_BITS + NUM_BITS)) | (entityRealm << NUM_BITS) | entityNum;
+    }
 }
@@ -0,0 +1,38 @@
+package com.hedera.mirror.importer.domain;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.io.Serializable;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Assigns the encoded {@link EntityId} of the shard, realm and number to new {@link Entities}.
+ */
+public class EntityIdGenerator implements IdentifierGenerator {
+
+    public static final String NAME = "entity_id";
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        Entities entity = (Entities) object;
+        return EntityId.encode(entity.getEntityShard(), entity.getEntityRealm(), entity.getEntityNum());
+    }
+}
@@ -44,6 +44,8 @@ public class RecordFile {
 
     private Long loadEnd;
 
+    private Long commitMs;
+
     private String fileHash;
 
     @Column(name = "prev_hash")
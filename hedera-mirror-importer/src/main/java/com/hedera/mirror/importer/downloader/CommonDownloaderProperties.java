@@ -27,6 +27,7 @@ import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 @Data
@@ -39,16 +40,36 @@ public class CommonDownloaderProperties {
     @NotBlank
     private String bucketName = "hedera-demo-streams";
 
+    private boolean catchUp = true;
+
+    @NotNull
+    private DataSize catchUpMaxInFlight = DataSize.ofMegabytes(256);
+
+    // Four times catchUpMaxInFlight, so the files of the last few pages listed while catching up before a restart
+    // aren't downloaded again, while bounding the disk used by the cache of each of the three stream types
+    @NotNull
+    private DataSize cacheMaxSize = DataSize.ofGigabytes(1);
+
     @NotNull
     private CloudProvider cloudProvider = CloudProvider.S3;
 
     @Min(0)
     private int maxConcurrency = 1000; // aws sdk default = 50
 
+    @NotNull
+    private DataSize rangeSize = DataSize.ofMegabytes(4);
+
+    @NotNull
+    private DataSize rangeThreshold = DataSize.ofMegabytes(8);
+
     private String region = "us-east-1";
 
     private String secretKey;
 
+    private boolean tipFollowing = true;
+
+    private boolean verifyStragglers = false;
+
     @Getter
     @RequiredArgsConstructor
     public enum CloudProvider {
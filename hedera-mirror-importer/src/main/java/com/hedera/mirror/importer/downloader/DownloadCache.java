@@ -0,0 +1,183 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.log4j.Log4j2;
+
+import com.hedera.mirror.importer.util.Utility;
+
+/**
+ * An on-disk cache of downloaded objects keyed by their S3 key and ETag, so objects downloaded before a restart don't
+ * have to be transferred again. Entries are hard links to the downloaded files, so populating the cache and restoring
+ * from it doesn't copy any data on the download path. This relies on downloaded files only ever being moved or deleted,
+ * never written in place. Files are copied instead if the cache is on another file system than the downloads. Entries
+ * are linked to a temporary name and renamed into place, so a partially written entry is never used. Once the cache
+ * exceeds its maximum size the least recently used entries are evicted.
+ */
+@Log4j2
+class DownloadCache {
+
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxSize;
+    private final Map<Path, Long> entries = new LinkedHashMap<>(16, 0.75f, true); // Access ordered sizes
+    private long size = 0L;
+
+    DownloadCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        load();
+    }
+
+    /**
+     * Links the cached object to the destination, replacing it if it exists.
+     *
+     * @return true if the object was cached and linked
+     */
+    boolean get(String s3ObjectKey, String eTag, Path destination) {
+        Path path = getPath(s3ObjectKey, eTag);
+        synchronized (this) {
+            if (entries.get(path) == null) {
+                return false;
+            }
+        }
+
+        try {
+            link(path, destination);
+            path.toFile().setLastModified(System.currentTimeMillis()); // Keeps the order of use across restarts
+            log.debug("Restored {} from the cache", s3ObjectKey);
+            return true;
+        } catch (IOException e) {
+            log.warn("Unable to restore {} from the cache", s3ObjectKey, e);
+            remove(path);
+            return false;
+        }
+    }
+
+    /**
+     * Adds the downloaded object to the cache, evicting the least recently used entries if necessary.
+     */
+    void put(String s3ObjectKey, String eTag, Path source) {
+        Path path = getPath(s3ObjectKey, eTag);
+        Path temp = null;
+        try {
+            Utility.ensureDirectory(path.getParent());
+            temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), TEMP_SUFFIX);
+            link(source, temp);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            long length = Files.size(path);
+
+            synchronized (this) {
+                Long previous = entries.put(path, length);
+                size += length - (previous != null ? previous : 0L);
+                evict();
+            }
+        } catch (Exception e) {
+            log.warn("Unable to add {} to the cache", s3ObjectKey, e);
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    private static void link(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | IOException e) {
+            log.debug("Unable to link {} to {}, copying it instead: {}", source, target, e.getMessage());
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path getPath(String s3ObjectKey, String eTag) {
+        // ETags are quoted and may contain a part count, so only keep the characters that are safe in a file name
+        String tag = eTag.replaceAll("[^A-Za-z0-9-]", "");
+        String fileName = s3ObjectKey.substring(s3ObjectKey.lastIndexOf('/') + 1);
+        return directory.resolve(s3ObjectKey.replace('/', File.separatorChar)).resolveSibling(fileName + "." + tag);
+    }
+
+    private synchronized void remove(Path path) {
+        Long length = entries.remove(path);
+        if (length != null) {
+            size -= length;
+        }
+        path.toFile().delete();
+    }
+
+    private synchronized void evict() {
+        Iterator<Map.Entry<Path, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<Path, Long> entry = iterator.next();
+            iterator.remove();
+            size -= entry.getValue();
+            entry.getKey().toFile().delete();
+            log.debug("Evicted {} from the cache", entry.getKey());
+        }
+    }
+
+    /**
+     * Restores the entries left by a previous run, from least to most recently used, and deletes any partially written
+     * ones.
+     */
+    private synchronized void load() {
+        Utility.ensureDirectory(directory);
+        List<File> files;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            files = paths.map(Path::toFile)
+                    .filter(File::isFile)
+                    .sorted(Comparator.comparingLong(File::lastModified))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Unable to load the cache in {}", directory, e);
+            return;
+        }
+
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                file.delete();
+            } else {
+                entries.put(file.toPath(), file.length());
+                size += file.length();
+            }
+        }
+
+        evict();
+        log.info("Loaded {} files totaling {} bytes from the cache in {}", entries.size(), size, directory);
+    }
+}
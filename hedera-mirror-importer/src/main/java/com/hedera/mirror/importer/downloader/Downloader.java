@@ -23,24 +23,41 @@ package com.hedera.mirror.importer.downloader;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.TreeMultimap;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -62,25 +79,103 @@ import com.hedera.mirror.importer.util.ShutdownHelper;
 import com.hedera.mirror.importer.util.Utility;
 
 public abstract class Downloader {
+
+    private static final String CACHE_DIRECTORY = "cache";
+    private static final int MAX_LISTED_OBJECTS = 10_000;
+    private static final int STRAGGLER_QUEUE_SIZE = 1000;
+
     protected final Logger log = LogManager.getLogger(getClass());
 
     private final S3AsyncClient s3Client;
     private final ApplicationStatusRepository applicationStatusRepository;
     private final NetworkAddressBook networkAddressBook;
+    private final VerifiedFileHashes verifiedFileHashes;
+    private final StreamMetrics streamMetrics;
     private final DownloaderProperties downloaderProperties;
     // Thread pool used one per node during the download process for signatures.
     private final ExecutorService signatureDownloadThreadPool;
+    // Lists and downloads the signatures of the next page ahead while catching up
+    private final ExecutorService catchUpExecutor;
+    // Verifies the signatures left over once consensus is reached, dropping them if it falls behind
+    private final ExecutorService stragglerExecutor;
+    // The total size of the objects listed by the last page
+    private final AtomicLong pageBytes = new AtomicLong();
+    // The sizes of the listed data files that haven't been verified yet
+    private final Map<String, Long> dataFileSizes = new ConcurrentHashMap<>();
+    // The ETags of the listed objects that haven't been downloaded yet
+    private final Map<String, String> eTags = new ConcurrentHashMap<>();
+    private final DownloadCache downloadCache; // Null if disabled
+    private final DistributionSummary bandwidth;
+    private final DistributionSummary rangedBandwidth;
+    private final NodeScoreboard nodeScoreboard;
+    // Notified when a call verifies new files
+    private final List<Runnable> downloadListeners = new CopyOnWriteArrayList<>();
     private Set<String> nodeAccountIds;
+    // Whether the last call found no more files than are currently available, so only one node needs to be listed
+    private volatile boolean atTip = false;
+    private volatile int nextListedNode = 0;
+    private volatile String lastValidFileName;
+    private volatile Instant lastValidFileInstant;
+    private volatile double catchUpRate = 0.0;
 
     public Downloader(S3AsyncClient s3Client, ApplicationStatusRepository applicationStatusRepository,
-                      NetworkAddressBook networkAddressBook, DownloaderProperties downloaderProperties) {
+                      NetworkAddressBook networkAddressBook, DownloaderProperties downloaderProperties,
+                      MeterRegistry meterRegistry, VerifiedFileHashes verifiedFileHashes,
+                      StreamMetrics streamMetrics) {
         this.s3Client = s3Client;
         this.applicationStatusRepository = applicationStatusRepository;
         this.networkAddressBook = networkAddressBook;
         this.downloaderProperties = downloaderProperties;
+        this.verifiedFileHashes = verifiedFileHashes;
+        this.streamMetrics = streamMetrics;
         signatureDownloadThreadPool = Executors.newFixedThreadPool(downloaderProperties.getThreads());
+        catchUpExecutor = Executors.newSingleThreadExecutor();
+        stragglerExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(STRAGGLER_QUEUE_SIZE), new ThreadPoolExecutor.DiscardPolicy());
         nodeAccountIds = networkAddressBook.load().stream().map(NodeAddress::getId).collect(Collectors.toSet());
         Runtime.getRuntime().addShutdownHook(new Thread(signatureDownloadThreadPool::shutdown));
+        Runtime.getRuntime().addShutdownHook(new Thread(catchUpExecutor::shutdown));
+        Runtime.getRuntime().addShutdownHook(new Thread(stragglerExecutor::shutdown));
+
+        String type = downloaderProperties.getStreamType().toString().toLowerCase();
+        long cacheMaxSize = downloaderProperties.getCommon().getCacheMaxSize().toBytes();
+        Path cachePath = downloaderProperties.getStreamPath().getParent().resolve(CACHE_DIRECTORY).resolve(type);
+        downloadCache = cacheMaxSize > 0 ? new DownloadCache(cachePath, cacheMaxSize) : null;
+
+        Gauge.builder("hedera.mirror.download.backlog", this, Downloader::getBacklog)
+                .description("How far behind the current time the last valid downloaded file is")
+                .baseUnit("seconds")
+                .tag("type", type)
+                .register(meterRegistry);
+        Gauge.builder("hedera.mirror.download.eta", this, Downloader::getCatchUpEta)
+                .description("The estimated time until the downloader catches up with the stream")
+                .baseUnit("seconds")
+                .tag("type", type)
+                .register(meterRegistry);
+        bandwidth = bandwidthSummary(meterRegistry, type, false);
+        nodeScoreboard = new NodeScoreboard(meterRegistry, type);
+        rangedBandwidth = bandwidthSummary(meterRegistry, type, true);
+    }
+
+    private static DistributionSummary bandwidthSummary(MeterRegistry meterRegistry, String type, boolean ranged) {
+        return DistributionSummary.builder("hedera.mirror.download.bandwidth")
+                .description("The effective bandwidth of downloading a data file")
+                .baseUnit("bytes/s")
+                .tag("ranged", String.valueOf(ranged))
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    public DownloaderProperties getDownloaderProperties() {
+        return downloaderProperties;
+    }
+
+    /**
+     * Adds a listener to run on the downloading thread whenever new files have been verified and moved to the valid
+     * directory, so they can be processed without waiting for a poll.
+     */
+    public void onDownload(Runnable listener) {
+        downloadListeners.add(listener);
     }
 
     protected void downloadNextBatch() {
@@ -91,9 +186,45 @@ public abstract class Downloader {
             if (ShutdownHelper.isStopping()) {
                 return;
             }
-            var sigFilesMap = downloadSigFiles();
-            // Verify signature files and download corresponding files of valid signature files
-            verifySigsAndDownloadDataFiles(sigFilesMap);
+            setLastValidFileName(applicationStatusRepository.findByStatusCode(getLastValidDownloadedFileKey()));
+            // foo.rcd < foo.rcd_sig. If we read foo.rcd from application stats, we have to start listing from
+            // next to 'foo.rcd_sig'.
+            var sigFilesMap = downloadSigFiles(getLastValidSigFileName(), false);
+
+            // While catching up keep following the listing marker instead of waiting for the next invocation, listing
+            // and downloading the signatures of the next page while the current one is verified as long as the files
+            // listed by the current page fit in the in-flight budget.
+            while (!sigFilesMap.isEmpty()) {
+                Stopwatch stopwatch = Stopwatch.createStarted();
+                Instant pageStart = lastValidFileInstant;
+                String pageEnd = Iterables.getLast(sigFilesMap.keySet());
+                streamMetrics.downloaded(downloaderProperties.getStreamType(), pageEnd);
+                boolean catchingUp = downloaderProperties.getCommon().isCatchUp() && !atTip;
+                long maxInFlight = downloaderProperties.getCommon().getCatchUpMaxInFlight().toBytes();
+                CompletableFuture<Multimap<String, FileStreamSignature>> nextPage = null;
+
+                if (catchingUp && pageBytes.get() <= maxInFlight) {
+                    nextPage = CompletableFuture.supplyAsync(() -> downloadNextPage(pageEnd), catchUpExecutor);
+                }
+
+                // Verify signature files and download corresponding files of valid signature files
+                String lastValid = lastValidFileName;
+                verifySigsAndDownloadDataFiles(sigFilesMap);
+                if (!Objects.equals(lastValid, lastValidFileName)) {
+                    downloadListeners.forEach(Runnable::run);
+                }
+
+                // If a file in the page couldn't be verified, resume from the last valid file on the next invocation
+                if (!catchingUp || ShutdownHelper.isStopping() || !pageEnd.equals(getLastValidSigFileName())) {
+                    if (nextPage != null) {
+                        nextPage.handle((r, t) -> null).join(); // Don't overlap with the next invocation
+                    }
+                    break;
+                }
+
+                sigFilesMap = nextPage != null ? nextPage.get() : downloadSigFiles(pageEnd, true);
+                updateCatchUpRate(pageStart, stopwatch);
+            }
         } catch (SignatureVerificationException e) {
             log.warn(e.getMessage());
         } catch (Exception e) {
@@ -108,98 +239,48 @@ public abstract class Downloader {
      *
      * @return key: sig file name value: a list of sig files with the same name and from different nodes folder;
      */
-    private Multimap<String, FileStreamSignature> downloadSigFiles() throws InterruptedException {
-        String lastValidFileName = applicationStatusRepository.findByStatusCode(getLastValidDownloadedFileKey());
-        // foo.rcd < foo.rcd_sig. If we read foo.rcd from application stats, we have to start listing from
-        // next to 'foo.rcd_sig'.
-        String lastValidSigFileName = lastValidFileName.isEmpty() ? "" : lastValidFileName + "_sig";
+    private Multimap<String, FileStreamSignature> downloadSigFiles(String lastValidSigFileName, boolean exclusive)
+            throws InterruptedException {
         Multimap<String, FileStreamSignature> sigFilesMap = Multimaps
                 .synchronizedSortedSetMultimap(TreeMultimap.create());
+        pageBytes.set(0L);
 
         // refresh node account ids
         nodeAccountIds = networkAddressBook.load().stream().map(NodeAddress::getId).collect(Collectors.toSet());
-        List<Callable<Object>> tasks = new ArrayList<>(nodeAccountIds.size());
         var totalDownloads = new AtomicInteger();
-        /**
-         * For each node, create a thread that will make S3 ListObject requests as many times as necessary to
-         * start maxDownloads download operations.
-         */
-        Path dataPath = downloaderProperties.getStreamPath().getParent();
-        for (String nodeAccountId : nodeAccountIds) {
-            tasks.add(Executors.callable(() -> {
-                log.debug("Downloading signature files for node {} created after file {}", nodeAccountId,
-                        lastValidSigFileName);
-                Stopwatch stopwatch = Stopwatch.createStarted();
-                // Get a list of objects in the bucket, 100 at a time
-                String s3Prefix = downloaderProperties.getPrefix() + nodeAccountId + "/";
-
-                // s3Prefix is of format "X/Y/" (e.g. "recordstreams/record0.0.3/"), so a replace here with use of
-                // Paths in rest of the code ensures platform compatibility. More involved way would splitting 'prefix'
-                // in all DownloaderProperties implementations to two values and then join then separately for S3 and
-                // for local filesystem.
-                Path sigFilesDir = dataPath.resolve(s3Prefix.replace('/', File.separatorChar));
-                // Ensure the directory for downloading sig files exists.
-                Utility.ensureDirectory(sigFilesDir);
+        Stopwatch stopwatch = Stopwatch.createStarted();
 
-                try {
-                    // batchSize (number of items we plan do download in a single batch) times 2 for file + sig.
-                    var listSize = (downloaderProperties.getBatchSize() * 2);
-                    // Not using ListObjectsV2Request because it does not work with GCP.
-                    ListObjectsRequest listRequest = ListObjectsRequest.builder()
-                            .bucket(downloaderProperties.getCommon().getBucketName())
-                            .prefix(s3Prefix)
-                            .delimiter("/")
-                            .marker(s3Prefix + lastValidSigFileName)
-                            .maxKeys(listSize)
-                            .build();
-                    CompletableFuture<ListObjectsResponse> response = s3Client.listObjects(listRequest);
-                    Collection<PendingDownload> pendingDownloads = new ArrayList<>(downloaderProperties.getBatchSize());
-                    // Loop through the list of remote files beginning a download for each relevant sig file
-                    // Note:
-                    // lastValidSigFileName specified as marker above is not returned in these results by AWS S3.
-                    // However, it is returned by mockS3 implementation we use in our tests.
-                    for (S3Object content : response.get().contents()) {
-                        String s3ObjectKey = content.key();
-                        if (s3ObjectKey.endsWith("_sig")) {
-                            String fileName = s3ObjectKey.substring(s3ObjectKey.lastIndexOf("/") + 1);
-                            Path saveTarget = sigFilesDir.resolve(fileName);
-                            pendingDownloads.add(saveToLocalAsync(s3ObjectKey, saveTarget));
-                            totalDownloads.incrementAndGet();
-                        }
+        if (downloaderProperties.getCommon().isTipFollowing() && atTip) {
+            downloadSigFilesAtTip(lastValidSigFileName, exclusive, sigFilesMap, totalDownloads);
+        } else {
+            List<Callable<Object>> tasks = new ArrayList<>(nodeAccountIds.size());
+            var maxListed = new AtomicInteger();
+            var listFailed = new AtomicBoolean();
+            /**
+             * For each node, create a thread that will make S3 ListObject requests as many times as necessary to
+             * start maxDownloads download operations.
+             */
+            for (String nodeAccountId : nodeAccountIds) {
+                tasks.add(Executors.callable(() -> {
+                    List<String> fileNames = downloadNodeSigFiles(nodeAccountId, lastValidSigFileName, exclusive,
+                            null, sigFilesMap);
+                    if (fileNames == null) {
+                        listFailed.set(true);
+                    } else {
+                        totalDownloads.addAndGet(fileNames.size());
+                        maxListed.accumulateAndGet(fileNames.size(), Math::max);
                     }
+                }));
+            }
 
-                    /*
-                     * With the list of pending downloads - wait for them to complete and add them to the list
-                     * of downloaded signature files.
-                     */
-                    AtomicLong count = new AtomicLong();
-                    pendingDownloads.forEach((pd) -> {
-                        try {
-                            if (pd.waitForCompletion()) {
-                                count.incrementAndGet();
-                                File sigFile = pd.getFile();
-                                FileStreamSignature fileStreamSignature = new FileStreamSignature();
-                                fileStreamSignature.setFile(sigFile);
-                                fileStreamSignature.setNode(Utility.getAccountIDStringFromFilePath(sigFile));
-                                sigFilesMap.put(sigFile.getName(), fileStreamSignature);
-                            }
-                        } catch (InterruptedException ex) {
-                            log.warn("Failed downloading {} in {}", pd.getS3key(), pd.getStopwatch(), ex);
-                        }
-                    });
-                    if (count.get() > 0) {
-                        log.info("Downloaded {} signatures for node {} in {}", count.get(), nodeAccountId, stopwatch);
-                    }
-                } catch (Exception e) {
-                    log.error("Error downloading signature files for node {} after {}", nodeAccountId, stopwatch, e);
-                }
-            }));
+            // Wait for all tasks to complete.
+            // invokeAll() does return Futures, but it waits for all to complete (so they're returned in a completed
+            // state).
+            signatureDownloadThreadPool.invokeAll(tasks);
+            // A partial batch from every node means there's nothing more to list right now
+            atTip = !listFailed.get() && maxListed.get() < downloaderProperties.getBatchSize();
         }
 
-        // Wait for all tasks to complete.
-        // invokeAll() does return Futures, but it waits for all to complete (so they're returned in a completed state).
-        Stopwatch stopwatch = Stopwatch.createStarted();
-        signatureDownloadThreadPool.invokeAll(tasks);
         if (totalDownloads.get() > 0) {
             var rate = (int) (1000000.0 * totalDownloads.get() / stopwatch.elapsed(TimeUnit.MICROSECONDS));
             log.info("Downloaded {} signatures in {} ({}/s)", totalDownloads, stopwatch, rate);
@@ -207,6 +288,162 @@ public abstract class Downloader {
         return sigFilesMap;
     }
 
+    /**
+     * At the tip of the stream every node uploads a signature file with the same name for each new file, so there's no
+     * need to list every node. Only one node is listed, rotating through them on each call so that a lagging node
+     * can't hide new files for long, and the signature files it returned are fetched from the other nodes directly by
+     * key. A miss means a node is behind or there's a gap, so the next call goes back to listing every node.
+     */
+    private void downloadSigFilesAtTip(String lastValidSigFileName, boolean exclusive,
+                                       Multimap<String, FileStreamSignature> sigFilesMap,
+                                       AtomicInteger totalDownloads) throws InterruptedException {
+        List<String> nodes = nodeAccountIds.stream().sorted().collect(Collectors.toList());
+        if (nodes.isEmpty()) {
+            return;
+        }
+        String listedNode = nodes.get(Math.floorMod(nextListedNode++, nodes.size()));
+        List<String> fileNames = downloadNodeSigFiles(listedNode, lastValidSigFileName, exclusive, null,
+                sigFilesMap);
+
+        if (fileNames == null) {
+            atTip = false;
+            return;
+        }
+        if (fileNames.isEmpty()) {
+            return;
+        }
+
+        List<Callable<Object>> tasks = new ArrayList<>(nodes.size() - 1);
+        var fetched = new AtomicInteger();
+        for (String nodeAccountId : nodes) {
+            if (!nodeAccountId.equals(listedNode)) {
+                tasks.add(Executors.callable(() -> {
+                    List<String> downloaded = downloadNodeSigFiles(nodeAccountId, lastValidSigFileName, exclusive,
+                            fileNames, sigFilesMap);
+                    fetched.addAndGet(downloaded == null ? 0 : downloaded.size());
+                }));
+            }
+        }
+        signatureDownloadThreadPool.invokeAll(tasks);
+        totalDownloads.addAndGet(fileNames.size() + fetched.get());
+
+        int expected = fileNames.size() * tasks.size();
+        atTip = fetched.get() == expected && fileNames.size() < downloaderProperties.getBatchSize();
+        if (!atTip) {
+            log.debug("Fetched {} of {} signature files listed by node {}, listing all nodes next time",
+                    fetched.get(), expected, listedNode);
+        }
+    }
+
+    /**
+     * Downloads the signature files of a node created after lastValidSigFileName and adds them to sigFilesMap. If
+     * fileNames is null the node is listed to find the signature files, otherwise the given signature files are
+     * fetched directly. If exclusive is set, lastValidSigFileName itself is skipped even if the listing returns it.
+     *
+     * @return the names of the signature files successfully downloaded or null if listing failed
+     */
+    private List<String> downloadNodeSigFiles(String nodeAccountId, String lastValidSigFileName, boolean exclusive,
+                                              Collection<String> fileNames,
+                                              Multimap<String, FileStreamSignature> sigFilesMap) {
+        log.debug("Downloading signature files for node {} created after file {}", nodeAccountId,
+                lastValidSigFileName);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        // Get a list of objects in the bucket, 100 at a time
+        String s3Prefix = downloaderProperties.getPrefix() + nodeAccountId + "/";
+
+        // s3Prefix is of format "X/Y/" (e.g. "recordstreams/record0.0.3/"), so a replace here with use of
+        // Paths in rest of the code ensures platform compatibility. More involved way would splitting 'prefix'
+        // in all DownloaderProperties implementations to two values and then join then separately for S3 and
+        // for local filesystem.
+        Path dataPath = downloaderProperties.getStreamPath().getParent();
+        Path sigFilesDir = dataPath.resolve(s3Prefix.replace('/', File.separatorChar));
+        // Ensure the directory for downloading sig files exists.
+        Utility.ensureDirectory(sigFilesDir);
+
+        List<String> downloaded = new ArrayList<>();
+        try {
+            Collection<PendingDownload> pendingDownloads = new ArrayList<>(downloaderProperties.getBatchSize());
+
+            if (fileNames == null) {
+                // batchSize (number of items we plan do download in a single batch) times 2 for file + sig.
+                // One more if skipping the marker, since some implementations return it.
+                var listSize = (downloaderProperties.getBatchSize() * 2) + (exclusive ? 1 : 0);
+                // Not using ListObjectsV2Request because it does not work with GCP.
+                ListObjectsRequest listRequest = ListObjectsRequest.builder()
+                        .bucket(downloaderProperties.getCommon().getBucketName())
+                        .prefix(s3Prefix)
+                        .delimiter("/")
+                        .marker(s3Prefix + lastValidSigFileName)
+                        .maxKeys(listSize)
+                        .build();
+                CompletableFuture<ListObjectsResponse> response = S3RequestEvent
+                        .start("ListObjects", listRequest.marker(), null)
+                        .track(s3Client.listObjects(listRequest));
+                // Loop through the list of remote files beginning a download for each relevant sig file
+                // Note:
+                // lastValidSigFileName specified as marker above is not returned in these results by AWS S3.
+                // However, it is returned by mockS3 implementation we use in our tests.
+                for (S3Object content : response.get().contents()) {
+                    String s3ObjectKey = content.key();
+                    String fileName = s3ObjectKey.substring(s3ObjectKey.lastIndexOf("/") + 1);
+                    if (exclusive && fileName.equals(lastValidSigFileName)) {
+                        continue;
+                    }
+                    long size = content.size() != null ? content.size() : 0L;
+                    pageBytes.addAndGet(size);
+                    if (downloadCache != null && content.eTag() != null) {
+                        if (eTags.size() >= MAX_LISTED_OBJECTS) {
+                            eTags.clear(); // Objects listed but never downloaded, like the data files of other nodes
+                        }
+                        eTags.put(s3ObjectKey, content.eTag());
+                    }
+                    if (s3ObjectKey.endsWith("_sig")) {
+                        Path saveTarget = sigFilesDir.resolve(fileName);
+                        PendingDownload cached = loadFromCache(s3ObjectKey, saveTarget.toFile(), false);
+                        pendingDownloads.add(cached != null ? cached : saveToLocalAsync(s3ObjectKey, saveTarget));
+                    } else if (dataFileSizes.size() < MAX_LISTED_OBJECTS) {
+                        // The data file has the same size on every node, so one listing is enough to choose how
+                        // to download it
+                        dataFileSizes.put(fileName, size);
+                    }
+                }
+            } else {
+                for (String fileName : fileNames) {
+                    // The node may not have uploaded the signature file yet, which is expected at the tip
+                    pendingDownloads.add(saveToLocalAsync(s3Prefix + fileName, sigFilesDir.resolve(fileName), false,
+                            true));
+                }
+            }
+
+            /*
+             * With the list of pending downloads - wait for them to complete and add them to the list
+             * of downloaded signature files.
+             */
+            for (PendingDownload pd : pendingDownloads) {
+                try {
+                    if (pd.waitForCompletion()) {
+                        saveToCache(pd);
+                        File sigFile = pd.getFile();
+                        FileStreamSignature fileStreamSignature = new FileStreamSignature();
+                        fileStreamSignature.setFile(sigFile);
+                        fileStreamSignature.setNode(Utility.getAccountIDStringFromFilePath(sigFile));
+                        sigFilesMap.put(sigFile.getName(), fileStreamSignature);
+                        downloaded.add(sigFile.getName());
+                    }
+                } catch (InterruptedException ex) {
+                    log.warn("Failed downloading {} in {}", pd.getS3key(), pd.getStopwatch(), ex);
+                }
+            }
+            if (!downloaded.isEmpty()) {
+                log.info("Downloaded {} signatures for node {} in {}", downloaded.size(), nodeAccountId, stopwatch);
+            }
+        } catch (Exception e) {
+            log.error("Error downloading signature files for node {} after {}", nodeAccountId, stopwatch, e);
+            return fileNames == null ? null : downloaded;
+        }
+        return downloaded;
+    }
+
     /**
      * Returns a PendingDownload for which the caller can waitForCompletion() to wait for the download to complete. This
      * either queues or begins the download (depending on the AWS TransferManager).
@@ -216,6 +453,37 @@ public abstract class Downloader {
      * @return
      */
     private PendingDownload saveToLocalAsync(String s3ObjectKey, Path localFile) {
+        return saveToLocalAsync(s3ObjectKey, localFile, false, false);
+    }
+
+    /**
+     * @param hash whether the returned download should provide the hash of the stream file
+     * @return a completed download of the object copied from the local cache or null if it isn't cached
+     */
+    private PendingDownload loadFromCache(String s3ObjectKey, File file, boolean hash) {
+        String eTag = eTags.get(s3ObjectKey);
+        if (downloadCache == null || eTag == null || !downloadCache.get(s3ObjectKey, eTag, file.toPath())) {
+            return null;
+        }
+
+        eTags.remove(s3ObjectKey);
+        Supplier<byte[]> hashSupplier = hash ? () -> Utility.getFileHash(file.getPath()) : null;
+        return new PendingDownload(CompletableFuture.completedFuture(null), file, s3ObjectKey, hashSupplier);
+    }
+
+    private void saveToCache(PendingDownload pendingDownload) {
+        String eTag = eTags.remove(pendingDownload.getS3key());
+        if (downloadCache != null && eTag != null) {
+            downloadCache.put(pendingDownload.getS3key(), eTag, pendingDownload.getFile().toPath());
+        }
+    }
+
+    /**
+     * @param hash            whether to calculate the hash of the stream file while it's downloaded
+     * @param missingExpected whether the object may not exist yet, so that a miss isn't logged as a failure
+     */
+    private PendingDownload saveToLocalAsync(String s3ObjectKey, Path localFile, boolean hash,
+                                             boolean missingExpected) {
         File file = localFile.toFile();
         // If process stops abruptly and is restarted, it's possible we try to re-download some of the files which
         // already exist on disk because lastValidFileName wasn't updated. AsyncFileResponseTransformer throws
@@ -231,11 +499,18 @@ public abstract class Downloader {
                         file);
             }
         }
-        var future = s3Client.getObject(
-                GetObjectRequest.builder().bucket(downloaderProperties.getCommon().getBucketName()).key(s3ObjectKey)
-                        .build(),
-                AsyncResponseTransformer.toFile(file));
-        return new PendingDownload(future, file, s3ObjectKey);
+        var request = GetObjectRequest.builder().bucket(downloaderProperties.getCommon().getBucketName())
+                .key(s3ObjectKey)
+                .build();
+        S3RequestEvent event = S3RequestEvent.start("GetObject", s3ObjectKey, null);
+        if (hash) {
+            var hashingTransformer = new HashingResponseTransformer(file);
+            var future = event.track(s3Client.getObject(request, hashingTransformer), r -> file.length());
+            return new PendingDownload(future, file, s3ObjectKey, hashingTransformer::getHash, missingExpected);
+        }
+        var future = event.track(s3Client.getObject(request, AsyncResponseTransformer.toFile(file)),
+                r -> file.length());
+        return new PendingDownload(future, file, s3ObjectKey, null, missingExpected);
     }
 
     /**
@@ -272,7 +547,9 @@ public abstract class Downloader {
      */
     private void verifySigsAndDownloadDataFiles(Multimap<String, FileStreamSignature> sigFilesMap) {
         // reload address book and keys in case it has been updated by RecordFileLogger
-        NodeSignatureVerifier nodeSignatureVerifier = new NodeSignatureVerifier(networkAddressBook);
+        boolean verifyStragglers = downloaderProperties.getCommon().isVerifyStragglers();
+        NodeSignatureVerifier nodeSignatureVerifier = new NodeSignatureVerifier(networkAddressBook,
+                verifyStragglers ? stragglerExecutor : null);
         Path validPath = downloaderProperties.getValidPath();
 
         for (String sigFileName : sigFilesMap.keySet()) {
@@ -282,21 +559,21 @@ public abstract class Downloader {
 
             Collection<FileStreamSignature> signatures = sigFilesMap.get(sigFileName);
             nodeSignatureVerifier.verify(signatures);
+            FileStreamSignature consensus = Iterables.find(signatures,
+                    s -> s.getStatus() == FileStreamSignature.SignatureStatus.CONSENSUS_REACHED);
             boolean valid = false;
 
-            for (FileStreamSignature signature : signatures) {
+            // Try the nodes that have recently been the fastest and most reliable first
+            for (FileStreamSignature signature : getDataFileSources(signatures)) {
                 if (ShutdownHelper.isStopping()) {
                     return;
                 }
 
-                // Ignore signatures that didn't validate or weren't in the majority
-                if (signature.getStatus() != FileStreamSignature.SignatureStatus.CONSENSUS_REACHED) {
-                    continue;
-                }
-
                 try {
-                    File signedDataFile = downloadSignedDataFile(signature.getFile());
-                    if (signedDataFile != null && Utility.hashMatch(signature.getHash(), signedDataFile)) {
+                    PendingDownload pendingDownload = downloadSignedDataFile(signature.getFile());
+                    File signedDataFile = pendingDownload != null ? pendingDownload.getFile() : null;
+                    if (signedDataFile != null && Arrays.equals(consensus.getHash(), pendingDownload.getHash())) {
+                        nodeScoreboard.hashMatch(signature.getNode());
                         log.debug("Downloaded data file {} corresponding to verified hash", signedDataFile.getName());
                         // Check that file is newer than last valid downloaded file. Additionally, if the file type
                         // uses prevFileHash based linking, verify that new file is next in the sequence.
@@ -305,17 +582,20 @@ public abstract class Downloader {
                             File destination = validPath.resolve(signedDataFile.getName()).toFile();
                             if (moveFile(signedDataFile, destination)) {
                                 log.debug("Successfully moved file from {} to {}", signedDataFile, destination);
+                                verifiedFileHashes.put(destination.getName(), consensus.getHash());
                                 if (getLastValidDownloadedFileHashKey() != null) {
                                     applicationStatusRepository.updateStatusValue(getLastValidDownloadedFileHashKey(),
-                                            signature.getHashAsHex());
+                                            consensus.getHashAsHex());
                                 }
                                 applicationStatusRepository
                                         .updateStatusValue(getLastValidDownloadedFileKey(), destination.getName());
+                                setLastValidFileName(destination.getName());
                                 valid = true;
                                 break;
                             }
                         }
                     } else if (signedDataFile != null) {
+                        nodeScoreboard.hashMismatch(signature.getNode());
                         log.warn("Hash doesn't match the hash contained in valid signature file. Will try to download" +
                                 " a file with same timestamp from other nodes and check the Hash: {}", signedDataFile);
                     }
@@ -324,12 +604,82 @@ public abstract class Downloader {
                 }
             }
 
+            dataFileSizes.remove(sigFileName.replace("_sig", ""));
             if (!valid) {
                 log.error("File could not be verified by at least 1/3 of nodes: {}", sigFileName);
             }
         }
     }
 
+    /**
+     * The nodes whose signatures reached consensus are tried first. Verification stops once a hash reaches consensus,
+     * so the nodes whose signatures were never verified are kept as fallbacks. That's safe since the data file is
+     * checked against the consensus hash no matter which node it's downloaded from. Signatures that failed
+     * verification or have a different hash are excluded.
+     */
+    private List<FileStreamSignature> getDataFileSources(Collection<FileStreamSignature> signatures) {
+        List<FileStreamSignature> sources = new ArrayList<>(nodeScoreboard.sort(signatures.stream()
+                .filter(s -> s.getStatus() == FileStreamSignature.SignatureStatus.CONSENSUS_REACHED)
+                .collect(Collectors.toList())));
+        sources.addAll(nodeScoreboard.sort(signatures.stream()
+                .filter(s -> s.getStatus() == FileStreamSignature.SignatureStatus.DOWNLOADED)
+                .collect(Collectors.toList())));
+        return sources;
+    }
+
+    private Multimap<String, FileStreamSignature> downloadNextPage(String marker) {
+        try {
+            return downloadSigFiles(marker, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private void setLastValidFileName(String lastValidFileName) {
+        this.lastValidFileName = lastValidFileName;
+        lastValidFileInstant = StringUtils.isEmpty(lastValidFileName) ? null :
+                Utility.getInstantFromFileName(lastValidFileName);
+        if (lastValidFileInstant != null) {
+            streamMetrics.verified(downloaderProperties.getStreamType(), lastValidFileName);
+        }
+    }
+
+    private String getLastValidSigFileName() {
+        return StringUtils.isEmpty(lastValidFileName) ? "" : lastValidFileName + "_sig";
+    }
+
+    /**
+     * Tracks how many seconds of the stream are downloaded per second while catching up, smoothed over recent pages.
+     */
+    private void updateCatchUpRate(Instant pageStart, Stopwatch stopwatch) {
+        Instant pageEnd = lastValidFileInstant;
+        long elapsed = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+        if (pageStart == null || pageEnd == null || elapsed <= 0) {
+            return;
+        }
+        double rate = (double) Duration.between(pageStart, pageEnd).toMillis() / elapsed;
+        catchUpRate = catchUpRate > 0 ? 0.8 * catchUpRate + 0.2 * rate : rate;
+    }
+
+    /**
+     * @return how many seconds the last valid file is behind the current time
+     */
+    private double getBacklog() {
+        Instant instant = lastValidFileInstant;
+        return instant == null ? Double.NaN : Math.max(0L, Duration.between(instant, Instant.now()).getSeconds());
+    }
+
+    /**
+     * @return the estimated seconds until caught up at the current catch up rate, accounting for the stream moving on
+     */
+    private double getCatchUpEta() {
+        if (atTip) {
+            return 0.0;
+        }
+        return catchUpRate > 1.0 ? getBacklog() / (catchUpRate - 1.0) : Double.NaN;
+    }
+
     /**
      * Verifies that prevFileHash in given {@code file} matches that in application repository.
      *
@@ -356,7 +706,7 @@ public abstract class Downloader {
         return false;
     }
 
-    private File downloadSignedDataFile(File sigFile) {
+    private PendingDownload downloadSignedDataFile(File sigFile) {
         String fileName = sigFile.getName().replace("_sig", "");
         String s3Prefix = downloaderProperties.getPrefix();
 
@@ -364,17 +714,37 @@ public abstract class Downloader {
         String s3ObjectKey = s3Prefix + nodeAccountId + "/" + fileName;
 
         Path localFile = downloaderProperties.getTempPath().resolve(fileName);
+        CommonDownloaderProperties common = downloaderProperties.getCommon();
+        Long size = dataFileSizes.get(fileName);
+        boolean ranged = size != null && size > common.getRangeThreshold().toBytes();
         try {
-            var pendingDownload = saveToLocalAsync(s3ObjectKey, localFile);
+            PendingDownload pendingDownload = loadFromCache(s3ObjectKey, localFile.toFile(), true);
+            if (pendingDownload != null) {
+                return pendingDownload;
+            } else if (ranged) {
+                pendingDownload = RangedDownload.start(s3Client, common.getBucketName(), s3ObjectKey,
+                        localFile.toFile(), size, common.getRangeSize().toBytes());
+            } else {
+                pendingDownload = saveToLocalAsync(s3ObjectKey, localFile, true, false);
+            }
             pendingDownload.waitForCompletion();
             if (pendingDownload.isDownloadSuccessful()) {
-                return pendingDownload.getFile();
+                saveToCache(pendingDownload);
+                long elapsed = pendingDownload.getStopwatch().elapsed(TimeUnit.MICROSECONDS);
+                long length = pendingDownload.getFile().length();
+                if (elapsed > 0) {
+                    double bytesPerSecond = 1_000_000.0 * length / elapsed;
+                    (ranged ? rangedBandwidth : bandwidth).record(bytesPerSecond);
+                }
+                nodeScoreboard.success(nodeAccountId, Duration.of(elapsed, ChronoUnit.MICROS), length);
+                return pendingDownload;
             } else {
                 log.warn("Failed downloading {} from node {}", s3ObjectKey, nodeAccountId);
             }
         } catch (Exception ex) {
             log.warn("Failed downloading {} from node {}", s3ObjectKey, nodeAccountId, ex);
         }
+        nodeScoreboard.failure(nodeAccountId);
         return null;
     }
 
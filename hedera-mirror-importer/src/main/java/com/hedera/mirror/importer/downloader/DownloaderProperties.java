@@ -21,6 +21,7 @@ package com.hedera.mirror.importer.downloader;
  */
 
 import java.nio.file.Path;
+import java.time.Duration;
 import javax.annotation.PostConstruct;
 
 import com.hedera.mirror.importer.domain.StreamType;
@@ -32,6 +33,8 @@ public interface DownloaderProperties {
 
     CommonDownloaderProperties getCommon();
 
+    Duration getFrequency();
+
     /**
      * The number of current mainnet nodes used to download signatures in parallel. Should be adjusted when nodes
      * change
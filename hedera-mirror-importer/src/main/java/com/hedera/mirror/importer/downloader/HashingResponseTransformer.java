@@ -0,0 +1,82 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import com.hedera.mirror.importer.util.StreamFileHasher;
+
+/**
+ * Writes the object to a file like {@link AsyncResponseTransformer#toFile(File)} while calculating the hash of the
+ * stream file from the bytes as they arrive, so the file doesn't have to be read again to verify it.
+ */
+class HashingResponseTransformer implements AsyncResponseTransformer<GetObjectResponse, GetObjectResponse> {
+
+    private final AsyncResponseTransformer<GetObjectResponse, GetObjectResponse> delegate;
+    private final String fileName;
+    private volatile StreamFileHasher hasher;
+    private byte[] hash;
+
+    HashingResponseTransformer(File file) {
+        delegate = AsyncResponseTransformer.toFile(file);
+        fileName = file.getName();
+    }
+
+    @Override
+    public CompletableFuture<GetObjectResponse> prepare() {
+        hasher = new StreamFileHasher(fileName); // Start over if the request is retried
+        return delegate.prepare();
+    }
+
+    @Override
+    public void onResponse(GetObjectResponse response) {
+        delegate.onResponse(response);
+    }
+
+    @Override
+    public void onStream(SdkPublisher<ByteBuffer> publisher) {
+        StreamFileHasher streamFileHasher = hasher;
+        delegate.onStream(publisher.map(byteBuffer -> {
+            streamFileHasher.update(byteBuffer.duplicate());
+            return byteBuffer;
+        }));
+    }
+
+    @Override
+    public void exceptionOccurred(Throwable error) {
+        delegate.exceptionOccurred(error);
+    }
+
+    /**
+     * @return the hash of the downloaded file or null if it's invalid. Only valid once the download has completed.
+     */
+    synchronized byte[] getHash() {
+        if (hash == null && hasher != null) {
+            hash = hasher.digest();
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,230 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+
+import com.hedera.mirror.importer.domain.FileStreamSignature;
+
+/**
+ * Keeps exponentially weighted statistics of the data file downloads from each node, so the nodes that have recently
+ * been the fastest and most reliable are tried first. A node without statistics is tried before any other so that it
+ * gets a score. Failures are penalized relative to the slowest latency observed across the nodes, so a node that keeps
+ * failing ranks behind the healthy ones however slow they are. Since a demoted node is rarely tried, its failures are
+ * forgotten over time without samples until it's tried again, and it recovers its place once it improves.
+ */
+class NodeScoreboard {
+
+    static final double WEIGHT = 0.2; // The weight of the latest download in the averages
+    static final Duration FAILURE_HALF_LIFE = Duration.ofMinutes(5); // How fast failures are forgotten without samples
+
+    // A failure, like a timeout, is assumed to cost this many times the slowest latency, including moving on
+    private static final double FAILURE_COST_FACTOR = 10.0;
+    private static final double DEFAULT_LATENCY = 0.1; // The latency in seconds assumed before any download succeeded
+
+    private final MeterRegistry meterRegistry;
+    private final String type;
+    private final LongSupplier nanoTime;
+    private final Map<String, NodeStats> nodes = new ConcurrentHashMap<>();
+
+    NodeScoreboard(MeterRegistry meterRegistry, String type) {
+        this(meterRegistry, type, System::nanoTime);
+    }
+
+    NodeScoreboard(MeterRegistry meterRegistry, String type, LongSupplier nanoTime) {
+        this.meterRegistry = meterRegistry;
+        this.type = type;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return the signatures ordered by the score of their node, best first, keeping the original order for ties
+     */
+    List<FileStreamSignature> sort(Collection<FileStreamSignature> signatures) {
+        double slowestLatency = getSlowestLatency();
+        return signatures.stream()
+                .sorted(Comparator.comparingDouble(signature -> getScore(signature.getNode(), slowestLatency)))
+                .collect(Collectors.toList());
+    }
+
+    void success(String node, Duration latency, long bytes) {
+        NodeStats stats = get(node);
+        stats.latency.record(latency);
+        double seconds = Math.max(latency.toNanos(), 1L) / 1_000_000_000.0;
+        synchronized (stats) {
+            stats.latencySeconds = average(stats.latencySeconds, seconds, stats.successes == 0);
+            stats.throughput = average(stats.throughput, bytes / seconds, stats.successes == 0);
+            stats.failureRate = average(stats.failureRate, 0.0, stats.samples == 0);
+            stats.samples++;
+            stats.successes++;
+            stats.lastSampled = nanoTime.getAsLong();
+        }
+    }
+
+    void failure(String node) {
+        NodeStats stats = get(node);
+        synchronized (stats) {
+            stats.failureRate = average(stats.failureRate, 1.0, stats.samples == 0);
+            stats.samples++;
+            stats.lastSampled = nanoTime.getAsLong();
+        }
+    }
+
+    /**
+     * Records that a node's data file was downloaded but didn't match the hash in the signatures, on top of the
+     * download itself.
+     */
+    void hashMismatch(String node) {
+        NodeStats stats = get(node);
+        synchronized (stats) {
+            stats.mismatchRate = average(stats.mismatchRate, 1.0, stats.hashChecks == 0);
+            stats.hashChecks++;
+        }
+    }
+
+    /**
+     * Records that a node's data file matched the hash in the signatures.
+     */
+    void hashMatch(String node) {
+        NodeStats stats = get(node);
+        synchronized (stats) {
+            stats.mismatchRate = average(stats.mismatchRate, 0.0, stats.hashChecks == 0);
+            stats.hashChecks++;
+        }
+    }
+
+    /**
+     * @return the expected time in seconds to get a valid data file from the node, lower is better
+     */
+    double getScore(String node) {
+        return getScore(node, getSlowestLatency());
+    }
+
+    /**
+     * The cost of failures and hash mismatches scales with the slowest latency, and a node that never succeeded is
+     * assumed to be as slow as the slowest node. Both decay with the time since the node was last sampled, so a node
+     * that only ever failed is eventually tried first again like a new node.
+     */
+    private double getScore(String node, double slowestLatency) {
+        NodeStats stats = node != null ? nodes.get(node) : null;
+        if (stats == null) {
+            return 0.0;
+        }
+
+        synchronized (stats) {
+            if (stats.samples == 0) {
+                return 0.0;
+            }
+
+            double elapsed = (nanoTime.getAsLong() - stats.lastSampled) / (double) FAILURE_HALF_LIFE.toNanos();
+            double decay = Math.pow(0.5, Math.max(elapsed, 0.0));
+            double latency = stats.successes > 0 ? stats.latencySeconds : slowestLatency * decay;
+            double failureCost = FAILURE_COST_FACTOR * slowestLatency;
+            return latency + failureCost * decay * (stats.failureRate + stats.mismatchRate);
+        }
+    }
+
+    /**
+     * @return the slowest average latency in seconds of the nodes that had a successful download
+     */
+    private double getSlowestLatency() {
+        double slowestLatency = 0.0;
+        for (NodeStats stats : nodes.values()) {
+            synchronized (stats) {
+                if (stats.successes > 0) {
+                    slowestLatency = Math.max(slowestLatency, stats.latencySeconds);
+                }
+            }
+        }
+        return slowestLatency > 0.0 ? slowestLatency : DEFAULT_LATENCY;
+    }
+
+    private static double average(double average, double value, boolean first) {
+        return first ? value : (1.0 - WEIGHT) * average + WEIGHT * value;
+    }
+
+    private NodeStats get(String node) {
+        return nodes.computeIfAbsent(node, this::register);
+    }
+
+    private NodeStats register(String node) {
+        NodeStats stats = new NodeStats(Timer.builder("hedera.mirror.download.node.latency")
+                .description("The time to download a data file from the node")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .tag("node", node)
+                .tag("type", type)
+                .register(meterRegistry));
+        gauge("hedera.mirror.download.node.throughput", "The average rate of downloading data files from the node",
+                "bytes/s", node, stats, s -> s.throughput);
+        gauge("hedera.mirror.download.node.failures", "The average rate of failed downloads from the node",
+                null, node, stats, s -> s.failureRate);
+        gauge("hedera.mirror.download.node.mismatches", "The average rate of data files not matching their hash",
+                null, node, stats, s -> s.mismatchRate);
+        // Not synchronized on the stats like the other gauges, since the score locks the stats of every node one by
+        // one to find the slowest latency, and holding this node's lock meanwhile could deadlock with another reader
+        Gauge.builder("hedera.mirror.download.node.score", this, s -> s.getScore(node))
+                .description("The expected time to get a valid data file from the node")
+                .baseUnit("seconds")
+                .tag("node", node)
+                .tag("type", type)
+                .register(meterRegistry);
+        return stats;
+    }
+
+    private void gauge(String name, String description, String baseUnit, String node, NodeStats stats,
+                       ToDoubleFunction<NodeStats> value) {
+        Gauge.builder(name, stats, s -> {
+            synchronized (s) {
+                return value.applyAsDouble(s);
+            }
+        })
+                .description(description)
+                .baseUnit(baseUnit)
+                .tag("node", node)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    @RequiredArgsConstructor
+    private static class NodeStats {
+        private final Timer latency;
+        private double latencySeconds = 0.0;
+        private double throughput = 0.0;
+        private double failureRate = 0.0;
+        private double mismatchRate = 0.0;
+        private long samples = 0L;
+        private long successes = 0L;
+        private long hashChecks = 0L;
+        private long lastSampled = 0L;
+    }
+}
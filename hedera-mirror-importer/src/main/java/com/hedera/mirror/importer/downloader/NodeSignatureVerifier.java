@@ -25,10 +25,13 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import java.security.PublicKey;
 import java.security.Signature;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.tuple.Pair;
@@ -44,12 +47,22 @@ import com.hedera.mirror.importer.util.Utility;
 public class NodeSignatureVerifier {
 
     private final Map<String, PublicKey> nodeIDPubKeyMap;
+    private final Executor stragglerExecutor;
 
     public NodeSignatureVerifier(NetworkAddressBook networkAddressBook) {
+        this(networkAddressBook, null);
+    }
+
+    /**
+     * @param stragglerExecutor if not null, the signatures left over once consensus is reached are verified with it
+     *                          for monitoring purposes only
+     */
+    public NodeSignatureVerifier(NetworkAddressBook networkAddressBook, Executor stragglerExecutor) {
         nodeIDPubKeyMap = networkAddressBook
                 .load()
                 .stream()
                 .collect(Collectors.toMap(NodeAddress::getId, NodeAddress::getPublicKeyAsObject));
+        this.stragglerExecutor = stragglerExecutor;
     }
 
     private static boolean consensusReached(long actualNodes, long expectedNodes) {
@@ -59,7 +72,9 @@ public class NodeSignatureVerifier {
     /**
      * Verifies that the signature files are signed by corresponding node's PublicKey. For valid signature files, we
      * compare their hashes to see if at least 1/3 hashes match. If a signature is valid, we put the hash in its content
-     * and its file to the map, to see if at least 1/3 valid signatures have the same hash.
+     * and its file to the map, to see if at least 1/3 valid signatures have the same hash. Signatures are verified one
+     * at a time and verification stops as soon as a hash reaches consensus, leaving the remaining signatures in the
+     * DOWNLOADED status.
      *
      * @param signatures a list of a sig files which have the same timestamp
      * @throws SignatureVerificationException
@@ -67,47 +82,102 @@ public class NodeSignatureVerifier {
     public void verify(Collection<FileStreamSignature> signatures) throws SignatureVerificationException {
         Multimap<String, FileStreamSignature> signatureHashMap = HashMultimap.create();
         String filename = null;
-        int consensusCount = 0;
+        Collection<FileStreamSignature> consensus = null;
+        List<FileStreamSignature> stragglers = new ArrayList<>();
+        SignatureVerificationEvent event = new SignatureVerificationEvent();
+        event.begin();
 
         for (FileStreamSignature fileStreamSignature : signatures) {
             if (filename == null) {
                 filename = fileStreamSignature.getFile().getName();
             }
 
-            Pair<byte[], byte[]> hashAndSig = Utility.extractHashAndSigFromFile(fileStreamSignature.getFile());
-            if (hashAndSig == null) {
+            if (consensus != null) {
+                stragglers.add(fileStreamSignature);
                 continue;
             }
 
-            fileStreamSignature.setHash(hashAndSig.getLeft());
-            fileStreamSignature.setSignature(hashAndSig.getRight());
-            fileStreamSignature.setStatus(SignatureStatus.PARSED);
+            if (!parse(fileStreamSignature)) {
+                continue;
+            }
 
+            event.verified++;
             if (verifySignature(fileStreamSignature)) {
                 fileStreamSignature.setStatus(SignatureStatus.VERIFIED);
-                signatureHashMap.put(fileStreamSignature.getHashAsHex(), fileStreamSignature);
+                String hash = fileStreamSignature.getHashAsHex();
+                signatureHashMap.put(hash, fileStreamSignature);
+
+                if (consensusReached(signatureHashMap.get(hash).size(), nodeIDPubKeyMap.size())) {
+                    consensus = signatureHashMap.get(hash);
+                }
             }
         }
 
-        for (String key : signatureHashMap.keySet()) {
-            Collection<FileStreamSignature> validatedSignatures = signatureHashMap.get(key);
+        event.fileName = filename;
+        event.signatures = signatures.size();
+        event.consensusReached = consensus != null;
+        event.commit();
 
-            if (consensusReached(validatedSignatures.size(), nodeIDPubKeyMap.size())) {
-                consensusCount += validatedSignatures.size();
-                validatedSignatures.stream().forEach(s -> s.setStatus(SignatureStatus.CONSENSUS_REACHED));
-            }
+        if (consensus == null) {
+            throw new SignatureVerificationException("Signature verification failed for " + filename + ": " + statusMap(signatures));
         }
 
-        if (consensusCount == nodeIDPubKeyMap.size()) {
+        consensus.forEach(s -> s.setStatus(SignatureStatus.CONSENSUS_REACHED));
+
+        if (!stragglers.isEmpty()) {
+            log.debug("Verified signature file {} reached consensus after {} of {} signatures", filename,
+                    signatures.size() - stragglers.size(), signatures.size());
+            if (stragglerExecutor != null) {
+                verifyStragglers(filename, consensus.iterator().next().getHashAsHex(), stragglers);
+            }
+        } else if (consensus.size() == nodeIDPubKeyMap.size()) {
             log.debug("Verified signature file {} reached consensus", filename);
-        } else if (consensusCount > 0) {
+        } else {
             log.warn("Verified signature file {} reached consensus but with some errors: {}", filename,
                     statusMap(signatures));
-        } else {
-            throw new SignatureVerificationException("Signature verification failed for " + filename + ": " + statusMap(signatures));
         }
     }
 
+    /**
+     * Parses the stragglers on the calling thread, since their files may be replaced by the next download, and checks
+     * their signatures and hashes on the straggler executor. Only logs the outcome and doesn't update their status.
+     */
+    private void verifyStragglers(String filename, String consensusHash, Collection<FileStreamSignature> stragglers) {
+        List<FileStreamSignature> parsed = stragglers.stream()
+                .map(s -> {
+                    FileStreamSignature copy = new FileStreamSignature();
+                    copy.setFile(s.getFile());
+                    copy.setNode(s.getNode());
+                    return copy;
+                })
+                .filter(this::parse)
+                .collect(Collectors.toList());
+
+        stragglerExecutor.execute(() -> {
+            for (FileStreamSignature straggler : parsed) {
+                if (!verifySignature(straggler)) {
+                    log.warn("Signature file {} from node {} failed verification after consensus was reached",
+                            filename, straggler.getNode());
+                } else if (!consensusHash.equals(straggler.getHashAsHex())) {
+                    log.warn("Signature file {} from node {} has hash {} instead of consensus hash {}", filename,
+                            straggler.getNode(), straggler.getHashAsHex(), consensusHash);
+                }
+            }
+        });
+    }
+
+    private boolean parse(FileStreamSignature fileStreamSignature) {
+        Pair<byte[], byte[]> hashAndSig = Utility.extractHashAndSigFromFile(fileStreamSignature.getFile());
+        if (hashAndSig == null) {
+            return false;
+        }
+
+        fileStreamSignature.setHash(hashAndSig.getLeft());
+        fileStreamSignature.setSignature(hashAndSig.getRight());
+        fileStreamSignature.setStatus(SignatureStatus.PARSED);
+        return true;
+    }
+
     /**
      * check whether the given signature is valid
      *
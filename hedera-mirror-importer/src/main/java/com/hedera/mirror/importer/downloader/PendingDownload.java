@@ -24,11 +24,13 @@ import com.google.common.base.Stopwatch;
 
 import java.io.File;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import lombok.Value;
 import lombok.experimental.NonFinal;
 import lombok.extern.log4j.Log4j2;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
 /**
  * The results of a pending download from the AWS TransferManager. Call waitForCompletion() to wait for the transfer to
@@ -41,16 +43,25 @@ class PendingDownload {
     Stopwatch stopwatch;
     File file; // Destination file
     String s3key; // Source S3 key
+    Supplier<byte[]> hashSupplier; // Null if the file isn't hashed while downloading
+    boolean missingExpected; // The object may not be uploaded yet, like a signature file fetched by key at the tip
     @NonFinal
     boolean alreadyWaited = false; // has waitForCompletion been called
     @NonFinal
     boolean downloadSuccessful;
 
-    PendingDownload(Future<GetObjectResponse> future, File file, String s3key) {
+    PendingDownload(Future<GetObjectResponse> future, File file, String s3key, Supplier<byte[]> hashSupplier) {
+        this(future, file, s3key, hashSupplier, false);
+    }
+
+    PendingDownload(Future<GetObjectResponse> future, File file, String s3key, Supplier<byte[]> hashSupplier,
+                    boolean missingExpected) {
         this.future = future;
         stopwatch = Stopwatch.createStarted();
         this.file = file;
         this.s3key = s3key;
+        this.hashSupplier = hashSupplier;
+        this.missingExpected = missingExpected;
     }
 
     /**
@@ -70,9 +81,33 @@ class PendingDownload {
             downloadSuccessful = false;
             throw e;
         } catch (Exception ex) {
-            log.warn("Failed downloading {} after {}", s3key, stopwatch, ex);
+            if (missingExpected && isNotFound(ex)) {
+                log.debug("{} doesn't exist yet after {}", s3key, stopwatch);
+            } else {
+                log.warn("Failed downloading {} after {}", s3key, stopwatch, ex);
+            }
             downloadSuccessful = false;
         }
         return downloadSuccessful;
     }
+
+    private static boolean isNotFound(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof S3Exception && ((S3Exception) t).statusCode() == 404) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the hash of the file calculated while it was downloaded or null if it wasn't hashed, the download failed
+     * or the file is invalid
+     */
+    byte[] getHash() throws InterruptedException {
+        if (hashSupplier == null || !waitForCompletion()) {
+            return null;
+        }
+        return hashSupplier.get();
+    }
 }
@@ -0,0 +1,124 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.log4j.Log4j2;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import com.hedera.mirror.importer.util.StreamFileHasher;
+
+/**
+ * Downloads a large object with concurrent byte range GETs so that it isn't limited by the throughput of a single
+ * connection. Each part is written to the file and hashed as soon as it and all the parts before it have arrived.
+ */
+@Log4j2
+class RangedDownload {
+
+    private final StreamFileHasher hasher;
+    private final CompletableFuture<GetObjectResponse> future;
+    private byte[] hash;
+
+    private RangedDownload(S3AsyncClient s3Client, String bucketName, String s3ObjectKey, File file, long size,
+                           long partSize) {
+        hasher = new StreamFileHasher(file.getName());
+        future = download(s3Client, bucketName, s3ObjectKey, file, size, partSize);
+    }
+
+    static PendingDownload start(S3AsyncClient s3Client, String bucketName, String s3ObjectKey, File file, long size,
+                                 long partSize) {
+        RangedDownload rangedDownload = new RangedDownload(s3Client, bucketName, s3ObjectKey, file, size, partSize);
+        return new PendingDownload(rangedDownload.future, file, s3ObjectKey, rangedDownload::getHash);
+    }
+
+    private CompletableFuture<GetObjectResponse> download(S3AsyncClient s3Client, String bucketName,
+                                                          String s3ObjectKey, File file, long size, long partSize) {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        log.debug("Downloading {} bytes of {} in parts of {} bytes", size, s3ObjectKey, partSize);
+        CompletableFuture<GetObjectResponse> written = CompletableFuture.completedFuture(null);
+
+        for (long start = 0; start < size; start += partSize) {
+            long end = Math.min(start + partSize, size) - 1;
+            long length = end - start + 1;
+            String range = "bytes=" + start + "-" + end;
+            GetObjectRequest request = GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(s3ObjectKey)
+                    .range(range)
+                    .build();
+            CompletableFuture<ResponseBytes<GetObjectResponse>> part = S3RequestEvent
+                    .start("GetObject", s3ObjectKey, range)
+                    .track(s3Client.getObject(request, AsyncResponseTransformer.toBytes()),
+                            r -> r.asByteBuffer().remaining());
+
+            // Chained so the parts are written and hashed in order
+            written = written.thenCombine(part, (previous, responseBytes) -> {
+                ByteBuffer buffer = responseBytes.asByteBuffer();
+                if (buffer.remaining() != length) {
+                    throw new IllegalStateException("Expected " + length + " bytes of " + s3ObjectKey + " but got " +
+                            buffer.remaining());
+                }
+
+                hasher.update(buffer.duplicate());
+                try {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return responseBytes.response();
+            });
+        }
+
+        return written.whenComplete((response, throwable) -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Unable to close {}", file, e);
+            }
+        });
+    }
+
+    private synchronized byte[] getHash() {
+        if (hash == null) {
+            hash = hasher.digest();
+        }
+        return hash;
+    }
+}
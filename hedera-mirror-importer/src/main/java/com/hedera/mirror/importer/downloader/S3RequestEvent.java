@@ -0,0 +1,90 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToLongFunction;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for an asynchronous S3 request, from sending it until its response has been consumed.
+ * It's committed by the thread that completes the request.
+ */
+@Category({"Hedera Mirror", "Importer"})
+@Description("An S3 request from sending it until its response has been consumed")
+@Label("S3 Request")
+@Name("com.hedera.mirror.importer.S3Request")
+class S3RequestEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Description("The key of the object or the prefix and marker of the listing")
+    @Label("Key")
+    private String key;
+
+    @Label("Range")
+    private String range;
+
+    @DataAmount
+    @Label("Bytes")
+    private long bytes;
+
+    @Label("Success")
+    private boolean success;
+
+    private S3RequestEvent(String operation, String key, String range) {
+        this.operation = operation;
+        this.key = key;
+        this.range = range;
+    }
+
+    static S3RequestEvent start(String operation, String key, String range) {
+        S3RequestEvent event = new S3RequestEvent(operation, key, range);
+        event.begin();
+        return event;
+    }
+
+    <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        return track(future, response -> 0L);
+    }
+
+    /**
+     * Commits the event once the request completes. The returned future is the given future.
+     *
+     * @param bytes the number of bytes received, given the response
+     */
+    <T> CompletableFuture<T> track(CompletableFuture<T> future, ToLongFunction<T> bytes) {
+        future.whenComplete((response, throwable) -> {
+            success = throwable == null;
+            if (success && response != null) {
+                this.bytes = bytes.applyAsLong(response);
+            }
+            commit();
+        });
+        return future;
+    }
+}
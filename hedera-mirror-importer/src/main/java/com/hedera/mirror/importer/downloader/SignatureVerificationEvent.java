@@ -0,0 +1,51 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for verifying the signature files of a stream file until their hashes reach consensus
+ */
+@Category({"Hedera Mirror", "Importer"})
+@Description("Verifying the signature files of a stream file from every node")
+@Label("Signature Verification")
+@Name("com.hedera.mirror.importer.SignatureVerification")
+class SignatureVerificationEvent extends Event {
+
+    @Label("File Name")
+    String fileName;
+
+    @Description("The number of signature files downloaded")
+    @Label("Signatures")
+    int signatures;
+
+    @Description("The number of signatures checked before consensus was reached")
+    @Label("Verified")
+    int verified;
+
+    @Label("Consensus Reached")
+    boolean consensusReached;
+}
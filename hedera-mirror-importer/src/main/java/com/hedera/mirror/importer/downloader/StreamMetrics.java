@@ -0,0 +1,277 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Named;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+import com.hedera.mirror.importer.MirrorProperties;
+import com.hedera.mirror.importer.domain.StreamType;
+import com.hedera.mirror.importer.util.Utility;
+
+/**
+ * Exposes how far each stream has progressed through the importer as gauges: the consensus timestamp of the newest
+ * file downloaded, verified and parsed and how far behind the current time each of them is, the number and size of the
+ * files waiting in the temp and valid directories, and the rate files and transactions were parsed at recently.
+ */
+@Log4j2
+@Named
+public class StreamMetrics {
+
+    static final Duration DIRECTORY_REFRESH = Duration.ofSeconds(10);
+    static final Duration RATE_WINDOW = Duration.ofMinutes(1);
+
+    private final Map<StreamType, Map<Stage, AtomicReference<Instant>>> timestamps = new EnumMap<>(StreamType.class);
+    private final Map<StreamType, RollingCount> parsedFiles = new EnumMap<>(StreamType.class);
+    private final RollingCount parsedTransactions = new RollingCount();
+    // Gauges only hold weak references to their state
+    private final List<DirectoryStats> directories = new ArrayList<>();
+
+    public StreamMetrics(MirrorProperties mirrorProperties, MeterRegistry meterRegistry) {
+        for (StreamType streamType : StreamType.values()) {
+            String type = streamType.toString().toLowerCase();
+            Map<Stage, AtomicReference<Instant>> stages = new EnumMap<>(Stage.class);
+            timestamps.put(streamType, stages);
+
+            for (Stage stage : Stage.values()) {
+                AtomicReference<Instant> timestamp = new AtomicReference<>();
+                stages.put(stage, timestamp);
+                String tag = stage.toString().toLowerCase();
+                Gauge.builder("hedera.mirror.stream.timestamp", timestamp, t -> toSeconds(t.get()))
+                        .description("The consensus timestamp of the newest file that has reached the stage")
+                        .baseUnit("seconds")
+                        .tag("stage", tag)
+                        .tag("type", type)
+                        .register(meterRegistry);
+                Gauge.builder("hedera.mirror.stream.lag", timestamp, t -> getLag(t.get()))
+                        .description("How far behind the current time the newest file that has reached the stage is")
+                        .baseUnit("seconds")
+                        .tag("stage", tag)
+                        .tag("type", type)
+                        .register(meterRegistry);
+            }
+
+            Path streamPath = mirrorProperties.getDataPath().resolve(streamType.getPath());
+            registerDirectory(meterRegistry, type, "temp", streamPath.resolve(streamType.getTemp()));
+            registerDirectory(meterRegistry, type, "valid", streamPath.resolve(streamType.getValid()));
+
+            RollingCount files = new RollingCount();
+            parsedFiles.put(streamType, files);
+            Gauge.builder("hedera.mirror.stream.files.rate", files, RollingCount::getRate)
+                    .description("The number of files parsed per second over the last minute")
+                    .baseUnit("files/s")
+                    .tag("type", type)
+                    .register(meterRegistry);
+        }
+
+        // Only record files are parsed transaction by transaction
+        Gauge.builder("hedera.mirror.stream.transactions.rate", parsedTransactions, RollingCount::getRate)
+                .description("The number of transactions parsed per second over the last minute")
+                .baseUnit("transactions/s")
+                .tag("type", StreamType.RECORD.toString().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    private static double toSeconds(Instant instant) {
+        return instant == null ? Double.NaN : instant.getEpochSecond() + instant.getNano() / 1_000_000_000.0;
+    }
+
+    private static double getLag(Instant instant) {
+        if (instant == null) {
+            return Double.NaN;
+        }
+        return Math.max(0L, Duration.between(instant, Instant.now()).toMillis()) / 1000.0;
+    }
+
+    private void registerDirectory(MeterRegistry meterRegistry, String type, String directory, Path path) {
+        DirectoryStats stats = new DirectoryStats(path);
+        directories.add(stats);
+        Gauge.builder("hedera.mirror.stream.pending.files", stats, s -> s.refresh().getFiles())
+                .description("The number of files waiting in the directory")
+                .baseUnit("files")
+                .tag("directory", directory)
+                .tag("type", type)
+                .register(meterRegistry);
+        Gauge.builder("hedera.mirror.stream.pending.bytes", stats, s -> s.refresh().getBytes())
+                .description("The total size of the files waiting in the directory")
+                .baseUnit("bytes")
+                .tag("directory", directory)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records that the signature or data file with the given name has been downloaded
+     */
+    public void downloaded(StreamType streamType, String fileName) {
+        update(streamType, Stage.DOWNLOADED, fileName);
+    }
+
+    /**
+     * Records that the data file with the given name has been verified and moved to the valid directory
+     */
+    public void verified(StreamType streamType, String fileName) {
+        update(streamType, Stage.VERIFIED, fileName);
+    }
+
+    /**
+     * Records that a number of files ending with the file with the given name have been parsed
+     */
+    public void parsed(StreamType streamType, String fileName, int files, long transactions) {
+        update(streamType, Stage.PARSED, fileName);
+        parsedFiles.get(streamType).add(files);
+        if (streamType == StreamType.RECORD) {
+            parsedTransactions.add(transactions);
+        }
+    }
+
+    private void update(StreamType streamType, Stage stage, String fileName) {
+        Instant instant;
+        try {
+            instant = Utility.getInstantFromFileName(fileName);
+        } catch (Exception e) {
+            log.debug("Unable to get the consensus timestamp of {}", fileName, e);
+            return;
+        }
+
+        // Files aren't always processed in order, like balance files loaded for history, so keep the newest
+        if (instant != null) {
+            timestamps.get(streamType).get(stage)
+                    .accumulateAndGet(instant, (previous, next) -> previous == null || next.isAfter(previous) ?
+                            next : previous);
+        }
+    }
+
+    private enum Stage {
+        DOWNLOADED,
+        VERIFIED,
+        PARSED
+    }
+
+    /**
+     * The number and size of the files in a directory, listed at most once per refresh interval since it's called for
+     * each gauge on every scrape and the directory can be large while catching up.
+     */
+    private static class DirectoryStats {
+
+        private final Path path;
+        private long files = 0;
+        private long bytes = 0;
+        private long refreshed = 0;
+        private boolean loaded = false;
+
+        private DirectoryStats(Path path) {
+            this.path = path;
+        }
+
+        private synchronized DirectoryStats refresh() {
+            long now = System.nanoTime();
+            if (loaded && now - refreshed < DIRECTORY_REFRESH.toNanos()) {
+                return this;
+            }
+
+            long count = 0;
+            long size = 0;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                for (Path file : stream) {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        if (attributes.isRegularFile()) {
+                            count++;
+                            size += attributes.size();
+                        }
+                    } catch (IOException e) {
+                        // Moved or deleted since it was listed
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                // Not created yet
+            } catch (IOException e) {
+                log.warn("Unable to list {}", path, e);
+            }
+
+            files = count;
+            bytes = size;
+            refreshed = now;
+            loaded = true;
+            return this;
+        }
+
+        private synchronized long getFiles() {
+            return files;
+        }
+
+        private synchronized long getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Counts the items added within the rate window
+     */
+    private static class RollingCount {
+
+        private final Deque<Sample> samples = new ArrayDeque<>();
+        private long sum = 0;
+
+        private synchronized void add(long count) {
+            long now = System.nanoTime();
+            samples.addLast(new Sample(now, count));
+            sum += count;
+            expire(now);
+        }
+
+        private synchronized double getRate() {
+            expire(System.nanoTime());
+            return (double) sum / RATE_WINDOW.toSeconds();
+        }
+
+        private void expire(long now) {
+            while (!samples.isEmpty() && now - samples.peekFirst().getTime() > RATE_WINDOW.toNanos()) {
+                sum -= samples.removeFirst().getCount();
+            }
+        }
+    }
+
+    @Value
+    private static class Sample {
+        private final long time;
+        private final long count;
+    }
+}
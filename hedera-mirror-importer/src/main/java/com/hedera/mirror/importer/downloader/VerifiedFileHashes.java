@@ -0,0 +1,51 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Named;
+
+/**
+ * The hashes of the stream files verified by the downloaders, calculated while they were downloaded, so the parsers
+ * don't have to read the files again just to hash them. Each hash is handed out once. The number of hashes is bounded
+ * so that files that are never parsed, like those of a disabled parser, don't keep them around forever.
+ */
+@Named
+public class VerifiedFileHashes {
+
+    static final int MAX_SIZE = 10_000;
+
+    private final Map<String, byte[]> hashes = new ConcurrentHashMap<>();
+
+    void put(String fileName, byte[] hash) {
+        if (hashes.size() < MAX_SIZE) {
+            hashes.put(fileName, hash);
+        }
+    }
+
+    /**
+     * @return the hash of the verified file with the given name, or null if it's not known and has to be calculated
+     */
+    public byte[] remove(String fileName) {
+        return hashes.remove(fileName);
+    }
+}
@@ -20,16 +20,18 @@ package com.hedera.mirror.importer.downloader.balance;
  * ‍
  */
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.File;
 import javax.inject.Named;
 
 import lombok.extern.log4j.Log4j2;
-import org.springframework.scheduling.annotation.Scheduled;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 
 import com.hedera.mirror.importer.addressbook.NetworkAddressBook;
 import com.hedera.mirror.importer.domain.ApplicationStatusCode;
 import com.hedera.mirror.importer.downloader.Downloader;
+import com.hedera.mirror.importer.downloader.StreamMetrics;
+import com.hedera.mirror.importer.downloader.VerifiedFileHashes;
 import com.hedera.mirror.importer.repository.ApplicationStatusRepository;
 
 @Log4j2
@@ -38,12 +40,13 @@ public class AccountBalancesDownloader extends Downloader {
 
     public AccountBalancesDownloader(
             S3AsyncClient s3Client, ApplicationStatusRepository applicationStatusRepository,
-            NetworkAddressBook networkAddressBook, BalanceDownloaderProperties downloaderProperties) {
-        super(s3Client, applicationStatusRepository, networkAddressBook, downloaderProperties);
+            NetworkAddressBook networkAddressBook, BalanceDownloaderProperties downloaderProperties,
+            MeterRegistry meterRegistry, VerifiedFileHashes verifiedFileHashes, StreamMetrics streamMetrics) {
+        super(s3Client, applicationStatusRepository, networkAddressBook, downloaderProperties, meterRegistry,
+                verifiedFileHashes, streamMetrics);
     }
 
     @Override
-    @Scheduled(fixedRateString = "${hedera.mirror.downloader.balance.frequency:500}")
     public void download() {
         downloadNextBatch();
     }
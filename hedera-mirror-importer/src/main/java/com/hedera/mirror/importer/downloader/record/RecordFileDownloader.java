@@ -20,15 +20,17 @@ package com.hedera.mirror.importer.downloader.record;
  * ‍
  */
 
+import io.micrometer.core.instrument.MeterRegistry;
 import javax.inject.Named;
 
 import lombok.extern.log4j.Log4j2;
-import org.springframework.scheduling.annotation.Scheduled;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 
 import com.hedera.mirror.importer.addressbook.NetworkAddressBook;
 import com.hedera.mirror.importer.domain.ApplicationStatusCode;
 import com.hedera.mirror.importer.downloader.Downloader;
+import com.hedera.mirror.importer.downloader.StreamMetrics;
+import com.hedera.mirror.importer.downloader.VerifiedFileHashes;
 import com.hedera.mirror.importer.parser.record.RecordFileParser;
 import com.hedera.mirror.importer.repository.ApplicationStatusRepository;
 
@@ -38,12 +40,13 @@ public class RecordFileDownloader extends Downloader {
 
     public RecordFileDownloader(
             S3AsyncClient s3Client, ApplicationStatusRepository applicationStatusRepository,
-            NetworkAddressBook networkAddressBook, RecordDownloaderProperties downloaderProperties) {
-        super(s3Client, applicationStatusRepository, networkAddressBook, downloaderProperties);
+            NetworkAddressBook networkAddressBook, RecordDownloaderProperties downloaderProperties,
+            MeterRegistry meterRegistry, VerifiedFileHashes verifiedFileHashes, StreamMetrics streamMetrics) {
+        super(s3Client, applicationStatusRepository, networkAddressBook, downloaderProperties, meterRegistry,
+                verifiedFileHashes, streamMetrics);
     }
 
     @Override
-    @Scheduled(fixedRateString = "${hedera.mirror.downloader.record.frequency:500}")
     public void download() {
         downloadNextBatch();
     }
@@ -0,0 +1,40 @@
+package com.hedera.mirror.importer.exception;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+/**
+ * Invalid protobuf message in a stream file.
+ */
+public class ProtobufException extends ImporterException {
+
+    private static final long serialVersionUID = -2792416207297735373L;
+
+    public ProtobufException(String message) {
+        super(message);
+    }
+
+    public ProtobufException(Throwable throwable) {
+        super(throwable);
+    }
+
+    public ProtobufException(String message, Throwable throwable) {
+        super(message, throwable);
+    }
+}
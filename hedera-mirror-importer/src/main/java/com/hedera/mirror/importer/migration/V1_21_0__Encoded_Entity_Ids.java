@@ -0,0 +1,82 @@
+package com.hedera.mirror.importer.migration;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.base.Stopwatch;
+import java.util.List;
+import javax.inject.Named;
+import lombok.extern.log4j.Log4j2;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Replaces the sequence generated t_entities.id with the encoded shard, realm and number of the entity (see
+ * EntityId.encode) and rewrites all columns referencing it. There are no foreign key constraints on these columns, so
+ * they're rewritten with a mapping of the old to the new ids. Entities that already have their encoded id, like the
+ * ones inserted by the data generator, are left untouched. The sequence default of the id is dropped by the following
+ * SQL migration.
+ */
+@Log4j2
+@Named
+public class V1_21_0__Encoded_Entity_Ids extends BaseJavaMigration {
+
+    private static final String ENCODED_ID = "((entity_shard << 48) | (entity_realm << 32) | entity_num)";
+
+    // Table and column pairs referencing t_entities.id
+    private static final List<List<String>> REFERENCES = List.of(
+            List.of("t_transactions", "fk_node_acc_id"),
+            List.of("t_transactions", "fk_payer_acc_id"),
+            List.of("t_transactions", "fk_cud_entity_id"),
+            List.of("t_entities", "fk_prox_acc_id"),
+            List.of("t_entities", "auto_renew_account_id"));
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        jdbcTemplate.execute("create temporary table entity_id_map on commit drop as " +
+                "select id as old_id, " + ENCODED_ID + " as new_id from t_entities where id <> " + ENCODED_ID);
+        jdbcTemplate.execute("alter table entity_id_map add primary key (old_id)");
+        jdbcTemplate.execute("analyze entity_id_map");
+
+        Integer count = jdbcTemplate.queryForObject("select count(*) from entity_id_map", Integer.class);
+        log.info("Encoding the ids of {} entities", count);
+        if (count == null || count == 0) {
+            return;
+        }
+
+        for (List<String> reference : REFERENCES) {
+            String table = reference.get(0);
+            String column = reference.get(1);
+            int updated = jdbcTemplate.update(String.format("update %1$s set %2$s = m.new_id from entity_id_map m " +
+                    "where %1$s.%2$s = m.old_id", table, column));
+            log.info("Updated {} rows of {}.{} in {}", updated, table, column, stopwatch);
+        }
+
+        // Negate the old ids first so that no new id collides with an old id that hasn't been updated yet
+        jdbcTemplate.update("update t_entities set id = -id where id in (select old_id from entity_id_map)");
+        jdbcTemplate.update("update t_entities e set id = m.new_id from entity_id_map m where e.id = -m.old_id");
+
+        log.info("Successfully encoded the ids of {} entities in {}", count, stopwatch);
+    }
+}
@@ -0,0 +1,85 @@
+package com.hedera.mirror.importer.parser;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import lombok.Getter;
+
+import com.hedera.mirror.importer.parser.CommonParserProperties.BatchProperties;
+
+/**
+ * Tracks the rows added to the insert batch of a table and decides when to execute it. A batch is full once it reaches
+ * its target row count or the maximum size in bytes, whichever comes first. The target row count is adapted after
+ * every execution towards the number of rows that the table can insert within the target latency, so narrow tables
+ * get larger batches than tables with kilobyte sized rows. A batch is used by the single thread of the parser inserting
+ * into its table, only the target row count is read by other threads.
+ */
+public class AdaptiveBatch {
+
+    @Getter
+    private final String table;
+    private final BatchProperties properties;
+    @Getter
+    private volatile int targetRows;
+    @Getter
+    private int rows = 0;
+    @Getter
+    private long bytes = 0L;
+
+    AdaptiveBatch(String table, BatchProperties properties) {
+        this.table = table;
+        this.properties = properties;
+        targetRows = properties.getMinRows();
+    }
+
+    /**
+     * @param rowBytes the estimated size of the added row in bytes
+     */
+    public void add(long rowBytes) {
+        ++rows;
+        bytes += rowBytes;
+    }
+
+    public boolean isFull() {
+        return rows >= Math.min(targetRows, properties.getMaxRows()) || bytes >= properties.getMaxBytes();
+    }
+
+    /**
+     * Adapts the target row count to the latency of the execution of the current rows and starts a new batch.
+     *
+     * @param nanos the time it took to execute the batch
+     */
+    public void executed(long nanos) {
+        if (rows > 0 && nanos > 0) {
+            // Move halfway to the row count that would have taken the target latency to smooth out outliers
+            double rowsAtTarget = rows * (double) properties.getTargetLatency().toNanos() / nanos;
+            long next = (long) ((targetRows + rowsAtTarget) / 2);
+            targetRows = (int) Math.max(properties.getMinRows(), Math.min(properties.getMaxRows(), next));
+        }
+        clear();
+    }
+
+    /**
+     * Discards the rows added so far, for example after their statement was closed without executing them.
+     */
+    public void clear() {
+        rows = 0;
+        bytes = 0L;
+    }
+}
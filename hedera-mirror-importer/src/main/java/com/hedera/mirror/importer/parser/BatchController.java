@@ -0,0 +1,52 @@
+package com.hedera.mirror.importer.parser;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Named;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Provides the adaptive insert batch of each table and publishes their current target row count. Each table is only
+ * inserted into by one parser, so a batch is only used by the thread of that parser, while the gauges read its target
+ * row count from other threads.
+ */
+@Named
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final CommonParserProperties commonParserProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveBatch> batches = new ConcurrentHashMap<>();
+
+    public AdaptiveBatch get(String table) {
+        return batches.computeIfAbsent(table, t -> {
+            AdaptiveBatch batch = new AdaptiveBatch(t, commonParserProperties.getBatch());
+            Gauge.builder("hedera.mirror.parse.batch.rows", batch, AdaptiveBatch::getTargetRows)
+                    .description("The number of rows the insert batch of a table is currently sized to")
+                    .tag("table", t)
+                    .register(meterRegistry);
+            return batch;
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.hedera.mirror.importer.parser;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for the execution of an insert batch. Begin it before the batch is executed and commit
+ * it afterwards.
+ */
+@Category({"Hedera Mirror", "Importer"})
+@Description("The execution of a batch of inserts into a table")
+@Label("Batch Flush")
+@Name("com.hedera.mirror.importer.BatchFlush")
+public class BatchFlushEvent extends Event {
+
+    @Label("Table")
+    private String table;
+
+    @Label("Rows")
+    private int rows;
+
+    @DataAmount
+    @Description("The estimated size of the rows")
+    @Label("Bytes")
+    private long bytes;
+
+    public BatchFlushEvent(String table, int rows, long bytes) {
+        this.table = table;
+        this.rows = rows;
+        this.bytes = bytes;
+    }
+
+    public static BatchFlushEvent start(AdaptiveBatch batch) {
+        BatchFlushEvent event = new BatchFlushEvent(batch.getTable(), batch.getRows(), batch.getBytes());
+        event.begin();
+        return event;
+    }
+}
@@ -20,18 +20,17 @@ package com.hedera.mirror.importer.parser;
  * ‍
  */
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
-import java.util.function.Predicate;
+import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
-import com.hedera.mirror.importer.domain.Entities;
-import com.hedera.mirror.importer.domain.Transaction;
 import com.hedera.mirror.importer.domain.TransactionTypeEnum;
 
 @Data
@@ -39,8 +38,9 @@ import com.hedera.mirror.importer.domain.TransactionTypeEnum;
 @ConfigurationProperties("hedera.mirror.importer.parser")
 public class CommonParserProperties {
 
-    @Min(1)
-    private int entityIdCacheSize = 100_000;
+    @NotNull
+    @Valid
+    private BatchProperties batch = new BatchProperties();
 
     @NotNull
     private Collection<TransactionFilter> exclude = new ArrayList<>();
@@ -48,26 +48,27 @@ public class CommonParserProperties {
     @NotNull
     private Collection<TransactionFilter> include = new ArrayList<>();
 
-    public Predicate<Transaction> getFilter() {
-        return includeFilter().and(excludeFilter());
+    public CompiledTransactionFilter getFilter() {
+        return new CompiledTransactionFilter(include, exclude);
     }
 
-    private Predicate<Transaction> excludeFilter() {
-        if (exclude.isEmpty()) {
-            return t -> true;
-        }
-        return exclude.stream()
-                .map(f -> f.getFilter().negate())
-                .reduce(a -> true, Predicate::and);
-    }
+    @Data
+    @Validated
+    public static class BatchProperties {
+
+        // Executes a batch once its rows reach this estimated size, regardless of the row count, to bound memory use
+        @Min(1)
+        private long maxBytes = 8L * 1024 * 1024;
+
+        @Min(1)
+        private int maxRows = 20_000;
+
+        @Min(1)
+        private int minRows = 100;
 
-    private Predicate<Transaction> includeFilter() {
-        if (include.isEmpty()) {
-            return t -> true;
-        }
-        return include.stream()
-                .map(f -> f.getFilter())
-                .reduce(a -> false, Predicate::or);
+        // The execution time of a batch that its row count is adapted towards
+        @NotNull
+        private Duration targetLatency = Duration.ofMillis(200L);
     }
 
     @Data
@@ -79,25 +80,5 @@ public class CommonParserProperties {
 
         @NotNull
         private Collection<TransactionTypeEnum> transaction = new LinkedHashSet<>();
-
-        public Predicate<Transaction> getFilter() {
-            return t -> (matches(t) && matches(t.getEntity()));
-        }
-
-        private boolean matches(Transaction t) {
-            if (transaction.isEmpty()) {
-                return true;
-            }
-
-            return transaction.contains(t.getTypeEnum());
-        }
-
-        private boolean matches(Entities e) {
-            if (entity.isEmpty()) {
-                return true;
-            }
-
-            return e != null && entity.contains(e.getDisplayId());
-        }
     }
 }
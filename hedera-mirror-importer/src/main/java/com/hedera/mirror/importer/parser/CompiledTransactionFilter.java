@@ -0,0 +1,137 @@
+package com.hedera.mirror.importer.parser;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.base.Splitter;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.hedera.mirror.importer.domain.Entities;
+import com.hedera.mirror.importer.domain.EntityId;
+import com.hedera.mirror.importer.domain.Transaction;
+import com.hedera.mirror.importer.domain.TransactionTypeEnum;
+import com.hedera.mirror.importer.parser.CommonParserProperties.TransactionFilter;
+
+/**
+ * The include and exclude filters compiled into primitive structures so they can be evaluated on the transaction type
+ * and entity taken directly from the transaction body, before any entity is resolved or stored. Transaction types are
+ * kept in a bitset indexed by proto id and entities are kept as encoded {@link EntityId} longs in a sorted array.
+ */
+public class CompiledTransactionFilter implements Predicate<Transaction> {
+
+    public static final long NO_ENTITY = -1L;
+
+    private static final BitSet KNOWN_TYPES = new BitSet();
+
+    static {
+        for (TransactionTypeEnum type : TransactionTypeEnum.values()) {
+            if (type != TransactionTypeEnum.UNKNOWN) {
+                KNOWN_TYPES.set(type.getProtoId());
+            }
+        }
+    }
+
+    private final Condition[] include;
+    private final Condition[] exclude;
+
+    CompiledTransactionFilter(Collection<TransactionFilter> include, Collection<TransactionFilter> exclude) {
+        this.include = include.stream().map(Condition::new).toArray(Condition[]::new);
+        this.exclude = exclude.stream().map(Condition::new).toArray(Condition[]::new);
+    }
+
+    public boolean isEmpty() {
+        return include.length == 0 && exclude.length == 0;
+    }
+
+    /**
+     * @param type   the proto id of the transaction type
+     * @param entity the encoded id of the entity the transaction acts upon or {@link #NO_ENTITY}
+     * @return whether the transaction should be persisted
+     */
+    public boolean test(int type, long entity) {
+        return (include.length == 0 || matchesAny(include, type, entity)) && !matchesAny(exclude, type, entity);
+    }
+
+    @Override
+    public boolean test(Transaction transaction) {
+        Entities entity = transaction.getEntity();
+        long entityId = entity == null ? NO_ENTITY :
+                EntityId.encode(entity.getEntityShard(), entity.getEntityRealm(), entity.getEntityNum());
+        return test(transaction.getType(), entityId);
+    }
+
+    private static boolean matchesAny(Condition[] conditions, int type, long entity) {
+        for (Condition condition : conditions) {
+            if (condition.matches(type, entity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Condition {
+
+        private final BitSet types; // null matches any type
+        private final boolean unknownType;
+        private final long[] entities; // sorted, null matches any entity
+
+        private Condition(TransactionFilter filter) {
+            if (filter.getTransaction().isEmpty()) {
+                types = null;
+                unknownType = true;
+            } else {
+                types = new BitSet();
+                filter.getTransaction().stream()
+                        .filter(t -> t != TransactionTypeEnum.UNKNOWN)
+                        .forEach(t -> types.set(t.getProtoId()));
+                unknownType = filter.getTransaction().contains(TransactionTypeEnum.UNKNOWN);
+            }
+
+            if (filter.getEntity().isEmpty()) {
+                entities = null;
+            } else {
+                entities = filter.getEntity().stream().mapToLong(Condition::parse).sorted().distinct().toArray();
+            }
+        }
+
+        private static long parse(String entity) {
+            List<String> parts = Splitter.on('.').splitToList(entity);
+            if (parts.size() != 3) {
+                throw new IllegalArgumentException("Invalid entity id in transaction filter: " + entity);
+            }
+            return EntityId.encode(Long.parseLong(parts.get(0)), Long.parseLong(parts.get(1)),
+                    Long.parseLong(parts.get(2)));
+        }
+
+        private boolean matches(int type, long entity) {
+            if (types != null) {
+                boolean known = type >= 0 && KNOWN_TYPES.get(type);
+                if (known ? !types.get(type) : !unknownType) {
+                    return false;
+                }
+            }
+
+            return entities == null || (entity != NO_ENTITY && Arrays.binarySearch(entities, entity) >= 0);
+        }
+    }
+}
@@ -31,9 +31,6 @@ import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 
 import com.hedera.mirror.importer.util.ShutdownHelper;
 
@@ -45,8 +42,10 @@ public abstract class FileWatcher {
 
     protected abstract boolean isEnabled();
 
-    @Async
-    @EventListener(ApplicationReadyEvent.class)
+    /**
+     * Watches the valid directory until shutdown or until the thread is interrupted, so it has to run on a thread of its
+     * own.
+     */
     public void watch() {
         Path path = parserProperties.getValidPath();
         if (!isEnabled()) {
@@ -68,7 +67,9 @@ public abstract class FileWatcher {
                 try {
                     key = watcher.poll(100, TimeUnit.MILLISECONDS);
                 } catch (InterruptedException e) {
-                    continue;
+                    log.info("Stopped watching directory: {}", path);
+                    Thread.currentThread().interrupt();
+                    return;
                 }
 
                 if (ShutdownHelper.isStopping()) {
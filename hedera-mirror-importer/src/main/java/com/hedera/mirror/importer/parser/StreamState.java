@@ -0,0 +1,117 @@
+package com.hedera.mirror.importer.parser;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.hedera.mirror.importer.domain.ApplicationStatusCode;
+import com.hedera.mirror.importer.domain.StreamType;
+import com.hedera.mirror.importer.util.Utility;
+
+/**
+ * The parsing state of a stream. It is loaded once per parse run and checked locally for every file instead of going
+ * through ApplicationStatusRepository. The last processed hash is saved using the connection of the parser so it is
+ * committed in the same transaction as the data of the files, and only updated in memory once that transaction
+ * committed.
+ */
+@Getter
+@ToString
+public class StreamState {
+
+    private static final String SELECT_STATUS = "select status_code, status_value from t_application_status " +
+            "where status_code in (?, ?)";
+    private static final String UPDATE_STATUS = "update t_application_status set status_value = ? " +
+            "where status_code = ?";
+
+    private final ApplicationStatusCode hashStatusCode;
+    private final ApplicationStatusCode bypassStatusCode;
+    private String bypassHashMismatchUntilAfter = "";
+    @Setter
+    private String lastHash = "";
+
+    private StreamState(StreamType streamType) {
+        switch (streamType) {
+            case EVENT:
+                hashStatusCode = ApplicationStatusCode.LAST_PROCESSED_EVENT_HASH;
+                bypassStatusCode = ApplicationStatusCode.EVENT_HASH_MISMATCH_BYPASS_UNTIL_AFTER;
+                break;
+            case RECORD:
+                hashStatusCode = ApplicationStatusCode.LAST_PROCESSED_RECORD_HASH;
+                bypassStatusCode = ApplicationStatusCode.RECORD_HASH_MISMATCH_BYPASS_UNTIL_AFTER;
+                break;
+            default:
+                throw new IllegalArgumentException("No stream state for stream type " + streamType);
+        }
+    }
+
+    public static StreamState load(Connection connection, StreamType streamType) throws SQLException {
+        StreamState streamState = new StreamState(streamType);
+
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_STATUS)) {
+            statement.setString(1, streamState.hashStatusCode.name());
+            statement.setString(2, streamState.bypassStatusCode.name());
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ApplicationStatusCode code = ApplicationStatusCode.valueOf(resultSet.getString(1));
+                    String value = resultSet.getString(2) != null ? resultSet.getString(2) : "";
+
+                    if (code == streamState.hashStatusCode) {
+                        streamState.lastHash = value;
+                    } else {
+                        streamState.bypassHashMismatchUntilAfter = value;
+                    }
+                }
+            }
+        }
+
+        return streamState;
+    }
+
+    /**
+     * @param fileName the name of the file with the mismatching previous hash
+     * @return whether a hash mismatch is allowed for the file
+     */
+    public boolean isHashMismatchBypassed(String fileName) {
+        return bypassHashMismatchUntilAfter.compareTo(fileName) >= 0;
+    }
+
+    /**
+     * Saves the hash of the last processed file as part of the current transaction of the connection. The in-memory
+     * last hash is left as is, so it can be set once the transaction commits.
+     */
+    public void save(Connection connection, String lastHash) throws SQLException {
+        if (Utility.hashIsEmpty(lastHash)) {
+            return;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS)) {
+            statement.setString(1, lastHash);
+            statement.setString(2, hashStatusCode.name());
+            statement.executeUpdate();
+        }
+    }
+}
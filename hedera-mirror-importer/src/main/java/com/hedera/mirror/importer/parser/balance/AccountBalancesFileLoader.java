@@ -37,6 +37,8 @@ import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 
 import com.hedera.mirror.importer.exception.InvalidDatasetException;
+import com.hedera.mirror.importer.parser.AdaptiveBatch;
+import com.hedera.mirror.importer.parser.BatchFlushEvent;
 import com.hedera.mirror.importer.util.DatabaseUtilities;
 import com.hedera.mirror.importer.util.TimestampConverter;
 
@@ -48,8 +50,11 @@ public final class AccountBalancesFileLoader implements AutoCloseable {
     private final Path filePath;
     private final Instant filenameTimestamp;
     private final AccountBalancesDataset dataset;
+    // The size of the consensus_timestamp, realm_num, num and balance columns of an account_balances row
+    private static final int ROW_BYTES = 22;
+
     private final TimestampConverter timestampConverter = new TimestampConverter();
-    private final int insertBatchSize;
+    private final AdaptiveBatch batch;
     private final long systemShardNum;
     @Getter
     private int validRowCount;
@@ -63,8 +68,8 @@ public final class AccountBalancesFileLoader implements AutoCloseable {
      * @throws InvalidDatasetException  invalid file header
      * @throws FileNotFoundException
      */
-    public AccountBalancesFileLoader(BalanceParserProperties balanceProperties, Path filePath) throws IllegalArgumentException, InvalidDatasetException,
-            FileNotFoundException {
+    public AccountBalancesFileLoader(BalanceParserProperties balanceProperties, Path filePath, AdaptiveBatch batch)
+            throws IllegalArgumentException, InvalidDatasetException, FileNotFoundException {
         this.filePath = filePath;
         systemShardNum = balanceProperties.getMirrorProperties().getShard();
         var info = new AccountBalancesFileInfo(filePath);
@@ -72,7 +77,8 @@ public final class AccountBalancesFileLoader implements AutoCloseable {
         BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filePath
                 .toFile())), balanceProperties.getFileBufferSize());
         dataset = new AccountBalancesDatasetV2(filePath.getFileName().toString(), reader);
-        insertBatchSize = balanceProperties.getBatchSize();
+        this.batch = batch;
+        batch.clear();
     }
 
     /**
@@ -112,7 +118,6 @@ public final class AccountBalancesFileLoader implements AutoCloseable {
     private boolean processRecordStream(PreparedStatement ps, long consensusTimestamp,
                                         Stream<NumberedLine> stream) {
         var state = new Object() {
-            int recordsInCurrentBatch = 0;
             boolean insertSuccess = true;
         };
         stream.forEachOrdered((line) -> {
@@ -122,10 +127,9 @@ public final class AccountBalancesFileLoader implements AutoCloseable {
                 }
                 processLine(ps, consensusTimestamp, line);
                 ++validRowCount;
-                ++state.recordsInCurrentBatch;
-                if (state.recordsInCurrentBatch >= insertBatchSize) {
-                    state.recordsInCurrentBatch = 0;
-                    ps.executeBatch();
+                batch.add(ROW_BYTES);
+                if (batch.isFull()) {
+                    executeBatch(ps);
                 }
             } catch (InvalidDatasetException | SQLException e) {
                 log.error(e);
@@ -133,9 +137,9 @@ public final class AccountBalancesFileLoader implements AutoCloseable {
             }
         });
         // Process any remaining insert batches.
-        if (state.recordsInCurrentBatch > 0) {
+        if (batch.getRows() > 0) {
             try {
-                ps.executeBatch();
+                executeBatch(ps);
             } catch (SQLException e) {
                 log.error(e);
                 state.insertSuccess = false;
@@ -144,6 +148,14 @@ public final class AccountBalancesFileLoader implements AutoCloseable {
         return state.insertSuccess;
     }
 
+    private void executeBatch(PreparedStatement ps) throws SQLException {
+        BatchFlushEvent event = BatchFlushEvent.start(batch);
+        long start = System.nanoTime();
+        ps.executeBatch();
+        event.commit();
+        batch.executed(System.nanoTime() - start);
+    }
+
     /**
      * Process the file and load all the data into the database.
      *
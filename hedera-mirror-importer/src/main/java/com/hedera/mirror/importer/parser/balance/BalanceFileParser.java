@@ -29,6 +29,10 @@ import java.util.Collections;
 import java.util.List;
 import javax.inject.Named;
 
+import com.hedera.mirror.importer.domain.StreamType;
+import com.hedera.mirror.importer.downloader.StreamMetrics;
+import com.hedera.mirror.importer.parser.AdaptiveBatch;
+import com.hedera.mirror.importer.parser.BatchController;
 import com.hedera.mirror.importer.parser.FileWatcher;
 import com.hedera.mirror.importer.util.ShutdownHelper;
 import com.hedera.mirror.importer.util.Utility;
@@ -36,8 +40,14 @@ import com.hedera.mirror.importer.util.Utility;
 @Named
 public class BalanceFileParser extends FileWatcher {
 
-    public BalanceFileParser(BalanceParserProperties parserProperties) {
+    private final AdaptiveBatch batch;
+    private final StreamMetrics streamMetrics;
+
+    public BalanceFileParser(BalanceParserProperties parserProperties, BatchController batchController,
+                             StreamMetrics streamMetrics) {
         super(parserProperties);
+        batch = batchController.get("account_balances");
+        this.streamMetrics = streamMetrics;
     }
 
     @Override
@@ -83,10 +93,11 @@ public class BalanceFileParser extends FileWatcher {
                 if (ShutdownHelper.isStopping()) {
                     throw new RuntimeException("Process is shutting down");
                 }
-                if (new AccountBalancesFileLoader((BalanceParserProperties) parserProperties, balanceFile.toPath())
-                        .loadAccountBalances()) {
+                if (new AccountBalancesFileLoader((BalanceParserProperties) parserProperties, balanceFile.toPath(),
+                        batch).loadAccountBalances()) {
                     // move it
                     Utility.moveFileToParsedDir(balanceFile.getCanonicalPath(), "/parsedBalanceFiles/");
+                    streamMetrics.parsed(StreamType.BALANCE, balanceFile.getName(), 1, 0L);
                 }
             }
             log.info("Completed processing {} balance files in {}", balanceFiles.length, stopwatch);
@@ -107,10 +118,11 @@ public class BalanceFileParser extends FileWatcher {
 
             log.debug("Processing last balance file {}", balanceFile);
 
-            if (new AccountBalancesFileLoader((BalanceParserProperties) parserProperties, balanceFile.toPath())
-                    .loadAccountBalances()) {
+            if (new AccountBalancesFileLoader((BalanceParserProperties) parserProperties, balanceFile.toPath(),
+                    batch).loadAccountBalances()) {
                 // move it
                 Utility.moveFileToParsedDir(balanceFile.getCanonicalPath(), "/parsedBalanceFiles/");
+                streamMetrics.parsed(StreamType.BALANCE, balanceFile.getName(), 1, 0L);
             }
         } catch (Exception e) {
             log.error("Error processing balances files after {}", stopwatch, e);
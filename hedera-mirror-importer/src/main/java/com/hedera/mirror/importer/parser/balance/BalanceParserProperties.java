@@ -38,9 +38,6 @@ public class BalanceParserProperties implements ParserProperties {
 
     private final MirrorProperties mirrorProperties;
 
-    @Min(1)
-    private int batchSize = 2000;
-
     private boolean enabled = true;
 
     @Min(1)
@@ -20,20 +20,72 @@ package com.hedera.mirror.importer.parser.domain;
  * ‍
  */
 
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
+import com.google.protobuf.UnsafeByteOperations;
 import com.hederahashgraph.api.proto.java.Transaction;
+import com.hederahashgraph.api.proto.java.TransactionBody;
 import com.hederahashgraph.api.proto.java.TransactionRecord;
-import lombok.AllArgsConstructor;
 import lombok.Value;
 
+import com.hedera.mirror.importer.exception.ProtobufException;
+
+/**
+ * A transaction and its record with the transaction body parsed exactly once. When created from the raw bytes of a
+ * record file, the bytes fields of the messages, like file contents, contract parameters and results and topic
+ * messages, are views into the raw bytes instead of copies. They are only copied when they're persisted.
+ */
 @Value
-@AllArgsConstructor
 public class RecordItem implements StreamItem {
-    public RecordItem(Transaction transaction, TransactionRecord record) {
-        this(transaction, record, null, null);
-    }
 
     private final Transaction transaction;
+    private final TransactionBody transactionBody;
     private final TransactionRecord record;
     private final byte[] transactionBytes;
     private final byte[] recordBytes;
+
+    public RecordItem(Transaction transaction, TransactionRecord record) {
+        this(transaction, record, null, null);
+    }
+
+    public RecordItem(Transaction transaction, TransactionRecord record, byte[] transactionBytes,
+                      byte[] recordBytes) {
+        this.transaction = transaction;
+        this.record = record;
+        this.transactionBytes = transactionBytes;
+        this.recordBytes = recordBytes;
+
+        try {
+            transactionBody = transaction.hasBody() ? transaction.getBody() :
+                    parse(TransactionBody.parser(), transaction.getBodyBytes().newCodedInput());
+        } catch (InvalidProtocolBufferException e) {
+            throw new ProtobufException("Unable to parse transaction body", e);
+        }
+    }
+
+    /**
+     * Parses the transaction, its body and its record without copying their bytes fields. The arrays must not be
+     * modified afterwards.
+     */
+    public static RecordItem parse(byte[] transactionBytes, byte[] recordBytes) {
+        try {
+            Transaction transaction = parse(Transaction.parser(), UnsafeByteOperations.unsafeWrap(transactionBytes)
+                    .newCodedInput());
+            TransactionRecord record = parse(TransactionRecord.parser(), UnsafeByteOperations.unsafeWrap(recordBytes)
+                    .newCodedInput());
+            return new RecordItem(transaction, record, transactionBytes, recordBytes);
+        } catch (InvalidProtocolBufferException e) {
+            throw new ProtobufException("Unable to parse record item", e);
+        }
+    }
+
+    /**
+     * Aliasing only applies to inputs created from a ByteString, which is treated as immutable, so the raw arrays are
+     * wrapped without copying them first.
+     */
+    private static <T> T parse(Parser<T> parser, CodedInputStream input) throws InvalidProtocolBufferException {
+        input.enableAliasing(true);
+        return parser.parseFrom(input);
+    }
 }
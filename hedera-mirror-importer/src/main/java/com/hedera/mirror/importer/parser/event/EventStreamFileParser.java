@@ -42,9 +42,10 @@ import javax.inject.Named;
 
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.codec.binary.Hex;
-import org.springframework.scheduling.annotation.Scheduled;
 
 import com.hedera.mirror.importer.domain.ApplicationStatusCode;
+import com.hedera.mirror.importer.domain.StreamType;
+import com.hedera.mirror.importer.downloader.StreamMetrics;
 import com.hedera.mirror.importer.parser.FileParser;
 import com.hedera.mirror.importer.repository.ApplicationStatusRepository;
 import com.hedera.mirror.importer.util.DatabaseUtilities;
@@ -62,11 +63,13 @@ public class EventStreamFileParser implements FileParser {
     private static Connection connect = null;
     private final ApplicationStatusRepository applicationStatusRepository;
     private final EventParserProperties parserProperties;
+    private final StreamMetrics streamMetrics;
 
     public EventStreamFileParser(ApplicationStatusRepository applicationStatusRepository,
-                                 EventParserProperties parserProperties) {
+                                 EventParserProperties parserProperties, StreamMetrics streamMetrics) {
         this.applicationStatusRepository = applicationStatusRepository;
         this.parserProperties = parserProperties;
+        this.streamMetrics = streamMetrics;
     }
 
     /**
@@ -499,13 +502,13 @@ public class EventStreamFileParser implements FileParser {
                     .findByStatusCode(ApplicationStatusCode.LAST_PROCESSED_EVENT_HASH);
             if (loadResult == LoadResult.OK) {
                 Utility.moveFileToParsedDir(name, PARSED_DIR);
+                streamMetrics.parsed(StreamType.EVENT, new File(name).getName(), 1, 0L);
             }
         }
         return true;
     }
 
     @Override
-    @Scheduled(fixedRateString = "${hedera.mirror.parser.event.frequency:60000}")
     public void parse() {
         try {
             if (!parserProperties.isEnabled()) {
@@ -0,0 +1,122 @@
+package com.hedera.mirror.importer.parser.record;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.codec.binary.Hex;
+
+import com.hedera.mirror.importer.exception.InvalidDatasetException;
+import com.hedera.mirror.importer.parser.domain.RecordItem;
+import com.hedera.mirror.importer.util.FileDelimiter;
+import com.hedera.mirror.importer.util.StreamFileHasher;
+
+/**
+ * The contents of a record file, read and decoded before any of it is stored. Decoding doesn't touch the database or
+ * any shared state, so record files can be decoded ahead of the parser on other threads. The file is read once and
+ * hashed from the same bytes it's decoded from. The time spent reading and decoding is kept to be recorded by the
+ * parser, since the record file metrics are only updated by the parser thread.
+ */
+@Log4j2
+@Value
+class DecodedRecordFile {
+
+    private final String fileName;
+    private final int version;
+    private final String hash;
+    private final String previousHash;
+    private final List<RecordItem> items;
+    private final long bytes;
+    private final long readNanos;
+    private final long decodeNanos;
+
+    /**
+     * @param fileName the name of the record file to read
+     * @param hash     the hash of the file if it's already known, or null to hash the file as it's read
+     */
+    static DecodedRecordFile read(String fileName, byte[] hash) throws IOException {
+        List<RecordItem> items = new ArrayList<>();
+        String previousHash = null;
+        long bytes = 0;
+        long readNanos = 0;
+        long decodeNanos = 0;
+        long start = System.nanoTime();
+        byte[] contents = Files.readAllBytes(Paths.get(fileName));
+
+        if (hash == null) {
+            StreamFileHasher hasher = new StreamFileHasher(fileName);
+            hasher.update(ByteBuffer.wrap(contents));
+            hash = hasher.digest();
+            if (hash == null) {
+                throw new InvalidDatasetException("Unable to calculate the hash of record file " + fileName);
+            }
+        }
+
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(contents))) {
+            int version = dis.readInt();
+            dis.readInt(); // version
+
+            while (dis.available() != 0) {
+                byte typeDelimiter = dis.readByte();
+
+                switch (typeDelimiter) {
+                    case FileDelimiter.RECORD_TYPE_PREV_HASH:
+                        byte[] readFileHash = new byte[48];
+                        dis.readFully(readFileHash);
+                        previousHash = Hex.encodeHexString(readFileHash);
+                        break;
+                    case FileDelimiter.RECORD_TYPE_RECORD:
+                        byte[] transactionBytes = new byte[dis.readInt()];
+                        dis.readFully(transactionBytes);
+                        byte[] rawBytes = new byte[dis.readInt()];
+                        dis.readFully(rawBytes);
+                        bytes += transactionBytes.length + rawBytes.length;
+
+                        long decodeStart = System.nanoTime();
+                        readNanos += decodeStart - start;
+                        items.add(RecordItem.parse(transactionBytes, rawBytes));
+                        start = System.nanoTime();
+                        decodeNanos += start - decodeStart;
+                        break;
+                    case FileDelimiter.RECORD_TYPE_SIGNATURE:
+                        byte[] sigBytes = new byte[dis.readInt()];
+                        dis.readFully(sigBytes);
+                        log.trace("File {} has signature {}", fileName, Hex.encodeHexString(sigBytes));
+                        break;
+                    default:
+                        throw new InvalidDatasetException(String.format(
+                                "Unknown record file delimiter %d for file %s", typeDelimiter, fileName));
+                }
+            }
+
+            readNanos += System.nanoTime() - start;
+            return new DecodedRecordFile(fileName, version, Hex.encodeHexString(hash), previousHash, items, bytes,
+                    readNanos, decodeNanos);
+        }
+    }
+}
@@ -20,15 +20,14 @@ package com.hedera.mirror.importer.parser.record;
  * ‍
  */
 
-import com.hederahashgraph.api.proto.java.AccountAmount;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hederahashgraph.api.proto.java.TransactionBody;
 import com.hederahashgraph.api.proto.java.TransactionRecord;
 
 /**
- * Extract non_fee_transfers requested by a transaction into an iterable list of transfers.
+ * Extract non_fee_transfers requested by a transaction into a transfer buffer.
  */
 public interface NonFeeTransferExtractionStrategy {
-    Iterable<AccountAmount> extractNonFeeTransfers(AccountID payerAccountId, TransactionBody body,
-                                                   TransactionRecord transactionRecord);
+    void extractNonFeeTransfers(long consensusTimestamp, AccountID payerAccountId, TransactionBody body,
+                                TransactionRecord transactionRecord, TransferBuffer buffer);
 }
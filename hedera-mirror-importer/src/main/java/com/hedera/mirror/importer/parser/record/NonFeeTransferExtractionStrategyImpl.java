@@ -20,64 +20,66 @@ package com.hedera.mirror.importer.parser.record;
  * ‍
  */
 
-import com.hederahashgraph.api.proto.java.AccountAmount;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hederahashgraph.api.proto.java.ContractID;
 import com.hederahashgraph.api.proto.java.ResponseCodeEnum;
 import com.hederahashgraph.api.proto.java.TransactionBody;
 import com.hederahashgraph.api.proto.java.TransactionRecord;
+import com.hederahashgraph.api.proto.java.TransferList;
 import org.springframework.stereotype.Component;
-import java.util.LinkedList;
 
 /**
- * Extract non_fee_transfers requested by a transaction into an iterable list of transfers.
+ * Extract non_fee_transfers requested by a transaction into a transfer buffer.
  */
 @Component
 public class NonFeeTransferExtractionStrategyImpl implements NonFeeTransferExtractionStrategy {
     /**
-     * Return a list of non-fee transfer amounts for certain transaction types. These are explicitly requested
-     * transfers.
+     * Add the non-fee transfer amounts for certain transaction types to the buffer. These are explicitly requested
+     * transfers. Zero amounts are skipped.
+     * @param consensusTimestamp
      * @param payerAccountId
      * @param body
      * @param transactionRecord
-     * @return
+     * @param buffer
      */
     @Override
-    public Iterable<AccountAmount> extractNonFeeTransfers(AccountID payerAccountId, TransactionBody body,
-                                                          TransactionRecord transactionRecord) {
-        LinkedList<AccountAmount> result = new LinkedList<>();
+    public void extractNonFeeTransfers(long consensusTimestamp, AccountID payerAccountId, TransactionBody body,
+                                       TransactionRecord transactionRecord, TransferBuffer buffer) {
         if (body.hasCryptoTransfer()) {
-            for (var accountAmount : body.getCryptoTransfer().getTransfers().getAccountAmountsList()) {
-                result.add(accountAmount);
+            TransferList transferList = body.getCryptoTransfer().getTransfers();
+            for (int i = 0; i < transferList.getAccountAmountsCount(); ++i) {
+                var accountAmount = transferList.getAccountAmounts(i);
+                add(buffer, consensusTimestamp, accountAmount.getAccountID(), accountAmount.getAmount());
             }
         } else if (body.hasCryptoCreateAccount()) {
             var amount = body.getCryptoCreateAccount().getInitialBalance();
-            result.add(AccountAmount.newBuilder().setAccountID(payerAccountId).setAmount(0 - amount).build());
+            add(buffer, consensusTimestamp, payerAccountId, 0 - amount);
             if (ResponseCodeEnum.SUCCESS == transactionRecord.getReceipt().getStatus()) {
-                var newAccountId = transactionRecord.getReceipt().getAccountID();
-                result.add(AccountAmount.newBuilder().setAccountID(newAccountId).setAmount(amount).build());
+                add(buffer, consensusTimestamp, transactionRecord.getReceipt().getAccountID(), amount);
             }
         } else if (body.hasContractCreateInstance()) {
             var amount = body.getContractCreateInstance().getInitialBalance();
-            result.add(AccountAmount.newBuilder().setAccountID(payerAccountId).setAmount(0 - amount).build());
+            add(buffer, consensusTimestamp, payerAccountId, 0 - amount);
             if (ResponseCodeEnum.SUCCESS == transactionRecord.getReceipt().getStatus()) {
-                var contractAccountId = contractIdToAccountId(transactionRecord.getReceipt().getContractID());
-                result.add(AccountAmount.newBuilder().setAccountID(contractAccountId).setAmount(amount).build());
+                add(buffer, consensusTimestamp, transactionRecord.getReceipt().getContractID(), amount);
             }
         } else if (body.hasContractCall()) {
             var amount = body.getContractCall().getAmount();
-            var contractAccountId = contractIdToAccountId(body.getContractCall().getContractID());
-            result.add(AccountAmount.newBuilder().setAccountID(contractAccountId).setAmount(amount).build());
-            result.add(AccountAmount.newBuilder().setAccountID(payerAccountId).setAmount(0 - amount).build());
+            add(buffer, consensusTimestamp, body.getContractCall().getContractID(), amount);
+            add(buffer, consensusTimestamp, payerAccountId, 0 - amount);
         }
-        return result;
     }
 
-    private AccountID contractIdToAccountId(ContractID contractId) {
-        return AccountID.newBuilder()
-                .setShardNum(contractId.getShardNum())
-                .setRealmNum(contractId.getRealmNum())
-                .setAccountNum(contractId.getContractNum())
-                .build();
+    private static void add(TransferBuffer buffer, long consensusTimestamp, AccountID accountId, long amount) {
+        if (0 != amount) {
+            buffer.add(consensusTimestamp, accountId.getRealmNum(), accountId.getAccountNum(), amount);
+        }
+    }
+
+    // A contract is also an account with the same number
+    private static void add(TransferBuffer buffer, long consensusTimestamp, ContractID contractId, long amount) {
+        if (0 != amount) {
+            buffer.add(consensusTimestamp, contractId.getRealmNum(), contractId.getContractNum(), amount);
+        }
     }
 }
@@ -24,6 +24,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import javax.inject.Named;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
 import com.hedera.mirror.importer.domain.ContractResult;
@@ -35,18 +36,37 @@ import com.hedera.mirror.importer.domain.TopicMessage;
 import com.hedera.mirror.importer.domain.Transaction;
 import com.hedera.mirror.importer.exception.ImporterException;
 import com.hedera.mirror.importer.exception.ParserSQLException;
+import com.hedera.mirror.importer.parser.AdaptiveBatch;
+import com.hedera.mirror.importer.parser.BatchController;
+import com.hedera.mirror.importer.parser.BatchFlushEvent;
 
 @Log4j2
 @Named
+@RequiredArgsConstructor
 public class PostgresWritingRecordParsedItemHandler implements RecordParsedItemHandler {
+    private final RecordFileMetrics recordFileMetrics;
+    private final BatchController batchController;
     private PreparedStatement sqlInsertTransferList;
     private PreparedStatement sqlInsertNonFeeTransfers;
     private PreparedStatement sqlInsertFileData;
     private PreparedStatement sqlInsertContractResult;
     private PreparedStatement sqlInsertLiveHashes;
     private PreparedStatement sqlInsertTopicMessage;
+    private AdaptiveBatch transferListBatch;
+    private AdaptiveBatch nonFeeTransfersBatch;
+    private AdaptiveBatch fileDataBatch;
+    private AdaptiveBatch contractResultBatch;
+    private AdaptiveBatch liveHashesBatch;
+    private AdaptiveBatch topicMessageBatch;
 
     void initSqlStatements(Connection connection) throws ParserSQLException {
+        transferListBatch = getBatch("t_cryptotransferlists");
+        nonFeeTransfersBatch = getBatch("non_fee_transfers");
+        fileDataBatch = getBatch("t_file_data");
+        contractResultBatch = getBatch("t_contract_result");
+        liveHashesBatch = getBatch("t_livehashes");
+        topicMessageBatch = getBatch("topic_message");
+
         try {
             sqlInsertTransferList = connection.prepareStatement("INSERT INTO t_cryptotransferlists"
                     + " (consensus_timestamp, amount, realm_num, entity_num)"
@@ -76,6 +96,12 @@ public class PostgresWritingRecordParsedItemHandler implements RecordParsedItemH
         }
     }
 
+    private AdaptiveBatch getBatch(String table) {
+        AdaptiveBatch batch = batchController.get(table);
+        batch.clear();
+        return batch;
+    }
+
     public void finish() {
         closeStatements();
     }
@@ -100,12 +126,12 @@ public class PostgresWritingRecordParsedItemHandler implements RecordParsedItemH
 
     void executeBatches() {
         try {
-            int[] transferLists = sqlInsertTransferList.executeBatch();
-            int[] nonFeeTransfers = sqlInsertNonFeeTransfers.executeBatch();
-            int[] fileData = sqlInsertFileData.executeBatch();
-            int[] contractResult = sqlInsertContractResult.executeBatch();
-            int[] liveHashes = sqlInsertLiveHashes.executeBatch();
-            int[] topicMessages = sqlInsertTopicMessage.executeBatch();
+            int[] transferLists = executeBatch(sqlInsertTransferList, transferListBatch);
+            int[] nonFeeTransfers = executeBatch(sqlInsertNonFeeTransfers, nonFeeTransfersBatch);
+            int[] fileData = executeBatch(sqlInsertFileData, fileDataBatch);
+            int[] contractResult = executeBatch(sqlInsertContractResult, contractResultBatch);
+            int[] liveHashes = executeBatch(sqlInsertLiveHashes, liveHashesBatch);
+            int[] topicMessages = executeBatch(sqlInsertTopicMessage, topicMessageBatch);
             log.info("Inserted {} transfer lists, {} files, {} contracts, {} claims, {} topic messages, " +
                             "{} non-fee transfers",
                     transferLists.length, fileData.length, contractResult.length, liveHashes.length,
@@ -116,6 +142,35 @@ public class PostgresWritingRecordParsedItemHandler implements RecordParsedItemH
         }
     }
 
+    private int[] executeBatch(PreparedStatement preparedStatement, AdaptiveBatch batch) throws SQLException {
+        BatchFlushEvent event = BatchFlushEvent.start(batch);
+        long start = System.nanoTime();
+        int[] result = preparedStatement.executeBatch();
+        long nanos = System.nanoTime() - start;
+        event.commit();
+        recordFileMetrics.recordBatch(batch.getTable(), nanos);
+        batch.executed(nanos);
+        return result;
+    }
+
+    /**
+     * Adds the bound row to the batch of the statement and executes the batch once it's full.
+     *
+     * @param rowBytes the estimated size of the row in bytes
+     */
+    private void addBatch(PreparedStatement preparedStatement, AdaptiveBatch batch, long rowBytes)
+            throws SQLException {
+        preparedStatement.addBatch();
+        batch.add(rowBytes);
+        if (batch.isFull()) {
+            executeBatch(preparedStatement, batch);
+        }
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
     @Override
     public void onTransaction(Transaction transaction) throws ImporterException {
         // to be implemented in followup change
@@ -123,27 +178,43 @@ public class PostgresWritingRecordParsedItemHandler implements RecordParsedItemH
 
     @Override
     public void onCryptoTransferList(CryptoTransfer cryptoTransfer) throws ImporterException {
-        try {
-            sqlInsertTransferList.setLong(F_TRANSFERLIST.CONSENSUS_TIMESTAMP.ordinal(),
-                    cryptoTransfer.getConsensusTimestamp());
-            sqlInsertTransferList.setLong(F_TRANSFERLIST.REALM_NUM.ordinal(), cryptoTransfer.getRealmNum());
-            sqlInsertTransferList.setLong(F_TRANSFERLIST.ENTITY_NUM.ordinal(), cryptoTransfer.getEntityNum());
-            sqlInsertTransferList.setLong(F_TRANSFERLIST.AMOUNT.ordinal(), cryptoTransfer.getAmount());
-            sqlInsertTransferList.addBatch();
-        } catch (SQLException e) {
-            throw new ParserSQLException(e);
-        }
+        addTransfer(sqlInsertTransferList, transferListBatch, cryptoTransfer.getConsensusTimestamp(),
+                cryptoTransfer.getRealmNum(), cryptoTransfer.getEntityNum(), cryptoTransfer.getAmount());
     }
 
     @Override
     public void onNonFeeTransfer(NonFeeTransfer nonFeeTransfer) throws ImporterException {
+        addTransfer(sqlInsertNonFeeTransfers, nonFeeTransfersBatch, nonFeeTransfer.getConsensusTimestamp(),
+                nonFeeTransfer.getRealmNum(), nonFeeTransfer.getEntityNum(), nonFeeTransfer.getAmount());
+    }
+
+    @Override
+    public void onCryptoTransfers(TransferBuffer transfers) throws ImporterException {
+        addTransfers(sqlInsertTransferList, transferListBatch, transfers);
+    }
+
+    @Override
+    public void onNonFeeTransfers(TransferBuffer transfers) throws ImporterException {
+        addTransfers(sqlInsertNonFeeTransfers, nonFeeTransfersBatch, transfers);
+    }
+
+    private void addTransfers(PreparedStatement preparedStatement, AdaptiveBatch batch, TransferBuffer transfers) {
+        for (int i = 0; i < transfers.size(); i++) {
+            addTransfer(preparedStatement, batch, transfers.getConsensusTimestamp(i), transfers.getRealmNum(i),
+                    transfers.getEntityNum(i), transfers.getAmount(i));
+        }
+        transfers.clear();
+    }
+
+    // t_cryptotransferlists and non_fee_transfers have the same columns
+    private void addTransfer(PreparedStatement preparedStatement, AdaptiveBatch batch, long consensusTimestamp,
+                             long realmNum, long entityNum, long amount) {
         try {
-            sqlInsertNonFeeTransfers.setLong(F_NONFEETRANSFER.CONSENSUS_TIMESTAMP.ordinal(),
-                    nonFeeTransfer.getConsensusTimestamp());
-            sqlInsertNonFeeTransfers.setLong(F_NONFEETRANSFER.AMOUNT.ordinal(), nonFeeTransfer.getAmount());
-            sqlInsertNonFeeTransfers.setLong(F_NONFEETRANSFER.REALM_NUM.ordinal(), nonFeeTransfer.getRealmNum());
-            sqlInsertNonFeeTransfers.setLong(F_NONFEETRANSFER.ENTITY_NUM.ordinal(), nonFeeTransfer.getEntityNum());
-            sqlInsertNonFeeTransfers.addBatch();
+            preparedStatement.setLong(F_TRANSFERLIST.CONSENSUS_TIMESTAMP.ordinal(), consensusTimestamp);
+            preparedStatement.setLong(F_TRANSFERLIST.AMOUNT.ordinal(), amount);
+            preparedStatement.setLong(F_TRANSFERLIST.REALM_NUM.ordinal(), realmNum);
+            preparedStatement.setLong(F_TRANSFERLIST.ENTITY_NUM.ordinal(), entityNum);
+            addBatch(preparedStatement, batch, 32);
         } catch (SQLException e) {
             throw new ParserSQLException(e);
         }
@@ -159,7 +230,8 @@ public class PostgresWritingRecordParsedItemHandler implements RecordParsedItemH
             sqlInsertTopicMessage.setBytes(F_TOPICMESSAGE.MESSAGE.ordinal(), topicMessage.getMessage());
             sqlInsertTopicMessage.setBytes(F_TOPICMESSAGE.RUNNING_HASH.ordinal(), topicMessage.getRunningHash());
             sqlInsertTopicMessage.setLong(F_TOPICMESSAGE.SEQUENCE_NUMBER.ordinal(), topicMessage.getSequenceNumber());
-            sqlInsertTopicMessage.addBatch();
+            long rowBytes = 22 + length(topicMessage.getMessage()) + length(topicMessage.getRunningHash());
+            addBatch(sqlInsertTopicMessage, topicMessageBatch, rowBytes);
         } catch (SQLException e) {
             throw new ParserSQLException(e);
         }
@@ -175,7 +247,9 @@ public class PostgresWritingRecordParsedItemHandler implements RecordParsedItemH
             sqlInsertContractResult.setLong(F_CONTRACT_RESULT.GAS_SUPPLIED.ordinal(), contractResult.getGasSupplied());
             sqlInsertContractResult.setBytes(F_CONTRACT_RESULT.CALL_RESULT.ordinal(), contractResult.getCallResult());
             sqlInsertContractResult.setLong(F_CONTRACT_RESULT.GAS_USED.ordinal(), contractResult.getGasUsed());
-            sqlInsertContractResult.addBatch();
+            long rowBytes = 24 + length(contractResult.getFunctionParameters()) +
+                    length(contractResult.getCallResult());
+            addBatch(sqlInsertContractResult, contractResultBatch, rowBytes);
         } catch (SQLException e) {
             throw new ParserSQLException(e);
         }
@@ -186,7 +260,7 @@ public class PostgresWritingRecordParsedItemHandler implements RecordParsedItemH
         try {
             sqlInsertFileData.setLong(F_FILE_DATA.CONSENSUS_TIMESTAMP.ordinal(), fileData.getConsensusTimestamp());
             sqlInsertFileData.setBytes(F_FILE_DATA.FILE_DATA.ordinal(), fileData.getFileData());
-            sqlInsertFileData.addBatch();
+            addBatch(sqlInsertFileData, fileDataBatch, 8 + length(fileData.getFileData()));
         } catch (SQLException e) {
             throw new ParserSQLException(e);
         }
@@ -198,7 +272,7 @@ public class PostgresWritingRecordParsedItemHandler implements RecordParsedItemH
             sqlInsertLiveHashes
                     .setLong(F_LIVEHASHES.CONSENSUS_TIMESTAMP.ordinal(), liveHash.getConsensusTimestamp());
             sqlInsertLiveHashes.setBytes(F_LIVEHASHES.LIVEHASH.ordinal(), liveHash.getLivehash());
-            sqlInsertLiveHashes.addBatch();
+            addBatch(sqlInsertLiveHashes, liveHashesBatch, 8 + length(liveHash.getLivehash()));
         } catch (SQLException e) {
             throw new ParserSQLException(e);
         }
@@ -214,11 +288,6 @@ public class PostgresWritingRecordParsedItemHandler implements RecordParsedItemH
         , CONSENSUS_TIMESTAMP, AMOUNT, REALM_NUM, ENTITY_NUM
     }
 
-    enum F_NONFEETRANSFER {
-        ZERO // column indices start at 1, this creates the necessary offset
-        , CONSENSUS_TIMESTAMP, AMOUNT, REALM_NUM, ENTITY_NUM
-    }
-
     enum F_TOPICMESSAGE {
         ZERO // column indices start at 1, this creates the necessary offset
         , CONSENSUS_TIMESTAMP, REALM_NUM, TOPIC_NUM, MESSAGE, RUNNING_HASH, SEQUENCE_NUMBER
@@ -0,0 +1,165 @@
+package com.hedera.mirror.importer.parser.record;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.codec.binary.Hex;
+
+import com.hedera.mirror.importer.downloader.VerifiedFileHashes;
+import com.hedera.mirror.importer.parser.StreamState;
+import com.hedera.mirror.importer.util.ShutdownHelper;
+import com.hedera.mirror.importer.util.StreamFileHasher;
+import com.hedera.mirror.importer.util.Utility;
+
+/**
+ * Backfills a range of record files, like a year of history copied to the valid directory. The hash chain of the whole
+ * range is validated before anything is stored, hashing the files concurrently a bounded number of files at a time.
+ * Each file is hashed from a single read that also yields its previous hash, or only has its header read if the
+ * downloader already verified its hash. The validated files are then read and decoded concurrently a bounded number of
+ * files ahead of the parser without being hashed again, and the parser stores and commits them in order on its
+ * connection.
+ */
+@Log4j2
+class RecordFileBackfill implements AutoCloseable {
+
+    private final List<String> fileNames;
+    private final Executor executor;
+    private final int lookahead;
+    private final List<byte[]> hashes = new ArrayList<>();
+    private final Deque<CompletableFuture<DecodedRecordFile>> decoded = new ArrayDeque<>();
+    private int submitted = 0;
+
+    RecordFileBackfill(List<String> fileNames, Executor executor, int lookahead) {
+        this.fileNames = fileNames;
+        this.executor = executor;
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * Validates that the files link to the last hash of the stream and to each other
+     *
+     * @return the files at the start of the range whose hash chain is valid, which are the ones backfilled
+     */
+    List<String> validate(StreamState streamState, VerifiedFileHashes verifiedFileHashes) {
+        Deque<CompletableFuture<ChainLink>> links = new ArrayDeque<>();
+        String expectedHash = streamState.getLastHash();
+        int linked = 0;
+
+        try {
+            for (int i = 0; i < fileNames.size() && !ShutdownHelper.isStopping(); i++) {
+                while (linked < fileNames.size() && linked <= i + lookahead) {
+                    String linkedFile = fileNames.get(linked++);
+                    links.addLast(CompletableFuture.supplyAsync(() -> link(linkedFile, verifiedFileHashes), executor));
+                }
+
+                String fileName = fileNames.get(i);
+                ChainLink link = links.removeFirst().join();
+
+                if (link.getHash() == null || link.getPreviousHash() == null) {
+                    log.error("Unable to read the hashes of file {}", fileName);
+                    break;
+                }
+
+                if (!Utility.hashIsEmpty(expectedHash) && !expectedHash.contentEquals(link.getPreviousHash()) &&
+                        !streamState.isHashMismatchBypassed(Utility.getFileName(fileName))) {
+                    log.error("Hash mismatch for file {}. Previous = {}, Current = {}", fileName, expectedHash,
+                            link.getPreviousHash());
+                    break;
+                }
+
+                hashes.add(link.getHash());
+                expectedHash = Hex.encodeHexString(link.getHash());
+            }
+        } finally {
+            links.forEach(l -> l.cancel(false));
+        }
+
+        log.info("Validated the hash chain of {} of {} record files to backfill", hashes.size(), fileNames.size());
+        return fileNames.subList(0, hashes.size());
+    }
+
+    String getHash(int index) {
+        return Hex.encodeHexString(hashes.get(index));
+    }
+
+    /**
+     * Returns the next validated file in order, submitting the files up to the lookahead after it to be decoded
+     */
+    CompletableFuture<DecodedRecordFile> next() {
+        while (submitted < hashes.size() && decoded.size() <= lookahead) {
+            String fileName = fileNames.get(submitted);
+            byte[] hash = hashes.get(submitted++);
+            decoded.addLast(CompletableFuture.supplyAsync(() -> read(fileName, hash), executor));
+        }
+        return decoded.removeFirst();
+    }
+
+    @Override
+    public void close() {
+        // Files that haven't started decoding are skipped
+        decoded.forEach(f -> f.cancel(false));
+        decoded.clear();
+    }
+
+    private static ChainLink link(String fileName, VerifiedFileHashes verifiedFileHashes) {
+        // Use the hash calculated while the file was downloaded if it was downloaded by this process
+        byte[] hash = verifiedFileHashes.remove(new File(fileName).getName());
+        if (hash != null) {
+            return new ChainLink(hash, RecordFileParser.readPrevFileHash(fileName));
+        }
+
+        try {
+            StreamFileHasher hasher = new StreamFileHasher(fileName);
+            hasher.update(ByteBuffer.wrap(Files.readAllBytes(Paths.get(fileName))));
+            byte[] previousHash = hasher.getPreviousHash();
+            return new ChainLink(hasher.digest(), previousHash != null ? Hex.encodeHexString(previousHash) : null);
+        } catch (IOException e) {
+            log.error("Unable to read file {}", fileName, e);
+            return new ChainLink(null, null);
+        }
+    }
+
+    private static DecodedRecordFile read(String fileName, byte[] hash) {
+        try {
+            return DecodedRecordFile.read(fileName, hash);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Value
+    private static class ChainLink {
+        private final byte[] hash;
+        private final String previousHash;
+    }
+}
@@ -21,50 +21,41 @@ package com.hedera.mirror.importer.parser.record;
  */
 
 import com.hederahashgraph.api.proto.java.AccountID;
-import com.hederahashgraph.api.proto.java.ConsensusSubmitMessageTransactionBody;
-import com.hederahashgraph.api.proto.java.ContractCallTransactionBody;
-import com.hederahashgraph.api.proto.java.ContractCreateTransactionBody;
 import com.hederahashgraph.api.proto.java.ContractID;
-import com.hederahashgraph.api.proto.java.ContractUpdateTransactionBody;
-import com.hederahashgraph.api.proto.java.CryptoAddClaimTransactionBody;
-import com.hederahashgraph.api.proto.java.CryptoCreateTransactionBody;
-import com.hederahashgraph.api.proto.java.CryptoUpdateTransactionBody;
-import com.hederahashgraph.api.proto.java.FileAppendTransactionBody;
-import com.hederahashgraph.api.proto.java.FileCreateTransactionBody;
 import com.hederahashgraph.api.proto.java.FileID;
-import com.hederahashgraph.api.proto.java.FileUpdateTransactionBody;
 import com.hederahashgraph.api.proto.java.ResponseCodeEnum;
-import com.hederahashgraph.api.proto.java.Timestamp;
 import com.hederahashgraph.api.proto.java.TopicID;
 import com.hederahashgraph.api.proto.java.Transaction;
 import com.hederahashgraph.api.proto.java.TransactionBody;
 import com.hederahashgraph.api.proto.java.TransactionID;
 import com.hederahashgraph.api.proto.java.TransactionRecord;
 import com.hederahashgraph.api.proto.java.TransferList;
-import java.io.IOException;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.function.Predicate;
 import javax.inject.Named;
 import lombok.extern.log4j.Log4j2;
 
-import com.hedera.mirror.importer.addressbook.NetworkAddressBook;
-import com.hedera.mirror.importer.domain.ContractResult;
-import com.hedera.mirror.importer.domain.CryptoTransfer;
 import com.hedera.mirror.importer.domain.Entities;
 import com.hedera.mirror.importer.domain.EntityId;
-import com.hedera.mirror.importer.domain.EntityType;
-import com.hedera.mirror.importer.domain.FileData;
-import com.hedera.mirror.importer.domain.LiveHash;
-import com.hedera.mirror.importer.domain.NonFeeTransfer;
-import com.hedera.mirror.importer.domain.TopicMessage;
+import com.hedera.mirror.importer.domain.EntityTypeEnum;
+import com.hedera.mirror.importer.exception.ParserSQLException;
+import com.hedera.mirror.importer.parser.AdaptiveBatch;
+import com.hedera.mirror.importer.parser.BatchController;
+import com.hedera.mirror.importer.parser.BatchFlushEvent;
 import com.hedera.mirror.importer.parser.CommonParserProperties;
-import com.hedera.mirror.importer.repository.EntityRepository;
-import com.hedera.mirror.importer.repository.EntityTypeRepository;
+import com.hedera.mirror.importer.parser.CompiledTransactionFilter;
+import com.hedera.mirror.importer.parser.StreamState;
+import com.hedera.mirror.importer.parser.domain.RecordItem;
 import com.hedera.mirror.importer.util.DatabaseUtilities;
 import com.hedera.mirror.importer.util.Utility;
 
@@ -73,30 +64,45 @@ import com.hedera.mirror.importer.util.Utility;
 public class RecordFileLogger {
     public static Connection connect = null;
     private static RecordParserProperties parserProperties;
-    private static NetworkAddressBook networkAddressBook;
-    private static EntityRepository entityRepository;
-    private static EntityTypeRepository entityTypeRepository;
     private static NonFeeTransferExtractionStrategy nonFeeTransfersExtractor;
-    private static Predicate<com.hedera.mirror.importer.domain.Transaction> transactionFilter;
+    private static CompiledTransactionFilter transactionFilter;
     private static PostgresWritingRecordParsedItemHandler postgresWriter;
+    private static RecordFileMetrics recordFileMetrics;
+    private static TransactionHandlers transactionHandlers;
 
     private static long fileId = 0;
-    private static long BATCH_SIZE = 100;
-    private static long batch_count = 0;
+    private static Savepoint fileSavepoint; // The start of the current file within the transaction of its group
+    private static final List<Long> closedFileIds = new ArrayList<>(); // The files closed since the last commit
+    private static BatchController batchController;
+    private static AdaptiveBatch transactionBatch;
+
+    // The estimated size of the fixed width columns of a t_transactions row
+    private static final int TRANSACTION_BYTES = 100;
+    private static final String ENTITY_COLUMNS = "id, entity_shard, entity_realm, entity_num, fk_entity_type_id"
+            + ", auto_renew_account_id, auto_renew_period, key, fk_prox_acc_id, deleted, exp_time_ns"
+            + ", ed25519_public_key_hex, submit_key, memo";
 
     private static PreparedStatement sqlInsertTransaction;
+    private static PreparedStatement sqlInsertEntity;
+    private static PreparedStatement sqlSelectEntity;
+    private static PreparedStatement sqlUpsertEntity;
+    private static final Map<Long, EntityId> referencedEntities = new HashMap<>();
+
+    // Reused for every transaction to avoid allocating objects per transfer
+    private static final TransferBuffer cryptoTransfers = new TransferBuffer();
+    private static final TransferBuffer nonFeeTransfers = new TransferBuffer();
 
     public RecordFileLogger(CommonParserProperties commonParserProperties, RecordParserProperties parserProperties,
-                            NetworkAddressBook networkAddressBook, EntityRepository entityRepository,
-                            EntityTypeRepository entityTypeRepository,
+                            TransactionHandlers transactionHandlers,
                             NonFeeTransferExtractionStrategy nonFeeTransfersExtractor,
-                            PostgresWritingRecordParsedItemHandler postgresWriter) {
+                            PostgresWritingRecordParsedItemHandler postgresWriter,
+                            RecordFileMetrics recordFileMetrics, BatchController batchController) {
         RecordFileLogger.parserProperties = parserProperties;
-        RecordFileLogger.networkAddressBook = networkAddressBook;
-        RecordFileLogger.entityRepository = entityRepository;
-        RecordFileLogger.entityTypeRepository = entityTypeRepository;
+        RecordFileLogger.transactionHandlers = transactionHandlers;
         RecordFileLogger.nonFeeTransfersExtractor = nonFeeTransfersExtractor;
         RecordFileLogger.postgresWriter = postgresWriter;
+        RecordFileLogger.recordFileMetrics = recordFileMetrics;
+        RecordFileLogger.batchController = batchController;
         transactionFilter = commonParserProperties.getFilter();
     }
 
@@ -104,12 +110,14 @@ public class RecordFileLogger {
         return fileId;
     }
 
-    static void setBatchSize(long batchSize) {
-        BATCH_SIZE = batchSize;
+    static void setTransactionFilter(CompiledTransactionFilter transactionFilter) {
+        RecordFileLogger.transactionFilter = transactionFilter;
     }
 
     public static boolean start() {
-        batch_count = 0;
+        transactionBatch = batchController.get("t_transactions");
+        transactionBatch.clear();
+        closedFileIds.clear();
 
         connect = DatabaseUtilities.openDatabase(connect);
 
@@ -133,6 +141,22 @@ public class RecordFileLogger {
                     + ", transaction_hash, transaction_bytes)"
                     + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
 
+            sqlInsertEntity = connect.prepareStatement("INSERT INTO t_entities"
+                    + " (id, entity_shard, entity_realm, entity_num, fk_entity_type_id)"
+                    + " VALUES (?, ?, ?, ?, ?)"
+                    + " ON CONFLICT DO NOTHING");
+
+            sqlSelectEntity = connect.prepareStatement("SELECT " + ENTITY_COLUMNS + " FROM t_entities WHERE id = ?");
+
+            sqlUpsertEntity = connect.prepareStatement("INSERT INTO t_entities (" + ENTITY_COLUMNS + ")"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+                    + " ON CONFLICT (id) DO UPDATE SET auto_renew_account_id = excluded.auto_renew_account_id"
+                    + ", auto_renew_period = excluded.auto_renew_period, key = excluded.key"
+                    + ", fk_prox_acc_id = excluded.fk_prox_acc_id, deleted = excluded.deleted"
+                    + ", exp_time_ns = excluded.exp_time_ns"
+                    + ", ed25519_public_key_hex = excluded.ed25519_public_key_hex"
+                    + ", submit_key = excluded.submit_key, memo = excluded.memo");
+
             postgresWriter.initSqlStatements(connect);
         } catch (SQLException e) {
             log.error("Unable to prepare SQL statements", e);
@@ -145,6 +169,9 @@ public class RecordFileLogger {
     public static boolean finish() {
         try {
             sqlInsertTransaction.close();
+            sqlInsertEntity.close();
+            sqlSelectEntity.close();
+            sqlUpsertEntity.close();
             postgresWriter.finish();
 
             connect = DatabaseUtilities.closeDatabase(connect);
@@ -158,6 +185,10 @@ public class RecordFileLogger {
     public static INIT_RESULT initFile(String fileName) {
         try {
             fileId = 0;
+            referencedEntities.clear();
+            cryptoTransfers.clear();
+            nonFeeTransfers.clear();
+            fileSavepoint = connect.setSavepoint();
 
             try (CallableStatement fileCreate = connect.prepareCall("{? = call f_file_create( ? ) }")) {
                 fileCreate.registerOutParameter(1, Types.BIGINT);
@@ -168,6 +199,7 @@ public class RecordFileLogger {
 
             if (fileId == 0) {
                 log.trace("File {} already exists in the database.", fileName);
+                releaseSavepoint();
                 return INIT_RESULT.SKIP;
             } else {
                 log.trace("Added file {} to the database.", fileName);
@@ -180,13 +212,22 @@ public class RecordFileLogger {
     }
 
     public static void completeFile(String fileHash, String previousHash) throws SQLException {
+        closeFile(fileHash, previousHash);
+        commit(null, null);
+    }
+
+    /**
+     * Executes the remaining batches and marks the file as processed without committing, so that multiple files can
+     * be committed together.
+     */
+    public static void closeFile(String fileHash, String previousHash) throws SQLException {
         try (CallableStatement fileClose = connect.prepareCall("{call f_file_complete( ?, ?, ? ) }")) {
             // execute any remaining batches
-            executeBatches();
+            executeTransactionBatch();
+            insertReferencedEntities();
             postgresWriter.onFileComplete();
 
             // update the file to processed
-
             fileClose.setLong(1, fileId);
 
             if (Utility.hashIsEmpty(fileHash)) {
@@ -202,12 +243,43 @@ public class RecordFileLogger {
             }
 
             fileClose.execute();
-            // commit the changes to the database
-            connect.commit();
         }
+        releaseSavepoint();
+        closedFileIds.add(fileId);
+    }
+
+    /**
+     * Commits the files closed since the last commit together with the hash of the last of them, if any. The files are
+     * stamped with the time of the commit in milliseconds, so readers can tell how long the importer took to make
+     * their transactions visible.
+     */
+    public static void commit(StreamState streamState, String lastHash) throws SQLException {
+        long start = System.nanoTime();
+
+        if (streamState != null) {
+            streamState.save(connect, lastHash);
+        }
+
+        if (!closedFileIds.isEmpty()) {
+            try (PreparedStatement fileCommit = connect.prepareStatement(
+                    "UPDATE t_record_files SET commit_ms = ? WHERE id = ANY (?)")) {
+                fileCommit.setLong(1, System.currentTimeMillis());
+                fileCommit.setArray(2, connect.createArrayOf("bigint", closedFileIds.toArray()));
+                fileCommit.executeUpdate();
+            }
+            closedFileIds.clear();
+        }
+
+        connect.commit();
+        recordFileMetrics.record(RecordFileMetrics.Stage.COMMIT, System.nanoTime() - start);
     }
 
     public static void rollback() {
+        referencedEntities.clear();
+        closedFileIds.clear();
+        cryptoTransfers.clear();
+        nonFeeTransfers.clear();
+        fileSavepoint = null;
         try {
             connect.rollback();
         } catch (SQLException e) {
@@ -215,222 +287,92 @@ public class RecordFileLogger {
         }
     }
 
+    /**
+     * Rolls back the changes of the current file only, so the files closed before it in the same transaction can still
+     * be committed. If that isn't possible, the whole transaction is rolled back and a ParserSQLException is thrown so
+     * the files before it aren't mistaken for committed.
+     */
+    public static void rollbackFile() {
+        referencedEntities.clear();
+        cryptoTransfers.clear();
+        nonFeeTransfers.clear();
+        Savepoint savepoint = fileSavepoint;
+        fileSavepoint = null;
+
+        try {
+            if (savepoint == null) {
+                throw new SQLException("No savepoint at the start of the file");
+            }
+            connect.rollback(savepoint);
+        } catch (SQLException e) {
+            rollback();
+            throw new ParserSQLException("Unable to roll back the file, rolled back the files grouped with it", e);
+        }
+    }
+
+    private static void releaseSavepoint() throws SQLException {
+        if (fileSavepoint != null) {
+            connect.releaseSavepoint(fileSavepoint);
+            fileSavepoint = null;
+        }
+    }
+
     public static boolean isSuccessful(TransactionRecord transactionRecord) {
         return ResponseCodeEnum.SUCCESS == transactionRecord.getReceipt().getStatus();
     }
 
     public static void storeRecord(Transaction transaction, TransactionRecord txRecord) throws Exception {
-        storeRecord(transaction, txRecord, null);
+        storeRecord(new RecordItem(transaction, txRecord));
     }
 
-    public static void storeRecord(Transaction transaction, TransactionRecord txRecord, byte[] rawBytes) throws Exception {
-        TransactionBody body;
+    public static void storeRecord(Transaction transaction, TransactionRecord txRecord, byte[] rawBytes)
+            throws Exception {
+        storeRecord(new RecordItem(transaction, txRecord, null, rawBytes));
+    }
 
-        if (transaction.hasBody()) {
-            body = transaction.getBody();
-        } else {
-            body = TransactionBody.parseFrom(transaction.getBodyBytes());
+    public static void storeRecord(RecordItem recordItem) throws Exception {
+        // Time spent resolving entities and executing batches is recorded separately by those stages
+        long start = System.nanoTime();
+        long excluded = recordFileMetrics.getFileNanos(RecordFileMetrics.Stage.RESOLVE) +
+                recordFileMetrics.getFileNanos(RecordFileMetrics.Stage.EXECUTE);
+        try {
+            storeTransaction(recordItem);
+        } finally {
+            excluded = recordFileMetrics.getFileNanos(RecordFileMetrics.Stage.RESOLVE) +
+                    recordFileMetrics.getFileNanos(RecordFileMetrics.Stage.EXECUTE) - excluded;
+            recordFileMetrics.record(RecordFileMetrics.Stage.BIND, System.nanoTime() - start - excluded);
         }
+    }
 
-        log.trace("Storing transaction body: {}", () -> Utility.printProtoMessage(body));
-        long initialBalance = 0;
-
-        Entities entity = null; // Entity used when t_entities row must be updated.
-        EntityId entityId = null; // Entity ID simply used for reference purposes (in the transaction object)
-        EntityId proxyEntityId = null;
-
-        /**
-         * If the transaction wasn't successful don't update the entity.
-         * Still include the transfer list.
-         * Still create the entity (empty) and reference it from t_transactions, as it would have been validated
-         * to exist in preconsensus checks.
-         * Don't update any attributes of the entity.
-         */
-        boolean doUpdateEntity = isSuccessful(txRecord);
-
-        if (body.hasContractCall()) {
-            if (body.getContractCall().hasContractID()) {
-                entityId = getEntityId(body.getContractCall().getContractID());
-            }
-        } else if (body.hasContractCreateInstance()) {
-            if (txRecord.getReceipt().hasContractID()) { // implies SUCCESS
-                ContractCreateTransactionBody txMessage = body.getContractCreateInstance();
-                entity = getEntity(txRecord.getReceipt().getContractID());
-                proxyEntityId = getEntityId(txMessage.getProxyAccountID());
-
-                if (txMessage.hasAutoRenewPeriod()) {
-                    entity.setAutoRenewPeriod(txMessage.getAutoRenewPeriod().getSeconds());
-                }
-
-                // Can't clear memo on contracts. 0 length indicates no change
-                if (txMessage.getMemo() != null && txMessage.getMemo().length() > 0) {
-                    entity.setMemo(txMessage.getMemo());
-                }
-
-                if (txMessage.hasAdminKey()) {
-                    entity.setKey(txMessage.getAdminKey().toByteArray());
-                }
-            }
-
-            initialBalance = body.getContractCreateInstance().getInitialBalance();
-        } else if (body.hasContractDeleteInstance()) {
-            if (body.getContractDeleteInstance().hasContractID()) {
-                entity = getEntity(body.getContractDeleteInstance().getContractID());
-                if (doUpdateEntity) {
-                    entity.setDeleted(true);
-                }
-            }
-        } else if (body.hasContractUpdateInstance()) {
-            ContractUpdateTransactionBody txMessage = body.getContractUpdateInstance();
-            entity = getEntity(txMessage.getContractID());
-
-            if (doUpdateEntity) {
-                proxyEntityId = getEntityId(txMessage.getProxyAccountID());
-
-                if (txMessage.hasExpirationTime()) {
-                    entity.setExpiryTimeNs(Utility.timestampInNanosMax(txMessage.getExpirationTime()));
-                }
-
-                if (txMessage.hasAutoRenewPeriod()) {
-                    entity.setAutoRenewPeriod(txMessage.getAutoRenewPeriod().getSeconds());
-                }
-
-                if (txMessage.hasAdminKey()) {
-                    entity.setKey(txMessage.getAdminKey().toByteArray());
-                }
-
-                // Can't clear memo on contracts. 0 length indicates no change
-                if (txMessage.getMemo() != null && txMessage.getMemo().length() > 0) {
-                    entity.setMemo(txMessage.getMemo());
-                }
-            }
-        } else if (body.hasCryptoAddClaim()) {
-            if (body.getCryptoAddClaim().hasClaim()) {
-                if (body.getCryptoAddClaim().getClaim().hasAccountID()) {
-                    entityId = getEntityId(body.getCryptoAddClaim().getClaim().getAccountID());
-                }
-            }
-        } else if (body.hasCryptoCreateAccount()) {
-            if (txRecord.getReceipt().hasAccountID()) { // Implies SUCCESS
-                CryptoCreateTransactionBody txMessage = body.getCryptoCreateAccount();
-                proxyEntityId = getEntityId(txMessage.getProxyAccountID());
-                entity = getEntity(txRecord.getReceipt().getAccountID());
-
-                if (txMessage.hasAutoRenewPeriod()) {
-                    entity.setAutoRenewPeriod(txMessage.getAutoRenewPeriod().getSeconds());
-                }
-
-                if (txMessage.hasKey()) {
-                    entity.setKey(txMessage.getKey().toByteArray());
-                }
-            }
-
-            initialBalance = body.getCryptoCreateAccount().getInitialBalance();
-        } else if (body.hasCryptoDelete()) {
-            if (body.getCryptoDelete().hasDeleteAccountID()) {
-                entity = getEntity(body.getCryptoDelete().getDeleteAccountID());
-                if (doUpdateEntity) {
-                    entity.setDeleted(true);
-                }
-            }
-        } else if (body.hasCryptoDeleteClaim()) {
-            if (body.getCryptoDeleteClaim().hasAccountIDToDeleteFrom()) {
-                entityId = getEntityId(body.getCryptoDeleteClaim().getAccountIDToDeleteFrom());
-            }
-        } else if (body.hasCryptoUpdateAccount()) {
-            CryptoUpdateTransactionBody txMessage = body.getCryptoUpdateAccount();
-            entity = getEntity(txMessage.getAccountIDToUpdate());
-            if (doUpdateEntity) {
-                proxyEntityId = getEntityId(txMessage.getProxyAccountID());
-
-                if (txMessage.hasExpirationTime()) {
-                    entity.setExpiryTimeNs(Utility.timestampInNanosMax(txMessage.getExpirationTime()));
-                }
-
-                if (txMessage.hasAutoRenewPeriod()) {
-                    entity.setAutoRenewPeriod(txMessage.getAutoRenewPeriod().getSeconds());
-                }
-
-                if (txMessage.hasKey()) {
-                    entity.setKey(txMessage.getKey().toByteArray());
-                }
-            }
-        } else if (body.hasFileCreate()) {
-            if (txRecord.getReceipt().hasFileID()) { // Implies SUCCESS
-                FileCreateTransactionBody txMessage = body.getFileCreate();
-                entity = getEntity(txRecord.getReceipt().getFileID());
+    private static void storeTransaction(RecordItem recordItem) throws Exception {
+        TransactionBody body = recordItem.getTransactionBody();
+        TransactionRecord txRecord = recordItem.getRecord();
+        TransactionBody.DataCase dataCase = body.getDataCase();
+        TransactionHandler handler = transactionHandlers.get(dataCase);
+        int transactionType = getTransactionType(body);
 
-                if (txMessage.hasExpirationTime()) {
-                    entity.setExpiryTimeNs(Utility.timestampInNanosMax(txMessage.getExpirationTime()));
-                }
+        if (!transactionFilter.isEmpty() &&
+                !transactionFilter.test(transactionType, handler.getFilterEntity(body, txRecord))) {
+            log.debug("Ignoring transaction with consensus timestamp {}", () -> Utility
+                    .printProtoMessage(txRecord.getConsensusTimestamp()));
+            return;
+        }
 
-                if (txMessage.hasKeys()) {
-                    entity.setKey(txMessage.getKeys().toByteArray());
-                }
-            }
-        } else if (body.hasFileAppend()) {
-            if (body.getFileAppend().hasFileID()) {
-                entityId = getEntityId(body.getFileAppend().getFileID());
-            }
-        } else if (body.hasFileDelete()) {
-            if (body.getFileDelete().hasFileID()) {
-                entity = getEntity(body.getFileDelete().getFileID());
-                if (doUpdateEntity) {
-                    entity.setDeleted(true);
-                }
-            }
-        } else if (body.hasFileUpdate()) {
-            FileUpdateTransactionBody txMessage = body.getFileUpdate();
-            entity = getEntity(txMessage.getFileID());
+        log.trace("Storing transaction body: {}", () -> Utility.printProtoMessage(body));
+        long handlerStart = System.nanoTime();
+        long consensusNs = Utility.timeStampInNanos(txRecord.getConsensusTimestamp());
+        TransactionContext context = new TransactionContext(body, txRecord, consensusNs, isSuccessful(txRecord));
+        handler.updateEntity(context);
+        long handlerNanos = System.nanoTime() - handlerStart;
 
-            if (doUpdateEntity) {
-                if (txMessage.hasExpirationTime()) {
-                    entity.setExpiryTimeNs(Utility.timestampInNanosMax(txMessage.getExpirationTime()));
-                }
-
-                if (txMessage.hasKeys()) {
-                    entity.setKey(txMessage.getKeys().toByteArray());
-                }
-            }
-        } else if (body.hasSystemDelete()) {
-            if (body.getSystemDelete().hasContractID()) {
-                entity = getEntity(body.getSystemDelete().getContractID());
-                if (doUpdateEntity) {
-                    entity.setDeleted(true);
-                }
-            } else if (body.getSystemDelete().hasFileID()) {
-                entity = getEntity(body.getSystemDelete().getFileID());
-                if (doUpdateEntity) {
-                    entity.setDeleted(true);
-                }
-            }
-        } else if (body.hasSystemUndelete()) {
-            if (body.getSystemUndelete().hasContractID()) {
-                entity = getEntity(body.getSystemUndelete().getContractID());
-                if (doUpdateEntity) {
-                    entity.setDeleted(false);
-                }
-            } else if (body.getSystemUndelete().hasFileID()) {
-                entity = getEntity(body.getSystemUndelete().getFileID());
-                if (doUpdateEntity) {
-                    entity.setDeleted(false);
-                }
-            }
-        } else if (body.hasConsensusCreateTopic()) {
-            entity = storeConsensusCreateTopic(body, txRecord);
-        } else if (body.hasConsensusUpdateTopic()) {
-            entity = storeConsensusUpdateTopic(body, txRecord);
-        } else if (body.hasConsensusDeleteTopic()) {
-            entity = storeConsensusDeleteTopic(body, txRecord);
-        } else if (body.hasConsensusSubmitMessage()) {
-            entityId = storeConsensusSubmitMessage(body, txRecord);
-        }
+        Entities entity = context.getEntity();
+        EntityId entityId = context.getEntityId();
+        EntityId proxyEntityId = context.getProxyEntityId();
 
         TransactionID transactionID = body.getTransactionID();
         long validDurationSeconds = body.hasTransactionValidDuration() ? body.getTransactionValidDuration()
                 .getSeconds() : null;
         long validStartNs = Utility.timeStampInNanos(transactionID.getTransactionValidStart());
-        long consensusNs = Utility.timeStampInNanos(txRecord.getConsensusTimestamp());
         AccountID payerAccountId = transactionID.getAccountID();
 
         com.hedera.mirror.importer.domain.Transaction tx = new com.hedera.mirror.importer.domain.Transaction();
@@ -446,28 +388,22 @@ public class RecordFileLogger {
         } else if (null != entity) {
             tx.setEntity(entity);
         }
-        tx.setInitialBalance(initialBalance);
+        tx.setInitialBalance(context.getInitialBalance());
         tx.setMemo(body.getMemo().getBytes());
         tx.setMaxFee(body.getTransactionFee());
         tx.setRecordFileId(fileId);
         tx.setResult(txRecord.getReceipt().getStatusValue());
-        tx.setType(getTransactionType(body));
-        tx.setTransactionBytes(parserProperties.isPersistTransactionBytes() ? rawBytes : null);
+        tx.setType(transactionType);
+        tx.setTransactionBytes(parserProperties.isPersistTransactionBytes() ? recordItem.getRecordBytes() : null);
         tx.setTransactionHash(txRecord.getTransactionHash().toByteArray());
         tx.setValidDurationSeconds(validDurationSeconds);
         tx.setValidStartNs(validStartNs);
 
-        if (!transactionFilter.test(tx)) {
-            log.debug("Ignoring transaction {}", tx);
-            return;
-        }
-
         if (entity != null) {
             if (proxyEntityId != null) {
                 entity.setProxyAccountId(proxyEntityId.getId());
             }
-            entity.setAutoRenewAccount(createEntity(entity.getAutoRenewAccount()));
-            entity = entityRepository.save(entity);
+            saveEntity(entity);
             sqlInsertTransaction.setLong(F_TRANSACTION.CUD_ENTITY_ID.ordinal(), entity.getId());
         } else if (entityId != null) {
             sqlInsertTransaction.setObject(F_TRANSACTION.CUD_ENTITY_ID.ordinal(), entityId.getId());
@@ -496,11 +432,13 @@ public class RecordFileLogger {
         sqlInsertTransaction.setBytes(F_TRANSACTION.TRANSACTION_BYTES.ordinal(), tx.getTransactionBytes());
         sqlInsertTransaction.setLong(F_TRANSACTION.INITIAL_BALANCE.ordinal(), tx.getInitialBalance());
         sqlInsertTransaction.addBatch();
+        transactionBatch.add(TRANSACTION_BYTES + tx.getMemo().length + tx.getTransactionHash().length +
+                (tx.getTransactionBytes() != null ? tx.getTransactionBytes().length : 0));
         log.debug("Storing transaction: {}", tx);
 
         if ((txRecord.hasTransferList()) && parserProperties.isPersistCryptoTransferAmounts()) {
             processNonFeeTransfers(consensusNs, payerAccountId, body, txRecord);
-            if (body.hasCryptoCreateAccount() && isSuccessful(txRecord)) {
+            if (body.hasCryptoCreateAccount() && context.isUpdateEntity()) {
                 insertCryptoCreateTransferList(consensusNs, txRecord, body, txRecord.getReceipt()
                         .getAccountID(), payerAccountId);
             } else {
@@ -510,31 +448,12 @@ public class RecordFileLogger {
 
         // TransactionBody-specific handlers.
         // If so-configured, each will update the SQL prepared statements via addBatch().
-        if (body.hasContractCall()) {
-            insertContractCall(consensusNs, body.getContractCall(), txRecord);
-        } else if (body.hasContractCreateInstance()) {
-            insertContractCreateInstance(consensusNs, body.getContractCreateInstance(), txRecord);
-        }
-        if (doUpdateEntity) {
-            if (body.hasConsensusSubmitMessage()) {
-                insertConsensusTopicMessage(body.getConsensusSubmitMessage(), txRecord);
-            } else if (body.hasCryptoAddClaim()) {
-                insertCryptoAddClaim(consensusNs, body.getCryptoAddClaim());
-            } else if (body.hasFileAppend()) {
-                insertFileAppend(consensusNs, body.getFileAppend());
-            } else if (body.hasFileCreate()) {
-                insertFileCreate(consensusNs, body.getFileCreate(), txRecord);
-            } else if (body.hasFileUpdate()) {
-                insertFileUpdate(consensusNs, body.getFileUpdate());
-            }
-        }
+        handlerStart = System.nanoTime();
+        handler.insert(context);
+        recordFileMetrics.recordHandler(dataCase, handlerNanos + System.nanoTime() - handlerStart);
 
-        if (batch_count == BATCH_SIZE - 1) {
-            // execute any remaining batches
-            executeBatches();
-            batch_count = 0;
-        } else {
-            batch_count += 1;
+        if (transactionBatch.isFull()) {
+            executeTransactionBatch();
         }
     }
 
@@ -566,253 +485,20 @@ public class RecordFileLogger {
             return;
         }
 
-        for (var aa : nonFeeTransfersExtractor.extractNonFeeTransfers(payerAccountId, body, transactionRecord)) {
-            addNonFeeTransferInserts(consensusTimestamp, aa.getAccountID().getRealmNum(),
-                    aa.getAccountID().getAccountNum(), aa.getAmount());
-        }
-    }
-
-    private static void addNonFeeTransferInserts(long consensusTimestamp, long realm, long accountNum, long amount) {
-        if (0 != amount) {
-            postgresWriter.onNonFeeTransfer(
-                    new NonFeeTransfer(consensusTimestamp, realm, accountNum, amount));
-        }
-    }
-
-    /**
-     * Store ConsensusCreateTopic transaction in the database.
-     *
-     * @param body
-     * @param transactionRecord
-     * @return Entity ID of the newly created topic, or 0 if no topic was created
-     * @throws SQLException
-     * @throws IllegalArgumentException
-     */
-    private static Entities storeConsensusCreateTopic(TransactionBody body,
-                                                      TransactionRecord transactionRecord) {
-        if (!body.hasConsensusCreateTopic()) {
-            throw new IllegalArgumentException("transaction is not a ConsensusCreateTopic");
-        }
-
-        if (!transactionRecord.getReceipt().hasTopicID()) {
-            return null;
-        }
-
-        Entities entity = getEntity(transactionRecord.getReceipt().getTopicID());
-        var transactionBody = body.getConsensusCreateTopic();
-
-        if (transactionBody.hasAutoRenewAccount()) {
-            Entities autoRenewAccount = getEntity(transactionBody.getAutoRenewAccount());
-            entity.setAutoRenewAccount(autoRenewAccount);
-        }
-
-        if (transactionBody.hasAutoRenewPeriod()) {
-            entity.setAutoRenewPeriod(transactionBody.getAutoRenewPeriod().getSeconds());
-        }
-
-        // If either key is empty, they should end up as empty bytea in the DB to indicate that there is
-        // explicitly no value, as opposed to null which has been used to indicate the value is unknown.
-        var adminKey = transactionBody.hasAdminKey() ? transactionBody.getAdminKey().toByteArray() : new byte[0];
-        var submitKey = transactionBody.hasSubmitKey() ? transactionBody.getSubmitKey().toByteArray() : new byte[0];
-
-        entity.setMemo(transactionBody.getMemo());
-        entity.setKey(adminKey);
-        entity.setSubmitKey(submitKey);
-        return entity;
-    }
-
-    /**
-     * Store ConsensusUpdateTopic transaction in the database.
-     *
-     * @param body
-     * @param transactionRecord
-     * @return Entity ID of the updated topic, or 0 if no topic was updated
-     * @throws SQLException
-     * @throws IllegalArgumentException
-     */
-    private static Entities storeConsensusUpdateTopic(TransactionBody body,
-                                                      TransactionRecord transactionRecord) {
-        if (!body.hasConsensusUpdateTopic()) {
-            throw new IllegalArgumentException("transaction is not a ConsensusUpdateTopic");
-        }
-
-        var transactionBody = body.getConsensusUpdateTopic();
-        if (!transactionBody.hasTopicID()) {
-            log.warn("Encountered a ConsensusUpdateTopic transaction without topic ID: {}", body);
-            return null;
-        }
-
-        Entities entity = getEntity(transactionBody.getTopicID());
-
-        if (isSuccessful(transactionRecord)) {
-            if (transactionBody.hasExpirationTime()) {
-                Timestamp expirationTime = transactionBody.getExpirationTime();
-                entity.setExpiryTimeNs(Utility.timestampInNanosMax(expirationTime));
-            }
-
-            if (transactionBody.hasAutoRenewAccount()) {
-                Entities autoRenewAccount = getEntity(transactionBody.getAutoRenewAccount());
-                entity.setAutoRenewAccount(autoRenewAccount);
-            }
-
-            if (transactionBody.hasAutoRenewPeriod()) {
-                entity.setAutoRenewPeriod(transactionBody.getAutoRenewPeriod().getSeconds());
-            }
-
-            if (transactionBody.hasAdminKey()) {
-                entity.setKey(transactionBody.getAdminKey().toByteArray());
-            }
-
-            if (transactionBody.hasSubmitKey()) {
-                entity.setSubmitKey(transactionBody.getSubmitKey().toByteArray());
-            }
-
-            if (transactionBody.hasMemo()) {
-                entity.setMemo(transactionBody.getMemo().getValue());
-            }
-        }
-
-        return entity;
-    }
-
-    /**
-     * Store ConsensusDeleteTopic transaction in the database.
-     *
-     * @param body
-     * @param transactionRecord
-     * @return Entity ID of the deleted topic, or 0 if no topic was deleted
-     * @throws SQLException
-     * @throws IllegalArgumentException
-     */
-    private static Entities storeConsensusDeleteTopic(TransactionBody body,
-                                                      TransactionRecord transactionRecord) {
-        if (!body.hasConsensusDeleteTopic()) {
-            throw new IllegalArgumentException("transaction is not a ConsensusDeleteTopic");
-        }
-
-        var transactionBody = body.getConsensusDeleteTopic();
-        if (!transactionBody.hasTopicID()) {
-            log.warn("Encountered a ConsensusDeleteTopic transaction without topic ID: {}", body);
-            return null;
-        }
-
-        Entities entity = getEntity(transactionBody.getTopicID());
-        if (isSuccessful(transactionRecord)) {
-            entity.setDeleted(true);
-        }
-
-        return entity;
-    }
-
-    /**
-     * Store ConsensusSubmitMessage transaction in the database.
-     *
-     * @param body
-     * @param transactionRecord
-     * @return Entity ID of the topic, or 0 if no topic was deleted
-     * @throws SQLException
-     * @throws IllegalArgumentException
-     */
-    private static EntityId storeConsensusSubmitMessage(TransactionBody body,
-                                                        TransactionRecord transactionRecord) {
-        if (!body.hasConsensusSubmitMessage()) {
-            throw new IllegalArgumentException("transaction is not a ConsensusSubmitMessage");
-        }
-
-        var transactionBody = body.getConsensusSubmitMessage();
-        if (!transactionBody.hasTopicID()) {
-            log.warn("Encountered a ConsensusSubmitMessage transaction without topic ID: {}", body);
-            return null;
-        }
-
-        return getEntityId(transactionBody.getTopicID());
-    }
-
-    private static void insertConsensusTopicMessage(ConsensusSubmitMessageTransactionBody transactionBody,
-                                                    TransactionRecord transactionRecord) {
-        var receipt = transactionRecord.getReceipt();
-        var topicId = transactionBody.getTopicID();
-        TopicMessage topicMessage = new TopicMessage(
-                Utility.timeStampInNanos(transactionRecord.getConsensusTimestamp()),
-                transactionBody.getMessage().toByteArray(), (int) topicId.getRealmNum(),
-                receipt.getTopicRunningHash().toByteArray(), receipt.getTopicSequenceNumber(),
-                (int) topicId.getTopicNum());
-        postgresWriter.onTopicMessage(topicMessage);
-    }
-
-    private static void insertFileCreate(long consensusTimestamp, FileCreateTransactionBody transactionBody,
-                                         TransactionRecord transactionRecord) {
-        if (parserProperties.isPersistFiles() ||
-                (parserProperties.isPersistSystemFiles() && transactionRecord.getReceipt().getFileID()
-                        .getFileNum() < 1000)) {
-            byte[] contents = transactionBody.getContents().toByteArray();
-            postgresWriter.onFileData(new FileData(consensusTimestamp, contents));
-        }
-    }
-
-    private static void insertFileAppend(long consensusTimestamp, FileAppendTransactionBody transactionBody)
-            throws IOException {
-        if (parserProperties.isPersistFiles() ||
-                (parserProperties.isPersistSystemFiles() && transactionBody.getFileID().getFileNum() < 1000)) {
-            byte[] contents = transactionBody.getContents().toByteArray();
-            postgresWriter.onFileData(new FileData(consensusTimestamp, contents));
-
-            // update the local address book
-            if (isFileAddressBook(transactionBody.getFileID())) {
-                // we have an address book update, refresh the local file
-                networkAddressBook.append(contents);
-            }
-        }
-    }
-
-    private static void insertCryptoAddClaim(long consensusTimestamp,
-                                             CryptoAddClaimTransactionBody transactionBody) {
-        if (parserProperties.isPersistClaims()) {
-            byte[] claim = transactionBody.getClaim().getHash().toByteArray();
-            postgresWriter.onLiveHash(new LiveHash(consensusTimestamp, claim));
-        }
-    }
-
-    private static void insertContractCall(long consensusTimestamp,
-                                           ContractCallTransactionBody transactionBody,
-                                           TransactionRecord transactionRecord) throws SQLException {
-        if (parserProperties.isPersistContracts()) {
-            byte[] functionParams = transactionBody.getFunctionParameters().toByteArray();
-            long gasSupplied = transactionBody.getGas();
-            byte[] callResult = new byte[0];
-            long gasUsed = 0;
-            if (transactionRecord.hasContractCallResult()) {
-                callResult = transactionRecord.getContractCallResult().toByteArray();
-                gasUsed = transactionRecord.getContractCallResult().getGasUsed();
-            }
-            insertContractResults(consensusTimestamp, functionParams, gasSupplied, callResult, gasUsed);
-        }
-    }
-
-    private static void insertContractCreateInstance(long consensusTimestamp,
-                                                     ContractCreateTransactionBody transactionBody,
-                                                     TransactionRecord transactionRecord) throws SQLException {
-        if (parserProperties.isPersistContracts()) {
-            byte[] functionParams = transactionBody.getConstructorParameters().toByteArray();
-            long gasSupplied = transactionBody.getGas();
-            byte[] callResult = new byte[0];
-            long gasUsed = 0;
-            if (transactionRecord.hasContractCreateResult()) {
-                callResult = transactionRecord.getContractCreateResult().toByteArray();
-                gasUsed = transactionRecord.getContractCreateResult().getGasUsed();
-            }
-            insertContractResults(consensusTimestamp, functionParams, gasSupplied, callResult, gasUsed);
-        }
+        nonFeeTransfersExtractor.extractNonFeeTransfers(consensusTimestamp, payerAccountId, body, transactionRecord,
+                nonFeeTransfers);
+        postgresWriter.onNonFeeTransfers(nonFeeTransfers);
     }
 
     private static void insertTransferList(long consensusTimestamp, TransferList transferList) {
         for (int i = 0; i < transferList.getAccountAmountsCount(); ++i) {
             var aa = transferList.getAccountAmounts(i);
             var accountId = aa.getAccountID();
-            createEntity(getEntity(aa.getAccountID()));
+            getEntityId(accountId);
             addCryptoTransferList(consensusTimestamp, accountId.getRealmNum(), accountId.getAccountNum(), aa
                     .getAmount());
         }
+        postgresWriter.onCryptoTransfers(cryptoTransfers);
     }
 
     private static void insertCryptoCreateTransferList(long consensusTimestamp,
@@ -837,7 +523,7 @@ public class RecordFileLogger {
             var aa = transferList.getAccountAmounts(i);
             var accountId = aa.getAccountID();
             long accountNum = accountId.getAccountNum();
-            createEntity(getEntity(accountId));
+            getEntityId(accountId);
             addCryptoTransferList(consensusTimestamp, accountId.getRealmNum(), accountNum, aa.getAmount());
 
             if (addInitialBalance && (initialBalance == aa.getAmount()) && (accountNum == createdAccountNum)) {
@@ -846,38 +532,20 @@ public class RecordFileLogger {
         }
 
         if (addInitialBalance) {
-            createEntity(getEntity(payerAccountId));
+            getEntityId(payerAccountId);
             addCryptoTransferList(consensusTimestamp, payerAccountId.getRealmNum(), payerAccountId
                     .getAccountNum(), -initialBalance);
 
-            createEntity(getEntity(createdAccountId));
+            getEntityId(createdAccountId);
             addCryptoTransferList(consensusTimestamp, createdAccountId
                     .getRealmNum(), createdAccountNum, initialBalance);
         }
-    }
 
-    private static void addCryptoTransferList(long consensusTimestamp, long realmNum, long accountNum, long amount) {
-        postgresWriter.onCryptoTransferList(new CryptoTransfer(consensusTimestamp, amount, realmNum, accountNum));
+        postgresWriter.onCryptoTransfers(cryptoTransfers);
     }
 
-    private static boolean isFileAddressBook(FileID fileId) {
-        return (fileId.getFileNum() == 102) && (fileId.getShardNum() == 0) && (fileId.getRealmNum() == 0);
-    }
-
-    private static void insertFileUpdate(long consensusTimestamp, FileUpdateTransactionBody transactionBody)
-            throws IOException {
-        FileID fileId = transactionBody.getFileID();
-        if (parserProperties.isPersistFiles() ||
-                (parserProperties.isPersistSystemFiles() && fileId.getFileNum() < 1000)) {
-            byte[] contents = transactionBody.getContents().toByteArray();
-            postgresWriter.onFileData(new FileData(consensusTimestamp, contents));
-        }
-
-        // update the local address book
-        if (isFileAddressBook(fileId)) {
-            // we have an address book update, refresh the local file
-            networkAddressBook.update(transactionBody.getContents().toByteArray());
-        }
+    private static void addCryptoTransferList(long consensusTimestamp, long realmNum, long accountNum, long amount) {
+        cryptoTransfers.add(consensusTimestamp, realmNum, accountNum, amount);
     }
 
     /**
@@ -904,86 +572,182 @@ public class RecordFileLogger {
 
         return dataCase.getNumber();
     }
+    /**
+     * Inserts the entities referenced by the transactions of the file that don't exist yet. This is done once when the
+     * file completes, after all the entities updated by the file have been saved, so that it never has to wait for
+     * them.
+     */
+    private static void insertReferencedEntities() throws SQLException {
+        if (referencedEntities.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (EntityId entityId : referencedEntities.values()) {
+            sqlInsertEntity.setLong(1, entityId.getId());
+            sqlInsertEntity.setLong(2, entityId.getEntityShard());
+            sqlInsertEntity.setLong(3, entityId.getEntityRealm());
+            sqlInsertEntity.setLong(4, entityId.getEntityNum());
+            sqlInsertEntity.setInt(5, entityId.getEntityTypeId());
+            sqlInsertEntity.addBatch();
+        }
 
-    private static void insertContractResults(
-            long consensusTimestamp, byte[] functionParams, long gasSupplied, byte[] callResult, long gasUsed) {
-        postgresWriter.onContractResult(
-                new ContractResult(consensusTimestamp, functionParams, gasSupplied, callResult, gasUsed));
+        BatchFlushEvent event = new BatchFlushEvent("t_entities", referencedEntities.size(), 0L);
+        event.begin();
+        sqlInsertEntity.executeBatch();
+        event.commit();
+        recordFileMetrics.recordBatch("t_entities", System.nanoTime() - start);
+        referencedEntities.clear();
     }
 
-    private static void executeBatches() throws SQLException {
+    private static void executeTransactionBatch() throws SQLException {
+        BatchFlushEvent event = BatchFlushEvent.start(transactionBatch);
+        long start = System.nanoTime();
         int[] transactions = sqlInsertTransaction.executeBatch();
-        postgresWriter.executeBatches();
-        log.info("Inserted {} transactions", transactions.length);
+        long nanos = System.nanoTime() - start;
+        event.commit();
+        recordFileMetrics.recordBatch("t_transactions", nanos);
+        transactionBatch.executed(nanos);
+        log.debug("Inserted {} transactions", transactions.length);
     }
 
     public static Entities getEntity(AccountID accountID) {
-        return getEntity(accountID.getShardNum(), accountID.getRealmNum(), accountID.getAccountNum(), "account");
+        return getEntity(accountID.getShardNum(), accountID.getRealmNum(), accountID.getAccountNum(),
+                EntityTypeEnum.ACCOUNT);
     }
 
     public static Entities getEntity(ContractID cid) {
-        return getEntity(cid.getShardNum(), cid.getRealmNum(), cid.getContractNum(), "contract");
+        return getEntity(cid.getShardNum(), cid.getRealmNum(), cid.getContractNum(), EntityTypeEnum.CONTRACT);
     }
 
     public static Entities getEntity(FileID fileId) {
-        return getEntity(fileId.getShardNum(), fileId.getRealmNum(), fileId.getFileNum(), "file");
+        return getEntity(fileId.getShardNum(), fileId.getRealmNum(), fileId.getFileNum(), EntityTypeEnum.FILE);
     }
 
     public static Entities getEntity(TopicID topicId) {
-        return getEntity(topicId.getShardNum(), topicId.getRealmNum(), topicId.getTopicNum(), "topic");
+        return getEntity(topicId.getShardNum(), topicId.getRealmNum(), topicId.getTopicNum(), EntityTypeEnum.TOPIC);
     }
 
-    private static Entities getEntity(long shardNum, long realmNum, long entityNum, String type) {
-        return entityRepository.findByPrimaryKey(shardNum, realmNum, entityNum).orElseGet(() -> {
+    /**
+     * Looks up an entity on the connection of the parser, so that it sees the entities inserted or updated by the
+     * files that aren't committed yet.
+     */
+    private static Entities getEntity(long shardNum, long realmNum, long entityNum, EntityTypeEnum type) {
+        long start = System.nanoTime();
+        long id = EntityId.encode(shardNum, realmNum, entityNum);
+        try {
+            sqlSelectEntity.setLong(1, id);
+            try (ResultSet resultSet = sqlSelectEntity.executeQuery()) {
+                if (resultSet.next()) {
+                    return readEntity(resultSet);
+                }
+            }
+
             Entities entity = new Entities();
+            entity.setId(id);
             entity.setEntityNum(entityNum);
             entity.setEntityRealm(realmNum);
             entity.setEntityShard(shardNum);
-            entity.setEntityTypeId(entityTypeRepository.findByName(type).map(EntityType::getId).get());
+            entity.setEntityTypeId(type.getId());
             return entity;
-        });
+        } catch (SQLException e) {
+            throw new ParserSQLException("Error looking up entity " + shardNum + "." + realmNum + "." + entityNum, e);
+        } finally {
+            recordFileMetrics.record(RecordFileMetrics.Stage.RESOLVE, System.nanoTime() - start);
+        }
+    }
+
+    private static Entities readEntity(ResultSet resultSet) throws SQLException {
+        Entities entity = new Entities();
+        entity.setId(resultSet.getLong("id"));
+        entity.setEntityShard(resultSet.getLong("entity_shard"));
+        entity.setEntityRealm(resultSet.getLong("entity_realm"));
+        entity.setEntityNum(resultSet.getLong("entity_num"));
+        entity.setEntityTypeId(resultSet.getInt("fk_entity_type_id"));
+        entity.setAutoRenewPeriod(resultSet.getObject("auto_renew_period", Long.class));
+        entity.setKey(resultSet.getBytes("key"));
+        entity.setProxyAccountId(resultSet.getObject("fk_prox_acc_id", Long.class));
+        entity.setDeleted(resultSet.getBoolean("deleted"));
+        entity.setExpiryTimeNs(resultSet.getObject("exp_time_ns", Long.class));
+        entity.setSubmitKey(resultSet.getBytes("submit_key"));
+        entity.setMemo(resultSet.getString("memo"));
+
+        // Only the id of the auto renew account is needed to save the entity again, since it already exists
+        Long autoRenewAccountId = resultSet.getObject("auto_renew_account_id", Long.class);
+        if (autoRenewAccountId != null) {
+            Entities autoRenewAccount = new Entities();
+            autoRenewAccount.setId(autoRenewAccountId);
+            entity.setAutoRenewAccount(autoRenewAccount);
+        }
+
+        return entity;
     }
 
     public static EntityId getEntityId(AccountID accountID) {
-        return getEntityId(accountID.getShardNum(), accountID.getRealmNum(), accountID.getAccountNum(), "account");
+        return getEntityId(accountID.getShardNum(), accountID.getRealmNum(), accountID.getAccountNum(),
+                EntityTypeEnum.ACCOUNT);
     }
 
     public static EntityId getEntityId(ContractID cid) {
-        return getEntityId(cid.getShardNum(), cid.getRealmNum(), cid.getContractNum(), "contract");
+        return getEntityId(cid.getShardNum(), cid.getRealmNum(), cid.getContractNum(), EntityTypeEnum.CONTRACT);
     }
 
     public static EntityId getEntityId(FileID fileId) {
-        return getEntityId(fileId.getShardNum(), fileId.getRealmNum(), fileId.getFileNum(), "file");
+        return getEntityId(fileId.getShardNum(), fileId.getRealmNum(), fileId.getFileNum(), EntityTypeEnum.FILE);
     }
 
     public static EntityId getEntityId(TopicID topicId) {
-        return getEntityId(topicId.getShardNum(), topicId.getRealmNum(), topicId.getTopicNum(), "topic");
+        return getEntityId(topicId.getShardNum(), topicId.getRealmNum(), topicId.getTopicNum(), EntityTypeEnum.TOPIC);
     }
 
-    private static EntityId getEntityId(long shardNum, long realmNum, long entityNum, String type) {
+    /**
+     * Computes the id of a referenced entity without accessing the database. The entity is inserted, if it doesn't
+     * exist yet, when the file completes.
+     */
+    private static EntityId getEntityId(long shardNum, long realmNum, long entityNum, EntityTypeEnum type) {
         if (0 == entityNum) {
             return null;
         }
-        return entityRepository.findEntityIdByNativeIds(shardNum, realmNum, entityNum).orElseGet(() -> {
-            Entities entityId = new Entities();
-            entityId.setEntityShard(shardNum);
-            entityId.setEntityRealm(realmNum);
-            entityId.setEntityNum(entityNum);
-            entityId.setEntityTypeId(entityTypeRepository.findByName(type).map(EntityType::getId).get());
-            return entityRepository.saveAndCacheEntityId(entityId);
-        });
-    }
-
-    private static Entities createEntity(Entities entity) {
-        if (entity != null && entity.getId() == null) {
-            log.debug("Creating entity: {}", () -> entity.getDisplayId());
-            var result = entityRepository.save(entity);
-            var entityId = new EntityId(result.getId(), result.getEntityShard(), result.getEntityRealm(),
-                    result.getEntityNum(), result.getEntityTypeId());
-            entityRepository.cache(entityId);
-            return result;
+        // Most transfers reference the same few accounts, so look them up before allocating a new id
+        long id = EntityId.encode(shardNum, realmNum, entityNum);
+        EntityId entityId = referencedEntities.get(id);
+        if (entityId == null) {
+            entityId = EntityId.of(shardNum, realmNum, entityNum, type);
+            referencedEntities.put(id, entityId);
         }
-        return entity;
+        return entityId;
+    }
+
+    /**
+     * Saves a created or updated entity on the connection of the parser, so that it's committed or rolled back
+     * together with the rest of the file or group of files. A new auto renew account is inserted with the other
+     * referenced entities when the file completes.
+     */
+    private static void saveEntity(Entities entity) throws SQLException {
+        log.debug("Saving entity: {}", () -> entity.getDisplayId());
+        long start = System.nanoTime();
+        Entities autoRenewAccount = entity.getAutoRenewAccount();
+        if (autoRenewAccount != null && autoRenewAccount.getEntityNum() != null) {
+            getEntityId(autoRenewAccount.getEntityShard(), autoRenewAccount.getEntityRealm(),
+                    autoRenewAccount.getEntityNum(), EntityTypeEnum.ACCOUNT);
+        }
+
+        sqlUpsertEntity.setLong(1, entity.getId());
+        sqlUpsertEntity.setLong(2, entity.getEntityShard());
+        sqlUpsertEntity.setLong(3, entity.getEntityRealm());
+        sqlUpsertEntity.setLong(4, entity.getEntityNum());
+        sqlUpsertEntity.setInt(5, entity.getEntityTypeId());
+        sqlUpsertEntity.setObject(6, autoRenewAccount != null ? autoRenewAccount.getId() : null, Types.BIGINT);
+        sqlUpsertEntity.setObject(7, entity.getAutoRenewPeriod(), Types.BIGINT);
+        sqlUpsertEntity.setBytes(8, entity.getKey());
+        sqlUpsertEntity.setObject(9, entity.getProxyAccountId(), Types.BIGINT);
+        sqlUpsertEntity.setBoolean(10, entity.isDeleted());
+        sqlUpsertEntity.setObject(11, entity.getExpiryTimeNs(), Types.BIGINT);
+        sqlUpsertEntity.setString(12, entity.getEd25519PublicKeyHex());
+        sqlUpsertEntity.setBytes(13, entity.getSubmitKey());
+        sqlUpsertEntity.setString(14, entity.getMemo());
+        sqlUpsertEntity.executeUpdate();
+        recordFileMetrics.record(RecordFileMetrics.Stage.EXECUTE, System.nanoTime() - start);
     }
 
     public enum INIT_RESULT {
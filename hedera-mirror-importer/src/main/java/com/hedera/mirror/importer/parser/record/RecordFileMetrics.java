@@ -0,0 +1,155 @@
+package com.hedera.mirror.importer.parser.record;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.TransactionBody.DataCase;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.inject.Named;
+
+/**
+ * Meters for the stages of parsing a record file. All meters are registered up front so the per transaction hot path
+ * only records values. The stage durations of the current file are also accumulated for the per file summary log.
+ * Record files are parsed by a single thread, so no synchronization is needed.
+ */
+@Named
+public class RecordFileMetrics {
+
+    static final Set<String> TABLES = Set.of("t_transactions", "t_entities", "t_cryptotransferlists",
+            "non_fee_transfers", "t_file_data", "t_contract_result", "t_livehashes", "topic_message");
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<String, Timer> batchTimers = new ConcurrentHashMap<>();
+    private final Map<DataCase, DistributionSummary> transactionSizes = new EnumMap<>(DataCase.class);
+    private final Map<DataCase, Timer> transactionLatencies = new EnumMap<>(DataCase.class);
+    private final Map<DataCase, Timer> transactionHandlers = new EnumMap<>(DataCase.class);
+    private final long[] fileStageNanos = new long[Stage.values().length];
+
+    public RecordFileMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("hedera.mirror.parse.stage")
+                    .description("The time spent in each stage of parsing a record file")
+                    .tag("stage", stage.getName())
+                    .tag("type", "record")
+                    .register(meterRegistry));
+        }
+
+        TABLES.forEach(this::batchTimer);
+
+        for (DataCase dataCase : DataCase.values()) {
+            String type = dataCase == DataCase.DATA_NOT_SET ? UNKNOWN : dataCase.name();
+
+            transactionSizes.put(dataCase, DistributionSummary.builder("hedera.mirror.transaction.size")
+                    .description("The size of the transaction in bytes")
+                    .baseUnit("bytes")
+                    .tag("type", type)
+                    .register(meterRegistry));
+
+            transactionLatencies.put(dataCase, Timer.builder("hedera.mirror.transaction.latency")
+                    .description("The difference in ms between the time consensus was achieved and the mirror node " +
+                            "processed the transaction")
+                    .tag("type", type)
+                    .register(meterRegistry));
+
+            transactionHandlers.put(dataCase, Timer.builder("hedera.mirror.transaction.handler")
+                    .description("The time spent in the type specific handler of a transaction, including the " +
+                            "entity lookups")
+                    .tag("type", type)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Resets the stage durations accumulated for the summary of the previous file.
+     */
+    void startFile() {
+        Arrays.fill(fileStageNanos, 0L);
+    }
+
+    void record(Stage stage, long nanos) {
+        stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+        fileStageNanos[stage.ordinal()] += nanos;
+    }
+
+    void recordBatch(String table, long nanos) {
+        batchTimer(table).record(nanos, TimeUnit.NANOSECONDS);
+        record(Stage.EXECUTE, nanos);
+    }
+
+    void recordTransaction(DataCase dataCase, int size, Duration latency) {
+        DataCase key = dataCase != null ? dataCase : DataCase.DATA_NOT_SET;
+        transactionSizes.get(key).record(size);
+        transactionLatencies.get(key).record(latency);
+    }
+
+    void recordHandler(DataCase dataCase, long nanos) {
+        DataCase key = dataCase != null ? dataCase : DataCase.DATA_NOT_SET;
+        transactionHandlers.get(key).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    long getFileNanos(Stage stage) {
+        return fileStageNanos[stage.ordinal()];
+    }
+
+    /**
+     * @return the stage durations of the current file in ms as space separated key=value pairs
+     */
+    String getFileSummary() {
+        return Arrays.stream(Stage.values())
+                .map(s -> s.getName() + "=" + TimeUnit.NANOSECONDS.toMillis(getFileNanos(s)) + "ms")
+                .collect(Collectors.joining(" "));
+    }
+
+    /**
+     * The timers of the known tables are registered up front, others the first time a batch is inserted into them.
+     */
+    private Timer batchTimer(String table) {
+        return batchTimers.computeIfAbsent(table, t -> Timer.builder("hedera.mirror.parse.batch")
+                .description("The time it took to execute a batch insert into a table")
+                .tag("table", t)
+                .register(meterRegistry));
+    }
+
+    enum Stage {
+        READ, // Reading the file and calculating its hash
+        DECODE, // Parsing the protobuf messages
+        RESOLVE, // Loading the entities updated by a transaction, either from the cache or the database
+        BIND, // Building the domain objects and binding them to the insert statements
+        EXECUTE, // Executing the insert batches
+        COMMIT; // Completing the file and committing the database transaction
+
+        String getName() {
+            return name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hedera.mirror.importer.parser.record;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for parsing a record file and storing its transactions, which is cheap enough to leave
+ * enabled in production unlike the trace logging of every transaction.
+ */
+@Category({"Hedera Mirror", "Importer"})
+@Description("Parsing a record file and storing its transactions")
+@Label("Record File Parse")
+@Name("com.hedera.mirror.importer.RecordFileParse")
+class RecordFileParseEvent extends Event {
+
+    @Label("File Name")
+    String fileName;
+
+    @Label("Version")
+    int version;
+
+    @Label("Transactions")
+    long transactions;
+
+    @DataAmount
+    @Label("Bytes")
+    long bytes;
+
+    @Label("Success")
+    boolean success;
+}
@@ -21,29 +21,38 @@ package com.hedera.mirror.importer.parser.record;
  */
 
 import com.google.common.base.Stopwatch;
-import com.hederahashgraph.api.proto.java.Transaction;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hederahashgraph.api.proto.java.TransactionBody.DataCase;
 import com.hederahashgraph.api.proto.java.TransactionRecord;
-import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.codec.binary.Hex;
-import org.springframework.scheduling.annotation.Scheduled;
 
-import com.hedera.mirror.importer.domain.ApplicationStatusCode;
+import com.hedera.mirror.importer.domain.StreamType;
+import com.hedera.mirror.importer.downloader.StreamMetrics;
+import com.hedera.mirror.importer.downloader.VerifiedFileHashes;
 import com.hedera.mirror.importer.parser.FileParser;
+import com.hedera.mirror.importer.parser.StreamState;
+import com.hedera.mirror.importer.parser.domain.RecordItem;
 import com.hedera.mirror.importer.repository.ApplicationStatusRepository;
 import com.hedera.mirror.importer.util.FileDelimiter;
 import com.hedera.mirror.importer.util.ShutdownHelper;
@@ -56,31 +65,30 @@ import com.hedera.mirror.importer.util.Utility;
 @Named
 public class RecordFileParser implements FileParser {
 
-    private final ApplicationStatusRepository applicationStatusRepository;
     private final RecordParserProperties parserProperties;
     private final MeterRegistry meterRegistry;
+    private final RecordFileMetrics recordFileMetrics;
+    private final VerifiedFileHashes verifiedFileHashes;
+    private final StreamMetrics streamMetrics;
+    private final ApplicationStatusRepository applicationStatusRepository;
+    private ExecutorService backfillExecutor;
 
     // Metrics
     private final Timer.Builder parseDurationMetric;
-    private final Timer.Builder transactionLatencyMetric;
-    private final DistributionSummary.Builder transactionSizeMetric;
 
-    public RecordFileParser(ApplicationStatusRepository applicationStatusRepository,
-                            RecordParserProperties parserProperties, MeterRegistry meterRegistry) {
-        this.applicationStatusRepository = applicationStatusRepository;
+    public RecordFileParser(RecordParserProperties parserProperties, MeterRegistry meterRegistry,
+                            RecordFileMetrics recordFileMetrics, VerifiedFileHashes verifiedFileHashes,
+                            StreamMetrics streamMetrics,
+                            ApplicationStatusRepository applicationStatusRepository) {
         this.parserProperties = parserProperties;
         this.meterRegistry = meterRegistry;
+        this.recordFileMetrics = recordFileMetrics;
+        this.verifiedFileHashes = verifiedFileHashes;
+        this.streamMetrics = streamMetrics;
+        this.applicationStatusRepository = applicationStatusRepository;
 
         parseDurationMetric = Timer.builder("hedera.mirror.parse.duration")
                 .description("The duration in ms it took to parse the file and store it in the database");
-
-        transactionSizeMetric = DistributionSummary.builder("hedera.mirror.transaction.size")
-                .description("The size of the transaction in bytes")
-                .baseUnit("bytes");
-
-        transactionLatencyMetric = Timer.builder("hedera.mirror.transaction.latency")
-                .description("The difference in ms between the time consensus was achieved and the mirror node " +
-                        "processed the transaction");
     }
 
     /**
@@ -123,151 +131,121 @@ public class RecordFileParser implements FileParser {
     /**
      * Given a service record name, read and parse and return as a list of service record pair
      *
-     * @param fileName         the name of record file to read
-     * @param previousFileHash the hash of the previous record file in the series
-     * @param thisFileHash     the hash of this file
+     * @param fileName     the name of record file to read
+     * @param streamState      the state of the record stream, for the hash mismatches that are bypassed
+     * @param previousFileHash the hash of the previous record file in the series, which may not be committed yet
+     * @param thisFileHash     the hash of this file, or null if it's calculated as the file is read
+     * @param contents     reads and decodes the file, or waits for it to be decoded ahead of time when backfilling
+     * @param commitGroup  the files closed since the last commit, which the file is added to
      * @return return boolean indicating method success
      * @throws Exception
      */
-    private boolean loadRecordFile(String fileName, String previousFileHash, String thisFileHash) throws Exception {
+    private boolean loadRecordFile(String fileName, StreamState streamState, String previousFileHash,
+                                   String thisFileHash, Callable<DecodedRecordFile> contents,
+                                   CommitGroup commitGroup) throws Exception {
 
         File file = new File(fileName);
-        String newFileHash = "";
 
         if (file.exists() == false) {
             log.warn("File does not exist {}", fileName);
             return false;
         }
         long counter = 0;
-        byte[] readFileHash = new byte[48];
+        long bytes = 0;
         RecordFileLogger.INIT_RESULT initFileResult = RecordFileLogger.initFile(fileName);
         Stopwatch stopwatch = Stopwatch.createStarted();
         Integer recordFileVersion = 0;
         Boolean success = false;
 
         if (initFileResult == RecordFileLogger.INIT_RESULT.OK) {
-            try (DataInputStream dis = new DataInputStream(new FileInputStream(file))) {
-                recordFileVersion = dis.readInt();
-                int version = dis.readInt();
+            RecordFileParseEvent event = new RecordFileParseEvent();
+            event.begin();
+            try {
+                DecodedRecordFile recordFile = contents.call();
+                recordFileVersion = recordFile.getVersion();
+                thisFileHash = recordFile.getHash();
+                bytes = recordFile.getBytes();
+                recordFileMetrics.record(RecordFileMetrics.Stage.READ, recordFile.getReadNanos());
+                recordFileMetrics.record(RecordFileMetrics.Stage.DECODE, recordFile.getDecodeNanos());
 
                 log.info("Loading version {} record file: {}", recordFileVersion, file.getName());
 
-                while (dis.available() != 0) {
+                String newFileHash = recordFile.getPreviousHash();
+                if (newFileHash != null) {
+                    if (Utility.hashIsEmpty(previousFileHash)) {
+                        log.error("Previous file hash not available");
+                        previousFileHash = newFileHash;
+                    }
 
-                    try {
-                        byte typeDelimiter = dis.readByte();
-
-                        switch (typeDelimiter) {
-                            case FileDelimiter.RECORD_TYPE_PREV_HASH:
-                                dis.read(readFileHash);
-
-                                if (Utility.hashIsEmpty(previousFileHash)) {
-                                    log.error("Previous file hash not available");
-                                    previousFileHash = Hex.encodeHexString(readFileHash);
-                                }
-
-                                newFileHash = Hex.encodeHexString(readFileHash);
-
-                                log.trace("New file hash = {}, old hash = {}", newFileHash, previousFileHash);
-
-                                if (!newFileHash.contentEquals(previousFileHash)) {
-
-                                    if (applicationStatusRepository
-                                            .findByStatusCode(ApplicationStatusCode.RECORD_HASH_MISMATCH_BYPASS_UNTIL_AFTER)
-                                            .compareTo(Utility.getFileName(fileName)) < 0) {
-                                        // last file for which mismatch is allowed is in the past
-                                        log.error("Hash mismatch for file {}. Previous = {}, Current = {}", fileName,
-                                                previousFileHash, newFileHash);
-                                        RecordFileLogger.rollback();
-                                        return false;
-                                    }
-                                }
-                                break;
-                            case FileDelimiter.RECORD_TYPE_RECORD:
-                                counter++;
-
-                                int byteLength = dis.readInt();
-                                byte[] rawBytes = new byte[byteLength];
-                                dis.readFully(rawBytes);
-                                Transaction transaction = Transaction.parseFrom(rawBytes);
-
-                                byteLength = dis.readInt();
-                                rawBytes = new byte[byteLength];
-                                dis.readFully(rawBytes);
-                                TransactionRecord txRecord = TransactionRecord.parseFrom(rawBytes);
-
-                                try {
-                                    if (log.isTraceEnabled()) {
-                                        log.trace("Transaction = {}, Record = {}", Utility
-                                                .printProtoMessage(transaction), Utility.printProtoMessage(txRecord));
-                                    } else {
-                                        log.debug("Storing transaction with consensus timestamp {}", () -> Utility
-                                                .printProtoMessage(txRecord.getConsensusTimestamp()));
-                                    }
-
-                                    RecordFileLogger.storeRecord(transaction, txRecord, rawBytes);
-                                } finally {
-                                    // TODO: Refactor to not parse TransactionBody twice
-                                    DataCase dc = Utility.getTransactionBody(transaction).getDataCase();
-                                    String type = dc != null && dc != DataCase.DATA_NOT_SET ? dc.name() : "UNKNOWN";
-                                    transactionSizeMetric.tag("type", type)
-                                            .register(meterRegistry)
-                                            .record(rawBytes.length);
-
-                                    Instant consensusTimestamp = Utility
-                                            .convertToInstant(txRecord.getConsensusTimestamp());
-                                    transactionLatencyMetric.tag("type", type)
-                                            .register(meterRegistry)
-                                            .record(Duration.between(consensusTimestamp, Instant.now()));
-                                }
-                                break;
-                            case FileDelimiter.RECORD_TYPE_SIGNATURE:
-                                int sigLength = dis.readInt();
-                                byte[] sigBytes = new byte[sigLength];
-                                dis.readFully(sigBytes);
-                                log.trace("File {} has signature {}", fileName, Hex.encodeHexString(sigBytes));
-                                break;
-
-                            default:
-                                log.error("Unknown record file delimiter {} for file {}", typeDelimiter, file);
-                                RecordFileLogger.rollback();
-                                return false;
-                        }
-                    } catch (Exception e) {
-                        log.error("Exception {}", e);
-                        RecordFileLogger.rollback();
+                    log.trace("New file hash = {}, old hash = {}", newFileHash, previousFileHash);
+
+                    if (!newFileHash.contentEquals(previousFileHash) &&
+                            !streamState.isHashMismatchBypassed(Utility.getFileName(fileName))) {
+                        // last file for which mismatch is allowed is in the past
+                        log.error("Hash mismatch for file {}. Previous = {}, Current = {}", fileName,
+                                previousFileHash, newFileHash);
+                        RecordFileLogger.rollbackFile();
                         return false;
                     }
                 }
 
-                log.trace("Calculated file hash for the current file {}", thisFileHash);
-                RecordFileLogger.completeFile(thisFileHash, previousFileHash);
+                for (RecordItem recordItem : recordFile.getItems()) {
+                    counter++;
+                    TransactionRecord txRecord = recordItem.getRecord();
+
+                    try {
+                        if (log.isTraceEnabled()) {
+                            log.trace("Transaction = {}, Record = {}", Utility
+                                    .printProtoMessage(recordItem.getTransaction()), Utility
+                                    .printProtoMessage(txRecord));
+                        } else {
+                            log.debug("Storing transaction with consensus timestamp {}", () -> Utility
+                                    .printProtoMessage(txRecord.getConsensusTimestamp()));
+                        }
 
-                if (!Utility.hashIsEmpty(thisFileHash)) {
-                    applicationStatusRepository
-                            .updateStatusValue(ApplicationStatusCode.LAST_PROCESSED_RECORD_HASH, thisFileHash);
+                        RecordFileLogger.storeRecord(recordItem);
+                    } finally {
+                        DataCase dc = recordItem.getTransactionBody().getDataCase();
+                        Instant consensusTimestamp = Utility.convertToInstant(txRecord.getConsensusTimestamp());
+                        recordFileMetrics.recordTransaction(dc, recordItem.getRecordBytes().length,
+                                Duration.between(consensusTimestamp, Instant.now()));
+                    }
                 }
 
+                log.trace("Calculated file hash for the current file {}", thisFileHash);
+                RecordFileLogger.closeFile(thisFileHash, previousFileHash);
+                commitGroup.add(fileName, counter, thisFileHash);
                 success = true;
             } catch (Exception e) {
                 log.error("Error parsing record file {} after {}", file, stopwatch, e);
-                RecordFileLogger.rollback();
+                RecordFileLogger.rollbackFile();
             } finally {
-                log.info("Finished parsing {} transactions from record file {} in {}", counter, file
-                        .getName(), stopwatch);
+                log.info("Finished parsing {} transactions ({} bytes) from record file {} in {}: success={} {}",
+                        counter, bytes, file.getName(), stopwatch, success, recordFileMetrics.getFileSummary());
 
                 parseDurationMetric.tag("type", "record")
                         .tag("success", success.toString())
                         .tag("version", recordFileVersion.toString())
                         .register(meterRegistry)
                         .record(stopwatch.elapsed());
+
+                event.fileName = file.getName();
+                event.version = recordFileVersion;
+                event.transactions = counter;
+                event.bytes = bytes;
+                event.success = success;
+                event.commit();
             }
 
             return success;
         } else if (initFileResult == RecordFileLogger.INIT_RESULT.SKIP) {
+            if (thisFileHash == null) {
+                thisFileHash = Hex.encodeHexString(Utility.getFileHash(fileName));
+            }
+            commitGroup.add(fileName, 0, thisFileHash);
             return true;
         } else {
-            RecordFileLogger.rollback();
+            RecordFileLogger.rollbackFile();
             return false;
         }
     }
@@ -278,27 +256,106 @@ public class RecordFileParser implements FileParser {
      * @throws Exception
      */
     private void loadRecordFiles(List<String> fileNames) throws Exception {
-        String prevFileHash = applicationStatusRepository
-                .findByStatusCode(ApplicationStatusCode.LAST_PROCESSED_RECORD_HASH);
+        StreamState streamState = StreamState.load(RecordFileLogger.connect, StreamType.RECORD);
+        log.debug("Loaded {}", streamState);
         Collections.sort(fileNames);
+        CommitGroup commitGroup = new CommitGroup();
+        RecordFileBackfill backfill = null;
+        String previousHash = streamState.getLastHash();
+
+        RecordParserProperties.BackfillProperties backfillProperties = parserProperties.getBackfill();
+        if (backfillProperties.isEnabled() && fileNames.size() >= backfillProperties.getMinFiles()) {
+            // Keep a couple of files per thread queued so the threads don't wait for the parser to catch up
+            backfill = new RecordFileBackfill(fileNames, getBackfillExecutor(), backfillProperties.getThreads() * 2);
+            // Nothing is stored before the whole range is validated, so a broken link ends the range before it starts
+            fileNames = backfill.validate(streamState, verifiedFileHashes);
+        }
 
-        for (String name : fileNames) {
-            String thisFileHash = "";
-            if (ShutdownHelper.isStopping()) {
-                return;
+        try {
+            for (int i = 0; i < fileNames.size(); i++) {
+                String name = fileNames.get(i);
+                String thisFileHash = null;
+                if (ShutdownHelper.isStopping()) {
+                    break;
+                }
+                recordFileMetrics.startFile();
+                Callable<DecodedRecordFile> contents;
+
+                if (backfill != null) {
+                    thisFileHash = backfill.getHash(i);
+                    contents = backfill.next()::get;
+                } else {
+                    // Use the hash calculated while the file was downloaded if it was downloaded by this process,
+                    // otherwise the file is hashed from the same read it's decoded from
+                    byte[] verifiedHash = verifiedFileHashes.remove(new File(name).getName());
+                    if (verifiedHash != null) {
+                        thisFileHash = Hex.encodeHexString(verifiedHash);
+                    }
+                    contents = () -> DecodedRecordFile.read(name, verifiedHash);
+                }
+
+                if (loadRecordFile(name, streamState, previousHash, thisFileHash, contents, commitGroup)) {
+                    previousHash = commitGroup.lastHash;
+                } else {
+                    // Only the failed file was rolled back, so the files grouped before it are still committed
+                    if (!commitGroup.isEmpty()) {
+                        log.warn("Committing the {} record files grouped before failed file {}", commitGroup.size(),
+                                name);
+                        commit(commitGroup, streamState);
+                    }
+                    return;
+                }
+
+                // Commit every file at the head of the stream to keep the latency low and group files while catching up
+                boolean last = i == fileNames.size() - 1;
+                if (last || commitGroup.isFull(parserProperties.getGroupCommit())) {
+                    commit(commitGroup, streamState);
+                }
             }
-            thisFileHash = Hex.encodeHexString(Utility.getFileHash(name));
-            if (loadRecordFile(name, prevFileHash, thisFileHash)) {
-                prevFileHash = thisFileHash;
-                Utility.moveFileToParsedDir(name, "/parsedRecordFiles/");
-            } else {
-                return;
+
+            if (!commitGroup.isEmpty()) {
+                commit(commitGroup, streamState);
+            }
+        } finally {
+            if (backfill != null) {
+                backfill.close();
             }
         }
     }
 
+    private synchronized ExecutorService getBackfillExecutor() {
+        if (backfillExecutor == null) {
+            int threads = parserProperties.getBackfill().getThreads();
+            backfillExecutor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setDaemon(true)
+                    .setNameFormat("backfill-%d").build());
+            new ExecutorServiceMetrics(backfillExecutor, "backfill", Tags.empty()).bindTo(meterRegistry);
+            log.info("Created backfill executor with {} threads", threads);
+        }
+        return backfillExecutor;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (backfillExecutor != null) {
+            backfillExecutor.shutdownNow();
+        }
+    }
+
+    private void commit(CommitGroup commitGroup, StreamState streamState) throws Exception {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        RecordFileLogger.commit(streamState, commitGroup.lastHash);
+        streamState.setLastHash(commitGroup.lastHash);
+        // The last hash was saved on the connection of the parser, so readers through the repository need to reload it
+        applicationStatusRepository.evict(streamState.getHashStatusCode());
+        commitGroup.fileNames.forEach(f -> Utility.moveFileToParsedDir(f, "/parsedRecordFiles/"));
+        String lastFileName = new File(commitGroup.fileNames.get(commitGroup.size() - 1)).getName();
+        streamMetrics.parsed(StreamType.RECORD, lastFileName, commitGroup.size(), commitGroup.transactions);
+        log.info("Committed {} record files with {} transactions in {}", commitGroup.size(),
+                commitGroup.transactions, stopwatch);
+        commitGroup.clear();
+    }
+
     @Override
-    @Scheduled(fixedRateString = "${hedera.mirror.parser.record.frequency:500}")
     public void parse() {
         try {
             if (!parserProperties.isEnabled()) {
@@ -340,4 +397,43 @@ public class RecordFileParser implements FileParser {
             log.error("Error parsing files", e);
         }
     }
+
+    /**
+     * The record files closed since the last commit. They are only moved to the parsed directory once committed.
+     */
+    private static class CommitGroup {
+
+        private final List<String> fileNames = new ArrayList<>();
+        private final Stopwatch stopwatch = Stopwatch.createUnstarted();
+        private long transactions = 0;
+        private String lastHash = "";
+
+        private void add(String fileName, long count, String hash) {
+            if (fileNames.isEmpty()) {
+                stopwatch.reset().start();
+            }
+            fileNames.add(fileName);
+            transactions += count;
+            lastHash = hash;
+        }
+
+        private boolean isFull(RecordParserProperties.GroupCommitProperties properties) {
+            return !properties.isEnabled() || fileNames.size() >= properties.getMaxFiles() ||
+                    transactions >= properties.getMaxTransactions() ||
+                    stopwatch.elapsed().compareTo(properties.getMaxDuration()) >= 0;
+        }
+
+        private boolean isEmpty() {
+            return fileNames.isEmpty();
+        }
+
+        private int size() {
+            return fileNames.size();
+        }
+
+        private void clear() {
+            fileNames.clear();
+            transactions = 0;
+        }
+    }
 }
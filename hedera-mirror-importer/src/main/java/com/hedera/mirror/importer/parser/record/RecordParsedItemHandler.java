@@ -40,6 +40,16 @@ public interface RecordParsedItemHandler extends ParsedItemHandler {
 
     void onNonFeeTransfer(NonFeeTransfer nonFeeTransfer) throws ImporterException;
 
+    /**
+     * Drains the crypto transfers of a transaction from the buffer, leaving it empty for reuse.
+     */
+    void onCryptoTransfers(TransferBuffer transfers) throws ImporterException;
+
+    /**
+     * Drains the non-fee transfers of a transaction from the buffer, leaving it empty for reuse.
+     */
+    void onNonFeeTransfers(TransferBuffer transfers) throws ImporterException;
+
     void onTopicMessage(TopicMessage topicMessage) throws ImporterException;
 
     void onContractResult(ContractResult contractResult) throws ImporterException;
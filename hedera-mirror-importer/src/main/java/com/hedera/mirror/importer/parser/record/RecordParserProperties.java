@@ -22,6 +22,8 @@ package com.hedera.mirror.importer.parser.record;
 
 import java.nio.file.Path;
 import java.time.Duration;
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import lombok.Data;
@@ -39,11 +41,19 @@ public class RecordParserProperties implements ParserProperties {
 
     private final MirrorProperties mirrorProperties;
 
+    @NotNull
+    @Valid
+    private BackfillProperties backfill = new BackfillProperties();
+
     private boolean enabled = true;
 
     @NotNull
     private Duration frequency = Duration.ofMillis(500L);
 
+    @NotNull
+    @Valid
+    private GroupCommitProperties groupCommit = new GroupCommitProperties();
+
     private boolean persistClaims = false;
 
     private boolean persistContracts = true;
@@ -69,4 +79,44 @@ public class RecordParserProperties implements ParserProperties {
     public StreamType getStreamType() {
         return StreamType.RECORD;
     }
+
+    /**
+     * Validates the hash chain of a large range of record files from the files themselves before any of them is stored,
+     * then decodes them on multiple threads ahead of the parser, for importing history. The files are still stored and
+     * committed in order on the parser's connection.
+     */
+    @Data
+    @Validated
+    public static class BackfillProperties {
+
+        private boolean enabled = false;
+
+        // The minimum number of record files waiting to be parsed for them to be backfilled
+        @Min(1)
+        private int minFiles = 1000;
+
+        @Min(1)
+        private int threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Groups consecutive record files into one database transaction while catching up. Once the parser reaches the
+     * last downloaded file, files are committed one at a time again.
+     */
+    @Data
+    @Validated
+    public static class GroupCommitProperties {
+
+        private boolean enabled = true;
+
+        // The time after which the files grouped so far are committed
+        @NotNull
+        private Duration maxDuration = Duration.ofSeconds(10L);
+
+        @Min(1)
+        private int maxFiles = 100;
+
+        @Min(1)
+        private long maxTransactions = 100_000L;
+    }
 }
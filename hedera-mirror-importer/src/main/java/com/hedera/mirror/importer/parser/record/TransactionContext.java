@@ -0,0 +1,51 @@
+package com.hedera.mirror.importer.parser.record;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.TransactionBody;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+import lombok.Data;
+
+import com.hedera.mirror.importer.domain.Entities;
+import com.hedera.mirror.importer.domain.EntityId;
+
+/**
+ * The state of a transaction being stored that is shared between RecordFileLogger and the TransactionHandler of its
+ * type.
+ */
+@Data
+class TransactionContext {
+
+    private final TransactionBody body;
+    private final TransactionRecord record;
+    private final long consensusNs;
+
+    /**
+     * If the transaction wasn't successful don't update the entity. Still include the transfer list. Still create
+     * the entity (empty) and reference it from t_transactions, as it would have been validated to exist in
+     * preconsensus checks. Don't update any attributes of the entity.
+     */
+    private final boolean updateEntity;
+
+    private Entities entity; // Entity used when t_entities row must be updated.
+    private EntityId entityId; // Entity ID simply used for reference purposes (in the transaction object)
+    private EntityId proxyEntityId;
+    private long initialBalance;
+}
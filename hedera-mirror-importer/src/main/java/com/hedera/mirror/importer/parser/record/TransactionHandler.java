@@ -0,0 +1,58 @@
+package com.hedera.mirror.importer.parser.record;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.TransactionBody;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+import java.io.IOException;
+
+import com.hedera.mirror.importer.parser.CompiledTransactionFilter;
+
+/**
+ * The type specific part of storing a transaction. Transaction types without a handler only store the common columns
+ * of the transaction and its transfer lists.
+ */
+interface TransactionHandler {
+
+    TransactionHandler DEFAULT = new TransactionHandler() {
+    };
+
+    /**
+     * Finds the entity the transaction acts upon without resolving it, so the transaction filter can be applied
+     * before any entity is looked up or created. Must match the entity picked by {@link #updateEntity}.
+     *
+     * @return the encoded entity id or CompiledTransactionFilter.NO_ENTITY
+     */
+    default long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+        return CompiledTransactionFilter.NO_ENTITY;
+    }
+
+    /**
+     * Sets the entity of the transaction on the context and applies the changes of the transaction to it.
+     */
+    default void updateEntity(TransactionContext context) {
+    }
+
+    /**
+     * Adds the rows of the type specific tables.
+     */
+    default void insert(TransactionContext context) throws IOException {
+    }
+}
@@ -0,0 +1,739 @@
+package com.hedera.mirror.importer.parser.record;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static com.hedera.mirror.importer.parser.CompiledTransactionFilter.NO_ENTITY;
+import static com.hedera.mirror.importer.parser.record.RecordFileLogger.getEntity;
+import static com.hedera.mirror.importer.parser.record.RecordFileLogger.getEntityId;
+
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.ContractID;
+import com.hederahashgraph.api.proto.java.FileID;
+import com.hederahashgraph.api.proto.java.TopicID;
+import com.hederahashgraph.api.proto.java.TransactionBody;
+import com.hederahashgraph.api.proto.java.TransactionBody.DataCase;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.inject.Named;
+import lombok.extern.log4j.Log4j2;
+
+import com.hedera.mirror.importer.addressbook.NetworkAddressBook;
+import com.hedera.mirror.importer.domain.ContractResult;
+import com.hedera.mirror.importer.domain.Entities;
+import com.hedera.mirror.importer.domain.EntityId;
+import com.hedera.mirror.importer.domain.FileData;
+import com.hedera.mirror.importer.domain.LiveHash;
+import com.hedera.mirror.importer.domain.TopicMessage;
+import com.hedera.mirror.importer.util.Utility;
+
+/**
+ * The registry of the transaction handlers by transaction type. RecordFileLogger looks up the handler of a transaction
+ * once and delegates its entity updates and type specific inserts to it.
+ */
+@Log4j2
+@Named
+public class TransactionHandlers {
+
+    private final RecordParserProperties parserProperties;
+    private final NetworkAddressBook networkAddressBook;
+    private final PostgresWritingRecordParsedItemHandler postgresWriter;
+    private final Map<DataCase, TransactionHandler> handlers = new EnumMap<>(DataCase.class);
+
+    public TransactionHandlers(RecordParserProperties parserProperties, NetworkAddressBook networkAddressBook,
+                               PostgresWritingRecordParsedItemHandler postgresWriter) {
+        this.parserProperties = parserProperties;
+        this.networkAddressBook = networkAddressBook;
+        this.postgresWriter = postgresWriter;
+
+        handlers.put(DataCase.CONTRACTCALL, new ContractCallHandler());
+        handlers.put(DataCase.CONTRACTCREATEINSTANCE, new ContractCreateHandler());
+        handlers.put(DataCase.CONTRACTDELETEINSTANCE, new ContractDeleteHandler());
+        handlers.put(DataCase.CONTRACTUPDATEINSTANCE, new ContractUpdateHandler());
+        handlers.put(DataCase.CRYPTOADDCLAIM, new CryptoAddClaimHandler());
+        handlers.put(DataCase.CRYPTOCREATEACCOUNT, new CryptoCreateHandler());
+        handlers.put(DataCase.CRYPTODELETE, new CryptoDeleteHandler());
+        handlers.put(DataCase.CRYPTODELETECLAIM, new CryptoDeleteClaimHandler());
+        handlers.put(DataCase.CRYPTOUPDATEACCOUNT, new CryptoUpdateHandler());
+        handlers.put(DataCase.FILEAPPEND, new FileAppendHandler());
+        handlers.put(DataCase.FILECREATE, new FileCreateHandler());
+        handlers.put(DataCase.FILEDELETE, new FileDeleteHandler());
+        handlers.put(DataCase.FILEUPDATE, new FileUpdateHandler());
+        handlers.put(DataCase.SYSTEMDELETE, new SystemDeleteHandler(true));
+        handlers.put(DataCase.SYSTEMUNDELETE, new SystemDeleteHandler(false));
+        handlers.put(DataCase.CONSENSUSCREATETOPIC, new ConsensusCreateTopicHandler());
+        handlers.put(DataCase.CONSENSUSUPDATETOPIC, new ConsensusUpdateTopicHandler());
+        handlers.put(DataCase.CONSENSUSDELETETOPIC, new ConsensusDeleteTopicHandler());
+        handlers.put(DataCase.CONSENSUSSUBMITMESSAGE, new ConsensusSubmitMessageHandler());
+    }
+
+    /**
+     * @param dataCase the transaction type, null for unknown transaction types
+     * @return the handler of the transaction type or TransactionHandler.DEFAULT
+     */
+    TransactionHandler get(DataCase dataCase) {
+        TransactionHandler handler = dataCase != null ? handlers.get(dataCase) : null;
+        return handler != null ? handler : TransactionHandler.DEFAULT;
+    }
+
+    private static long encode(AccountID id) {
+        return EntityId.encode(id.getShardNum(), id.getRealmNum(), id.getAccountNum());
+    }
+
+    private static long encode(ContractID id) {
+        return EntityId.encode(id.getShardNum(), id.getRealmNum(), id.getContractNum());
+    }
+
+    private static long encode(FileID id) {
+        return EntityId.encode(id.getShardNum(), id.getRealmNum(), id.getFileNum());
+    }
+
+    private static long encode(TopicID id) {
+        return EntityId.encode(id.getShardNum(), id.getRealmNum(), id.getTopicNum());
+    }
+
+    // Entity ids that are only referenced, rather than updated, are not set on the transaction when their number is 0
+    private static long encodeOptional(AccountID id) {
+        return id.getAccountNum() == 0 ? NO_ENTITY : encode(id);
+    }
+
+    private static long encodeOptional(ContractID id) {
+        return id.getContractNum() == 0 ? NO_ENTITY : encode(id);
+    }
+
+    private static long encodeOptional(FileID id) {
+        return id.getFileNum() == 0 ? NO_ENTITY : encode(id);
+    }
+
+    private static long encodeOptional(TopicID id) {
+        return id.getTopicNum() == 0 ? NO_ENTITY : encode(id);
+    }
+
+    private static boolean isFileAddressBook(FileID fileId) {
+        return (fileId.getFileNum() == 102) && (fileId.getShardNum() == 0) && (fileId.getRealmNum() == 0);
+    }
+
+    private boolean isPersistFile(FileID fileId) {
+        return parserProperties.isPersistFiles() ||
+                (parserProperties.isPersistSystemFiles() && fileId.getFileNum() < 1000);
+    }
+
+    private void insertContractResults(long consensusTimestamp, byte[] functionParams, long gasSupplied,
+                                       byte[] callResult, long gasUsed) {
+        postgresWriter.onContractResult(
+                new ContractResult(consensusTimestamp, functionParams, gasSupplied, callResult, gasUsed));
+    }
+
+    private class ContractCallHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return body.getContractCall().hasContractID() ?
+                    encodeOptional(body.getContractCall().getContractID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            if (context.getBody().getContractCall().hasContractID()) {
+                context.setEntityId(getEntityId(context.getBody().getContractCall().getContractID()));
+            }
+        }
+
+        @Override
+        public void insert(TransactionContext context) {
+            if (parserProperties.isPersistContracts()) {
+                var transactionBody = context.getBody().getContractCall();
+                var txRecord = context.getRecord();
+                byte[] functionParams = transactionBody.getFunctionParameters().toByteArray();
+                long gasSupplied = transactionBody.getGas();
+                byte[] callResult = new byte[0];
+                long gasUsed = 0;
+                if (txRecord.hasContractCallResult()) {
+                    callResult = txRecord.getContractCallResult().toByteArray();
+                    gasUsed = txRecord.getContractCallResult().getGasUsed();
+                }
+                insertContractResults(context.getConsensusNs(), functionParams, gasSupplied, callResult, gasUsed);
+            }
+        }
+    }
+
+    private class ContractCreateHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return txRecord.getReceipt().hasContractID() ? encode(txRecord.getReceipt().getContractID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var txMessage = context.getBody().getContractCreateInstance();
+            var receipt = context.getRecord().getReceipt();
+
+            if (receipt.hasContractID()) { // implies SUCCESS
+                Entities entity = getEntity(receipt.getContractID());
+                context.setEntity(entity);
+                context.setProxyEntityId(getEntityId(txMessage.getProxyAccountID()));
+
+                if (txMessage.hasAutoRenewPeriod()) {
+                    entity.setAutoRenewPeriod(txMessage.getAutoRenewPeriod().getSeconds());
+                }
+
+                // Can't clear memo on contracts. 0 length indicates no change
+                if (txMessage.getMemo() != null && txMessage.getMemo().length() > 0) {
+                    entity.setMemo(txMessage.getMemo());
+                }
+
+                if (txMessage.hasAdminKey()) {
+                    entity.setKey(txMessage.getAdminKey().toByteArray());
+                }
+            }
+
+            context.setInitialBalance(txMessage.getInitialBalance());
+        }
+
+        @Override
+        public void insert(TransactionContext context) {
+            if (parserProperties.isPersistContracts()) {
+                var transactionBody = context.getBody().getContractCreateInstance();
+                var txRecord = context.getRecord();
+                byte[] functionParams = transactionBody.getConstructorParameters().toByteArray();
+                long gasSupplied = transactionBody.getGas();
+                byte[] callResult = new byte[0];
+                long gasUsed = 0;
+                if (txRecord.hasContractCreateResult()) {
+                    callResult = txRecord.getContractCreateResult().toByteArray();
+                    gasUsed = txRecord.getContractCreateResult().getGasUsed();
+                }
+                insertContractResults(context.getConsensusNs(), functionParams, gasSupplied, callResult, gasUsed);
+            }
+        }
+    }
+
+    private class ContractDeleteHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return body.getContractDeleteInstance().hasContractID() ?
+                    encode(body.getContractDeleteInstance().getContractID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var txMessage = context.getBody().getContractDeleteInstance();
+            if (txMessage.hasContractID()) {
+                Entities entity = getEntity(txMessage.getContractID());
+                context.setEntity(entity);
+                if (context.isUpdateEntity()) {
+                    entity.setDeleted(true);
+                }
+            }
+        }
+    }
+
+    private class ContractUpdateHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return encode(body.getContractUpdateInstance().getContractID());
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var txMessage = context.getBody().getContractUpdateInstance();
+            Entities entity = getEntity(txMessage.getContractID());
+            context.setEntity(entity);
+
+            if (context.isUpdateEntity()) {
+                context.setProxyEntityId(getEntityId(txMessage.getProxyAccountID()));
+
+                if (txMessage.hasExpirationTime()) {
+                    entity.setExpiryTimeNs(Utility.timestampInNanosMax(txMessage.getExpirationTime()));
+                }
+
+                if (txMessage.hasAutoRenewPeriod()) {
+                    entity.setAutoRenewPeriod(txMessage.getAutoRenewPeriod().getSeconds());
+                }
+
+                if (txMessage.hasAdminKey()) {
+                    entity.setKey(txMessage.getAdminKey().toByteArray());
+                }
+
+                // Can't clear memo on contracts. 0 length indicates no change
+                if (txMessage.getMemo() != null && txMessage.getMemo().length() > 0) {
+                    entity.setMemo(txMessage.getMemo());
+                }
+            }
+        }
+    }
+
+    private class CryptoAddClaimHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            var claim = body.getCryptoAddClaim();
+            return claim.hasClaim() && claim.getClaim().hasAccountID() ?
+                    encodeOptional(claim.getClaim().getAccountID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var claim = context.getBody().getCryptoAddClaim();
+            if (claim.hasClaim() && claim.getClaim().hasAccountID()) {
+                context.setEntityId(getEntityId(claim.getClaim().getAccountID()));
+            }
+        }
+
+        @Override
+        public void insert(TransactionContext context) {
+            if (context.isUpdateEntity() && parserProperties.isPersistClaims()) {
+                byte[] claim = context.getBody().getCryptoAddClaim().getClaim().getHash().toByteArray();
+                postgresWriter.onLiveHash(new LiveHash(context.getConsensusNs(), claim));
+            }
+        }
+    }
+
+    private class CryptoCreateHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return txRecord.getReceipt().hasAccountID() ? encode(txRecord.getReceipt().getAccountID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var txMessage = context.getBody().getCryptoCreateAccount();
+            var receipt = context.getRecord().getReceipt();
+
+            if (receipt.hasAccountID()) { // Implies SUCCESS
+                context.setProxyEntityId(getEntityId(txMessage.getProxyAccountID()));
+                Entities entity = getEntity(receipt.getAccountID());
+                context.setEntity(entity);
+
+                if (txMessage.hasAutoRenewPeriod()) {
+                    entity.setAutoRenewPeriod(txMessage.getAutoRenewPeriod().getSeconds());
+                }
+
+                if (txMessage.hasKey()) {
+                    entity.setKey(txMessage.getKey().toByteArray());
+                }
+            }
+
+            context.setInitialBalance(txMessage.getInitialBalance());
+        }
+    }
+
+    private class CryptoDeleteHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return body.getCryptoDelete().hasDeleteAccountID() ?
+                    encode(body.getCryptoDelete().getDeleteAccountID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var txMessage = context.getBody().getCryptoDelete();
+            if (txMessage.hasDeleteAccountID()) {
+                Entities entity = getEntity(txMessage.getDeleteAccountID());
+                context.setEntity(entity);
+                if (context.isUpdateEntity()) {
+                    entity.setDeleted(true);
+                }
+            }
+        }
+    }
+
+    private class CryptoDeleteClaimHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return body.getCryptoDeleteClaim().hasAccountIDToDeleteFrom() ?
+                    encodeOptional(body.getCryptoDeleteClaim().getAccountIDToDeleteFrom()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var txMessage = context.getBody().getCryptoDeleteClaim();
+            if (txMessage.hasAccountIDToDeleteFrom()) {
+                context.setEntityId(getEntityId(txMessage.getAccountIDToDeleteFrom()));
+            }
+        }
+    }
+
+    private class CryptoUpdateHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return encode(body.getCryptoUpdateAccount().getAccountIDToUpdate());
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var txMessage = context.getBody().getCryptoUpdateAccount();
+            Entities entity = getEntity(txMessage.getAccountIDToUpdate());
+            context.setEntity(entity);
+
+            if (context.isUpdateEntity()) {
+                context.setProxyEntityId(getEntityId(txMessage.getProxyAccountID()));
+
+                if (txMessage.hasExpirationTime()) {
+                    entity.setExpiryTimeNs(Utility.timestampInNanosMax(txMessage.getExpirationTime()));
+                }
+
+                if (txMessage.hasAutoRenewPeriod()) {
+                    entity.setAutoRenewPeriod(txMessage.getAutoRenewPeriod().getSeconds());
+                }
+
+                if (txMessage.hasKey()) {
+                    entity.setKey(txMessage.getKey().toByteArray());
+                }
+            }
+        }
+    }
+
+    private class FileAppendHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return body.getFileAppend().hasFileID() ? encodeOptional(body.getFileAppend().getFileID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            if (context.getBody().getFileAppend().hasFileID()) {
+                context.setEntityId(getEntityId(context.getBody().getFileAppend().getFileID()));
+            }
+        }
+
+        @Override
+        public void insert(TransactionContext context) throws IOException {
+            var transactionBody = context.getBody().getFileAppend();
+            if (context.isUpdateEntity() && isPersistFile(transactionBody.getFileID())) {
+                byte[] contents = transactionBody.getContents().toByteArray();
+                postgresWriter.onFileData(new FileData(context.getConsensusNs(), contents));
+
+                // update the local address book
+                if (isFileAddressBook(transactionBody.getFileID())) {
+                    // we have an address book update, refresh the local file
+                    networkAddressBook.append(contents);
+                }
+            }
+        }
+    }
+
+    private class FileCreateHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return txRecord.getReceipt().hasFileID() ? encode(txRecord.getReceipt().getFileID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var txMessage = context.getBody().getFileCreate();
+            var receipt = context.getRecord().getReceipt();
+
+            if (receipt.hasFileID()) { // Implies SUCCESS
+                Entities entity = getEntity(receipt.getFileID());
+                context.setEntity(entity);
+
+                if (txMessage.hasExpirationTime()) {
+                    entity.setExpiryTimeNs(Utility.timestampInNanosMax(txMessage.getExpirationTime()));
+                }
+
+                if (txMessage.hasKeys()) {
+                    entity.setKey(txMessage.getKeys().toByteArray());
+                }
+            }
+        }
+
+        @Override
+        public void insert(TransactionContext context) {
+            if (context.isUpdateEntity() && isPersistFile(context.getRecord().getReceipt().getFileID())) {
+                byte[] contents = context.getBody().getFileCreate().getContents().toByteArray();
+                postgresWriter.onFileData(new FileData(context.getConsensusNs(), contents));
+            }
+        }
+    }
+
+    private class FileDeleteHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return body.getFileDelete().hasFileID() ? encode(body.getFileDelete().getFileID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var txMessage = context.getBody().getFileDelete();
+            if (txMessage.hasFileID()) {
+                Entities entity = getEntity(txMessage.getFileID());
+                context.setEntity(entity);
+                if (context.isUpdateEntity()) {
+                    entity.setDeleted(true);
+                }
+            }
+        }
+    }
+
+    private class FileUpdateHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return encode(body.getFileUpdate().getFileID());
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var txMessage = context.getBody().getFileUpdate();
+            Entities entity = getEntity(txMessage.getFileID());
+            context.setEntity(entity);
+
+            if (context.isUpdateEntity()) {
+                if (txMessage.hasExpirationTime()) {
+                    entity.setExpiryTimeNs(Utility.timestampInNanosMax(txMessage.getExpirationTime()));
+                }
+
+                if (txMessage.hasKeys()) {
+                    entity.setKey(txMessage.getKeys().toByteArray());
+                }
+            }
+        }
+
+        @Override
+        public void insert(TransactionContext context) throws IOException {
+            if (!context.isUpdateEntity()) {
+                return;
+            }
+
+            var transactionBody = context.getBody().getFileUpdate();
+            FileID fileId = transactionBody.getFileID();
+            if (isPersistFile(fileId)) {
+                byte[] contents = transactionBody.getContents().toByteArray();
+                postgresWriter.onFileData(new FileData(context.getConsensusNs(), contents));
+            }
+
+            // update the local address book
+            if (isFileAddressBook(fileId)) {
+                // we have an address book update, refresh the local file
+                networkAddressBook.update(transactionBody.getContents().toByteArray());
+            }
+        }
+    }
+
+    /**
+     * Handles both SystemDelete and SystemUndelete, which only differ in the deleted flag they set.
+     */
+    private class SystemDeleteHandler implements TransactionHandler {
+
+        private final boolean deleted;
+
+        private SystemDeleteHandler(boolean deleted) {
+            this.deleted = deleted;
+        }
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            if (deleted) {
+                var txMessage = body.getSystemDelete();
+                return txMessage.hasContractID() ? encode(txMessage.getContractID()) :
+                        txMessage.hasFileID() ? encode(txMessage.getFileID()) : NO_ENTITY;
+            }
+
+            var txMessage = body.getSystemUndelete();
+            return txMessage.hasContractID() ? encode(txMessage.getContractID()) :
+                    txMessage.hasFileID() ? encode(txMessage.getFileID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            Entities entity = null;
+
+            if (deleted) {
+                var txMessage = context.getBody().getSystemDelete();
+                if (txMessage.hasContractID()) {
+                    entity = getEntity(txMessage.getContractID());
+                } else if (txMessage.hasFileID()) {
+                    entity = getEntity(txMessage.getFileID());
+                }
+            } else {
+                var txMessage = context.getBody().getSystemUndelete();
+                if (txMessage.hasContractID()) {
+                    entity = getEntity(txMessage.getContractID());
+                } else if (txMessage.hasFileID()) {
+                    entity = getEntity(txMessage.getFileID());
+                }
+            }
+
+            if (entity != null) {
+                context.setEntity(entity);
+                if (context.isUpdateEntity()) {
+                    entity.setDeleted(deleted);
+                }
+            }
+        }
+    }
+
+    private class ConsensusCreateTopicHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return txRecord.getReceipt().hasTopicID() ? encode(txRecord.getReceipt().getTopicID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var receipt = context.getRecord().getReceipt();
+            if (!receipt.hasTopicID()) {
+                return;
+            }
+
+            Entities entity = getEntity(receipt.getTopicID());
+            var transactionBody = context.getBody().getConsensusCreateTopic();
+
+            if (transactionBody.hasAutoRenewAccount()) {
+                entity.setAutoRenewAccount(getEntity(transactionBody.getAutoRenewAccount()));
+            }
+
+            if (transactionBody.hasAutoRenewPeriod()) {
+                entity.setAutoRenewPeriod(transactionBody.getAutoRenewPeriod().getSeconds());
+            }
+
+            // If either key is empty, they should end up as empty bytea in the DB to indicate that there is
+            // explicitly no value, as opposed to null which has been used to indicate the value is unknown.
+            var adminKey = transactionBody.hasAdminKey() ? transactionBody.getAdminKey().toByteArray() : new byte[0];
+            var submitKey = transactionBody.hasSubmitKey() ? transactionBody.getSubmitKey().toByteArray() :
+                    new byte[0];
+
+            entity.setMemo(transactionBody.getMemo());
+            entity.setKey(adminKey);
+            entity.setSubmitKey(submitKey);
+            context.setEntity(entity);
+        }
+    }
+
+    private class ConsensusUpdateTopicHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return body.getConsensusUpdateTopic().hasTopicID() ?
+                    encode(body.getConsensusUpdateTopic().getTopicID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var transactionBody = context.getBody().getConsensusUpdateTopic();
+            if (!transactionBody.hasTopicID()) {
+                log.warn("Encountered a ConsensusUpdateTopic transaction without topic ID: {}", context.getBody());
+                return;
+            }
+
+            Entities entity = getEntity(transactionBody.getTopicID());
+            context.setEntity(entity);
+
+            if (context.isUpdateEntity()) {
+                if (transactionBody.hasExpirationTime()) {
+                    entity.setExpiryTimeNs(Utility.timestampInNanosMax(transactionBody.getExpirationTime()));
+                }
+
+                if (transactionBody.hasAutoRenewAccount()) {
+                    entity.setAutoRenewAccount(getEntity(transactionBody.getAutoRenewAccount()));
+                }
+
+                if (transactionBody.hasAutoRenewPeriod()) {
+                    entity.setAutoRenewPeriod(transactionBody.getAutoRenewPeriod().getSeconds());
+                }
+
+                if (transactionBody.hasAdminKey()) {
+                    entity.setKey(transactionBody.getAdminKey().toByteArray());
+                }
+
+                if (transactionBody.hasSubmitKey()) {
+                    entity.setSubmitKey(transactionBody.getSubmitKey().toByteArray());
+                }
+
+                if (transactionBody.hasMemo()) {
+                    entity.setMemo(transactionBody.getMemo().getValue());
+                }
+            }
+        }
+    }
+
+    private class ConsensusDeleteTopicHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return body.getConsensusDeleteTopic().hasTopicID() ?
+                    encode(body.getConsensusDeleteTopic().getTopicID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var transactionBody = context.getBody().getConsensusDeleteTopic();
+            if (!transactionBody.hasTopicID()) {
+                log.warn("Encountered a ConsensusDeleteTopic transaction without topic ID: {}", context.getBody());
+                return;
+            }
+
+            Entities entity = getEntity(transactionBody.getTopicID());
+            context.setEntity(entity);
+            if (context.isUpdateEntity()) {
+                entity.setDeleted(true);
+            }
+        }
+    }
+
+    private class ConsensusSubmitMessageHandler implements TransactionHandler {
+
+        @Override
+        public long getFilterEntity(TransactionBody body, TransactionRecord txRecord) {
+            return body.getConsensusSubmitMessage().hasTopicID() ?
+                    encodeOptional(body.getConsensusSubmitMessage().getTopicID()) : NO_ENTITY;
+        }
+
+        @Override
+        public void updateEntity(TransactionContext context) {
+            var transactionBody = context.getBody().getConsensusSubmitMessage();
+            if (!transactionBody.hasTopicID()) {
+                log.warn("Encountered a ConsensusSubmitMessage transaction without topic ID: {}", context.getBody());
+                return;
+            }
+
+            context.setEntityId(getEntityId(transactionBody.getTopicID()));
+        }
+
+        @Override
+        public void insert(TransactionContext context) {
+            if (!context.isUpdateEntity()) {
+                return;
+            }
+
+            var transactionBody = context.getBody().getConsensusSubmitMessage();
+            var receipt = context.getRecord().getReceipt();
+            var topicId = transactionBody.getTopicID();
+            TopicMessage topicMessage = new TopicMessage(context.getConsensusNs(),
+                    transactionBody.getMessage().toByteArray(), (int) topicId.getRealmNum(),
+                    receipt.getTopicRunningHash().toByteArray(), receipt.getTopicSequenceNumber(),
+                    (int) topicId.getTopicNum());
+            postgresWriter.onTopicMessage(topicMessage);
+        }
+    }
+}
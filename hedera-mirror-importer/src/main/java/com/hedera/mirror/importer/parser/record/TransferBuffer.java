@@ -0,0 +1,89 @@
+package com.hedera.mirror.importer.parser.record;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of transfers stored in parallel primitive arrays, so that filling and draining it doesn't
+ * allocate any objects per transfer. The arrays grow as needed and are kept when the buffer is cleared. Not thread
+ * safe.
+ */
+public class TransferBuffer {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] consensusTimestamps = new long[INITIAL_CAPACITY];
+    private long[] realmNums = new long[INITIAL_CAPACITY];
+    private long[] entityNums = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    public void add(long consensusTimestamp, long realmNum, long entityNum, long amount) {
+        if (size == amounts.length) {
+            int capacity = size * 2;
+            consensusTimestamps = Arrays.copyOf(consensusTimestamps, capacity);
+            realmNums = Arrays.copyOf(realmNums, capacity);
+            entityNums = Arrays.copyOf(entityNums, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+
+        consensusTimestamps[size] = consensusTimestamp;
+        realmNums[size] = realmNum;
+        entityNums[size] = entityNum;
+        amounts[size] = amount;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getConsensusTimestamp(int index) {
+        return consensusTimestamps[checkIndex(index)];
+    }
+
+    public long getRealmNum(int index) {
+        return realmNums[checkIndex(index)];
+    }
+
+    public long getEntityNum(int index) {
+        return entityNums[checkIndex(index)];
+    }
+
+    public long getAmount(int index) {
+        return amounts[checkIndex(index)];
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+}
@@ -43,6 +43,14 @@ public interface ApplicationStatusRepository extends CrudRepository<ApplicationS
         return findById(statusCode).map(ApplicationStatus::getStatusValue).orElse("");
     }
 
+    /**
+     * Evicts a status value updated outside of the repository, like the last hash saved by the parsers in the same
+     * transaction as the data of the files.
+     */
+    @CacheEvict(key = "#p0")
+    default void evict(ApplicationStatusCode statusCode) {
+    }
+
     @Modifying
     @CacheEvict(key = "#p0")
     @Query("update ApplicationStatus set statusValue = :value where statusCode = :code")
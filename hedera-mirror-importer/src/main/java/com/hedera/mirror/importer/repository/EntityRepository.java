@@ -22,8 +22,6 @@ package com.hedera.mirror.importer.repository;
 
 import java.util.Optional;
 
-import com.hedera.mirror.importer.domain.EntityId;
-
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
@@ -35,7 +33,7 @@ import com.hedera.mirror.importer.domain.Entities;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 @CacheConfig(cacheNames = "entities", cacheManager = CacheConfiguration.EXPIRE_AFTER_30M)
-public interface EntityRepository extends PagingAndSortingRepository<Entities, Long>, EntityRepositoryCustom {
+public interface EntityRepository extends PagingAndSortingRepository<Entities, Long> {
 
     @Cacheable(key = "{#p0, #p1, #p2}", sync = true)
     @Query("from Entities where entityShard = ?1 and entityRealm = ?2 and entityNum = ?3")
@@ -44,15 +42,4 @@ public interface EntityRepository extends PagingAndSortingRepository<Entities, L
     @CachePut(key = "{#p0.entityShard, #p0.entityRealm, #p0.entityNum}")
     @Override
     <S extends Entities> S save(S entity);
-
-    @Cacheable(key = "{#p0, #p1, #p2}", sync = true, cacheNames = "entity_ids",
-            cacheManager = CacheConfiguration.BIG_LRU_CACHE)
-    @Query("select new com.hedera.mirror.importer.domain.EntityId(id, entityShard, entityRealm, entityNum, entityTypeId) from Entities where entityShard = ?1 and entityRealm = ?2 and entityNum = ?3")
-    Optional<EntityId> findEntityIdByNativeIds(long entityShard, long entityRealm, long entityNum);
-
-    @CachePut(key = "{#p0.entityShard, #p0.entityRealm, #p0.entityNum}", cacheNames = "entity_ids",
-            cacheManager = CacheConfiguration.BIG_LRU_CACHE)
-    default <S extends EntityId> S cache(S entity) {
-        return entity;
-    }
 }
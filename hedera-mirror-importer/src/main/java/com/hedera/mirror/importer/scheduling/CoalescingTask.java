@@ -0,0 +1,49 @@
+package com.hedera.mirror.importer.scheduling;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs a task that must not run concurrently with itself from any number of triggers. A trigger that arrives while the
+ * task is running doesn't wait or run it in parallel, it makes the running thread run it once more when it finishes,
+ * so any number of triggers during a run result in a single extra run.
+ */
+@RequiredArgsConstructor
+class CoalescingTask implements Runnable {
+
+    private final Runnable task;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+
+    @Override
+    public void run() {
+        pending.set(true);
+        while (pending.get() && running.compareAndSet(false, true)) {
+            try {
+                pending.set(false);
+                task.run();
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+}
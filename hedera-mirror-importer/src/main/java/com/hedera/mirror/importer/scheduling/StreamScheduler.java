@@ -0,0 +1,130 @@
+package com.hedera.mirror.importer.scheduling;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import com.hedera.mirror.importer.domain.StreamType;
+import com.hedera.mirror.importer.downloader.Downloader;
+import com.hedera.mirror.importer.downloader.DownloaderProperties;
+import com.hedera.mirror.importer.parser.balance.BalanceFileParser;
+import com.hedera.mirror.importer.parser.event.EventParserProperties;
+import com.hedera.mirror.importer.parser.event.EventStreamFileParser;
+import com.hedera.mirror.importer.parser.record.RecordFileParser;
+import com.hedera.mirror.importer.parser.record.RecordParserProperties;
+
+/**
+ * Runs the download and parse loops of each stream type on an executor dedicated to the stream type instead of
+ * Spring's shared scheduler, so a slow balance load or event parse can't delay the record stream. Parsing is triggered
+ * as soon as a download verifies new files, and also at the parser's fixed rate to pick up files left over from before
+ * a restart or a failed parse. The balance parser instead watches for downloaded files on its own thread, since the
+ * watch never returns and would otherwise permanently take one of the threads of the balance executor.
+ */
+@Log4j2
+@Named
+@ConditionalOnProperty(prefix = "spring.task.scheduling", name = "enabled", havingValue = "true", matchIfMissing =
+        true)
+@RequiredArgsConstructor
+public class StreamScheduler {
+
+    private final StreamSchedulerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<Downloader> downloaders;
+    private final RecordFileParser recordFileParser;
+    private final RecordParserProperties recordParserProperties;
+    private final EventStreamFileParser eventStreamFileParser;
+    private final EventParserProperties eventParserProperties;
+    private final BalanceFileParser balanceFileParser;
+    private final Map<StreamType, ScheduledExecutorService> executors = new EnumMap<>(StreamType.class);
+    private final ExecutorService balanceWatcher = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("balance-watcher-%d").build());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        Map<StreamType, Runnable> parsers = new EnumMap<>(StreamType.class);
+        parsers.put(StreamType.RECORD, new CoalescingTask(recordFileParser::parse));
+        parsers.put(StreamType.EVENT, new CoalescingTask(eventStreamFileParser::parse));
+        parsers.forEach((streamType, parser) -> schedule(streamType, parser, getFrequency(streamType)));
+
+        for (Downloader downloader : downloaders) {
+            DownloaderProperties downloaderProperties = downloader.getDownloaderProperties();
+            StreamType streamType = downloaderProperties.getStreamType();
+            Runnable parser = parsers.get(streamType);
+            if (parser != null) {
+                downloader.onDownload(() -> getExecutor(streamType).execute(parser));
+            }
+            schedule(streamType, downloader::download, downloaderProperties.getFrequency());
+        }
+
+        balanceWatcher.execute(balanceFileParser::watch);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        executors.values().forEach(ScheduledExecutorService::shutdown);
+        balanceWatcher.shutdownNow();
+    }
+
+    private Duration getFrequency(StreamType streamType) {
+        return streamType == StreamType.RECORD ? recordParserProperties.getFrequency() :
+                eventParserProperties.getFrequency();
+    }
+
+    private void schedule(StreamType streamType, Runnable task, Duration frequency) {
+        getExecutor(streamType).scheduleAtFixedRate(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                // An exception would cancel the subsequent runs
+                log.error("Error running scheduled {} task", streamType, e);
+            }
+        }, 0L, frequency.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized ScheduledExecutorService getExecutor(StreamType streamType) {
+        return executors.computeIfAbsent(streamType, type -> {
+            String name = type.toString().toLowerCase();
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(properties.getThreads(type),
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat(name + "-%d").build());
+            new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+            log.info("Created {} executor with {} threads", name, executor.getCorePoolSize());
+            return executor;
+        });
+    }
+}
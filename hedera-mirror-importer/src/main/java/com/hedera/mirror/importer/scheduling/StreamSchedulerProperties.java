@@ -0,0 +1,48 @@
+package com.hedera.mirror.importer.scheduling;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.EnumMap;
+import java.util.Map;
+import javax.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import com.hedera.mirror.importer.domain.StreamType;
+
+@Data
+@Validated
+@ConfigurationProperties("hedera.mirror.scheduler")
+public class StreamSchedulerProperties {
+
+    private static final int DEFAULT_THREADS = 2; // One for downloading and one for parsing
+
+    // The number of threads of each stream type's executor
+    @NotNull
+    private Map<StreamType, Integer> threads = new EnumMap<>(Map.of(
+            StreamType.BALANCE, DEFAULT_THREADS,
+            StreamType.EVENT, DEFAULT_THREADS,
+            StreamType.RECORD, DEFAULT_THREADS));
+
+    public int getThreads(StreamType streamType) {
+        return Math.max(threads.getOrDefault(streamType, DEFAULT_THREADS), 1);
+    }
+}
@@ -0,0 +1,265 @@
+package com.hedera.mirror.importer.util;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Calculates the same SHA384 hash of a stream file as {@link Utility#getFileHash(String)}, but incrementally as the
+ * bytes of the file arrive in arbitrarily sized chunks, so the file doesn't have to be read again once it's written.
+ * Record and event files are parsed as they go to apply their content hash rules, while any other file is hashed
+ * as is. Not thread safe.
+ */
+@Log4j2
+public class StreamFileHasher {
+
+    private final String fileName;
+    private final Format format;
+    private final MessageDigest md;
+    private MessageDigest mdForContent;
+    private byte[] previousHash;
+
+    private Field field = Field.VERSION;
+    private MessageDigest target; // Where the bytes of the current field go, or null if they aren't hashed
+    private int remaining = Integer.BYTES;
+    private int value = 0; // The value of the current numeric field read so far
+    private int version = 0;
+    private boolean valid = true;
+
+    public StreamFileHasher(String fileName) {
+        this.fileName = fileName;
+        String extension = Utility.getFileExtension(fileName);
+        if (extension.contentEquals("rcd")) {
+            format = Format.RECORD;
+        } else if (extension.contentEquals("evt")) {
+            format = Format.EVENT;
+        } else {
+            format = Format.OTHER;
+            field = Field.CONTENT;
+        }
+
+        md = newDigest();
+        target = md;
+        if (format == Format.RECORD) {
+            mdForContent = newDigest();
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(FileDelimiter.HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Hashes the remaining bytes of the buffer, advancing its position to its limit.
+     */
+    public void update(ByteBuffer buffer) {
+        while (valid && buffer.hasRemaining()) {
+            if (field == Field.CONTENT) {
+                md.update(buffer);
+                return;
+            }
+
+            int length = Math.min(remaining, buffer.remaining());
+            if (field.isNumeric()) {
+                for (int i = 0; i < length; i++) {
+                    byte b = buffer.get();
+                    value = (value << 8) | (b & 0xFF);
+                    if (target != null) {
+                        target.update(b);
+                    }
+                }
+            } else if (target != null) {
+                ByteBuffer slice = buffer.slice();
+                slice.limit(length);
+                if (field == Field.PREV_HASH) {
+                    slice.duplicate().get(previousHash, previousHash.length - remaining, length);
+                }
+                target.update(slice);
+                buffer.position(buffer.position() + length);
+            } else {
+                buffer.position(buffer.position() + length);
+            }
+
+            remaining -= length;
+            if (remaining == 0) {
+                next();
+            }
+        }
+    }
+
+    /**
+     * @return the previous hash read from the file so far, so the hash chain can be checked without reading the file
+     * again, or null if the file has none
+     */
+    public byte[] getPreviousHash() {
+        return previousHash;
+    }
+
+    /**
+     * @return the hash of the file or null if the file is invalid or incomplete. Can only be called once.
+     */
+    public byte[] digest() {
+        boolean complete = field == Field.CONTENT || (field == Field.DELIMITER && remaining == 1);
+        if (!valid || !complete) {
+            log.error("Unable to calculate hash of invalid or incomplete file {}", fileName);
+            return null;
+        }
+
+        if (format == Format.RECORD && version == FileDelimiter.RECORD_FORMAT_VERSION) {
+            md.update(mdForContent.digest());
+        } else if (format == Format.EVENT && mdForContent != null) {
+            md.update(mdForContent.digest());
+        }
+
+        return md.digest();
+    }
+
+    private void next() {
+        switch (field) {
+            case VERSION:
+                version = value;
+                if (format == Format.RECORD) {
+                    expect(Field.HAPI_VERSION, Integer.BYTES, md);
+                } else if (version < FileDelimiter.EVENT_STREAM_FILE_VERSION_LEGACY) {
+                    invalid("EventStream file format version " + version + " doesn't match");
+                } else {
+                    if (version >= FileDelimiter.EVENT_STREAM_FILE_VERSION_CURRENT) {
+                        mdForContent = newDigest();
+                    }
+                    expect(Field.DELIMITER, 1, null);
+                }
+                break;
+            case HAPI_VERSION:
+            case PREV_HASH:
+            case RECORD:
+            case SIGNATURE:
+                expect(Field.DELIMITER, 1, null);
+                break;
+            case DELIMITER:
+                onDelimiter((byte) value);
+                break;
+            case TRANSACTION_LENGTH:
+                expect(Field.TRANSACTION, value, target);
+                break;
+            case TRANSACTION:
+                expect(Field.RECORD_LENGTH, Integer.BYTES, target);
+                break;
+            case RECORD_LENGTH:
+                expect(Field.RECORD, value, target);
+                break;
+            case SIGNATURE_LENGTH:
+                expect(Field.SIGNATURE, value, null);
+                break;
+            default:
+                invalid("Unexpected field " + field);
+        }
+    }
+
+    private void onDelimiter(byte delimiter) {
+        if (format == Format.RECORD) {
+            switch (delimiter) {
+                case FileDelimiter.RECORD_TYPE_PREV_HASH:
+                    md.update(delimiter);
+                    previousHash = new byte[48];
+                    expect(Field.PREV_HASH, previousHash.length, md);
+                    return;
+                case FileDelimiter.RECORD_TYPE_RECORD:
+                    MessageDigest recordTarget = version >= FileDelimiter.RECORD_FORMAT_VERSION ? mdForContent : md;
+                    recordTarget.update(delimiter);
+                    expect(Field.TRANSACTION_LENGTH, Integer.BYTES, recordTarget);
+                    return;
+                case FileDelimiter.RECORD_TYPE_SIGNATURE:
+                    expect(Field.SIGNATURE_LENGTH, Integer.BYTES, null);
+                    return;
+                default:
+                    invalid("Unknown record file delimiter " + delimiter);
+            }
+        } else {
+            switch (delimiter) {
+                case FileDelimiter.EVENT_TYPE_PREV_HASH:
+                    md.update(delimiter);
+                    previousHash = new byte[48];
+                    expect(Field.PREV_HASH, previousHash.length, md);
+                    return;
+                case FileDelimiter.EVENT_STREAM_START_NO_TRANS_WITH_VERSION:
+                case FileDelimiter.EVENT_STREAM_START_WITH_VERSION:
+                    (mdForContent != null ? mdForContent : md).update(delimiter);
+                    expect(Field.DELIMITER, 1, null);
+                    return;
+                default:
+                    invalid("Unknown event file delimiter " + delimiter);
+            }
+        }
+    }
+
+    private void expect(Field next, int length, MessageDigest nextTarget) {
+        if (length < 0) {
+            invalid("Negative length " + length + " for " + next);
+            return;
+        }
+
+        field = next;
+        remaining = length;
+        target = nextTarget;
+        value = 0;
+
+        if (length == 0) {
+            next();
+        }
+    }
+
+    private void invalid(String message) {
+        log.error("{} for file {}", message, fileName);
+        valid = false;
+    }
+
+    private enum Format {
+        RECORD,
+        EVENT,
+        OTHER
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private enum Field {
+        VERSION(true),
+        HAPI_VERSION(true),
+        DELIMITER(true),
+        PREV_HASH(false),
+        TRANSACTION_LENGTH(true),
+        TRANSACTION(false),
+        RECORD_LENGTH(true),
+        RECORD(false),
+        SIGNATURE_LENGTH(true),
+        SIGNATURE(false),
+        CONTENT(false); // The whole file is hashed as is
+
+        private final boolean numeric;
+    }
+}
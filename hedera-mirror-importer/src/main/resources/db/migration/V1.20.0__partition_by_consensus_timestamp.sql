@@ -0,0 +1,110 @@
+-- Range partition the high volume tables by consensus timestamp, one partition per calendar month (UTC).
+-- Primary keys on partitioned tables require PostgreSQL 11, so on older servers the tables are left as they are and
+-- f_create_partitions() does nothing.
+-- The existing table is attached as the <table>_p_history partition holding all rows before the month following its
+-- latest row. Monthly partitions after that are created ahead of time by the importer (hedera.mirror.db.partition).
+
+-- Converts a month start to a consensus timestamp in nanos
+create or replace function f_month_start_ns(month_start timestamp) returns bigint as
+$$
+select (extract(epoch from month_start) * 1000000000)::bigint;
+$$ language sql immutable;
+
+-- Creates the missing monthly partitions of a partitioned table from the current month up to months_ahead months from
+-- now. Months before the upper bound of the history partition are skipped. Returns the number of partitions created.
+create or replace function f_create_partitions(table_name text, months_ahead int) returns int as
+$$
+declare
+    created        int       := 0;
+    history_end    bigint;
+    month_end      timestamp;
+    month_start    timestamp := date_trunc('month', now() at time zone 'utc');
+    partition_name text;
+begin
+    if not exists(select 1 from pg_class where relname = table_name and relkind = 'p') then
+        return 0;
+    end if;
+
+    select substring(pg_get_expr(relpartbound, oid) from 'TO \(''?(-?\d+)')::bigint
+    into history_end
+    from pg_class
+    where relname = table_name || '_p_history';
+
+    for i in 0..months_ahead
+        loop
+            month_end := month_start + interval '1 month';
+            partition_name := table_name || '_p' || to_char(month_start, 'YYYY_MM');
+            if f_month_start_ns(month_start) >= coalesce(history_end, 0) and
+               not exists(select 1 from pg_class where relname = partition_name) then
+                execute format('create table %I partition of %I for values from (%s) to (%s)', partition_name,
+                               table_name, f_month_start_ns(month_start), f_month_start_ns(month_end));
+                created := created + 1;
+            end if;
+            month_start := month_end;
+        end loop;
+
+    return created;
+end;
+$$ language plpgsql;
+
+-- Replaces the table with a table partitioned by the given column and attaches the old table as its history partition.
+-- Indexes and the primary key are recreated on the partitioned table, which attaches the existing indexes of the
+-- history partition instead of building them again.
+create or replace function f_partition_by_consensus_timestamp(table_name text, column_name text) returns void as
+$$
+declare
+    history_end   bigint;
+    history_name  text := table_name || '_p_history';
+    idx           record;
+    max_timestamp bigint;
+begin
+    execute format('select max(%I) from %I', column_name, table_name) into max_timestamp;
+    if max_timestamp is null then
+        history_end := f_month_start_ns(date_trunc('month', now() at time zone 'utc'));
+    else
+        history_end := f_month_start_ns(date_trunc('month', to_timestamp(max_timestamp / 1000000000) at time zone 'utc') +
+                                        interval '1 month');
+    end if;
+
+    execute format('alter table %I rename to %I', table_name, history_name);
+    execute format('create table %I (like %I including defaults including constraints) partition by range (%I)',
+                   table_name, history_name, column_name);
+    execute format('alter table %I attach partition %I for values from (minvalue) to (%s)', table_name,
+                   history_name, history_end);
+
+    for idx in select i.indexrelid::regclass::text as name, pg_get_indexdef(i.indexrelid) as definition,
+                      c.oid                         as constraint_oid
+               from pg_index i
+                        left join pg_constraint c on c.conindid = i.indexrelid and c.contype = 'p'
+               where i.indrelid = history_name::regclass
+        loop
+            execute format('alter index %I rename to %I', idx.name, idx.name || '_history');
+            if idx.constraint_oid is not null then
+                execute format('alter table %I add constraint %I %s', table_name, idx.name,
+                               pg_get_constraintdef(idx.constraint_oid));
+            else
+                execute regexp_replace(idx.definition, 'INDEX \S+ ON \S+', format('INDEX %I ON %I', idx.name,
+                                                                                  table_name));
+            end if;
+        end loop;
+end;
+$$ language plpgsql;
+
+do
+$$
+begin
+    if current_setting('server_version_num')::int >= 110000 then
+        perform f_partition_by_consensus_timestamp('t_transactions', 'consensus_ns');
+        perform f_partition_by_consensus_timestamp('t_cryptotransferlists', 'consensus_timestamp');
+        perform f_partition_by_consensus_timestamp('non_fee_transfers', 'consensus_timestamp');
+        perform f_partition_by_consensus_timestamp('topic_message', 'consensus_timestamp');
+        perform f_partition_by_consensus_timestamp('account_balances', 'consensus_timestamp');
+
+        perform f_create_partitions('t_transactions', 2);
+        perform f_create_partitions('t_cryptotransferlists', 2);
+        perform f_create_partitions('non_fee_transfers', 2);
+        perform f_create_partitions('topic_message', 2);
+        perform f_create_partitions('account_balances', 2);
+    end if;
+end
+$$;
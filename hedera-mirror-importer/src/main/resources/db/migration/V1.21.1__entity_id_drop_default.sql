@@ -0,0 +1,3 @@
+-- The ids of t_entities are the encoded shard, realm and number of the entity since V1.21.0 instead of coming from a
+-- sequence. Dropped in a SQL migration, since the REST and gRPC tests only run the SQL migrations.
+alter table t_entities alter column id drop default;
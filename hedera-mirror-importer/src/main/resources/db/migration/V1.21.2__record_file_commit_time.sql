@@ -0,0 +1,5 @@
+-- The time the importer committed the record file, in milliseconds since the epoch. Set by the importer right before
+-- the group of files it belongs to is committed, unlike load_end which only has a resolution of seconds and is set when
+-- the file is closed.
+alter table t_record_files
+    add column if not exists commit_ms bigint;
@@ -1,4 +1,5 @@
 -- Functions to drop/recreate costly constraints and indexes. Useful when bulk loading data.
+-- Primary keys are added with ADD CONSTRAINT since ADD PRIMARY KEY USING INDEX is not supported on partitioned tables.
 
 CREATE OR REPLACE FUNCTION drop_constraints_and_indexes() RETURNS void AS
 $$
@@ -48,9 +49,8 @@ CREATE OR REPLACE FUNCTION create_topic_message_constraints_and_indexes() RETURN
 $$
 DECLARE
 BEGIN
-    CREATE UNIQUE INDEX IF NOT EXISTS topic_message_pkey ON topic_message (consensus_timestamp);
     ALTER TABLE topic_message
-        ADD PRIMARY KEY USING INDEX topic_message_pkey;
+        ADD CONSTRAINT topic_message_pkey PRIMARY KEY (consensus_timestamp);
     CREATE INDEX IF NOT EXISTS topic_message__realm_num_timestamp ON topic_message (realm_num, topic_num, consensus_timestamp);
 END;
 $$ LANGUAGE plpgsql;
@@ -139,9 +139,8 @@ CREATE OR REPLACE FUNCTION create_t_transactions_constraints_and_indexes() RETUR
 $$
 DECLARE
 BEGIN
-    CREATE UNIQUE INDEX pk__t_transactions__consensus_ns ON t_transactions (consensus_ns);
     ALTER TABLE t_transactions
-        ADD PRIMARY KEY USING INDEX pk__t_transactions__consensus_ns;
+        ADD CONSTRAINT pk__t_transactions__consensus_ns PRIMARY KEY (consensus_ns);
     CREATE INDEX IF NOT EXISTS idx__t_transactions__transaction_id ON t_transactions (valid_start_ns, fk_payer_acc_id);
     CREATE INDEX IF NOT EXISTS idx_t_transactions_node_account ON t_transactions (fk_node_acc_id);
     CREATE INDEX IF NOT EXISTS idx_t_transactions_payer_id ON t_transactions (fk_payer_acc_id);
@@ -199,11 +198,8 @@ CREATE OR REPLACE FUNCTION create_account_balances_constraints_and_indexes() RET
 $$
 DECLARE
 BEGIN
-    CREATE UNIQUE INDEX IF NOT EXISTS pk__account_balances
-        ON account_balances (consensus_timestamp, account_realm_num,
-                             account_num);
     ALTER TABLE account_balances
-        ADD PRIMARY KEY USING INDEX pk__account_balances;
+        ADD CONSTRAINT pk__account_balances PRIMARY KEY (consensus_timestamp, account_realm_num, account_num);
     CREATE INDEX IF NOT EXISTS idx__account_balances__account_then_timestamp
         ON account_balances (account_realm_num DESC, account_num DESC,
                              consensus_timestamp DESC);
@@ -0,0 +1,97 @@
+package com.hedera.mirror.importer.db;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@ExtendWith(MockitoExtension.class)
+public class PartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PartitionProperties partitionProperties;
+    private PartitionManager partitionManager;
+
+    @BeforeEach
+    void beforeEach() {
+        partitionProperties = new PartitionProperties();
+        partitionManager = new PartitionManager(partitionProperties, jdbcTemplate);
+    }
+
+    @Test
+    void schedulesAtFrequency() {
+        partitionProperties.setFrequency(Duration.ofHours(1L));
+        ScheduledTaskRegistrar taskRegistrar = new ScheduledTaskRegistrar();
+        partitionManager.configureTasks(taskRegistrar);
+
+        assertThat(taskRegistrar.getFixedRateTaskList())
+                .hasSize(1)
+                .extracting(IntervalTask::getInterval)
+                .containsExactly(Duration.ofHours(1L).toMillis());
+    }
+
+    @Test
+    void createPartitions() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any())).thenReturn(0);
+        partitionProperties.setMonthsAhead(3);
+        partitionManager.createPartitions();
+
+        for (String table : PartitionManager.PARTITIONED_TABLES) {
+            verify(jdbcTemplate).queryForObject("select f_create_partitions(?, ?)", Integer.class, table, 3);
+        }
+    }
+
+    @Test
+    void continuesAfterError() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any()))
+                .thenThrow(new IllegalStateException("error"))
+                .thenReturn(1);
+        partitionManager.createPartitions();
+
+        for (String table : PartitionManager.PARTITIONED_TABLES) {
+            verify(jdbcTemplate).queryForObject(anyString(), eq(Integer.class), eq(table), anyInt());
+        }
+    }
+
+    @Test
+    void disabled() {
+        partitionProperties.setEnabled(false);
+        partitionManager.createPartitions();
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Integer.class), any(), any());
+    }
+}
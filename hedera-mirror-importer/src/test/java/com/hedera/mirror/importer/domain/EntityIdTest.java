@@ -0,0 +1,68 @@
+package com.hedera.mirror.importer.domain;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class EntityIdTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0, 0, 0",
+            "0, 0, 10, 10",
+            "0, 0, 4294967295, 4294967295",
+            "0, 1, 0, 4294967296",
+            "0, 65535, 0, 281470681743360",
+            "1, 0, 0, 281474976710656",
+            "32767, 0, 0, 9223090561878065152",
+            "32767, 65535, 4294967295, 9223372036854775807"
+    })
+    void encode(long shard, long realm, long num, long encodedId) {
+        assertThat(EntityId.encode(shard, realm, num)).isEqualTo(encodedId);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "-1, 0, 0",
+            "0, -1, 0",
+            "0, 0, -1",
+            "32768, 0, 0",
+            "0, 65536, 0",
+            "0, 0, 4294967296"
+    })
+    void encodeOutOfRange(long shard, long realm, long num) {
+        assertThatThrownBy(() -> EntityId.encode(shard, realm, num))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(shard + "." + realm + "." + num);
+    }
+
+    @Test
+    void of() {
+        EntityId entityId = EntityId.of(1, 2, 3, EntityTypeEnum.ACCOUNT);
+        assertThat(entityId.getId()).isEqualTo(EntityId.encode(1, 2, 3));
+        assertThat(entityId.getEntityTypeId()).isEqualTo(EntityTypeEnum.ACCOUNT.getId());
+    }
+}
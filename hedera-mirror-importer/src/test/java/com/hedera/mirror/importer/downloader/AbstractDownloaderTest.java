@@ -30,6 +30,7 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -91,6 +92,10 @@ public abstract class AbstractDownloaderTest {
         return path.toString().endsWith("_sig");
     }
 
+    private boolean isLastNode(Path path) {
+        return path.toFile().isFile() && path.getParent().getFileName().toString().endsWith("0.0.6");
+    }
+
     @BeforeEach
     void beforeEach(TestInfo testInfo) {
         System.out.println("Before test: " + testInfo.getTestMethod().get().getName());
@@ -175,6 +180,7 @@ public abstract class AbstractDownloaderTest {
     }
 
     protected void testMaxDownloadItemsReached(String filename) throws Exception {
+        commonDownloaderProperties.setCatchUp(false);
         fileCopier.copy();
         downloader.download();
         assertValidFiles(List.of(filename));
@@ -196,6 +202,21 @@ public abstract class AbstractDownloaderTest {
         assertNoFilesinValidPath();
     }
 
+    @Test
+    @DisplayName("Data files only on nodes whose signatures weren't verified")
+    void dataFilesOnUnverifiedNodes() throws Exception {
+        // Consensus is reached by the signatures of the first nodes, so the last node's are left unverified
+        fileCopier.filterFiles(file -> isSigFile(file.toPath()) || isLastNode(file.toPath())).copy();
+        downloader.download();
+
+        List<String> dataFiles = Files.walk(s3Path)
+                .filter(p -> isLastNode(p) && !isSigFile(p))
+                .map(p -> p.getFileName().toString())
+                .collect(Collectors.toList());
+        assertThat(dataFiles).isNotEmpty();
+        assertValidFiles(dataFiles);
+    }
+
     @Test
     @DisplayName("Less than 1/3 signatures")
     void lessThanOneThirdSignatures() throws Exception {
@@ -0,0 +1,122 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DownloadCacheTest {
+
+    private static final String KEY1 = "recordstreams/record0.0.3/2019-08-30T18_10_00.419072Z.rcd";
+    private static final String KEY2 = "recordstreams/record0.0.3/2019-08-30T18_10_05.249678Z.rcd";
+    private static final String ETAG = "\"d41d8cd98f00b204e9800998ecf8427e\"";
+
+    @TempDir
+    Path tempDir;
+
+    private Path cachePath;
+    private Path source;
+    private Path destination;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        cachePath = tempDir.resolve("cache");
+        source = Files.write(tempDir.resolve("source"), new byte[] {1, 2, 3});
+        destination = tempDir.resolve("destination");
+    }
+
+    @Test
+    void hit() throws Exception {
+        DownloadCache downloadCache = new DownloadCache(cachePath, 100);
+        downloadCache.put(KEY1, ETAG, source);
+        assertThat(downloadCache.get(KEY1, ETAG, destination)).isTrue();
+        assertThat(destination).hasBinaryContent(new byte[] {1, 2, 3});
+        assertThat(downloadCache.getSize()).isEqualTo(3);
+    }
+
+    @Test
+    void linksInsteadOfCopying() throws Exception {
+        DownloadCache downloadCache = new DownloadCache(cachePath, 100);
+        downloadCache.put(KEY1, ETAG, source);
+        assertThat(downloadCache.get(KEY1, ETAG, destination)).isTrue();
+        assertThat(Files.isSameFile(source, destination)).isTrue();
+    }
+
+    @Test
+    void hitAfterSourceDeleted() throws Exception {
+        DownloadCache downloadCache = new DownloadCache(cachePath, 100);
+        downloadCache.put(KEY1, ETAG, source);
+        Files.delete(source);
+        assertThat(downloadCache.get(KEY1, ETAG, destination)).isTrue();
+        assertThat(destination).hasBinaryContent(new byte[] {1, 2, 3});
+    }
+
+    @Test
+    void miss() {
+        DownloadCache downloadCache = new DownloadCache(cachePath, 100);
+        downloadCache.put(KEY1, ETAG, source);
+        assertThat(downloadCache.get(KEY2, ETAG, destination)).isFalse();
+        assertThat(downloadCache.get(KEY1, "\"other\"", destination)).isFalse();
+        assertThat(destination).doesNotExist();
+    }
+
+    @Test
+    void overwritesDestination() throws Exception {
+        Files.write(destination, new byte[] {9, 9, 9, 9});
+        DownloadCache downloadCache = new DownloadCache(cachePath, 100);
+        downloadCache.put(KEY1, ETAG, source);
+        assertThat(downloadCache.get(KEY1, ETAG, destination)).isTrue();
+        assertThat(destination).hasBinaryContent(new byte[] {1, 2, 3});
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        DownloadCache downloadCache = new DownloadCache(cachePath, 5);
+        downloadCache.put(KEY1, ETAG, source);
+        downloadCache.put(KEY2, ETAG, source);
+        assertThat(downloadCache.get(KEY1, ETAG, destination)).isFalse();
+        assertThat(downloadCache.get(KEY2, ETAG, destination)).isTrue();
+        assertThat(downloadCache.getSize()).isEqualTo(3);
+    }
+
+    @Test
+    void survivesRestart() {
+        new DownloadCache(cachePath, 100).put(KEY1, ETAG, source);
+        DownloadCache downloadCache = new DownloadCache(cachePath, 100);
+        assertThat(downloadCache.getSize()).isEqualTo(3);
+        assertThat(downloadCache.get(KEY1, ETAG, destination)).isTrue();
+    }
+
+    @Test
+    void deletesPartiallyWrittenFilesOnRestart() throws Exception {
+        Path partial = cachePath.resolve("partial" + DownloadCache.TEMP_SUFFIX);
+        Files.createDirectories(cachePath);
+        Files.write(partial, new byte[] {1, 2});
+        DownloadCache downloadCache = new DownloadCache(cachePath, 100);
+        assertThat(partial).doesNotExist();
+        assertThat(downloadCache.getSize()).isZero();
+    }
+}
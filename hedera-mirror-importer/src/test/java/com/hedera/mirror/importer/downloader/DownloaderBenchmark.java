@@ -0,0 +1,199 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.mockito.Answers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+import com.hedera.mirror.importer.FileCopier;
+import com.hedera.mirror.importer.MirrorProperties;
+import com.hedera.mirror.importer.addressbook.NetworkAddressBook;
+import com.hedera.mirror.importer.config.MirrorImporterConfiguration;
+import com.hedera.mirror.importer.domain.HederaNetwork;
+import com.hedera.mirror.importer.domain.StreamType;
+import com.hedera.mirror.importer.downloader.balance.AccountBalancesDownloader;
+import com.hedera.mirror.importer.downloader.balance.BalanceDownloaderProperties;
+import com.hedera.mirror.importer.downloader.record.RecordDownloaderProperties;
+import com.hedera.mirror.importer.downloader.record.RecordFileDownloader;
+import com.hedera.mirror.importer.repository.ApplicationStatusRepository;
+import com.hedera.mirror.importer.util.Utility;
+
+/**
+ * Measures the files per second and the latency of downloading and verifying the test record and balance files from
+ * every node through {@link SimulatedS3Server}, with added request latency, throttling and one lagging node. Each
+ * invocation starts from an empty valid directory with the download cache disabled, so every file is transferred
+ * again. Use it to compare settings like maxConcurrency, threads and batchSize before changing them in production,
+ * e.g. by running main() from the test classpath with {@code -p threads=4,13 -p maxConcurrency=50,1000}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OperationsPerInvocation(DownloaderBenchmark.FILES)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+public class DownloaderBenchmark {
+
+    static final int FILES = 2; // The number of valid files of each stream type in the test data
+
+    private static final String BUCKET = "test";
+    private static final String LAGGING_NODE = "0.0.3";
+
+    @Param({"RECORD", "BALANCE"})
+    private StreamType streamType;
+
+    @Param({"0", "50"})
+    private long latencyMillis;
+
+    @Param({"0.0", "0.05"})
+    private double errorRate;
+
+    @Param({"500"})
+    private long laggingNodeLatencyMillis;
+
+    @Param({"1000"})
+    private int maxConcurrency;
+
+    @Param({"13"})
+    private int threads;
+
+    @Param({"100"})
+    private int batchSize;
+
+    @Param({"false"})
+    private boolean tipFollowing;
+
+    private Path tempDir;
+    private SimulatedS3Server server;
+    private DownloaderProperties downloaderProperties;
+    private Downloader downloader;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(DownloaderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        tempDir = Files.createTempDirectory("downloader-benchmark");
+        Path s3Path = tempDir.resolve("s3");
+        String source = streamType == StreamType.RECORD ? "recordstreams/v2" : "accountBalances";
+        FileCopier.create(Utility.getResource("data").toPath(), s3Path)
+                .from(source)
+                .to(BUCKET, streamType.getPath())
+                .copy();
+
+        MirrorProperties mirrorProperties = new MirrorProperties();
+        mirrorProperties.setDataPath(tempDir.resolve("data"));
+        mirrorProperties.setNetwork(HederaNetwork.TESTNET);
+
+        CommonDownloaderProperties commonProperties = new CommonDownloaderProperties();
+        commonProperties.setAccessKey("x");
+        commonProperties.setBucketName(BUCKET);
+        commonProperties.setCacheMaxSize(DataSize.ofBytes(0));
+        commonProperties.setCloudProvider(CommonDownloaderProperties.CloudProvider.LOCAL);
+        commonProperties.setMaxConcurrency(maxConcurrency);
+        commonProperties.setSecretKey("x");
+        commonProperties.setTipFollowing(tipFollowing);
+
+        S3AsyncClient s3AsyncClient = new MirrorImporterConfiguration(commonProperties).s3AsyncClient();
+        NetworkAddressBook networkAddressBook = new NetworkAddressBook(mirrorProperties);
+        ApplicationStatusRepository applicationStatusRepository = mock(ApplicationStatusRepository.class,
+                Answers.RETURNS_SMART_NULLS);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StreamMetrics streamMetrics = new StreamMetrics(mirrorProperties, meterRegistry);
+
+        if (streamType == StreamType.RECORD) {
+            RecordDownloaderProperties properties = new RecordDownloaderProperties(mirrorProperties, commonProperties);
+            properties.setBatchSize(batchSize);
+            properties.setThreads(threads);
+            properties.init();
+            downloaderProperties = properties;
+            downloader = new RecordFileDownloader(s3AsyncClient, applicationStatusRepository, networkAddressBook,
+                    properties, meterRegistry, new VerifiedFileHashes(), streamMetrics);
+        } else {
+            BalanceDownloaderProperties properties = new BalanceDownloaderProperties(mirrorProperties,
+                    commonProperties);
+            properties.setBatchSize(batchSize);
+            properties.setThreads(threads);
+            properties.init();
+            downloaderProperties = properties;
+            downloader = new AccountBalancesDownloader(s3AsyncClient, applicationStatusRepository,
+                    networkAddressBook, properties, meterRegistry, new VerifiedFileHashes(), streamMetrics);
+        }
+
+        SimulatedS3Server.Faults faults = SimulatedS3Server.Faults.builder()
+                .errorRate(errorRate)
+                .latency(Duration.ofMillis(latencyMillis))
+                .build();
+        SimulatedS3Server.Faults laggingNodeFaults = faults.toBuilder()
+                .latency(Duration.ofMillis(latencyMillis + laggingNodeLatencyMillis))
+                .build();
+        server = new SimulatedS3Server(8001, s3Path)
+                .faults("", faults)
+                .faults(downloaderProperties.getPrefix() + LAGGING_NODE + "/", laggingNodeFaults)
+                .start();
+    }
+
+    @Setup(Level.Invocation)
+    public void clean() {
+        Utility.purgeDirectory(downloaderProperties.getValidPath());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        server.close();
+        FileUtils.deleteDirectory(tempDir.toFile());
+    }
+
+    @Benchmark
+    public void download() {
+        downloader.download();
+    }
+}
@@ -0,0 +1,173 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hedera.mirror.importer.domain.FileStreamSignature;
+
+public class NodeScoreboardTest {
+
+    private static final String NODE1 = "0.0.3";
+    private static final String NODE2 = "0.0.4";
+    private static final String NODE3 = "0.0.5";
+
+    private final AtomicLong nanoTime = new AtomicLong(0L);
+    private MeterRegistry meterRegistry;
+    private NodeScoreboard nodeScoreboard;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        nodeScoreboard = new NodeScoreboard(meterRegistry, "record", nanoTime::get);
+    }
+
+    @Test
+    void keepsOrderWithoutStatistics() {
+        assertThat(sort(NODE1, NODE2, NODE3)).containsExactly(NODE1, NODE2, NODE3);
+    }
+
+    @Test
+    void unknownNodesFirst() {
+        nodeScoreboard.success(NODE1, Duration.ofMillis(10), 1000);
+        assertThat(sort(NODE1, NODE2)).containsExactly(NODE2, NODE1);
+    }
+
+    @Test
+    void fastestFirst() {
+        nodeScoreboard.success(NODE1, Duration.ofMillis(300), 1000);
+        nodeScoreboard.success(NODE2, Duration.ofMillis(100), 1000);
+        nodeScoreboard.success(NODE3, Duration.ofMillis(200), 1000);
+        assertThat(sort(NODE1, NODE2, NODE3)).containsExactly(NODE2, NODE3, NODE1);
+    }
+
+    @Test
+    void failuresLast() {
+        nodeScoreboard.success(NODE1, Duration.ofMillis(10), 1000);
+        nodeScoreboard.failure(NODE1);
+        nodeScoreboard.success(NODE2, Duration.ofMillis(100), 1000);
+        assertThat(sort(NODE1, NODE2)).containsExactly(NODE2, NODE1);
+    }
+
+    @Test
+    void hashMismatchesLast() {
+        nodeScoreboard.success(NODE1, Duration.ofMillis(10), 1000);
+        nodeScoreboard.hashMismatch(NODE1);
+        nodeScoreboard.success(NODE2, Duration.ofMillis(100), 1000);
+        nodeScoreboard.hashMatch(NODE2);
+        assertThat(sort(NODE1, NODE2)).containsExactly(NODE2, NODE1);
+    }
+
+    @Test
+    void slowNodesBeforeFailingNode() {
+        nodeScoreboard.success(NODE1, Duration.ofSeconds(5), 1000);
+        nodeScoreboard.success(NODE2, Duration.ofSeconds(3), 1000);
+        for (int i = 0; i < 5; i++) {
+            nodeScoreboard.failure(NODE3);
+        }
+        assertThat(sort(NODE3, NODE1, NODE2)).containsExactly(NODE2, NODE1, NODE3);
+    }
+
+    @Test
+    void failuresForgotten() {
+        nodeScoreboard.success(NODE1, Duration.ofMillis(100), 1000);
+        nodeScoreboard.failure(NODE1);
+        nodeScoreboard.failure(NODE1);
+        nodeScoreboard.success(NODE2, Duration.ofMillis(500), 1000);
+        nodeScoreboard.failure(NODE3);
+        assertThat(sort(NODE1, NODE2, NODE3)).containsExactly(NODE2, NODE1, NODE3);
+
+        nanoTime.addAndGet(NodeScoreboard.FAILURE_HALF_LIFE.multipliedBy(12).toNanos());
+        assertThat(sort(NODE1, NODE2, NODE3)).containsExactly(NODE3, NODE1, NODE2);
+
+        // Failing again demotes the node until its failures are forgotten again
+        nodeScoreboard.failure(NODE3);
+        assertThat(sort(NODE1, NODE2, NODE3)).containsExactly(NODE1, NODE2, NODE3);
+    }
+
+    @Test
+    void recovers() {
+        nodeScoreboard.failure(NODE1);
+        nodeScoreboard.success(NODE2, Duration.ofMillis(100), 1000);
+        for (int i = 0; i < 20; i++) {
+            nodeScoreboard.success(NODE1, Duration.ofMillis(10), 1000);
+        }
+        assertThat(sort(NODE1, NODE2)).containsExactly(NODE1, NODE2);
+    }
+
+    @Test
+    void metrics() {
+        nodeScoreboard.success(NODE1, Duration.ofSeconds(1), 1000);
+        nodeScoreboard.failure(NODE1);
+        assertThat(meterRegistry.get("hedera.mirror.download.node.latency").tag("node", NODE1).timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("hedera.mirror.download.node.throughput").tag("node", NODE1).gauge().value())
+                .isEqualTo(1000.0);
+        assertThat(meterRegistry.get("hedera.mirror.download.node.failures").tag("node", NODE1).gauge().value())
+                .isEqualTo(NodeScoreboard.WEIGHT);
+    }
+
+    @Test
+    void concurrentScoreReads() {
+        nodeScoreboard.success(NODE1, Duration.ofSeconds(1), 1000);
+        nodeScoreboard.success(NODE2, Duration.ofSeconds(2), 1000);
+        Gauge score1 = meterRegistry.get("hedera.mirror.download.node.score").tag("node", NODE1).gauge();
+        Gauge score2 = meterRegistry.get("hedera.mirror.download.node.score").tag("node", NODE2).gauge();
+
+        // Reading the scores of two nodes at the same time used to lock their stats in opposite orders
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            CompletableFuture<Void> reads = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    score1.value();
+                }
+            });
+            for (int i = 0; i < 100_000; i++) {
+                score2.value();
+            }
+            reads.join();
+        });
+
+        assertThat(score1.value()).isEqualTo(1.0);
+        assertThat(score2.value()).isEqualTo(2.0);
+    }
+
+    private List<String> sort(String... nodes) {
+        List<FileStreamSignature> signatures = Stream.of(nodes).map(node -> {
+            FileStreamSignature signature = new FileStreamSignature();
+            signature.setNode(node);
+            return signature;
+        }).collect(Collectors.toList());
+        return nodeScoreboard.sort(signatures).stream().map(FileStreamSignature::getNode).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,120 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.hedera.mirror.importer.MirrorProperties;
+import com.hedera.mirror.importer.addressbook.NetworkAddressBook;
+import com.hedera.mirror.importer.domain.FileStreamSignature;
+import com.hedera.mirror.importer.domain.FileStreamSignature.SignatureStatus;
+import com.hedera.mirror.importer.domain.HederaNetwork;
+import com.hedera.mirror.importer.util.Utility;
+
+public class NodeSignatureVerifierTest {
+
+    private static final List<String> NODES = List.of("0.0.3", "0.0.4", "0.0.5", "0.0.6");
+    private static final String SIGNATURE_FILE = "2019-08-30T18_10_00.419072Z.rcd_sig";
+
+    @TempDir
+    Path dataPath;
+    private NetworkAddressBook networkAddressBook;
+    private int quorum;
+
+    @BeforeEach
+    void beforeEach() {
+        MirrorProperties mirrorProperties = new MirrorProperties();
+        mirrorProperties.setDataPath(dataPath);
+        mirrorProperties.setNetwork(HederaNetwork.TESTNET);
+        networkAddressBook = new NetworkAddressBook(mirrorProperties);
+        quorum = (int) Math.ceil(networkAddressBook.load().size() / 3.0);
+        assertThat(quorum).isLessThan(NODES.size());
+    }
+
+    @Test
+    void stopsAtQuorum() throws Exception {
+        List<FileStreamSignature> signatures = signatures();
+        new NodeSignatureVerifier(networkAddressBook).verify(signatures);
+
+        assertThat(signatures.subList(0, quorum))
+                .extracting(FileStreamSignature::getStatus)
+                .containsOnly(SignatureStatus.CONSENSUS_REACHED);
+        assertNotVerified(signatures.subList(quorum, signatures.size()));
+    }
+
+    @Test
+    void skipsInvalidSignaturesUntilQuorum() throws Exception {
+        List<FileStreamSignature> signatures = signatures();
+        signatures.get(0).setFile(dataPath.resolve(SIGNATURE_FILE).toFile()); // Doesn't exist
+
+        new NodeSignatureVerifier(networkAddressBook).verify(signatures);
+
+        assertThat(signatures.get(0).getStatus()).isEqualTo(SignatureStatus.DOWNLOADED);
+        assertThat(signatures.subList(1, quorum + 1))
+                .extracting(FileStreamSignature::getStatus)
+                .containsOnly(SignatureStatus.CONSENSUS_REACHED);
+        assertNotVerified(signatures.subList(quorum + 1, signatures.size()));
+    }
+
+    @Test
+    void verifiesStragglersLater() throws Exception {
+        List<Runnable> stragglerTasks = new ArrayList<>();
+        List<FileStreamSignature> signatures = signatures();
+        new NodeSignatureVerifier(networkAddressBook, stragglerTasks::add).verify(signatures);
+
+        // The stragglers are verified on the straggler executor, which only logs and doesn't update their status
+        assertThat(stragglerTasks).hasSize(1);
+        assertNotVerified(signatures.subList(quorum, signatures.size()));
+        stragglerTasks.get(0).run();
+        assertNotVerified(signatures.subList(quorum, signatures.size()));
+    }
+
+    // The signatures past the quorum are left as downloaded without even being parsed
+    private void assertNotVerified(List<FileStreamSignature> signatures) {
+        assertThat(signatures)
+                .isNotEmpty()
+                .allSatisfy(s -> {
+                    assertThat(s.getStatus()).isEqualTo(SignatureStatus.DOWNLOADED);
+                    assertThat(s.getHash()).isNull();
+                    assertThat(s.getSignature()).isNull();
+                });
+    }
+
+    private List<FileStreamSignature> signatures() {
+        List<FileStreamSignature> signatures = new ArrayList<>();
+        for (String node : NODES) {
+            File file = Utility.getResource("data/recordstreams/v2/record" + node + "/" + SIGNATURE_FILE);
+            FileStreamSignature fileStreamSignature = new FileStreamSignature();
+            fileStreamSignature.setFile(file);
+            fileStreamSignature.setNode(node);
+            signatures.add(fileStreamSignature);
+        }
+        return signatures;
+    }
+}
@@ -0,0 +1,95 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class S3RequestEventTest {
+
+    private static final String EVENT_NAME = "com.hedera.mirror.importer.S3Request";
+    private static final String KEY = "recordstreams/record0.0.3/2019-08-30T18_10_00.419072Z.rcd";
+
+    @TempDir
+    Path tempDir;
+
+    private Recording recording;
+
+    @BeforeEach
+    void beforeEach() {
+        recording = new Recording();
+        recording.enable(EVENT_NAME);
+        recording.start();
+    }
+
+    @AfterEach
+    void afterEach() {
+        recording.close();
+    }
+
+    @Test
+    void success() throws Exception {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        assertThat(S3RequestEvent.start("GetObject", KEY, "bytes=0-2").track(future, String::length))
+                .isSameAs(future);
+        assertThat(events()).isEmpty();
+
+        future.complete("abc");
+        List<RecordedEvent> events = events();
+        assertThat(events).hasSize(1);
+        RecordedEvent event = events.get(0);
+        assertThat(event.getString("operation")).isEqualTo("GetObject");
+        assertThat(event.getString("key")).isEqualTo(KEY);
+        assertThat(event.getString("range")).isEqualTo("bytes=0-2");
+        assertThat(event.getLong("bytes")).isEqualTo(3L);
+        assertThat(event.getBoolean("success")).isTrue();
+    }
+
+    @Test
+    void failure() throws Exception {
+        CompletableFuture<String> future = CompletableFuture.failedFuture(new IllegalStateException());
+        S3RequestEvent.start("ListObjects", KEY, null).track(future);
+
+        List<RecordedEvent> events = events();
+        assertThat(events).hasSize(1);
+        RecordedEvent event = events.get(0);
+        assertThat(event.getString("operation")).isEqualTo("ListObjects");
+        assertThat(event.getString("range")).isNull();
+        assertThat(event.getLong("bytes")).isZero();
+        assertThat(event.getBoolean("success")).isFalse();
+    }
+
+    private List<RecordedEvent> events() throws Exception {
+        Path file = tempDir.resolve("recording.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file);
+    }
+}
@@ -0,0 +1,369 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * An embeddable HTTP server implementing the subset of the S3 API the downloaders use, ListObjects (v1) and GetObject
+ * with byte ranges, over a directory laid out like S3Mock's: one sub-directory per bucket containing the keys as
+ * paths. Unlike S3Mock, {@link Faults} can be configured per key prefix to reproduce production conditions like slow
+ * requests, limited bandwidth, throttling, truncated objects and eventually consistent listings.
+ */
+@Log4j2
+public class SimulatedS3Server implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+
+    private final Path root;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Faults> faults = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    public SimulatedS3Server(int port, Path root) throws IOException {
+        this.root = root;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public SimulatedS3Server start() {
+        server.start();
+        log.info("Started simulated S3 server on {} serving {}", server.getAddress(), root);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Applies the faults to the requests for the keys starting with the prefix, replacing any set before for it. When
+     * several prefixes match a key, the longest one applies.
+     */
+    public SimulatedS3Server faults(String prefix, Faults prefixFaults) {
+        faults.put(prefix, prefixFaults);
+        return this;
+    }
+
+    public void clearFaults() {
+        faults.clear();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "MethodNotAllowed", "Only GET is supported");
+                return;
+            }
+
+            // Support both path style and virtual host style addressing
+            URI uri = exchange.getRequestURI();
+            String path = StringUtils.removeStart(uri.getPath(), "/");
+            String host = StringUtils.defaultString(exchange.getRequestHeaders().getFirst("Host"));
+            String bucket;
+            String key;
+            if (host.contains(".") && !Character.isDigit(host.charAt(0))) {
+                bucket = StringUtils.substringBefore(host, ".");
+                key = path;
+            } else {
+                bucket = StringUtils.substringBefore(path, "/");
+                key = StringUtils.substringAfter(path, "/");
+            }
+
+            Map<String, String> query = parseQuery(uri.getRawQuery());
+            String faultKey = key.isEmpty() ? query.getOrDefault("prefix", "") : key;
+            Faults requestFaults = getFaults(faultKey);
+            Thread.sleep(requestFaults.getLatency().toMillis());
+
+            if (ThreadLocalRandom.current().nextDouble() < requestFaults.getErrorRate()) {
+                injectedErrors.incrementAndGet();
+                sendError(exchange, 503, "SlowDown", "Please reduce your request rate.");
+            } else if (key.isEmpty()) {
+                listObjects(exchange, bucket, query, requestFaults);
+            } else {
+                getObject(exchange, bucket, key, requestFaults);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Error handling {}", exchange.getRequestURI(), e);
+        } finally {
+            exchange.close(); // Fails and drops the connection if fewer bytes than declared were sent
+        }
+    }
+
+    private void listObjects(HttpExchange exchange, String bucket, Map<String, String> query, Faults requestFaults)
+            throws Exception {
+        Path bucketPath = root.resolve(bucket);
+        if (!Files.isDirectory(bucketPath)) {
+            sendError(exchange, 404, "NoSuchBucket", "The specified bucket does not exist");
+            return;
+        }
+
+        String prefix = query.getOrDefault("prefix", "");
+        String marker = query.getOrDefault("marker", "");
+        String delimiter = query.get("delimiter");
+        int maxKeys = Integer.parseInt(query.getOrDefault("max-keys", "1000"));
+        Instant visibleBefore = Instant.now().minus(requestFaults.getConsistencyDelay());
+
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(bucketPath)) {
+            files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+
+        TreeSet<String> keys = new TreeSet<>();
+        Map<String, Path> keyPaths = new HashMap<>();
+        TreeSet<String> commonPrefixes = new TreeSet<>();
+        for (Path file : files) {
+            String key = bucketPath.relativize(file).toString().replace(File.separatorChar, '/');
+            if (!key.startsWith(prefix) || key.compareTo(marker) <= 0 ||
+                    Files.getLastModifiedTime(file).toInstant().isAfter(visibleBefore)) {
+                continue;
+            }
+
+            int index = delimiter != null ? key.indexOf(delimiter, prefix.length()) : -1;
+            if (index >= 0) {
+                commonPrefixes.add(key.substring(0, index + delimiter.length()));
+            } else {
+                keys.add(key);
+                keyPaths.put(key, file);
+            }
+        }
+
+        StringBuilder xml = new StringBuilder(XML_HEADER)
+                .append("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+                .append(element("Name", bucket))
+                .append(element("Prefix", prefix))
+                .append(element("Marker", marker))
+                .append(element("MaxKeys", String.valueOf(maxKeys)))
+                .append(element("IsTruncated", String.valueOf(keys.size() > maxKeys)));
+
+        keys.stream().limit(maxKeys).forEach(key -> {
+            File file = keyPaths.get(key).toFile();
+            xml.append("<Contents>")
+                    .append(element("Key", key))
+                    .append(element("LastModified", DateTimeFormatter.ISO_INSTANT
+                            .format(Instant.ofEpochMilli(file.lastModified()))))
+                    .append(element("ETag", eTag(file)))
+                    .append(element("Size", String.valueOf(file.length())))
+                    .append(element("StorageClass", "STANDARD"))
+                    .append("</Contents>");
+        });
+        commonPrefixes.forEach(commonPrefix -> xml.append("<CommonPrefixes>")
+                .append(element("Prefix", commonPrefix))
+                .append("</CommonPrefixes>"));
+        xml.append("</ListBucketResult>");
+
+        send(exchange, 200, "application/xml", xml.toString().getBytes(StandardCharsets.UTF_8), requestFaults);
+    }
+
+    private void getObject(HttpExchange exchange, String bucket, String key, Faults requestFaults) throws Exception {
+        File file = root.resolve(bucket).resolve(key.replace('/', File.separatorChar)).toFile();
+        Instant visibleBefore = Instant.now().minus(requestFaults.getConsistencyDelay());
+        if (!file.isFile() || Instant.ofEpochMilli(file.lastModified()).isAfter(visibleBefore)) {
+            sendError(exchange, 404, "NoSuchKey", "The specified key does not exist.");
+            return;
+        }
+
+        long length = file.length();
+        long start = 0;
+        long end = length - 1;
+        int status = 200;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null && range.startsWith("bytes=")) {
+            String[] bounds = range.substring("bytes=".length()).split("-", -1);
+            start = Long.parseLong(bounds[0]);
+            end = bounds[1].isEmpty() ? end : Math.min(Long.parseLong(bounds[1]), end);
+            if (start > end) {
+                sendError(exchange, 416, "InvalidRange", "The requested range is not satisfiable");
+                return;
+            }
+            status = 206;
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        }
+
+        byte[] content = new byte[(int) (end - start + 1)];
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            randomAccessFile.seek(start);
+            randomAccessFile.readFully(content);
+        }
+
+        exchange.getResponseHeaders().set("ETag", eTag(file));
+        exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        send(exchange, status, "application/octet-stream", content, requestFaults);
+    }
+
+    private void sendError(HttpExchange exchange, int status, String code, String message) throws IOException {
+        String xml = XML_HEADER + "<Error>" + element("Code", code) + element("Message", message) + "</Error>";
+        send(exchange, status, "application/xml", xml.getBytes(StandardCharsets.UTF_8), Faults.NONE);
+    }
+
+    /**
+     * Sends the body at the configured bandwidth. A truncated response declares the full length but stops half way,
+     * which closes the connection like a dropped transfer.
+     */
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body, Faults requestFaults)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length > 0 ? body.length : -1);
+        if (body.length == 0) {
+            return;
+        }
+
+        boolean truncate = status / 100 == 2 && ThreadLocalRandom.current().nextDouble() < requestFaults
+                .getTruncateRate();
+        int length = truncate ? body.length / 2 : body.length;
+        if (truncate) {
+            injectedErrors.incrementAndGet();
+        }
+
+        OutputStream outputStream = exchange.getResponseBody();
+        long bandwidth = requestFaults.getBandwidth();
+        long startNanos = System.nanoTime();
+        for (int offset = 0; offset < length; offset += CHUNK_SIZE) {
+            int chunk = Math.min(CHUNK_SIZE, length - offset);
+
+            // Hold each chunk back until it would have been fully transferred at the configured bandwidth
+            if (bandwidth > 0) {
+                long expectedNanos = (offset + chunk) * 1_000_000_000L / bandwidth;
+                long sleepNanos = expectedNanos - (System.nanoTime() - startNanos);
+                if (sleepNanos > 0) {
+                    try {
+                        Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+
+            outputStream.write(body, offset, chunk);
+            outputStream.flush();
+        }
+    }
+
+    private Faults getFaults(String key) {
+        return faults.entrySet().stream()
+                .filter(entry -> key.startsWith(entry.getKey()))
+                .max(Map.Entry.comparingByKey((a, b) -> Integer.compare(a.length(), b.length())))
+                .map(Map.Entry::getValue)
+                .orElse(Faults.NONE);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (StringUtils.isNotEmpty(rawQuery)) {
+            for (String parameter : rawQuery.split("&")) {
+                String name = StringUtils.substringBefore(parameter, "=");
+                String value = StringUtils.substringAfter(parameter, "=");
+                query.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                        URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static String eTag(File file) {
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            return "\"" + Hex.encodeHexString(md5.digest(Files.readAllBytes(file.toPath()))) + "\"";
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String element(String name, String value) {
+        String escaped = value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        return "<" + name + ">" + escaped + "</" + name + ">";
+    }
+
+    /**
+     * The conditions to simulate for the requests of a prefix. Errors are throttling responses (503 SlowDown), which
+     * the AWS SDK retries. The consistency delay hides objects from both listing and GETs until they are that old.
+     */
+    @Builder(toBuilder = true)
+    @Value
+    public static class Faults {
+
+        public static final Faults NONE = Faults.builder().build();
+
+        @Builder.Default
+        private long bandwidth = 0L; // Bytes per second, 0 for unlimited
+
+        @Builder.Default
+        private Duration consistencyDelay = Duration.ZERO;
+
+        @Builder.Default
+        private double errorRate = 0.0;
+
+        @Builder.Default
+        private Duration latency = Duration.ZERO;
+
+        @Builder.Default
+        private double truncateRate = 0.0;
+    }
+}
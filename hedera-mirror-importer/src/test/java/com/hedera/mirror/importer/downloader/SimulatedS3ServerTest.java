@@ -0,0 +1,183 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsResponse;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import com.hedera.mirror.importer.config.MirrorImporterConfiguration;
+
+public class SimulatedS3ServerTest {
+
+    private static final String BUCKET = "test";
+    private static final String PREFIX = "recordstreams/record0.0.3/";
+    private static final String KEY1 = PREFIX + "2019-08-30T18_10_00.419072Z.rcd";
+    private static final String KEY2 = PREFIX + "2019-08-30T18_10_05.249678Z.rcd";
+    private static final byte[] CONTENT = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+    @TempDir
+    Path root;
+
+    private S3AsyncClient s3AsyncClient;
+    private SimulatedS3Server server;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        for (String key : new String[] {KEY1, KEY2}) {
+            Path path = root.resolve(BUCKET).resolve(key);
+            Files.createDirectories(path.getParent());
+            Files.write(path, CONTENT);
+        }
+
+        CommonDownloaderProperties properties = new CommonDownloaderProperties();
+        properties.setBucketName(BUCKET);
+        properties.setCloudProvider(CommonDownloaderProperties.CloudProvider.LOCAL);
+        properties.setAccessKey("x");
+        properties.setSecretKey("x");
+        s3AsyncClient = new MirrorImporterConfiguration(properties).s3AsyncClient();
+        server = new SimulatedS3Server(8001, root).start();
+    }
+
+    @AfterEach
+    void after() {
+        server.close();
+    }
+
+    @Test
+    void listObjects() {
+        ListObjectsResponse response = list("", 1000);
+        assertThat(response.contents())
+                .extracting(S3Object::key, S3Object::size)
+                .containsExactly(
+                        tuple(KEY1, (long) CONTENT.length),
+                        tuple(KEY2, (long) CONTENT.length));
+        assertThat(response.contents()).allSatisfy(s3Object -> assertThat(s3Object.eTag()).isNotBlank());
+        assertThat(response.isTruncated()).isFalse();
+    }
+
+    @Test
+    void listObjectsAfterMarker() {
+        ListObjectsResponse response = list(KEY1, 1000);
+        assertThat(response.contents()).extracting(S3Object::key).containsExactly(KEY2);
+    }
+
+    @Test
+    void listObjectsMaxKeys() {
+        ListObjectsResponse response = list("", 1);
+        assertThat(response.contents()).extracting(S3Object::key).containsExactly(KEY1);
+        assertThat(response.isTruncated()).isTrue();
+    }
+
+    @Test
+    void getObject() {
+        assertThat(get(KEY1, null).asByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void getObjectRange() {
+        assertThat(get(KEY1, "bytes=2-4").asByteArray()).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void getMissingObject() {
+        assertThatThrownBy(() -> get(PREFIX + "missing", null)).isInstanceOf(CompletionException.class);
+    }
+
+    @Test
+    void latency() {
+        server.faults(PREFIX, SimulatedS3Server.Faults.builder().latency(Duration.ofMillis(200)).build());
+        long start = System.nanoTime();
+        get(KEY1, null);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    }
+
+    @Test
+    void bandwidth() {
+        server.faults(PREFIX, SimulatedS3Server.Faults.builder().bandwidth(20).build());
+        long start = System.nanoTime();
+        assertThat(get(KEY1, null).asByteArray()).isEqualTo(CONTENT);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void throttling() {
+        server.faults(PREFIX, SimulatedS3Server.Faults.builder().errorRate(1.0).build());
+        assertThatThrownBy(() -> get(KEY1, null)).isInstanceOf(CompletionException.class);
+        assertThat(server.getInjectedErrors()).isGreaterThan(1); // Retried by the SDK
+    }
+
+    @Test
+    void truncation() {
+        server.faults(PREFIX, SimulatedS3Server.Faults.builder().truncateRate(1.0).build());
+        assertThatThrownBy(() -> get(KEY1, null)).isInstanceOf(CompletionException.class);
+        assertThat(server.getInjectedErrors()).isPositive();
+    }
+
+    @Test
+    void longestPrefixApplies() {
+        server.faults("recordstreams/", SimulatedS3Server.Faults.builder().errorRate(1.0).build());
+        server.faults(PREFIX, SimulatedS3Server.Faults.NONE);
+        assertThat(get(KEY1, null).asByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void consistencyDelay() {
+        server.faults(PREFIX, SimulatedS3Server.Faults.builder().consistencyDelay(Duration.ofHours(1)).build());
+        assertThat(list("", 1000).contents()).isEmpty();
+        assertThatThrownBy(() -> get(KEY1, null)).isInstanceOf(CompletionException.class);
+    }
+
+    private ListObjectsResponse list(String marker, int maxKeys) {
+        return s3AsyncClient.listObjects(ListObjectsRequest.builder()
+                .bucket(BUCKET)
+                .prefix(PREFIX)
+                .delimiter("/")
+                .marker(marker)
+                .maxKeys(maxKeys)
+                .build()).join();
+    }
+
+    private ResponseBytes<GetObjectResponse> get(String key, String range) {
+        return s3AsyncClient.getObject(GetObjectRequest.builder()
+                .bucket(BUCKET)
+                .key(key)
+                .range(range)
+                .build(), AsyncResponseTransformer.toBytes()).join();
+    }
+}
@@ -0,0 +1,134 @@
+package com.hedera.mirror.importer.downloader;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.hedera.mirror.importer.MirrorProperties;
+import com.hedera.mirror.importer.domain.StreamType;
+
+public class StreamMetricsTest {
+
+    private static final String FILE1 = "2019-08-30T18_10_00.419072Z.rcd";
+    private static final String FILE2 = "2019-08-30T18_10_05.249678Z.rcd";
+    private static final String BALANCE_FILE = "2019-08-30T18_15_00.016002001Z_Balances.csv";
+
+    @TempDir
+    Path dataPath;
+
+    private MeterRegistry meterRegistry;
+    private StreamMetrics streamMetrics;
+
+    @BeforeEach
+    void beforeEach() {
+        MirrorProperties mirrorProperties = new MirrorProperties();
+        mirrorProperties.setDataPath(dataPath);
+        meterRegistry = new SimpleMeterRegistry();
+        streamMetrics = new StreamMetrics(mirrorProperties, meterRegistry);
+    }
+
+    @Test
+    void unknown() {
+        assertThat(stage("hedera.mirror.stream.timestamp", "record", "parsed")).isNaN();
+        assertThat(stage("hedera.mirror.stream.lag", "record", "parsed")).isNaN();
+        assertThat(rate("hedera.mirror.stream.files.rate", "record")).isZero();
+        assertThat(rate("hedera.mirror.stream.transactions.rate", "record")).isZero();
+    }
+
+    @Test
+    void stages() {
+        streamMetrics.downloaded(StreamType.RECORD, FILE2 + "_sig");
+        streamMetrics.verified(StreamType.RECORD, FILE1);
+
+        assertThat(stage("hedera.mirror.stream.timestamp", "record", "downloaded"))
+                .isEqualTo(seconds("2019-08-30T18:10:05.249678Z"));
+        assertThat(stage("hedera.mirror.stream.timestamp", "record", "verified"))
+                .isEqualTo(seconds("2019-08-30T18:10:00.419072Z"));
+        assertThat(stage("hedera.mirror.stream.timestamp", "record", "parsed")).isNaN();
+        assertThat(stage("hedera.mirror.stream.lag", "record", "verified"))
+                .isGreaterThan(stage("hedera.mirror.stream.lag", "record", "downloaded"))
+                .isGreaterThan(0.0);
+    }
+
+    @Test
+    void keepsNewest() {
+        streamMetrics.parsed(StreamType.BALANCE, BALANCE_FILE, 1, 0L);
+        streamMetrics.parsed(StreamType.BALANCE, "2019-08-30T18_00_00.019144001Z_Balances.csv", 1, 0L);
+        assertThat(stage("hedera.mirror.stream.timestamp", "balance", "parsed"))
+                .isEqualTo(seconds("2019-08-30T18:15:00.016002001Z"));
+    }
+
+    @Test
+    void invalidFileName() {
+        streamMetrics.parsed(StreamType.BALANCE, "foo", 1, 0L);
+        assertThat(stage("hedera.mirror.stream.timestamp", "balance", "parsed")).isNaN();
+    }
+
+    @Test
+    void rates() {
+        streamMetrics.parsed(StreamType.RECORD, FILE1, 3, 120L);
+        streamMetrics.parsed(StreamType.RECORD, FILE2, 3, 60L);
+
+        double window = StreamMetrics.RATE_WINDOW.toSeconds();
+        assertThat(rate("hedera.mirror.stream.files.rate", "record")).isEqualTo(6 / window);
+        assertThat(rate("hedera.mirror.stream.transactions.rate", "record")).isEqualTo(180 / window);
+        assertThat(rate("hedera.mirror.stream.files.rate", "event")).isZero();
+    }
+
+    @Test
+    void pendingFiles() throws Exception {
+        Path validPath = dataPath.resolve(StreamType.RECORD.getPath()).resolve(StreamType.RECORD.getValid());
+        Files.createDirectories(validPath.resolve("subdirectory"));
+        Files.write(validPath.resolve(FILE1), new byte[] {1, 2, 3});
+        Files.write(validPath.resolve(FILE2), new byte[] {4, 5});
+
+        assertThat(directory("hedera.mirror.stream.pending.files", "record", "valid")).isEqualTo(2.0);
+        assertThat(directory("hedera.mirror.stream.pending.bytes", "record", "valid")).isEqualTo(5.0);
+        assertThat(directory("hedera.mirror.stream.pending.files", "record", "temp")).isZero();
+        assertThat(directory("hedera.mirror.stream.pending.bytes", "record", "temp")).isZero();
+    }
+
+    private double stage(String name, String type, String stage) {
+        return meterRegistry.get(name).tag("type", type).tag("stage", stage).gauge().value();
+    }
+
+    private double directory(String name, String type, String directory) {
+        return meterRegistry.get(name).tag("type", type).tag("directory", directory).gauge().value();
+    }
+
+    private double rate(String name, String type) {
+        return meterRegistry.get(name).tag("type", type).gauge().value();
+    }
+
+    private double seconds(String instant) {
+        Instant parsed = Instant.parse(instant);
+        return parsed.getEpochSecond() + parsed.getNano() / 1_000_000_000.0;
+    }
+}
@@ -23,6 +23,7 @@ package com.hedera.mirror.importer.downloader.balance;
 import static org.mockito.Mockito.verify;
 
 import com.google.common.primitives.Bytes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -36,6 +37,8 @@ import com.hedera.mirror.importer.domain.ApplicationStatusCode;
 import com.hedera.mirror.importer.downloader.AbstractDownloaderTest;
 import com.hedera.mirror.importer.downloader.Downloader;
 import com.hedera.mirror.importer.downloader.DownloaderProperties;
+import com.hedera.mirror.importer.downloader.StreamMetrics;
+import com.hedera.mirror.importer.downloader.VerifiedFileHashes;
 
 @ExtendWith(MockitoExtension.class)
 public class AccountBalancesDownloaderTest extends AbstractDownloaderTest {
@@ -49,8 +52,10 @@ public class AccountBalancesDownloaderTest extends AbstractDownloaderTest {
 
     @Override
     protected Downloader getDownloader() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
         return new AccountBalancesDownloader(s3AsyncClient, applicationStatusRepository, networkAddressBook,
-                (BalanceDownloaderProperties) downloaderProperties);
+                (BalanceDownloaderProperties) downloaderProperties, meterRegistry, new VerifiedFileHashes(),
+                new StreamMetrics(mirrorProperties, meterRegistry));
     }
 
     @Override
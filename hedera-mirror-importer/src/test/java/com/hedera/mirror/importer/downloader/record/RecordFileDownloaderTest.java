@@ -27,6 +27,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.google.common.primitives.Bytes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -37,12 +38,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.util.ResourceUtils;
+import org.springframework.util.unit.DataSize;
 
 import com.hedera.mirror.importer.FileCopier;
 import com.hedera.mirror.importer.domain.ApplicationStatusCode;
 import com.hedera.mirror.importer.downloader.AbstractDownloaderTest;
 import com.hedera.mirror.importer.downloader.Downloader;
 import com.hedera.mirror.importer.downloader.DownloaderProperties;
+import com.hedera.mirror.importer.downloader.StreamMetrics;
+import com.hedera.mirror.importer.downloader.VerifiedFileHashes;
 import com.hedera.mirror.importer.util.Utility;
 
 @ExtendWith(MockitoExtension.class)
@@ -57,8 +61,10 @@ public class RecordFileDownloaderTest extends AbstractDownloaderTest {
 
     @Override
     protected Downloader getDownloader() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
         return new RecordFileDownloader(s3AsyncClient, applicationStatusRepository, networkAddressBook,
-                (RecordDownloaderProperties) downloaderProperties);
+                (RecordDownloaderProperties) downloaderProperties, meterRegistry, new VerifiedFileHashes(),
+                new StreamMetrics(mirrorProperties, meterRegistry));
     }
 
     @Override
@@ -101,6 +107,21 @@ public class RecordFileDownloaderTest extends AbstractDownloaderTest {
         assertValidFiles(List.of("2019-08-30T18_10_05.249678Z.rcd", "2019-08-30T18_10_00.419072Z.rcd"));
     }
 
+    @Test
+    @DisplayName("Download and verify V2 files while verifying stragglers")
+    void downloadV2VerifyStragglers() throws Exception {
+        commonDownloaderProperties.setVerifyStragglers(true);
+        downloadV2();
+    }
+
+    @Test
+    @DisplayName("Download and verify V2 files in byte ranges")
+    void downloadV2Ranged() throws Exception {
+        commonDownloaderProperties.setRangeThreshold(DataSize.ofBytes(1));
+        commonDownloaderProperties.setRangeSize(DataSize.ofBytes(100));
+        downloadV2();
+    }
+
     @Test
     @DisplayName("Non-unanimous consensus reached")
     void partialConsensus() throws Exception {
@@ -143,6 +164,19 @@ public class RecordFileDownloaderTest extends AbstractDownloaderTest {
         testMaxDownloadItemsReached("2019-08-30T18_10_00.419072Z.rcd");
     }
 
+    @Test
+    @DisplayName("Catch up follows the listing across pages")
+    void catchUp() throws Exception {
+        ((RecordDownloaderProperties) downloaderProperties).setBatchSize(1);
+        fileCopier.copy();
+        downloader.download();
+        verify(applicationStatusRepository).updateStatusValue(
+                ApplicationStatusCode.LAST_VALID_DOWNLOADED_RECORD_FILE, "2019-08-30T18_10_00.419072Z.rcd");
+        verify(applicationStatusRepository).updateStatusValue(
+                ApplicationStatusCode.LAST_VALID_DOWNLOADED_RECORD_FILE, "2019-08-30T18_10_05.249678Z.rcd");
+        assertValidFiles(List.of("2019-08-30T18_10_00.419072Z.rcd", "2019-08-30T18_10_05.249678Z.rcd"));
+    }
+
     @Test
     @DisplayName("overwrite on download")
     void overwriteOnDownload() throws Exception {
@@ -150,6 +184,26 @@ public class RecordFileDownloaderTest extends AbstractDownloaderTest {
                 ApplicationStatusCode.LAST_VALID_DOWNLOADED_RECORD_FILE);
     }
 
+    @Test
+    @DisplayName("Tip following fetches signatures listed by one node from the others")
+    void tipFollowing() throws Exception {
+        String filename1 = "2019-08-30T18_10_00.419072Z.rcd";
+        String filename2 = "2019-08-30T18_10_05.249678Z.rcd";
+        fileCopier.filterFiles(filename1 + "*").copy();
+        downloader.download();
+        verify(applicationStatusRepository).updateStatusValue(
+                ApplicationStatusCode.LAST_VALID_DOWNLOADED_RECORD_FILE, filename1);
+
+        // Only the listed node and one other have the next file, which is still enough for consensus
+        doReturn(filename1).when(applicationStatusRepository)
+                .findByStatusCode(ApplicationStatusCode.LAST_VALID_DOWNLOADED_RECORD_FILE);
+        fileCopier.filterFiles(filename2 + "*").filterDirectories("*0.0.3").filterDirectories("*0.0.4").copy();
+        downloader.download();
+        verify(applicationStatusRepository).updateStatusValue(
+                ApplicationStatusCode.LAST_VALID_DOWNLOADED_RECORD_FILE, filename2);
+        assertValidFiles(List.of(filename1, filename2));
+    }
+
     @Test
     @DisplayName("Doesn't match last valid hash")
     void hashMismatchWithPrevious() throws Exception {
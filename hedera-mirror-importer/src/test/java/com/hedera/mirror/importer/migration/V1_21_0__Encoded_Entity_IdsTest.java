@@ -0,0 +1,145 @@
+package com.hedera.mirror.importer.migration;
+
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import javax.annotation.Resource;
+import javax.sql.DataSource;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.domain.EntityId;
+
+@Sql(executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, scripts = "classpath:db/scripts/cleanup.sql")
+@Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:db/scripts/cleanup.sql")
+public class V1_21_0__Encoded_Entity_IdsTest extends IntegrationTest {
+
+    private static final long NODE_ID = EntityId.encode(0, 0, 3);
+    private static final long PAYER_ID = EntityId.encode(0, 0, 98);
+    private static final long TOPIC_ID = EntityId.encode(1, 2, 3);
+    private static final long ENCODED_ID = EntityId.encode(0, 0, 5);
+
+    @Resource
+    private V1_21_0__Encoded_Entity_Ids migration;
+    @Resource
+    private DataSource dataSource;
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void encode() throws Exception {
+        // The old id of the payer is the new id of the node, so they would collide if updated in the wrong order
+        entity(1L, 0, 0, 3, null, null);
+        entity(3L, 0, 0, 98, null, null);
+        entity(2L, 1, 2, 3, 3L, 1L);
+        entity(ENCODED_ID, 0, 0, 5, 1L, null);
+        transaction(1L, 1L, 3L, 2L);
+
+        migrate();
+
+        assertThat(jdbcTemplate.queryForList("select id from t_entities", Long.class))
+                .containsExactlyInAnyOrder(NODE_ID, PAYER_ID, TOPIC_ID, ENCODED_ID);
+        assertThat(jdbcTemplate.queryForMap("select fk_prox_acc_id, auto_renew_account_id from t_entities " +
+                "where id = ?", TOPIC_ID))
+                .containsEntry("fk_prox_acc_id", PAYER_ID)
+                .containsEntry("auto_renew_account_id", NODE_ID);
+        assertThat(jdbcTemplate.queryForObject("select fk_prox_acc_id from t_entities where id = ?", Long.class,
+                ENCODED_ID)).isEqualTo(NODE_ID);
+        assertThat(jdbcTemplate.queryForMap("select fk_node_acc_id, fk_payer_acc_id, fk_cud_entity_id " +
+                "from t_transactions where consensus_ns = 1"))
+                .containsEntry("fk_node_acc_id", NODE_ID)
+                .containsEntry("fk_payer_acc_id", PAYER_ID)
+                .containsEntry("fk_cud_entity_id", TOPIC_ID);
+    }
+
+    @Test
+    void alreadyEncoded() throws Exception {
+        entity(NODE_ID, 0, 0, 3, null, null);
+        entity(ENCODED_ID, 0, 0, 5, NODE_ID, NODE_ID);
+        transaction(1L, NODE_ID, ENCODED_ID, null);
+
+        migrate();
+
+        assertThat(jdbcTemplate.queryForList("select id from t_entities", Long.class))
+                .containsExactlyInAnyOrder(NODE_ID, ENCODED_ID);
+        assertThat(jdbcTemplate.queryForMap("select fk_prox_acc_id, auto_renew_account_id from t_entities " +
+                "where id = ?", ENCODED_ID))
+                .containsEntry("fk_prox_acc_id", NODE_ID)
+                .containsEntry("auto_renew_account_id", NODE_ID);
+        assertThat(jdbcTemplate.queryForMap("select fk_node_acc_id, fk_payer_acc_id, fk_cud_entity_id " +
+                "from t_transactions where consensus_ns = 1"))
+                .containsEntry("fk_node_acc_id", NODE_ID)
+                .containsEntry("fk_payer_acc_id", ENCODED_ID)
+                .containsEntry("fk_cud_entity_id", null);
+    }
+
+    @Test
+    void empty() throws Exception {
+        migrate();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from t_entities", Long.class)).isEqualTo(0L);
+    }
+
+    private void entity(long id, long shard, long realm, long num, Long proxyAccountId, Long autoRenewAccountId) {
+        jdbcTemplate.update("insert into t_entities (id, entity_shard, entity_realm, entity_num, fk_entity_type_id, " +
+                "fk_prox_acc_id, auto_renew_account_id) values (?,?,?,?,?,?,?)", id, shard, realm, num, 1,
+                proxyAccountId, autoRenewAccountId);
+    }
+
+    private void transaction(long consensusNs, long nodeId, long payerId, Long entityId) {
+        jdbcTemplate.update("insert into t_transactions (consensus_ns, valid_start_ns, fk_rec_file_id, " +
+                "fk_node_acc_id, fk_payer_acc_id, fk_cud_entity_id, result, type) values (?,?,?,?,?,?,?,?)",
+                consensusNs, consensusNs - 1, 1L, nodeId, payerId, entityId, 22, 14);
+    }
+
+    // Flyway runs each migration in a transaction, which the temporary table of the migration relies on
+    private void migrate() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            migration.migrate(new FlywayContext(connection));
+            connection.commit();
+        }
+    }
+
+    private class FlywayContext implements Context {
+
+        private final Connection connection;
+
+        FlywayContext(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Configuration getConfiguration() {
+            return null;
+        }
+
+        @Override
+        public Connection getConnection() {
+            return connection;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.hedera.mirror.importer.parser;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveBatchTest {
+
+    private CommonParserProperties.BatchProperties properties;
+    private AdaptiveBatch batch;
+
+    @BeforeEach
+    void setup() {
+        properties = new CommonParserProperties.BatchProperties();
+        properties.setMaxBytes(1000L);
+        properties.setMaxRows(1000);
+        properties.setMinRows(10);
+        properties.setTargetLatency(Duration.ofMillis(100L));
+        batch = new AdaptiveBatch("test", properties);
+    }
+
+    @Test
+    void fullByRows() {
+        add(9, 1L);
+        assertThat(batch.isFull()).isFalse();
+        add(1, 1L);
+        assertThat(batch.isFull()).isTrue();
+    }
+
+    @Test
+    void fullByBytes() {
+        add(1, 1000L);
+        assertThat(batch.isFull()).isTrue();
+    }
+
+    @Test
+    void growsWhenFast() {
+        add(10, 1L);
+        batch.executed(TimeUnit.MILLISECONDS.toNanos(10L));
+        assertThat(batch.getTargetRows()).isEqualTo(55);
+        assertThat(batch.getRows()).isZero();
+    }
+
+    @Test
+    void shrinksWhenSlow() {
+        properties.setMinRows(1);
+        add(10, 1L);
+        batch.executed(TimeUnit.MILLISECONDS.toNanos(1000L));
+        assertThat(batch.getTargetRows()).isEqualTo(5);
+    }
+
+    @Test
+    void limitedToMaxRows() {
+        add(10, 1L);
+        batch.executed(1L);
+        assertThat(batch.getTargetRows()).isEqualTo(1000);
+    }
+
+    @Test
+    void clear() {
+        add(10, 100L);
+        batch.clear();
+        assertThat(batch.getRows()).isZero();
+        assertThat(batch.isFull()).isFalse();
+    }
+
+    private void add(int rows, long rowBytes) {
+        for (int i = 0; i < rows; i++) {
+            batch.add(rowBytes);
+        }
+    }
+}
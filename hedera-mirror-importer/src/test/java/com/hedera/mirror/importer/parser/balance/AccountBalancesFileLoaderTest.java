@@ -30,6 +30,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Value;
 
 import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.parser.BatchController;
 
 @Transactional
 public class AccountBalancesFileLoaderTest extends IntegrationTest {
@@ -40,10 +41,13 @@ public class AccountBalancesFileLoaderTest extends IntegrationTest {
     @Resource
     private BalanceParserProperties parserProperties;
 
+    @Resource
+    private BatchController batchController;
+
     @Test
     public void positiveSmallFile() throws Exception {
         // The test has a 2 line header and 2 data lines.
-        var cut = new AccountBalancesFileLoader(parserProperties, path);
+        var cut = new AccountBalancesFileLoader(parserProperties, path, batchController.get("account_balances"));
         boolean success = cut.loadAccountBalances();
         assertAll(
                 () -> assertEquals(25391, cut.getValidRowCount())
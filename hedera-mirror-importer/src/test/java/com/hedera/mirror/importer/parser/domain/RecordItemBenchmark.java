@@ -0,0 +1,168 @@
+package com.hedera.mirror.importer.parser.domain;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.protobuf.ByteString;
+import com.hederahashgraph.api.proto.java.AccountAmount;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.ConsensusSubmitMessageTransactionBody;
+import com.hederahashgraph.api.proto.java.ContractCallTransactionBody;
+import com.hederahashgraph.api.proto.java.ContractFunctionResult;
+import com.hederahashgraph.api.proto.java.ContractID;
+import com.hederahashgraph.api.proto.java.CryptoTransferTransactionBody;
+import com.hederahashgraph.api.proto.java.FileCreateTransactionBody;
+import com.hederahashgraph.api.proto.java.FileID;
+import com.hederahashgraph.api.proto.java.ResponseCodeEnum;
+import com.hederahashgraph.api.proto.java.Timestamp;
+import com.hederahashgraph.api.proto.java.TopicID;
+import com.hederahashgraph.api.proto.java.Transaction;
+import com.hederahashgraph.api.proto.java.TransactionBody;
+import com.hederahashgraph.api.proto.java.TransactionID;
+import com.hederahashgraph.api.proto.java.TransactionReceipt;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+import com.hederahashgraph.api.proto.java.TransferList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares decoding the transactions of a record file with a mix of crypto transfers, file creates, contract calls
+ * and topic messages the way it was done before RecordItem, parsing the body twice and copying every bytes field, to
+ * RecordItem.parse. Run with main() from the test classpath.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+public class RecordItemBenchmark {
+
+    private static final int TRANSACTIONS = 1000; // A busy record file
+
+    @Param({"1024", "4096"})
+    private int payloadSize;
+
+    private final List<byte[]> transactions = new ArrayList<>();
+    private final List<byte[]> records = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(RecordItemBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        byte[] payload = new byte[payloadSize];
+        random.nextBytes(payload);
+        ByteString bytes = ByteString.copyFrom(payload);
+
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            TransactionBody.Builder body = TransactionBody.newBuilder()
+                    .setTransactionID(TransactionID.newBuilder()
+                            .setAccountID(account(1001))
+                            .setTransactionValidStart(Timestamp.newBuilder().setSeconds(i)))
+                    .setNodeAccountID(account(3))
+                    .setTransactionFee(100_000L)
+                    .setMemo("benchmark");
+            TransactionRecord.Builder record = TransactionRecord.newBuilder()
+                    .setConsensusTimestamp(Timestamp.newBuilder().setSeconds(i).setNanos(1))
+                    .setTransactionHash(ByteString.copyFrom(new byte[48]))
+                    .setTransactionFee(90_000L)
+                    .setTransferList(TransferList.newBuilder()
+                            .addAccountAmounts(AccountAmount.newBuilder().setAccountID(account(1001)).setAmount(-2))
+                            .addAccountAmounts(AccountAmount.newBuilder().setAccountID(account(3)).setAmount(1))
+                            .addAccountAmounts(AccountAmount.newBuilder().setAccountID(account(98)).setAmount(1)));
+            TransactionReceipt.Builder receipt = TransactionReceipt.newBuilder()
+                    .setStatus(ResponseCodeEnum.SUCCESS);
+
+            switch (i % 4) {
+                case 0:
+                    body.setCryptoTransfer(CryptoTransferTransactionBody.newBuilder()
+                            .setTransfers(record.getTransferList()));
+                    break;
+                case 1:
+                    body.setFileCreate(FileCreateTransactionBody.newBuilder().setContents(bytes));
+                    receipt.setFileID(FileID.newBuilder().setFileNum(2000 + i));
+                    break;
+                case 2:
+                    ContractID contractId = ContractID.newBuilder().setContractNum(3000).build();
+                    body.setContractCall(ContractCallTransactionBody.newBuilder()
+                            .setContractID(contractId)
+                            .setGas(10_000L)
+                            .setFunctionParameters(bytes));
+                    record.setContractCallResult(ContractFunctionResult.newBuilder()
+                            .setContractID(contractId)
+                            .setContractCallResult(bytes)
+                            .setGasUsed(5_000L));
+                    break;
+                default:
+                    body.setConsensusSubmitMessage(ConsensusSubmitMessageTransactionBody.newBuilder()
+                            .setTopicID(TopicID.newBuilder().setTopicNum(4000))
+                            .setMessage(bytes));
+                    receipt.setTopicSequenceNumber(i).setTopicRunningHash(ByteString.copyFrom(new byte[48]));
+                    break;
+            }
+
+            transactions.add(Transaction.newBuilder().setBodyBytes(body.build().toByteString()).build().toByteArray());
+            records.add(record.setReceipt(receipt).build().toByteArray());
+        }
+    }
+
+    @Benchmark
+    public void copying(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Transaction transaction = Transaction.parseFrom(transactions.get(i));
+            TransactionRecord record = TransactionRecord.parseFrom(records.get(i));
+            blackhole.consume(TransactionBody.parseFrom(transaction.getBodyBytes()));
+            blackhole.consume(record);
+            blackhole.consume(TransactionBody.parseFrom(transaction.getBodyBytes()).getDataCase());
+        }
+    }
+
+    @Benchmark
+    public void recordItem(Blackhole blackhole) {
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            RecordItem recordItem = RecordItem.parse(transactions.get(i), records.get(i));
+            blackhole.consume(recordItem.getTransactionBody());
+            blackhole.consume(recordItem.getRecord());
+            blackhole.consume(recordItem.getTransactionBody().getDataCase());
+        }
+    }
+
+    private static AccountID account(long num) {
+        return AccountID.newBuilder().setAccountNum(num).build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.hedera.mirror.importer.parser.domain;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.protobuf.ByteString;
+import com.hederahashgraph.api.proto.java.ConsensusSubmitMessageTransactionBody;
+import com.hederahashgraph.api.proto.java.ResponseCodeEnum;
+import com.hederahashgraph.api.proto.java.Timestamp;
+import com.hederahashgraph.api.proto.java.TopicID;
+import com.hederahashgraph.api.proto.java.Transaction;
+import com.hederahashgraph.api.proto.java.TransactionBody;
+import com.hederahashgraph.api.proto.java.TransactionReceipt;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+import org.junit.jupiter.api.Test;
+
+import com.hedera.mirror.importer.exception.ProtobufException;
+
+public class RecordItemTest {
+
+    private static final TransactionBody BODY = TransactionBody.newBuilder()
+            .setMemo("memo")
+            .setConsensusSubmitMessage(ConsensusSubmitMessageTransactionBody.newBuilder()
+                    .setTopicID(TopicID.newBuilder().setTopicNum(1000L))
+                    .setMessage(ByteString.copyFromUtf8("message")))
+            .build();
+
+    private static final TransactionRecord RECORD = TransactionRecord.newBuilder()
+            .setConsensusTimestamp(Timestamp.newBuilder().setSeconds(1L))
+            .setReceipt(TransactionReceipt.newBuilder().setStatus(ResponseCodeEnum.SUCCESS))
+            .build();
+
+    @Test
+    void parse() {
+        byte[] transactionBytes = Transaction.newBuilder().setBodyBytes(BODY.toByteString()).build().toByteArray();
+        byte[] recordBytes = RECORD.toByteArray();
+
+        RecordItem recordItem = RecordItem.parse(transactionBytes, recordBytes);
+
+        assertThat(recordItem.getTransactionBody()).isEqualTo(BODY);
+        assertThat(recordItem.getRecord()).isEqualTo(RECORD);
+        assertThat(recordItem.getTransactionBytes()).isSameAs(transactionBytes);
+        assertThat(recordItem.getRecordBytes()).isSameAs(recordBytes);
+    }
+
+    @Test
+    void bodyFromDeprecatedField() {
+        RecordItem recordItem = new RecordItem(Transaction.newBuilder().setBody(BODY).build(), RECORD);
+        assertThat(recordItem.getTransactionBody()).isEqualTo(BODY);
+    }
+
+    @Test
+    void invalidBody() {
+        Transaction transaction = Transaction.newBuilder().setBodyBytes(ByteString.copyFrom(new byte[] {-1}))
+                .build();
+        assertThatThrownBy(() -> new RecordItem(transaction, RECORD)).isInstanceOf(ProtobufException.class);
+    }
+
+    @Test
+    void invalidRecord() {
+        assertThatThrownBy(() -> RecordItem.parse(new byte[0], new byte[] {-1}))
+                .isInstanceOf(ProtobufException.class);
+    }
+}
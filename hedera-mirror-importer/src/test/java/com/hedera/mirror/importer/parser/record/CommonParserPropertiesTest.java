@@ -138,6 +138,13 @@ public class CommonParserPropertiesTest {
         assertEquals(result, commonParserProperties.getFilter().test(transaction));
     }
 
+    @DisplayName("Filter with invalid entity")
+    @Test
+    void filterInvalidEntity() {
+        commonParserProperties.getInclude().add(filter("0.1", TransactionTypeEnum.CONSENSUSSUBMITMESSAGE));
+        assertThrows(IllegalArgumentException.class, () -> commonParserProperties.getFilter());
+    }
+
     private Entities entity(String entityId) {
         if (StringUtils.isBlank(entityId)) {
             return null;
@@ -39,7 +39,6 @@ import com.hederahashgraph.api.proto.java.TransferList;
 import org.junit.jupiter.api.Test;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.stream.StreamSupport;
 
 public class NonFeeTransferExtractionStrategyImplTest {
     NonFeeTransferExtractionStrategyImpl extractionStrategy = new NonFeeTransferExtractionStrategyImpl();
@@ -49,16 +48,16 @@ public class NonFeeTransferExtractionStrategyImplTest {
     private static final AccountID testAccount1 = AccountID.newBuilder().setAccountNum(1234L).build();
     private static final AccountID testAccount2 = AccountID.newBuilder().setAccountNum(5555L).build();
     private static final long initialBalance = 1234L;
+    private static final long consensusTimestamp = 10L;
     private static final long newEntityNum = 987654L;
     private static final AccountID newAccountId = AccountID.newBuilder().setAccountNum(newEntityNum).build();
 
     @Test
     void extractNonFeeTransfersCryptoTransfer() {
         var transactionBody = getCryptoTransferTransactionBody();
-        var result = extractionStrategy.extractNonFeeTransfers(payerAccountId, transactionBody,
-                getSimpleTransactionRecord());
+        var result = extract(transactionBody, getSimpleTransactionRecord());
         assertAll(
-                () -> assertEquals(3, StreamSupport.stream(result.spliterator(), false).count())
+                () -> assertEquals(3, result.size())
                 , () -> assertResult(transactionBody.getCryptoTransfer().getTransfers().getAccountAmountsList(), result)
         );
     }
@@ -66,10 +65,9 @@ public class NonFeeTransferExtractionStrategyImplTest {
     @Test
     void extractNonFeeTransfersCryptoCreate() {
         var transactionBody = getCryptoCreateTransactionBody();
-        var result = extractionStrategy.extractNonFeeTransfers(payerAccountId, transactionBody,
-                getNewAccountTransactionRecord());
+        var result = extract(transactionBody, getNewAccountTransactionRecord());
         assertAll(
-                () -> assertEquals(2, StreamSupport.stream(result.spliterator(), false).count())
+                () -> assertEquals(2, result.size())
                 , () -> assertResult(createAccountAmounts( payerAccountNum, 0 - initialBalance,
                         newEntityNum, initialBalance), result)
         );
@@ -78,10 +76,9 @@ public class NonFeeTransferExtractionStrategyImplTest {
     @Test
     void extractNonFeeTransfersFailedCryptoCreate() {
         var transactionBody = getCryptoCreateTransactionBody();
-        var result = extractionStrategy.extractNonFeeTransfers(payerAccountId, transactionBody,
-                getFailedTransactionRecord());
+        var result = extract(transactionBody, getFailedTransactionRecord());
         assertAll(
-                () -> assertEquals(1, StreamSupport.stream(result.spliterator(), false).count())
+                () -> assertEquals(1, result.size())
                 , () -> assertResult(createAccountAmounts(payerAccountNum, 0 - initialBalance), result)
         );
     }
@@ -89,10 +86,9 @@ public class NonFeeTransferExtractionStrategyImplTest {
     @Test
     void extractNonFeeTransfersContractCreate() {
         var transactionBody = getContractCreateTransactionBody();
-        var result = extractionStrategy.extractNonFeeTransfers(payerAccountId, transactionBody,
-                getNewContractTransactionRecord());
+        var result = extract(transactionBody, getNewContractTransactionRecord());
         assertAll(
-                () -> assertEquals(2, StreamSupport.stream(result.spliterator(), false).count())
+                () -> assertEquals(2, result.size())
                 , () -> assertResult(createAccountAmounts(payerAccountNum, 0 - initialBalance,
                         newEntityNum, initialBalance), result)
         );
@@ -101,10 +97,9 @@ public class NonFeeTransferExtractionStrategyImplTest {
     @Test
     void extractNonFeeTransfersFailedContractCreate() {
         var transactionBody = getContractCreateTransactionBody();
-        var result = extractionStrategy.extractNonFeeTransfers(payerAccountId, transactionBody,
-                getFailedTransactionRecord());
+        var result = extract(transactionBody, getFailedTransactionRecord());
         assertAll(
-                () -> assertEquals(1, StreamSupport.stream(result.spliterator(), false).count())
+                () -> assertEquals(1, result.size())
                 , () -> assertResult(createAccountAmounts(payerAccountNum, 0 - initialBalance), result)
         );
     }
@@ -114,10 +109,9 @@ public class NonFeeTransferExtractionStrategyImplTest {
         var amount = 123456L;
         var contractNum = 8888L;
         var transactionBody = getContractCallTransactionBody(contractNum, amount);
-        var result = extractionStrategy.extractNonFeeTransfers(payerAccountId, transactionBody,
-                getSimpleTransactionRecord());
+        var result = extract(transactionBody, getSimpleTransactionRecord());
         assertAll(
-                () -> assertEquals(2, StreamSupport.stream(result.spliterator(), false).count())
+                () -> assertEquals(2, result.size())
                 , () -> assertResult(createAccountAmounts(contractNum, amount,
                         payerAccountNum, 0 - amount), result)
         );
@@ -126,10 +120,9 @@ public class NonFeeTransferExtractionStrategyImplTest {
     @Test
     void extractNonFeeTransfersFileCreateNone() {
         var transactionBody = getFileCreateTransactionBody();
-        var result = extractionStrategy.extractNonFeeTransfers(payerAccountId, transactionBody,
-                getNewFileTransactionRecord());
+        var result = extract(transactionBody, getNewFileTransactionRecord());
         assertAll(
-                () -> assertEquals(0, StreamSupport.stream(result.spliterator(), false).count())
+                () -> assertEquals(0, result.size())
         );
     }
 
@@ -150,9 +143,25 @@ public class NonFeeTransferExtractionStrategyImplTest {
         return result;
     }
 
-    private void assertResult(List<AccountAmount> expected, Iterable<AccountAmount> actual) {
-        assertArrayEquals(expected.toArray(), StreamSupport.stream(actual.spliterator(), false)
-                .toArray());
+    private TransferBuffer extract(TransactionBody transactionBody, TransactionRecord transactionRecord) {
+        var result = new TransferBuffer();
+        extractionStrategy.extractNonFeeTransfers(consensusTimestamp, payerAccountId, transactionBody,
+                transactionRecord, result);
+        return result;
+    }
+
+    private void assertResult(List<AccountAmount> expected, TransferBuffer actual) {
+        var actualAccountAmounts = new LinkedList<AccountAmount>();
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals(consensusTimestamp, actual.getConsensusTimestamp(i));
+            actualAccountAmounts.add(AccountAmount.newBuilder()
+                    .setAccountID(AccountID.newBuilder()
+                            .setRealmNum(actual.getRealmNum(i))
+                            .setAccountNum(actual.getEntityNum(i)).build())
+                    .setAmount(actual.getAmount(i))
+                    .build());
+        }
+        assertArrayEquals(expected.toArray(), actualAccountAmounts.toArray());
     }
 
     private TransactionBody getCryptoTransferTransactionBody() {
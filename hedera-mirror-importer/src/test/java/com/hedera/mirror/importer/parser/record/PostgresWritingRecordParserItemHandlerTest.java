@@ -128,6 +128,29 @@ public class PostgresWritingRecordParserItemHandlerTest extends IntegrationTest
         assertExistsAndEquals(nonFeeTransferRepository, nonFeeTransfer2, 2L);
     }
 
+    @Test
+    void onTransferBuffers() throws Exception {
+        // setup
+        TransferBuffer transfers = new TransferBuffer();
+        transfers.add(1L, 0L, 1L, 1L);
+        transfers.add(2L, 0L, 2L, -2L);
+
+        // when
+        postgresWriter.onCryptoTransfers(transfers);
+        assertTrue(transfers.isEmpty());
+        transfers.add(3L, 0L, 3L, 3L);
+        postgresWriter.onNonFeeTransfers(transfers);
+        completeFileAndCommit();
+
+        // expect
+        assertTrue(transfers.isEmpty());
+        assertEquals(2, cryptoTransferRepository.count());
+        assertExistsAndEquals(cryptoTransferRepository, new CryptoTransfer(1L, 1L, 0L, 1L), 1L);
+        assertExistsAndEquals(cryptoTransferRepository, new CryptoTransfer(2L, -2L, 0L, 2L), 2L);
+        assertEquals(1, nonFeeTransferRepository.count());
+        assertExistsAndEquals(nonFeeTransferRepository, new NonFeeTransfer(3L, 3L, 0L, 3L), 3L);
+    }
+
     @Test
     void onTopicMessage() throws Exception {
         // setup
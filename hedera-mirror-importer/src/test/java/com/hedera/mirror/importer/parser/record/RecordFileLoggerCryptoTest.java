@@ -44,6 +44,9 @@ import com.hederahashgraph.api.proto.java.TransactionReceipt;
 import com.hederahashgraph.api.proto.java.TransactionRecord;
 import com.hederahashgraph.api.proto.java.TransferList;
 import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import javax.annotation.Resource;
 import org.apache.commons.codec.binary.Hex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -54,6 +57,8 @@ import org.junit.jupiter.params.provider.CsvSource;
 import com.hedera.mirror.importer.domain.CryptoTransfer;
 import com.hedera.mirror.importer.domain.Entities;
 import com.hedera.mirror.importer.domain.LiveHash;
+import com.hedera.mirror.importer.domain.TransactionTypeEnum;
+import com.hedera.mirror.importer.parser.CommonParserProperties;
 import com.hedera.mirror.importer.parser.domain.RecordItem;
 import com.hedera.mirror.importer.util.Utility;
 
@@ -78,6 +83,12 @@ public class RecordFileLoggerCryptoTest extends AbstractRecordFileLoggerTest {
     private static final long[] transferAccounts = {98, 2002, 3};
     private static final long[] transferAmounts = {1000, -2000, 20};
 
+    @Resource
+    private CommonParserProperties commonParserProperties;
+
+    @Resource
+    private RecordFileMetrics recordFileMetrics;
+
     @BeforeEach
     void before() {
         parserProperties.setPersistClaims(true);
@@ -140,17 +151,23 @@ public class RecordFileLoggerCryptoTest extends AbstractRecordFileLoggerTest {
     @Test
     void cryptoCreateBatch() throws Exception {
 
-        long testBatchSize = 10;
-        RecordFileLogger.setBatchSize(testBatchSize);
-
-        for (int i = 0; i < testBatchSize + 1; i++) {
-            Transaction transaction = cryptoCreateTransaction();
-            TransactionBody transactionBody = TransactionBody.parseFrom(transaction.getBodyBytes());
-            TransactionRecord record = transactionRecordSuccess(transactionBody);
-
-            RecordFileLogger.storeRecord(transaction, record);
+        int testBatchSize = 10;
+        CommonParserProperties.BatchProperties batchProperties = commonParserProperties.getBatch();
+        int maxRows = batchProperties.getMaxRows();
+        batchProperties.setMaxRows(testBatchSize);
+
+        try {
+            for (int i = 0; i < testBatchSize + 1; i++) {
+                Transaction transaction = cryptoCreateTransaction();
+                TransactionBody transactionBody = TransactionBody.parseFrom(transaction.getBodyBytes());
+                TransactionRecord record = transactionRecordSuccess(transactionBody);
+
+                RecordFileLogger.storeRecord(transaction, record);
+            }
+            RecordFileLogger.completeFile("", "");
+        } finally {
+            batchProperties.setMaxRows(maxRows);
         }
-        RecordFileLogger.completeFile("", "");
 
         long txCount = transactionRepository.count();
 
@@ -479,6 +496,42 @@ public class RecordFileLoggerCryptoTest extends AbstractRecordFileLoggerTest {
         parseRecordItemAndCommit(new RecordItem(transaction, record));
     }
 
+    @Test
+    void groupCommitUpdatesAccountOfPreviousFile() throws Exception {
+        // The first file only references the account as the payer, so it's inserted when the file is closed
+        Transaction transferTransaction = cryptoTransferTransaction();
+        TransactionBody transferBody = TransactionBody.newBuilder()
+                .mergeFrom(TransactionBody.parseFrom(transferTransaction.getBodyBytes()))
+                .setTransactionID(Utility.getTransactionId(accountId))
+                .build();
+        transferTransaction = Transaction.newBuilder().setBodyBytes(transferBody.toByteString()).build();
+        RecordFileLogger.storeRecord(transferTransaction, transactionRecordSuccess(transferBody));
+        RecordFileLogger.closeFile("", "");
+
+        // The second file updates the account before the first file is committed
+        Transaction updateTransaction = cryptoUpdateTransaction();
+        TransactionBody updateBody = TransactionBody.parseFrom(updateTransaction.getBodyBytes());
+        CryptoUpdateTransactionBody cryptoUpdateTransactionBody = updateBody.getCryptoUpdateAccount();
+        assertEquals(RecordFileLogger.INIT_RESULT.OK, RecordFileLogger.initFile(UUID.randomUUID().toString()));
+        RecordFileLogger.storeRecord(updateTransaction, transactionRecordSuccess(updateBody));
+        RecordFileLogger.closeFile("", "");
+        RecordFileLogger.commit(null, null);
+
+        Entities dbAccountEntity = entityRepository
+                .findByPrimaryKey(accountId.getShardNum(), accountId.getRealmNum(), accountId.getAccountNum()).get();
+
+        assertAll(
+                () -> assertEquals(2, recordFileRepository.count())
+                , () -> assertEquals(2, transactionRepository.count())
+                , () -> assertEquals(cryptoUpdateTransactionBody.getAutoRenewPeriod().getSeconds(), dbAccountEntity
+                        .getAutoRenewPeriod())
+                , () -> assertArrayEquals(cryptoUpdateTransactionBody.getKey().toByteArray(), dbAccountEntity.getKey())
+                , () -> assertEquals(Utility
+                        .timeStampInNanos(cryptoUpdateTransactionBody.getExpirationTime()), dbAccountEntity
+                        .getExpiryTimeNs())
+        );
+    }
+
     @DisplayName("update account such that expiration timestamp overflows nanos_timestamp")
     @ParameterizedTest(name = "with seconds {0} and expectedNanosTimestamp {1}")
     @CsvSource({
@@ -922,6 +975,38 @@ public class RecordFileLoggerCryptoTest extends AbstractRecordFileLoggerTest {
         }
     }
 
+    @Test
+    void cryptoTransferExcluded() throws Exception {
+        CommonParserProperties.TransactionFilter filter = new CommonParserProperties.TransactionFilter();
+        filter.setTransaction(List.of(TransactionTypeEnum.CRYPTOTRANSFER));
+        commonParserProperties.getExclude().add(filter);
+        RecordFileLogger.setTransactionFilter(commonParserProperties.getFilter());
+        recordFileMetrics.startFile();
+
+        Transaction transaction = cryptoTransferTransaction();
+        TransactionBody transactionBody = TransactionBody.parseFrom(transaction.getBodyBytes());
+        TransactionRecord record = transactionRecordSuccess(transactionBody);
+
+        try {
+            parseRecordItemAndCommit(new RecordItem(transaction, record));
+        } finally {
+            commonParserProperties.getExclude().remove(filter);
+            RecordFileLogger.setTransactionFilter(commonParserProperties.getFilter());
+        }
+
+        assertAll(
+                // row counts
+                () -> assertEquals(1, recordFileRepository.count())
+                , () -> assertEquals(0, transactionRepository.count())
+                , () -> assertEquals(0, entityRepository.count())
+                , () -> assertEquals(0, cryptoTransferRepository.count())
+                , () -> assertEquals(0, nonFeeTransferRepository.count())
+
+                // neither the payer, node nor transferred accounts were looked up
+                , () -> assertEquals(0, recordFileMetrics.getFileNanos(RecordFileMetrics.Stage.RESOLVE))
+        );
+    }
+
     @Test
     void unknownTransactionResult() throws Exception {
         int unknownResult = -1000;
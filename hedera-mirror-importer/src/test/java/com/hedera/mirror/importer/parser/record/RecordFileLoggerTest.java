@@ -59,10 +59,45 @@ public class RecordFileLoggerTest extends AbstractRecordFileLoggerTest {
         assertEquals("456", recordFile.getPreviousHash());
     }
 
+    @Test
+    void commitTimestamp() throws Exception {
+        long firstFileId = RecordFileLogger.getFileId();
+        RecordFileLogger.closeFile("123", "");
+        assertEquals(RecordFileLogger.INIT_RESULT.OK, RecordFileLogger.initFile("TestFile"));
+        long secondFileId = RecordFileLogger.getFileId();
+        RecordFileLogger.closeFile("456", "123");
+
+        long beforeCommit = System.currentTimeMillis();
+        RecordFileLogger.commit(null, null);
+        long afterCommit = System.currentTimeMillis();
+
+        // Every file of the group is stamped with the time the group was committed
+        RecordFile firstFile = recordFileRepository.findById(firstFileId).get();
+        RecordFile secondFile = recordFileRepository.findById(secondFileId).get();
+        assertNotNull(firstFile.getCommitMs());
+        assertTrue(firstFile.getCommitMs() >= beforeCommit && firstFile.getCommitMs() <= afterCommit);
+        assertEquals(firstFile.getCommitMs(), secondFile.getCommitMs());
+    }
+
     @Test
     void rollback() throws Exception {
         RecordFileLogger.rollback();
         Optional<RecordFile> recordFile = recordFileRepository.findById(RecordFileLogger.getFileId());
         assertFalse(recordFile.isPresent());
     }
+
+    @Test
+    void rollbackFile() throws Exception {
+        RecordFileLogger.closeFile("123", "");
+        long firstFileId = RecordFileLogger.getFileId();
+        assertEquals(RecordFileLogger.INIT_RESULT.OK, RecordFileLogger.initFile("TestFile"));
+        long secondFileId = RecordFileLogger.getFileId();
+
+        RecordFileLogger.rollbackFile();
+        RecordFileLogger.commit(null, null);
+
+        // The file closed before the rolled back one in the same transaction is still committed
+        assertEquals("123", recordFileRepository.findById(firstFileId).get().getFileHash());
+        assertFalse(recordFileRepository.findById(secondFileId).isPresent());
+    }
 }
@@ -0,0 +1,66 @@
+package com.hedera.mirror.importer.parser.record;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RecordFileMetricsTest {
+
+    private MeterRegistry meterRegistry;
+    private RecordFileMetrics recordFileMetrics;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        recordFileMetrics = new RecordFileMetrics(meterRegistry);
+    }
+
+    @Test
+    void recordBatch() {
+        recordFileMetrics.startFile();
+        recordFileMetrics.recordBatch("t_transactions", TimeUnit.MILLISECONDS.toNanos(5L));
+
+        assertThat(batchTimer("t_transactions").count()).isEqualTo(1L);
+        assertThat(recordFileMetrics.getFileNanos(RecordFileMetrics.Stage.EXECUTE))
+                .isEqualTo(TimeUnit.MILLISECONDS.toNanos(5L));
+    }
+
+    @Test
+    void recordBatchUnknownTable() {
+        assertThat(meterRegistry.find("hedera.mirror.parse.batch").tag("table", "unknown").timer()).isNull();
+
+        recordFileMetrics.recordBatch("unknown", 1L);
+        recordFileMetrics.recordBatch("unknown", 1L);
+
+        assertThat(batchTimer("unknown").count()).isEqualTo(2L);
+    }
+
+    private Timer batchTimer(String table) {
+        return meterRegistry.get("hedera.mirror.parse.batch").tag("table", table).timer();
+    }
+}
@@ -28,6 +28,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import javax.annotation.Resource;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.io.FileUtils;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,10 +40,13 @@ import org.springframework.test.context.jdbc.Sql;
 import com.hedera.mirror.importer.FileCopier;
 import com.hedera.mirror.importer.IntegrationTest;
 import com.hedera.mirror.importer.domain.ApplicationStatusCode;
+import com.hedera.mirror.importer.domain.RecordFile;
 import com.hedera.mirror.importer.domain.StreamType;
 import com.hedera.mirror.importer.domain.Transaction;
 import com.hedera.mirror.importer.repository.ApplicationStatusRepository;
+import com.hedera.mirror.importer.repository.RecordFileRepository;
 import com.hedera.mirror.importer.repository.TransactionRepository;
+import com.hedera.mirror.importer.util.Utility;
 
 // Class manually commits so have to manually cleanup tables
 @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, scripts = "classpath:db/scripts/cleanup.sql")
@@ -60,6 +64,8 @@ public class RecordFileParserTest extends IntegrationTest {
     @Resource
     private TransactionRepository transactionRepository;
     @Resource
+    private RecordFileRepository recordFileRepository;
+    @Resource
     private RecordParserProperties parserProperties;
     private FileCopier fileCopier;
     private StreamType streamType;
@@ -69,6 +75,8 @@ public class RecordFileParserTest extends IntegrationTest {
         streamType = parserProperties.getStreamType();
         parserProperties.getMirrorProperties().setDataPath(dataPath);
         parserProperties.init();
+        parserProperties.setBackfill(new RecordParserProperties.BackfillProperties());
+        parserProperties.setGroupCommit(new RecordParserProperties.GroupCommitProperties());
         fileCopier = FileCopier.create(testPath, dataPath)
                 .from(streamType.getPath(), "v2", "record0.0.3")
                 .filterFiles("*.rcd")
@@ -119,6 +127,74 @@ public class RecordFileParserTest extends IntegrationTest {
         assertThat(transactionRepository.count()).isEqualTo(0L);
     }
 
+    @Test
+    void groupCommitFailedFile() throws Exception {
+        fileCopier.copy();
+        corruptSecondFile();
+        recordFileParser.parse();
+
+        // Only the failed file is rolled back, the file grouped before it is still committed
+        assertThat(Files.walk(parserProperties.getParsedPath()))
+                .filteredOn(p -> !p.toFile().isDirectory())
+                .hasSize(1)
+                .extracting(Path::getFileName)
+                .contains(Paths.get("2019-08-30T18_10_00.419072Z.rcd"));
+        assertThat(transactionRepository.count()).isGreaterThan(0L);
+        assertThat(recordFileRepository.findAll())
+                .extracting(RecordFile::getName)
+                .hasSize(1)
+                .allMatch(name -> name.endsWith("2019-08-30T18_10_00.419072Z.rcd"));
+    }
+
+    @Test
+    void groupCommitDisabled() throws Exception {
+        parserProperties.getGroupCommit().setEnabled(false);
+        fileCopier.copy();
+        corruptSecondFile();
+        recordFileParser.parse();
+
+        assertThat(Files.walk(parserProperties.getParsedPath()))
+                .filteredOn(p -> !p.toFile().isDirectory())
+                .hasSize(1)
+                .extracting(Path::getFileName)
+                .contains(Paths.get("2019-08-30T18_10_00.419072Z.rcd"));
+        assertThat(transactionRepository.count()).isGreaterThan(0L);
+    }
+
+    @Test
+    void lastHashSaved() throws Exception {
+        fileCopier.copy();
+        String lastHash = fileHash("2019-08-30T18_10_05.249678Z.rcd");
+        recordFileParser.parse();
+        assertThat(applicationStatusRepository.findByStatusCode(ApplicationStatusCode.LAST_PROCESSED_RECORD_HASH))
+                .isEqualTo(lastHash);
+    }
+
+    @Test
+    void lastHashBeforeFailedFile() throws Exception {
+        fileCopier.copy();
+        String firstHash = fileHash("2019-08-30T18_10_00.419072Z.rcd");
+        corruptSecondFile();
+        recordFileParser.parse();
+
+        // The hash of the first file is committed with it even though it was grouped with the failed file
+        assertThat(applicationStatusRepository.findByStatusCode(ApplicationStatusCode.LAST_PROCESSED_RECORD_HASH))
+                .isEqualTo(firstHash);
+    }
+
+    @Test
+    void lastHashSavedWithFile() throws Exception {
+        parserProperties.getGroupCommit().setEnabled(false);
+        fileCopier.copy();
+        String firstHash = fileHash("2019-08-30T18_10_00.419072Z.rcd");
+        corruptSecondFile();
+        recordFileParser.parse();
+
+        // The first file and its hash are committed together and the failed file leaves them unchanged
+        assertThat(applicationStatusRepository.findByStatusCode(ApplicationStatusCode.LAST_PROCESSED_RECORD_HASH))
+                .isEqualTo(firstHash);
+    }
+
     @Test
     void hashMismatch() throws Exception {
         applicationStatusRepository.updateStatusValue(ApplicationStatusCode.LAST_PROCESSED_RECORD_HASH, "123");
@@ -147,6 +223,49 @@ public class RecordFileParserTest extends IntegrationTest {
         Assertions.assertThat(transactionRepository.findAll()).hasSize(19 + 15);
     }
 
+    @Test
+    void backfill() throws Exception {
+        enableBackfill();
+        fileCopier.copy();
+        recordFileParser.parse();
+
+        assertThat(Files.walk(parserProperties.getParsedPath()))
+                .filteredOn(p -> !p.toFile().isDirectory())
+                .hasSize(2)
+                .extracting(Path::getFileName)
+                .contains(Paths.get("2019-08-30T18_10_05.249678Z.rcd"))
+                .contains(Paths.get("2019-08-30T18_10_00.419072Z.rcd"));
+        assertThat(transactionRepository.findAll()).hasSize(19 + 15);
+        assertThat(applicationStatusRepository.findByStatusCode(ApplicationStatusCode.LAST_PROCESSED_RECORD_HASH))
+                .isNotBlank();
+    }
+
+    @Test
+    void backfillHashMismatch() throws Exception {
+        enableBackfill();
+        applicationStatusRepository.updateStatusValue(ApplicationStatusCode.LAST_PROCESSED_RECORD_HASH, "123");
+        fileCopier.copy();
+        recordFileParser.parse();
+        assertThat(Files.walk(parserProperties.getParsedPath())).filteredOn(p -> !p.toFile().isDirectory()).hasSize(0);
+        assertThat(transactionRepository.count()).isEqualTo(0L);
+    }
+
+    @Test
+    void backfillCorruptFile() throws Exception {
+        enableBackfill();
+        fileCopier.copy();
+        corruptSecondFile();
+        recordFileParser.parse();
+
+        // The chain is only valid up to the corrupt file, so the files before it are still committed
+        assertThat(Files.walk(parserProperties.getParsedPath()))
+                .filteredOn(p -> !p.toFile().isDirectory())
+                .hasSize(1)
+                .extracting(Path::getFileName)
+                .contains(Paths.get("2019-08-30T18_10_00.419072Z.rcd"));
+        assertThat(transactionRepository.count()).isGreaterThan(0L).isLessThan(19L + 15L);
+    }
+
     // Bad record with invalid timestamp should fail the file parsing and rollback the transaction.
     @Test
     void badTimestampLongOverflowTest() throws Exception {
@@ -157,4 +276,21 @@ public class RecordFileParserTest extends IntegrationTest {
         assertThat(Files.walk(parserProperties.getParsedPath())).filteredOn(p -> !p.toFile().isDirectory()).hasSize(0);
         assertThat(transactionRepository.count()).isEqualTo(0L);
     }
+
+    private void enableBackfill() {
+        parserProperties.getBackfill().setEnabled(true);
+        parserProperties.getBackfill().setMinFiles(1);
+        parserProperties.getBackfill().setThreads(2);
+    }
+
+    private String fileHash(String fileName) {
+        Path file = dataPath.resolve(streamType.getPath()).resolve(streamType.getValid()).resolve(fileName);
+        return Hex.encodeHexString(Utility.getFileHash(file.toString()));
+    }
+
+    private void corruptSecondFile() throws Exception {
+        File recordFile = dataPath.resolve(streamType.getPath()).resolve(streamType.getValid())
+                .resolve("2019-08-30T18_10_05.249678Z.rcd").toFile();
+        FileUtils.writeStringToFile(recordFile, "corrupt", "UTF-8");
+    }
 }
@@ -21,12 +21,13 @@ package com.hedera.mirror.importer.repository;
  */
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import org.junit.jupiter.api.Test;
 
 import com.hedera.mirror.importer.domain.Entities;
+import com.hedera.mirror.importer.domain.EntityId;
+import com.hedera.mirror.importer.domain.EntityTypeEnum;
 
 public class EntityRepositoryTest extends AbstractRepositoryTest {
 
@@ -78,23 +79,16 @@ public class EntityRepositoryTest extends AbstractRepositoryTest {
     }
 
     @Test
-    void findEntityIdByNativeIds() {
-        var entityTypeId = entityTypeRepository.findByName("account").get().getId();
-
+    void encodedId() {
         var entity = new Entities();
-        entity.setEntityTypeId(entityTypeId);
+        entity.setEntityTypeId(EntityTypeEnum.ACCOUNT.getId());
         entity.setEntityShard(1L);
         entity.setEntityRealm(2L);
         entity.setEntityNum(3L);
-        final var expected = entityRepository.save(entity);
-
-        var entityId = entityRepository.findEntityIdByNativeIds(entity.getEntityShard(), entity.getEntityRealm(),
-                entity.getEntityNum()).get();
+        entity = entityRepository.save(entity);
 
-        assertAll(() -> assertEquals(expected.getId(), entityId.getId())
-                ,() -> assertEquals(expected.getEntityShard(), entityId.getEntityShard())
-                ,() -> assertEquals(expected.getEntityRealm(), entityId.getEntityRealm())
-                ,() -> assertEquals(expected.getEntityNum(), entityId.getEntityNum())
-        );
+        assertEquals((1L << 48) | (2L << 32) | 3L, entity.getId());
+        assertEquals(EntityId.encode(1L, 2L, 3L), entity.getId());
+        assertThat(entityRepository.findById(entity.getId())).get().isEqualTo(entity);
     }
 }
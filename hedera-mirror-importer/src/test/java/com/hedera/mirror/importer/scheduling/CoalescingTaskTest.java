@@ -0,0 +1,79 @@
+package com.hedera.mirror.importer.scheduling;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class CoalescingTaskTest {
+
+    @Test
+    void runs() {
+        AtomicInteger runs = new AtomicInteger();
+        CoalescingTask task = new CoalescingTask(runs::incrementAndGet);
+        task.run();
+        task.run();
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void coalescesTriggersDuringRun() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingTask task = new CoalescingTask(() -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            if (runs.incrementAndGet() == 1) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            concurrent.decrementAndGet();
+        });
+
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+        executor.execute(task);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 3; i++) {
+            executor.execute(task); // Return immediately since the first run is still going
+        }
+        for (int i = 0; i < 500 && executor.getCompletedTaskCount() < 3; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getCompletedTaskCount()).isEqualTo(3);
+        executor.shutdown();
+        release.countDown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(runs).hasValue(2);
+        assertThat(maxConcurrent).hasValue(1);
+    }
+}
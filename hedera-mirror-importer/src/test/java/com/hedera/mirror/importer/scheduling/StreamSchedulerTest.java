@@ -0,0 +1,163 @@
+package com.hedera.mirror.importer.scheduling;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hedera.mirror.importer.domain.StreamType;
+import com.hedera.mirror.importer.downloader.Downloader;
+import com.hedera.mirror.importer.downloader.DownloaderProperties;
+import com.hedera.mirror.importer.parser.balance.BalanceFileParser;
+import com.hedera.mirror.importer.parser.event.EventParserProperties;
+import com.hedera.mirror.importer.parser.event.EventStreamFileParser;
+import com.hedera.mirror.importer.parser.record.RecordFileParser;
+import com.hedera.mirror.importer.parser.record.RecordParserProperties;
+
+@ExtendWith(MockitoExtension.class)
+public class StreamSchedulerTest {
+
+    private static final Duration FREQUENCY = Duration.ofHours(1L); // Only the initial run is scheduled during a test
+
+    @Mock
+    private Downloader downloader;
+    @Mock
+    private DownloaderProperties downloaderProperties;
+    @Mock
+    private RecordFileParser recordFileParser;
+    @Mock
+    private RecordParserProperties recordParserProperties;
+    @Mock
+    private EventStreamFileParser eventStreamFileParser;
+    @Mock
+    private EventParserProperties eventParserProperties;
+    @Mock
+    private BalanceFileParser balanceFileParser;
+
+    private MeterRegistry meterRegistry;
+    private StreamScheduler streamScheduler;
+
+    @BeforeEach
+    void beforeEach() {
+        when(downloader.getDownloaderProperties()).thenReturn(downloaderProperties);
+        when(downloaderProperties.getStreamType()).thenReturn(StreamType.RECORD);
+        when(downloaderProperties.getFrequency()).thenReturn(FREQUENCY);
+        when(recordParserProperties.getFrequency()).thenReturn(FREQUENCY);
+        when(eventParserProperties.getFrequency()).thenReturn(FREQUENCY);
+
+        meterRegistry = new SimpleMeterRegistry();
+        streamScheduler = new StreamScheduler(new StreamSchedulerProperties(), meterRegistry, List.of(downloader),
+                recordFileParser, recordParserProperties, eventStreamFileParser, eventParserProperties,
+                balanceFileParser);
+    }
+
+    @AfterEach
+    void afterEach() {
+        streamScheduler.stop();
+    }
+
+    @Test
+    void coalescesOverlappingTriggers() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            if (runs.incrementAndGet() == 1) {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            concurrent.decrementAndGet();
+            return null;
+        }).when(recordFileParser).parse();
+
+        streamScheduler.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue(); // The scheduled parse is running
+
+        ArgumentCaptor<Runnable> onDownload = ArgumentCaptor.forClass(Runnable.class);
+        verify(downloader).onDownload(onDownload.capture());
+        for (int i = 0; i < 3; i++) {
+            onDownload.getValue().run();
+        }
+
+        // The initial download and the three triggers complete on the other thread while the parse is still running
+        FunctionCounter completed = meterRegistry.get("executor.completed").tag("name", "record").functionCounter();
+        for (int i = 0; i < 500 && completed.count() < 4; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(completed.count()).isEqualTo(4);
+
+        release.countDown();
+        verify(recordFileParser, after(500).times(2)).parse();
+        assertThat(maxConcurrent).hasValue(1);
+    }
+
+    @Test
+    void stopsBalanceWatcher() throws Exception {
+        AtomicReference<Thread> watcherThread = new AtomicReference<>();
+        CountDownLatch watching = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            watcherThread.set(Thread.currentThread());
+            watching.countDown();
+            try {
+                new CountDownLatch(1).await(); // Watches until interrupted
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        }).when(balanceFileParser).watch();
+
+        streamScheduler.start();
+        assertThat(watching.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread thread = watcherThread.get();
+        assertThat(thread.isDaemon()).isTrue();
+        assertThat(thread.getName()).startsWith("balance-watcher-");
+
+        streamScheduler.stop();
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        thread.join(5000L);
+        assertThat(thread.isAlive()).isFalse();
+    }
+}
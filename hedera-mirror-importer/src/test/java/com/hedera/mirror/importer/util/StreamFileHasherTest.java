@@ -0,0 +1,159 @@
+package com.hedera.mirror.importer.util;
+/*-
+ * ‌
+ * Hedera Mirror Node
+ * ​
+ * Copyright (C) 2019 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.hedera.mirror.importer.parser.record.RecordFileParser;
+
+public class StreamFileHasherTest {
+
+    @TempDir
+    Path dataPath;
+
+    @ParameterizedTest
+    @CsvSource({
+            "data/recordstreams/v1/record0.0.3/2019-07-01T14:13:00.317763Z.rcd, 1",
+            "data/recordstreams/v1/record0.0.3/2019-07-01T14:13:00.317763Z.rcd, 7",
+            "data/recordstreams/v1/record0.0.3/2019-07-01T14:13:00.317763Z.rcd, 8192",
+            "data/recordstreams/v2/record0.0.3/2019-08-30T18_10_00.419072Z.rcd, 1",
+            "data/recordstreams/v2/record0.0.3/2019-08-30T18_10_00.419072Z.rcd, 7",
+            "data/recordstreams/v2/record0.0.3/2019-08-30T18_10_00.419072Z.rcd, 8192",
+            "data/accountBalances/balance0.0.3/2019-08-30T18_15_00.016002001Z_Balances.csv, 1",
+            "data/accountBalances/balance0.0.3/2019-08-30T18_15_00.016002001Z_Balances.csv, 8192"
+    })
+    void sameAsFileHash(String path, int chunkSize) throws Exception {
+        File file = Utility.getResource(path);
+        assertThat(hash(file, chunkSize)).isNotNull().isEqualTo(Utility.getFileHash(file.getPath()));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2, 1",
+            "2, 7",
+            "2, 8192",
+            "3, 1",
+            "3, 7",
+            "3, 8192"
+    })
+    void sameAsEventFileHash(int version, int chunkSize) throws Exception {
+        File file = eventFile(version);
+        assertThat(hash(file, chunkSize)).isNotNull().isEqualTo(Utility.getFileHash(file.getPath()));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "data/recordstreams/v1/record0.0.3/2019-07-01T14:13:00.317763Z.rcd, 7",
+            "data/recordstreams/v2/record0.0.3/2019-08-30T18_10_00.419072Z.rcd, 1",
+            "data/recordstreams/v2/record0.0.3/2019-08-30T18_10_00.419072Z.rcd, 8192"
+    })
+    void previousHash(String path, int chunkSize) throws Exception {
+        File file = Utility.getResource(path);
+        StreamFileHasher hasher = new StreamFileHasher(file.getName());
+        hash(file, chunkSize, hasher);
+        assertThat(Hex.encodeHexString(hasher.getPreviousHash()))
+                .isEqualTo(RecordFileParser.readPrevFileHash(file.getPath()));
+    }
+
+    @Test
+    void previousHashOfEventFile() throws Exception {
+        byte[] previousHash = new byte[48];
+        Arrays.fill(previousHash, (byte) 7);
+        File file = eventFile(3);
+        StreamFileHasher hasher = new StreamFileHasher(file.getName());
+        hash(file, 7, hasher);
+        assertThat(hasher.getPreviousHash()).isEqualTo(previousHash);
+    }
+
+    @Test
+    void noPreviousHash() {
+        StreamFileHasher hasher = new StreamFileHasher("2019-08-30T18_15_00.016002001Z_Balances.csv");
+        hasher.update(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+        assertThat(hasher.getPreviousHash()).isNull();
+    }
+
+    @Test
+    void invalidEventFile() throws Exception {
+        StreamFileHasher hasher = new StreamFileHasher("2019-08-30T18_10_00.419072Z.evt");
+        hasher.update(ByteBuffer.wrap(new byte[] {0, 0, 0, 1, FileDelimiter.EVENT_TYPE_PREV_HASH}));
+        assertThat(hasher.digest()).isNull();
+    }
+
+    @Test
+    void incompleteRecordFile() throws Exception {
+        File file = Utility.getResource("data/recordstreams/v2/record0.0.3/2019-08-30T18_10_00.419072Z.rcd");
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        StreamFileHasher hasher = new StreamFileHasher(file.getName());
+        hasher.update(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThat(hasher.digest()).isNull();
+    }
+
+    @Test
+    void invalidRecordFile() {
+        StreamFileHasher hasher = new StreamFileHasher("2019-08-30T18_10_00.419072Z.rcd");
+        hasher.update(ByteBuffer.wrap(new byte[] {0, 0, 0, 2, 0, 0, 0, 3, 9}));
+        assertThat(hasher.digest()).isNull();
+    }
+
+    private byte[] hash(File file, int chunkSize) throws Exception {
+        return hash(file, chunkSize, new StreamFileHasher(file.getName()));
+    }
+
+    private byte[] hash(File file, int chunkSize, StreamFileHasher hasher) throws Exception {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            ByteBuffer chunk = ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i));
+            hasher.update(chunk);
+            assertThat(chunk.hasRemaining()).isFalse();
+        }
+
+        return hasher.digest();
+    }
+
+    // Version 3 hashes the content after the previous hash separately, while version 2 hashes the file as a whole
+    private File eventFile(int version) throws Exception {
+        byte[] previousHash = new byte[48];
+        Arrays.fill(previousHash, (byte) 7);
+
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + 1 + previousHash.length + 3);
+        buffer.putInt(version);
+        buffer.put(FileDelimiter.EVENT_TYPE_PREV_HASH);
+        buffer.put(previousHash);
+        buffer.put(FileDelimiter.EVENT_STREAM_START_NO_TRANS_WITH_VERSION);
+        buffer.put(FileDelimiter.EVENT_STREAM_START_WITH_VERSION);
+        buffer.put(FileDelimiter.EVENT_STREAM_START_WITH_VERSION);
+
+        Path file = dataPath.resolve("2019-08-30T18_10_00.419072Z.evt");
+        Files.write(file, buffer.array());
+        return file.toFile();
+    }
+}
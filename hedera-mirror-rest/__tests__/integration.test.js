@@ -169,16 +169,22 @@ const flywayMigrate = function() {
 const shard = 0;
 const realm = 15;
 const accountEntityIds = {};
+
+// Encodes the entity id the same way as EntityId.encode in the importer
+const encodeEntityId = function(entityShard, entityRealm, entityNum) {
+  return entityShard * 2 ** 48 + entityRealm * 2 ** 32 + entityNum;
+};
+
 const addAccount = async function(accountId, exp_tm_nanosecs = null) {
   let e = accountEntityIds[accountId];
   if (e) {
     return e;
   }
-  let res = await sqlConnection.query(
-    'insert into t_entities (fk_entity_type_id, entity_shard, entity_realm, entity_num, exp_time_ns) values ($1, $2, $3, $4, $5) returning id;',
-    [1, shard, realm, accountId, exp_tm_nanosecs]
+  e = encodeEntityId(shard, realm, accountId);
+  await sqlConnection.query(
+    'insert into t_entities (id, fk_entity_type_id, entity_shard, entity_realm, entity_num, exp_time_ns) values ($1, $2, $3, $4, $5, $6);',
+    [e, 1, shard, realm, accountId, exp_tm_nanosecs]
   );
-  e = res.rows[0]['id'];
   accountEntityIds[accountId] = e;
   return e;
 };